@@ -1,9 +1,12 @@
 package com.project.ui;
 
+import com.project.springbootjavafx.services.EntitiesChangedEvent;
+import javafx.application.Platform;
 import javafx.scene.control.TableView;
 import javafx.scene.layout.StackPane;
 import javafx.scene.text.Text;
 import lombok.Getter;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 /**
@@ -13,7 +16,10 @@ import org.springframework.stereotype.Component;
  *
  * <p>The default content is a text message prompting the user to select a tab from the left sidebar.
  * The class provides methods to update the displayed content with a new {@code TableView} and to scroll
- * to the bottom of the table.</p>
+ * to a record of the table.</p>
+ *
+ * <p>A table opened for an entity type is rebuilt when another instance of the application changes records of
+ * that type (see {@link #onEntitiesChanged(EntitiesChangedEvent)}).</p>
  *
  * <p>Annotations used:</p>
  *  <ul>
@@ -34,6 +40,16 @@ public class MainContent {
      */
     private TableView<?> tabelView;
 
+    /**
+     * The entity type shown in the current table, or {@code null} if the table is not bound to one.
+     */
+    private volatile Class<?> displayedType;
+
+    /**
+     * Rebuilds the current table; {@code null} if the table is not bound to an entity type.
+     */
+    private volatile Runnable reload;
+
     /**
      * Constructs a new {@code MainContent} instance.
      * Initializes the {@code view} with default styling and a default message prompting the user
@@ -55,18 +71,58 @@ public class MainContent {
      * @param tableView the new {@code TableView} to be displayed
      */
     public <T> void updateContent(TableView<T> tableView) {
+        updateContent(tableView, null, null);
+    }
+
+    /**
+     * Updates the main content area with a {@link TableView} of one entity type.
+     * The table is rebuilt with {@code reload} whenever another instance of the application changes
+     * records of the type.
+     *
+     * @param <T> the type of items contained in the {@code TableView}
+     * @param tableView the new {@code TableView} to be displayed
+     * @param type the entity type shown in the table
+     * @param reload rebuilds and displays the table again
+     */
+    public <T> void updateContent(TableView<T> tableView, Class<?> type, Runnable reload) {
+        this.displayedType = type;
+        this.reload = reload;
         this.tabelView = tableView;
         view.getChildren().clear();
         view.getChildren().add(tableView);
     }
 
     /**
-     * Scrolls to the bottom of the currently displayed {@link TableView}.
-     * This method scrolls the table view to the last item in the list.
+     * Scrolls the currently displayed {@link TableView} to the record with the given key and selects it.
+     * A paged table (see {@link PagedTableModel}) first loads the pages up to the record, because the rows are
+     * ordered by key and a new record is not necessarily on the last page.
      *
-     * @param <T> the type of items contained in the {@code TableView}
+     * @param key the key of the record, for example the code of a hotel that was just added
+     */
+    public void scrollTo(Object key) {
+        PagedTableModel<?, ?> model = tabelView == null ? null : PagedTableModel.of(tabelView);
+        if (model != null) {
+            model.scrollTo(key);
+        }
+    }
+
+    /**
+     * Rebuilds the displayed table when another instance of the application changed records of its type.
+     * The own changes are already shown by the dialogs that made them, so they are ignored.
+     *
+     * @param event the change event
      */
-    public <T> void scrollToBottom(){
-        tabelView.scrollTo(tabelView.getItems().size());
+    @EventListener
+    public void onEntitiesChanged(EntitiesChangedEvent event) {
+        Class<?> type = displayedType;
+        Runnable action = reload;
+        if (event.remote() && type != null && action != null && event.types().contains(type)) {
+            Platform.runLater(() -> {
+                // the user may have opened another table in the meantime
+                if (displayedType == type) {
+                    action.run();
+                }
+            });
+        }
     }
 }
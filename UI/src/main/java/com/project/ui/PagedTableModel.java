@@ -0,0 +1,269 @@
+package com.project.ui;
+
+import com.project.springbootjavafx.services.AbstractServices;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.Skin;
+import javafx.scene.control.TableView;
+import lombok.Getter;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * The {@code PagedTableModel} class feeds a {@link TableView} page by page instead of loading a whole table at once.
+ *
+ * <p>
+ * The model asks a page loader for the first page and appends the next page whenever the vertical scroll bar of the
+ * table gets close to its end. Pages are keyed on the id of the last loaded row, so each page is a single small query
+ * regardless of how many rows the table holds. The loader is usually {@link AbstractServices#getRows(Object, int)}
+ * (read-only projections) or {@link AbstractServices#getPage(Object, int)} (entities).
+ * </p>
+ *
+ * <p>
+ * A table without a scroll bar cannot be scrolled to its end, so after every layout the model keeps loading pages
+ * while the loaded rows do not fill the table. {@link #scrollTo(Object)} loads pages until a given row is loaded,
+ * for dialogs that want to show the record they just added; the model of a table is found with
+ * {@link #of(TableView)}.
+ * </p>
+ *
+ * <p>
+ * Generic type parameters:
+ * </p>
+ * <ul>
+ *   <li><b>T</b> - the type of the rows shown in the table</li>
+ *   <li><b>ID</b> - the type of the key the pages are positioned on</li>
+ * </ul>
+ */
+public class PagedTableModel<T, ID> {
+
+    /**
+     * The default number of rows loaded with one query.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * The part of the scroll range after which the next page is requested.
+     */
+    private static final double LOAD_THRESHOLD = 0.9;
+
+    /**
+     * Loads the page of the given size that follows the given key.
+     */
+    private final BiFunction<ID, Integer, Slice<T>> pageLoader;
+
+    /**
+     * Extracts the key of a row, used as the position of the next page.
+     */
+    private final Function<T, ID> keyExtractor;
+
+    /**
+     * The table filled by this model.
+     */
+    private final TableView<T> tableView;
+
+    /**
+     * The number of rows loaded with one query.
+     */
+    private final int pageSize;
+
+    /**
+     * The rows loaded so far, shared with the table.
+     */
+    @Getter
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+
+    /**
+     * The identifier of the last loaded row, or {@code null} before the first page.
+     */
+    private ID lastId;
+
+    /**
+     * Whether the loader reported another page after the last loaded one.
+     */
+    @Getter
+    private boolean hasNext = true;
+
+    /**
+     * Set while a page is being loaded, to ignore scroll events fired by the load itself.
+     */
+    private boolean loading;
+
+    /**
+     * The vertical scroll bar of the table, or {@code null} before the table has its skin.
+     */
+    private ScrollBar scrollBar;
+
+    /**
+     * Constructs a new {@code PagedTableModel} showing entities loaded with {@link AbstractServices#getPage(Object, int)}.
+     *
+     * @param services  the service used to load the pages
+     * @param tableView the table to fill
+     */
+    public PagedTableModel(AbstractServices<T, ID> services, TableView<T> tableView) {
+        this(services::getPage, services::getId, tableView, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Constructs a new {@code PagedTableModel}.
+     *
+     * @param pageLoader   loads the page of the given size that follows the given key ({@code null} for the first page)
+     * @param keyExtractor extracts the key of a row
+     * @param tableView    the table to fill
+     * @param pageSize     the number of rows loaded with one query
+     */
+    public PagedTableModel(BiFunction<ID, Integer, Slice<T>> pageLoader, Function<T, ID> keyExtractor,
+                           TableView<T> tableView, int pageSize) {
+        this.pageLoader = pageLoader;
+        this.keyExtractor = keyExtractor;
+        this.tableView = tableView;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Returns the model filling the given table.
+     *
+     * @param tableView the table
+     * @return the model attached to the table, or {@code null} if the table is not paged
+     */
+    public static PagedTableModel<?, ?> of(TableView<?> tableView) {
+        return (PagedTableModel<?, ?>) tableView.getProperties().get(PagedTableModel.class);
+    }
+
+    /**
+     * Binds the model to the table and loads the first page.
+     *
+     * <p>
+     * The scroll bar listener is installed once the table has its skin, because the scroll bars are created by it.
+     * </p>
+     */
+    public void attach() {
+        tableView.setItems(items);
+        tableView.getProperties().put(PagedTableModel.class, this);
+        whenSkinned(this::installScrollListener);
+        // the table is laid out after every page and every resize; a table without a scroll bar needs more rows
+        tableView.needsLayoutProperty().addListener((obs, oldValue, needsLayout) -> {
+            if (!needsLayout) {
+                Platform.runLater(this::fillViewport);
+            }
+        });
+        loadNextPage();
+    }
+
+    /**
+     * Loads pages until the row with the given key is loaded, then scrolls to it and selects it.
+     *
+     * <p>
+     * Nothing is scrolled if the table has no such row, for example because the record was deleted.
+     * </p>
+     *
+     * @param key the key of the row to show
+     */
+    public void scrollTo(Object key) {
+        int index = indexOf(key, 0);
+        while (index < 0 && hasNext) {
+            int loaded = items.size();
+            loadNextPage();
+            index = indexOf(key, loaded);
+        }
+        if (index >= 0) {
+            int row = index;
+            whenSkinned(() -> {
+                tableView.scrollTo(row);
+                tableView.getSelectionModel().clearAndSelect(row);
+            });
+        }
+    }
+
+    /**
+     * Loads the next page and appends it to the table, if there is one.
+     */
+    public void loadNextPage() {
+        if (loading || !hasNext) {
+            return;
+        }
+        loading = true;
+        try {
+            Slice<T> page = pageLoader.apply(lastId, pageSize);
+            List<T> content = page.getContent();
+            if (!content.isEmpty()) {
+                lastId = keyExtractor.apply(content.get(content.size() - 1));
+                items.addAll(content);
+            }
+            hasNext = page.hasNext();
+        } finally {
+            loading = false;
+        }
+    }
+
+    /**
+     * Loads the next page if the loaded rows fit in the table, which then shows no vertical scroll bar.
+     */
+    private void fillViewport() {
+        if (scrollBar != null && !scrollBar.isVisible()) {
+            loadNextPage();
+        }
+    }
+
+    /**
+     * Returns the position of the row with the given key.
+     *
+     * @param key  the key of the row
+     * @param from the position the search starts at
+     * @return the position of the row, or {@code -1} if it is not loaded
+     */
+    private int indexOf(Object key, int from) {
+        for (int i = from; i < items.size(); i++) {
+            if (Objects.equals(keyExtractor.apply(items.get(i)), key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Runs an action once the table has its skin, which handles the scrolling and owns the scroll bars.
+     *
+     * @param action the action to run
+     */
+    private void whenSkinned(Runnable action) {
+        if (tableView.getSkin() != null) {
+            action.run();
+            return;
+        }
+        tableView.skinProperty().addListener(new ChangeListener<>() {
+            @Override
+            public void changed(ObservableValue<? extends Skin<?>> obs, Skin<?> oldSkin, Skin<?> newSkin) {
+                if (newSkin != null) {
+                    tableView.skinProperty().removeListener(this);
+                    action.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Finds the vertical scroll bar of the table and requests the next page when it is scrolled near the end.
+     */
+    private void installScrollListener() {
+        for (Node node : tableView.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                scrollBar = bar;
+                bar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                    if (newValue.doubleValue() >= bar.getMax() * LOAD_THRESHOLD) {
+                        loadNextPage();
+                    }
+                });
+            }
+        }
+    }
+}
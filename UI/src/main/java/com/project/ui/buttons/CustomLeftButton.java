@@ -1,11 +1,13 @@
 package com.project.ui.buttons;
 
+import com.project.springbootjavafx.projections.GridRow;
 import com.project.springbootjavafx.services.AbstractServices;
 import com.project.ui.MainContent;
+import com.project.ui.PagedTableModel;
 import com.project.ui.RightSidebar;
 import com.project.ui.SpringContextHolder;
 import javafx.beans.property.SimpleBooleanProperty;
-import javafx.collections.FXCollections;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.control.Button;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
@@ -16,7 +18,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import java.lang.reflect.Method;
-import java.util.List;
+import java.lang.reflect.RecordComponent;
 import java.util.ArrayList;
 import static org.springframework.util.StringUtils.capitalize;
 
@@ -25,9 +27,10 @@ import static org.springframework.util.StringUtils.capitalize;
  *
  * <p>
  * This button is designed to be placed in the left sidebar of the user interface and, upon being clicked,
- * dynamically generates a {@link TableView} for a given entity type. It retrieves the entity's field information
- * from an {@link AbstractServices} instance and creates table columns accordingly. It also updates the right sidebar
- * with context-sensitive actions based on the selected button.
+ * dynamically generates a {@link TableView} for a given entity type. It retrieves the columns of the entity's read-only
+ * grid projection (or, if there is none, the entity's field information) from an {@link AbstractServices} instance and
+ * creates table columns accordingly. It also updates the right sidebar with context-sensitive actions based on the
+ * selected button.
  * </p>
  *
  * <p>
@@ -83,11 +86,11 @@ public class CustomLeftButton<T, ID> extends Button {
      *   <li>Retrieves the {@link MainContent} bean from the Spring context.</li>
      *   <li>Retrieves the {@link RightSidebar} bean from the Spring context and updates its buttons
      *       based on the current selection.</li>
-     *   <li>Creates a new {@link TableView} for the entity type T.</li>
-     *   <li>Iterates through the list of field types, dynamically creating a table column for each field.
-     *       Boolean fields are handled with a checkbox cell; all other types use a standard property cell.</li>
-     *   <li>Fetches all data of type T from the associated service and populates the table view.</li>
-     *   <li>Updates the main content area with the newly created table view.</li>
+     *   <li>If the service provides a grid projection ({@link AbstractServices#getRowClass()}), builds the table
+     *       from the read-only rows with {@link #createRowTable(Class)}; otherwise builds it from the entity
+     *       fields with {@link #createEntityTable()}.</li>
+     *   <li>Updates the main content area with the newly created table view, bound to the entity type so that it
+     *       is rebuilt after changes made by another instance of the application.</li>
      * </ol>
      */
     public void onClick() {
@@ -98,6 +101,69 @@ public class CustomLeftButton<T, ID> extends Button {
         RightSidebar rightSidebar = SpringContextHolder.getContext().getBean(RightSidebar.class);
         rightSidebar.updateButtons(this);
 
+        Class<? extends GridRow<ID>> rowClass = services.getRowClass();
+        if (rowClass != null) {
+            mainContent.updateContent(createRowTable(rowClass), services.getDomainClass(), this::onClick);
+        } else {
+            mainContent.updateContent(createEntityTable(), services.getDomainClass(), this::onClick);
+        }
+    }
+
+    /**
+     * Creates a table showing read-only grid rows of the entity.
+     *
+     * <p>
+     * A column is created for every component of the row record, in declaration order. Boolean components are
+     * shown with a checkbox cell. The rows are loaded page by page with {@link AbstractServices#getRows(Object, int)}
+     * through a {@link PagedTableModel}.
+     * </p>
+     *
+     * @param rowClass the row record class of the entity
+     * @return the new table view
+     */
+    @SuppressWarnings("unchecked")
+    private TableView<GridRow<ID>> createRowTable(Class<? extends GridRow<ID>> rowClass) {
+        TableView<GridRow<ID>> tableView = new TableView<>();
+
+        for (RecordComponent component : rowClass.getRecordComponents()) {
+            Method accessor = component.getAccessor();
+
+            if (component.getType() == Boolean.class || component.getType() == boolean.class) {
+                TableColumn<GridRow<ID>, Boolean> booleanColumn = new TableColumn<>(component.getName());
+                booleanColumn.setCellValueFactory(param ->
+                        new SimpleBooleanProperty(Boolean.TRUE.equals(readComponent(accessor, param.getValue()))));
+                booleanColumn.setCellFactory(CheckBoxTableCell.forTableColumn(booleanColumn));
+                tableView.getColumns().add(booleanColumn);
+            } else {
+                TableColumn<GridRow<ID>, Object> column = new TableColumn<>(component.getName());
+                column.setCellValueFactory(param -> new SimpleObjectProperty<>(readComponent(accessor, param.getValue())));
+                tableView.getColumns().add(column);
+            }
+        }
+
+        // Load the rows page by page as the user scrolls
+        new PagedTableModel<GridRow<ID>, ID>(
+                (after, size) -> services.getRows(after, size).map(row -> (GridRow<ID>) row),
+                GridRow::key,
+                tableView,
+                PagedTableModel.DEFAULT_PAGE_SIZE
+        ).attach();
+
+        return tableView;
+    }
+
+    /**
+     * Creates a table showing entities of type T.
+     *
+     * <p>
+     * A column is created for every entry of the list of field types. Boolean fields are handled with a checkbox
+     * cell; all other types use a standard property cell. The entities are loaded page by page through a
+     * {@link PagedTableModel}.
+     * </p>
+     *
+     * @return the new table view
+     */
+    private TableView<T> createEntityTable() {
         TableView<T> tableView = new TableView<>();
 
         for (Pair<String, String> fieldPair : fieldsTypes) {
@@ -123,10 +189,24 @@ public class CustomLeftButton<T, ID> extends Button {
             }
         }
 
-        // Retrieve data from the service and set it into the table
-        List<T> data = services.getAll();
-        tableView.setItems(FXCollections.observableArrayList(data));
+        // Load the data page by page as the user scrolls
+        new PagedTableModel<>(services, tableView).attach();
+
+        return tableView;
+    }
 
-        mainContent.updateContent(tableView);
+    /**
+     * Reads one component of a grid row.
+     *
+     * @param accessor the accessor method of the record component
+     * @param row      the row
+     * @return the value of the component, or {@code null} if it cannot be read
+     */
+    private static Object readComponent(Method accessor, GridRow<?> row) {
+        try {
+            return accessor.invoke(row);
+        } catch (Exception e) {
+            return null;
+        }
     }
 }
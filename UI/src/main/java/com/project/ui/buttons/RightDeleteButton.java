@@ -1,11 +1,10 @@
 package com.project.ui.buttons;
 
-import com.project.ui.MainContent;
-import com.project.ui.SpringContextHolder;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import com.project.springbootjavafx.services.AbstractServices;
+import com.project.springbootjavafx.services.DeletePreview;
 import javafx.scene.layout.GridPane;
 
 /**
@@ -18,8 +17,7 @@ import javafx.scene.layout.GridPane;
  * When this button is clicked, it displays a dialog prompting the user to enter the ID (or name)
  * of the record to delete. The button then validates the input, checks whether the record exists
  * using the provided service, and if so, attempts to delete it. After a successful deletion, the
- * associated left button's {@code onClick()} method is invoked to refresh the table view, and
- * the main content view is scrolled to the bottom.
+ * associated left button's {@code onClick()} method is invoked to refresh the table view.
  * </p>
  *
  * @param <T>  the entity type associated with the record
@@ -80,9 +78,11 @@ public class RightDeleteButton<T, ID> extends Button {
      * <ol>
      *   <li>Validates that the ID field is not empty.</li>
      *   <li>Checks if a record with the specified ID exists using the associated service.</li>
-     *   <li>If the record exists, attempts to delete it; otherwise, displays an error alert.</li>
+     *   <li>If the record exists, counts the records deleted together with it and, if there are any, asks the user
+     *       to confirm; otherwise, displays an error alert.</li>
+     *   <li>Deletes the record with everything it owns.</li>
      *   <li>Upon successful deletion, refreshes the table view by invoking the {@code onClick()} method
-     *       of the associated left sidebar button and scrolls the main content view to the bottom.</li>
+     *       of the associated left sidebar button.</li>
      * </ol>
      */
     protected void onClick() {
@@ -125,17 +125,18 @@ public class RightDeleteButton<T, ID> extends Button {
                 return;
             }
             try {
-                if (clazz == String.class) {
-                    services.delete(id);
-                } else {
-                    services.delete(Integer.valueOf(id));
+                Object klucz = clazz == String.class ? id : Integer.valueOf(id);
+                // Show what else goes with the record before deleting it.
+                DeletePreview preview = services.previewDelete(klucz);
+                if (preview.suma() > 1 && !confirm("Usunięte zostaną również powiązane rekordy:\n" + preview.opis())) {
+                    return;
                 }
+                services.delete(klucz);
                 // Record deletion successful.
                 showAlert(Alert.AlertType.INFORMATION, "Sukces", "Rekord został usunięty.");
 
                 // Refresh the table view in the left sidebar.
                 leftButton.onClick();
-                scrollDonw();
             } catch (Exception e) {
                 showAlert(Alert.AlertType.ERROR, "Błąd", "Nie udało się usunąć rekordu: " + e.getMessage());
             }
@@ -143,16 +144,16 @@ public class RightDeleteButton<T, ID> extends Button {
     }
 
     /**
-     * Scrolls the main content view to the bottom.
+     * Asks the user to confirm the deletion of the records listed in the message.
      *
-     * <p>
-     * This method retrieves the {@link MainContent} bean from the Spring context and calls its
-     * {@code scrollToBottom()} method to ensure that the most recent changes are visible.
-     * </p>
+     * @param message the records that will be deleted
+     * @return {@code true} if the user confirmed the deletion
      */
-    private void scrollDonw() {
-        MainContent mainContent = SpringContextHolder.getContext().getBean(MainContent.class);
-        mainContent.scrollToBottom();
+    private boolean confirm(String message) {
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION, message, ButtonType.YES, ButtonType.NO);
+        alert.setTitle("Potwierdź usunięcie");
+        alert.setHeaderText(null);
+        return alert.showAndWait().filter(ButtonType.YES::equals).isPresent();
     }
 
     /**
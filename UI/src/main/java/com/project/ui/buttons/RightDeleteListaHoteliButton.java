@@ -85,7 +85,7 @@ public class RightDeleteListaHoteliButton extends Button {
      * <ol>
      *   <li>Invokes {@link #wybierzWycieczke()} to prompt the user to select a trip.</li>
      *   <li>Calls {@link #wybierzPokoje(Wycieczki)} to let the user select one or more rooms associated with the selected trip.</li>
-     *   <li>For each selected room, deletes the hotel list using {@link ListyHoteliService#usunDlaPokoju(Pokoje)}.</li>
+     *   <li>Deletes the hotel lists of all selected rooms at once using {@link ListyHoteliService#usunDlaPokoi(List)}.</li>
      *   <li>Updates the {@link PokojeService} to mark that the selected rooms no longer have an associated hotel list.</li>
      *   <li>Displays an information alert indicating success, then refreshes the left sidebar view by calling {@code leftButton.onClick()}.</li>
      * </ol>
@@ -96,7 +96,7 @@ public class RightDeleteListaHoteliButton extends Button {
 
         if (pokoje == null) return;
 
-        pokoje.forEach(listyHoteliService::usunDlaPokoju);
+        listyHoteliService.usunDlaPokoi(pokoje);
         pokojeService.setListaHoteliFalse(pokoje);
 
         showAlert(Alert.AlertType.INFORMATION, "Sukces", "Usunięto listy hoteli");
@@ -1,18 +1,17 @@
 package com.project.ui.buttons;
 
-import com.project.springbootjavafx.models.MiastaWycieczek;
+import com.project.springbootjavafx.models.Itinerary;
 import com.project.springbootjavafx.models.TypyWycieczek;
-import com.project.springbootjavafx.services.AbstractServices;
-import com.project.springbootjavafx.services.MiastaWycieczekService;
+import com.project.springbootjavafx.services.ReferenceDataCache;
 import com.project.ui.MainContent;
 import com.project.ui.SpringContextHolder;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.VBox;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * The {@code RightMiastaWycieczekButton} class represents a specialized button located in the right sidebar
@@ -20,31 +19,29 @@ import java.util.List;
  *
  * <p>
  * When this button is clicked, it opens a dialog that prompts the user to select a tour type from a ComboBox.
- * After a tour type is selected, the button uses {@link MiastaWycieczekService} to retrieve the list of
- * associated cities. These results are then displayed in a {@link TableView} with two columns: one for the city name
+ * After a tour type is selected, the button takes its compiled {@link Itinerary} from the {@link ReferenceDataCache},
+ * without a query. The nights are then displayed in a {@link TableView} with two columns: one for the city name
  * and one for the night number. Finally, the generated TableView is set as the main content of the application.
  * </p>
  *
  * <p>
- * The required services and the main content component are retrieved from the Spring context via
- * {@link SpringContextHolder}. The tour type service is obtained from the left sidebar button that is passed to the constructor.
+ * The reference data cache and the main content component are retrieved from the Spring context via
+ * {@link SpringContextHolder}.
  * </p>
  */
 public class RightMiastaWycieczekButton extends Button {
 
-    private AbstractServices typyWycieczekService;
-    private MiastaWycieczekService miastaWycieczekService;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Constructs a new {@code RightMiastaWycieczekButton} with the specified text and reference to a left sidebar button.
      *
      * @param name       the text to display on the button
-     * @param leftButton a reference to a {@link CustomLeftButton} that provides the tour type service
+     * @param leftButton a reference to the {@link CustomLeftButton} of the tour types
      */
     public RightMiastaWycieczekButton(String name, CustomLeftButton<?, ?> leftButton) {
         super(name);
-        this.typyWycieczekService = leftButton.getServices();
-        this.miastaWycieczekService = SpringContextHolder.getContext().getBean(MiastaWycieczekService.class);
+        this.referenceDataCache = SpringContextHolder.getContext().getBean(ReferenceDataCache.class);
         this.setOnAction(e -> onClick());
     }
 
@@ -56,12 +53,11 @@ public class RightMiastaWycieczekButton extends Button {
      * </p>
      * <ol>
      *   <li>A dialog is displayed prompting the user to select a tour type (TypyWycieczek) via a ComboBox.</li>
-     *   <li>If a tour type is selected, the {@link MiastaWycieczekService} is used to retrieve a list of
-     *       {@link MiastaWycieczek} associated with the selected tour type.</li>
+     *   <li>If a tour type is selected, its {@link Itinerary} is taken from the {@link ReferenceDataCache}.</li>
      *   <li>If no cities are associated with the tour type, an informational alert is displayed.</li>
      *   <li>If the list is non-empty, a {@link TableView} is created with two columns: one for the city name
      *       and one for the night number (Numer Nocy).</li>
-     *   <li>The TableView is then populated with the retrieved data and set as the main content of the application
+     *   <li>The TableView is then populated with the nights of the itinerary and set as the main content of the application
      *       via {@link MainContent#updateContent(javafx.scene.control.TableView)}.</li>
      * </ol>
      */
@@ -80,7 +76,7 @@ public class RightMiastaWycieczekButton extends Button {
 
         // Create a ComboBox populated with tour types from the service
         ComboBox<TypyWycieczek> typyWycieczekComboBox = new ComboBox<>();
-        typyWycieczekComboBox.setItems(FXCollections.observableArrayList(typyWycieczekService.getAll()));
+        typyWycieczekComboBox.setItems(FXCollections.observableArrayList(referenceDataCache.getTypyWycieczek()));
         typyWycieczekComboBox.setPromptText("Wybierz Typ Wycieczki");
 
         // Add the ComboBox to a VBox and set it as the dialog content
@@ -104,36 +100,36 @@ public class RightMiastaWycieczekButton extends Button {
         dialog.showAndWait().ifPresent(selectedTyp -> {
             if (selectedTyp != null) {
                 try {
-                    // Retrieve the list of cities associated with the selected tour type
-                    List<MiastaWycieczek> miastaWycieczekList = miastaWycieczekService.findByTypWycieczki(selectedTyp);
-
-                    if (miastaWycieczekList == null || miastaWycieczekList.isEmpty()) {
+                    // Take the nights of the selected tour type that have a city, in order
+                    Itinerary itinerary = referenceDataCache.getItinerary(selectedTyp);
+                    List<Integer> noce = IntStream.rangeClosed(1, itinerary.getLiczbaNocy())
+                            .filter(itinerary::maNoc)
+                            .boxed()
+                            .toList();
+
+                    if (noce.isEmpty()) {
                         showAlert(Alert.AlertType.INFORMATION, "Brak Danych", "Dla wybranego typu wycieczki nie ma przypisanych miast.");
                         return;
                     }
 
                     // Create a TableView to display the city data
-                    TableView<MiastaWycieczek> miastaTableView = new TableView<>();
+                    TableView<Integer> miastaTableView = new TableView<>();
 
                     // Create a column for the city name
-                    TableColumn<MiastaWycieczek, String> miastoColumn = new TableColumn<>("Miasto");
-                    miastoColumn.setCellValueFactory(cellData -> {
-                        if (cellData.getValue().getMiasta() != null) {
-                            return new javafx.beans.property.SimpleStringProperty(cellData.getValue().getMiasta().getMiasto());
-                        } else {
-                            return new javafx.beans.property.SimpleStringProperty("Brak");
-                        }
-                    });
+                    TableColumn<Integer, String> miastoColumn = new TableColumn<>("Miasto");
+                    miastoColumn.setCellValueFactory(cellData ->
+                            new javafx.beans.property.SimpleStringProperty(itinerary.getMiasto(cellData.getValue())));
 
                     // Create a column for the night number
-                    TableColumn<MiastaWycieczek, Integer> numerNocyColumn = new TableColumn<>("Numer Nocy");
-                    numerNocyColumn.setCellValueFactory(new PropertyValueFactory<>("numerNocy"));
+                    TableColumn<Integer, Integer> numerNocyColumn = new TableColumn<>("Numer Nocy");
+                    numerNocyColumn.setCellValueFactory(cellData ->
+                            new javafx.beans.property.SimpleObjectProperty<>(cellData.getValue()));
 
                     // Add columns to the TableView
                     miastaTableView.getColumns().addAll(miastoColumn, numerNocyColumn);
 
                     // Populate the TableView with the retrieved data
-                    miastaTableView.setItems(FXCollections.observableArrayList(miastaWycieczekList));
+                    miastaTableView.setItems(FXCollections.observableArrayList(noce));
 
                     // Optionally, adjust column widths to fit the TableView
                     miastaTableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
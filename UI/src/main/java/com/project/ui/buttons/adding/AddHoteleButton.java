@@ -5,7 +5,7 @@ import com.project.springbootjavafx.exceptions.WrongCodeLengthException;
 import com.project.springbootjavafx.models.Hotele;
 import com.project.springbootjavafx.models.Miasta;
 import com.project.springbootjavafx.services.HoteleService;
-import com.project.springbootjavafx.services.MiastaService;
+import com.project.springbootjavafx.services.ReferenceDataCache;
 import com.project.ui.MainContent;
 import com.project.ui.SpringContextHolder;
 import com.project.ui.buttons.CustomLeftButton;
@@ -20,10 +20,10 @@ import javafx.scene.layout.GridPane;
  *
  * <p>
  * When this button is clicked, it opens a dialog that prompts the user to enter details for a new hotel,
- * including the hotel code, name, city, address, email, and phone number. The dialog uses a form with input fields
- * and validates that all fields are filled. Upon successful submission, a new {@link Hotele} object is created and added
- * using the {@link HoteleService}. If the hotel is added successfully, the left sidebar is refreshed and the main content
- * area scrolls to the bottom. In case of errors (such as wrong code length or duplicate hotel), an error alert is displayed.
+ * including the hotel code, name, city, address, email, phone number and, optionally, the number of rooms. The dialog
+ * uses a form with input fields and validates that all required fields are filled. Upon successful submission, a new
+ * {@link Hotele} object is created and added using the {@link HoteleService}. If the hotel is added successfully, the
+ * left sidebar is refreshed and the main content area scrolls to the new hotel. In case of errors (such as wrong code length or duplicate hotel), an error alert is displayed.
  * </p>
  *
  * <p>
@@ -38,9 +38,9 @@ public class AddHoteleButton extends Button {
     private final HoteleService hoteleService;
 
     /**
-     * Service for handling city-related operations.
+     * The in-memory reference data filling the choice lists.
      */
-    private final MiastaService miastaService;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * The associated left sidebar button that is used to refresh the view after a hotel is added.
@@ -57,7 +57,7 @@ public class AddHoteleButton extends Button {
         super(name);
         this.leftButton = leftButton;
         this.hoteleService = SpringContextHolder.getContext().getBean(HoteleService.class);
-        this.miastaService = SpringContextHolder.getContext().getBean(MiastaService.class);
+        this.referenceDataCache = SpringContextHolder.getContext().getBean(ReferenceDataCache.class);
         this.setOnAction(e -> openAddHotelDialog());
     }
 
@@ -68,7 +68,7 @@ public class AddHoteleButton extends Button {
      * The dialog prompts the user to enter the hotel code, name, select a city from a ComboBox, and enter the address,
      * email, and phone number. The form performs validation to ensure that none of the fields are empty.
      * When the user submits valid data, a new {@link Hotele} instance is created and added using the {@link HoteleService}.
-     * After a successful addition, the left sidebar is refreshed and the main content area is scrolled to the bottom.
+     * After a successful addition, the left sidebar is refreshed and the main content area is scrolled to the new hotel.
      * In case of errors during hotel addition (such as a wrong code length or a duplicate entry), an error alert is shown.
      * </p>
      */
@@ -97,7 +97,7 @@ public class AddHoteleButton extends Button {
 
         ComboBox<Miasta> miastoComboBox = new ComboBox<>();
         miastoComboBox.setPromptText("Wybierz miasto");
-        miastoComboBox.setItems(FXCollections.observableArrayList(miastaService.getAll()));
+        miastoComboBox.setItems(FXCollections.observableArrayList(referenceDataCache.getMiasta()));
 
         TextField adresField = new TextField();
         adresField.setPromptText("Adres");
@@ -108,6 +108,9 @@ public class AddHoteleButton extends Button {
         TextField telefonField = new TextField();
         telefonField.setPromptText("Telefon");
 
+        TextField liczbaPokoiField = new TextField();
+        liczbaPokoiField.setPromptText("Liczba pokoi (opcjonalnie)");
+
         // Add form fields to the grid
         grid.add(new Label("Kod:"), 0, 0);
         grid.add(kodField, 1, 0);
@@ -127,6 +130,9 @@ public class AddHoteleButton extends Button {
         grid.add(new Label("Telefon:"), 0, 5);
         grid.add(telefonField, 1, 5);
 
+        grid.add(new Label("Liczba pokoi:"), 0, 6);
+        grid.add(liczbaPokoiField, 1, 6);
+
         dialog.getDialogPane().setContent(grid);
 
         // Validate the Add button: disable it until all fields are filled
@@ -135,17 +141,26 @@ public class AddHoteleButton extends Button {
 
         // Add listeners to form fields for validation
         kodField.textProperty().addListener((observable, oldValue, newValue) ->
-                validateForm(kodField, nazwaField, miastoComboBox, adresField, emailField, telefonField, addButton));
+                validateForm(kodField, nazwaField, miastoComboBox, adresField, emailField, telefonField,
+                        liczbaPokoiField, addButton));
         nazwaField.textProperty().addListener((observable, oldValue, newValue) ->
-                validateForm(kodField, nazwaField, miastoComboBox, adresField, emailField, telefonField, addButton));
+                validateForm(kodField, nazwaField, miastoComboBox, adresField, emailField, telefonField,
+                        liczbaPokoiField, addButton));
         miastoComboBox.getSelectionModel().selectedItemProperty().addListener((options, oldValue, newValue) ->
-                validateForm(kodField, nazwaField, miastoComboBox, adresField, emailField, telefonField, addButton));
+                validateForm(kodField, nazwaField, miastoComboBox, adresField, emailField, telefonField,
+                        liczbaPokoiField, addButton));
         adresField.textProperty().addListener((observable, oldValue, newValue) ->
-                validateForm(kodField, nazwaField, miastoComboBox, adresField, emailField, telefonField, addButton));
+                validateForm(kodField, nazwaField, miastoComboBox, adresField, emailField, telefonField,
+                        liczbaPokoiField, addButton));
         emailField.textProperty().addListener((observable, oldValue, newValue) ->
-                validateForm(kodField, nazwaField, miastoComboBox, adresField, emailField, telefonField, addButton));
+                validateForm(kodField, nazwaField, miastoComboBox, adresField, emailField, telefonField,
+                        liczbaPokoiField, addButton));
         telefonField.textProperty().addListener((observable, oldValue, newValue) ->
-                validateForm(kodField, nazwaField, miastoComboBox, adresField, emailField, telefonField, addButton));
+                validateForm(kodField, nazwaField, miastoComboBox, adresField, emailField, telefonField,
+                        liczbaPokoiField, addButton));
+        liczbaPokoiField.textProperty().addListener((observable, oldValue, newValue) ->
+                validateForm(kodField, nazwaField, miastoComboBox, adresField, emailField, telefonField,
+                        liczbaPokoiField, addButton));
 
         // Convert the dialog result to a Hotele object
         dialog.setResultConverter(dialogButton -> {
@@ -156,7 +171,10 @@ public class AddHoteleButton extends Button {
                 String adres = adresField.getText().trim();
                 String email = emailField.getText().trim();
                 String telefon = telefonField.getText().trim();
-                return new Hotele(kod, nazwa, miasto, adres, email, telefon);
+                String liczbaPokoi = liczbaPokoiField.getText().trim();
+                Hotele hotel = new Hotele(kod, nazwa, miasto, adres, email, telefon);
+                hotel.setLiczbaPokoi(liczbaPokoi.isEmpty() ? null : Integer.valueOf(liczbaPokoi));
+                return hotel;
             }
             return null;
         });
@@ -168,7 +186,7 @@ public class AddHoteleButton extends Button {
             try {
                 hoteleService.add(hotele);
                 leftButton.onClick();
-                mainContent.scrollToBottom();
+                mainContent.scrollTo(hotele.getKod());
 
                 Alert alert = new Alert(Alert.AlertType.INFORMATION);
                 alert.setTitle("Sukces");
@@ -201,22 +219,29 @@ public class AddHoteleButton extends Button {
     /**
      * Validates the form fields and enables/disables the add button accordingly.
      *
+     * <p>
+     * All fields but the number of rooms are required; the number of rooms, if given, must be a whole number.
+     * </p>
+     *
      * @param kodField      the TextField for the hotel code
      * @param nazwaField    the TextField for the hotel name
      * @param miastoComboBox the ComboBox for selecting a city
      * @param adresField    the TextField for the address
      * @param emailField    the TextField for the email
      * @param telefonField  the TextField for the phone number
+     * @param liczbaPokoiField the TextField for the optional number of rooms
      * @param addButton     the button to add the hotel (will be enabled if all fields are valid)
      */
     private void validateForm(TextField kodField, TextField nazwaField, ComboBox<Miasta> miastoComboBox,
-                              TextField adresField, TextField emailField, TextField telefonField, Node addButton) {
+                              TextField adresField, TextField emailField, TextField telefonField,
+                              TextField liczbaPokoiField, Node addButton) {
         boolean disable = kodField.getText().trim().isEmpty() ||
                 nazwaField.getText().trim().isEmpty() ||
                 miastoComboBox.getSelectionModel().isEmpty() ||
                 adresField.getText().trim().isEmpty() ||
                 emailField.getText().trim().isEmpty() ||
-                telefonField.getText().trim().isEmpty();
+                telefonField.getText().trim().isEmpty() ||
+                !liczbaPokoiField.getText().trim().matches("\\d{0,6}");
         addButton.setDisable(disable);
     }
 }
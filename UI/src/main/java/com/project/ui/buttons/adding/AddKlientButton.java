@@ -1,13 +1,14 @@
 package com.project.ui.buttons.adding;
 
 import com.project.springbootjavafx.exceptions.WrongLetterException;
-import com.project.springbootjavafx.models.Ceny;
 import com.project.springbootjavafx.models.Klienci;
-import com.project.springbootjavafx.models.Pokoje;
+import com.project.springbootjavafx.models.PriceTable;
 import com.project.springbootjavafx.models.Wycieczki;
+import com.project.springbootjavafx.projections.PokojeDostepnoscRow;
 import com.project.springbootjavafx.services.KlienciService;
 import com.project.springbootjavafx.services.PokojeService;
-import com.project.springbootjavafx.services.WycieczkiService;
+import com.project.springbootjavafx.services.PricingEngine;
+import com.project.springbootjavafx.services.ReferenceDataCache;
 import com.project.ui.SpringContextHolder;
 import com.project.ui.buttons.CustomLeftButton;
 import javafx.application.Platform;
@@ -17,10 +18,8 @@ import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.util.StringConverter;
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * The {@code AddKlientButton} class extends {@link Button} and provides functionality
@@ -36,7 +35,8 @@ import java.util.stream.Collectors;
  *   </li>
  *   <li>
  *     If the first dialog is successfully completed, the second dialog allows the user to select an available room (Pokoje)
- *     for the chosen trip. The available rooms are those that are not yet fully occupied.
+ *     for the chosen trip. The available rooms are those that are not yet fully occupied; they are read from the
+ *     availability index of {@link PokojeService}, so only the rooms of the chosen trip are ever loaded.
  *   </li>
  *   <li>
  *     If a room is selected, a third dialog is displayed where the user can select additional services
@@ -45,29 +45,34 @@ import java.util.stream.Collectors;
  * </ol>
  *
  * <p>
- * After collecting all necessary data, a new {@link Klienci} object is created, the payable amount is calculated
- * based on the room type and selected services (using pricing information from {@link Ceny}), and the client is added to the database.
+ * After collecting all necessary data, a new {@link Klienci} object is created, the payable amount is quoted by the
+ * {@link PricingEngine} from the room size and selected services, and the client is added to the database.
  * Upon successful addition, the left sidebar is refreshed and an information alert is shown.
  * </p>
  *
  * <p>
- * The required services ({@link WycieczkiService}, {@link PokojeService}, and {@link KlienciService})
- * are retrieved from the Spring context via {@link SpringContextHolder}. The {@code CustomLeftButton}
+ * The required services ({@link PokojeService}, {@link KlienciService} and {@link PricingEngine}) and the
+ * {@link ReferenceDataCache} providing the trips are retrieved from the Spring context via {@link SpringContextHolder}. The {@code CustomLeftButton}
  * passed in the constructor is used to refresh the view after adding the client.
  * </p>
  */
 public class AddKlientButton extends Button {
 
     /**
-     * Service for managing trips.
+     * The in-memory reference data with the trips, their types and prices.
      */
-    private final WycieczkiService wycieczkiService;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Service for managing rooms.
      */
     private final PokojeService pokojeService;
 
+    /**
+     * Quotes the payable amount of the client.
+     */
+    private final PricingEngine pricingEngine;
+
     /**
      * Service for managing clients.
      */
@@ -87,9 +92,10 @@ public class AddKlientButton extends Button {
     public AddKlientButton(String name, CustomLeftButton<?, ?> leftButton) {
         super(name);
         this.leftButton = leftButton;
-        this.wycieczkiService = SpringContextHolder.getContext().getBean(WycieczkiService.class);
+        this.referenceDataCache = SpringContextHolder.getContext().getBean(ReferenceDataCache.class);
         this.pokojeService = SpringContextHolder.getContext().getBean(PokojeService.class);
         this.klienciService = SpringContextHolder.getContext().getBean(KlienciService.class);
+        this.pricingEngine = SpringContextHolder.getContext().getBean(PricingEngine.class);
         this.setOnAction(e -> onClick());
     }
 
@@ -144,7 +150,7 @@ public class AddKlientButton extends Button {
         // Create an editable ComboBox for selecting a trip with auto-completion
         ComboBox<Wycieczki> wycieczkiComboBox = new ComboBox<>();
         wycieczkiComboBox.setEditable(true);
-        List<Wycieczki> wycieczkiList = wycieczkiService.getAll();
+        List<Wycieczki> wycieczkiList = referenceDataCache.getWycieczki();
         ObservableList<Wycieczki> observableWycieczki = FXCollections.observableArrayList(wycieczkiList);
         wycieczkiComboBox.setItems(observableWycieczki);
         wycieczkiComboBox.setPromptText("Wybierz lub wpisz wycieczkę");
@@ -213,11 +219,8 @@ public class AddKlientButton extends Button {
             ButtonType nextRoomButtonType = new ButtonType("Dalej", ButtonBar.ButtonData.OK_DONE);
             roomDialog.getDialogPane().getButtonTypes().addAll(nextRoomButtonType, ButtonType.CANCEL);
 
-            // Retrieve available rooms for the selected trip that have available space
-            List<Pokoje> dostepnePokoje = pokojeService.getAll().stream()
-                    .filter(pokoj -> pokoj.getWycieczka().equals(tempWycieczka))
-                    .filter(pokoj -> pokoj.getIlKlientow() < pokoj.getIlMiejsc())
-                    .collect(Collectors.toList());
+            // Retrieve available rooms for the selected trip from the availability index
+            List<PokojeDostepnoscRow> dostepnePokoje = pokojeService.getDostepnePokoje(tempWycieczka);
 
             if (dostepnePokoje.isEmpty()) {
                 showAlert(Alert.AlertType.INFORMATION, "Brak Dostępnych Pokoi",
@@ -226,8 +229,8 @@ public class AddKlientButton extends Button {
             }
 
             // Create a ListView for room selection
-            ListView<Pokoje> pokojeListView = new ListView<>();
-            ObservableList<Pokoje> observablePokoje = FXCollections.observableArrayList(dostepnePokoje);
+            ListView<PokojeDostepnoscRow> pokojeListView = new ListView<>();
+            ObservableList<PokojeDostepnoscRow> observablePokoje = FXCollections.observableArrayList(dostepnePokoje);
             pokojeListView.setItems(observablePokoje);
             pokojeListView.getSelectionModel().setSelectionMode(SelectionMode.SINGLE);
             pokojeListView.setPrefHeight(150);
@@ -235,12 +238,12 @@ public class AddKlientButton extends Button {
             // Set cell factory to display room information
             pokojeListView.setCellFactory(param -> new ListCell<>() {
                 @Override
-                protected void updateItem(Pokoje pokoj, boolean empty) {
+                protected void updateItem(PokojeDostepnoscRow pokoj, boolean empty) {
                     super.updateItem(pokoj, empty);
                     if (empty || pokoj == null) {
                         setText(null);
                     } else {
-                        setText("Pokój: " + pokoj.getId() + " (" + pokoj.getTypPokoju() + ")");
+                        setText("Pokój: " + pokoj.id() + " (" + pokoj.typPokoju() + ", wolne: " + pokoj.wolneMiejsca() + ")");
                     }
                 }
             });
@@ -255,7 +258,7 @@ public class AddKlientButton extends Button {
             // Handle the room selection dialog result
             roomDialog.setResultConverter(dialogButtonRoom -> {
                 if (dialogButtonRoom == nextRoomButtonType) {
-                    Pokoje selectedPokoj = pokojeListView.getSelectionModel().getSelectedItem();
+                    PokojeDostepnoscRow selectedPokoj = pokojeListView.getSelectionModel().getSelectedItem();
                     if (selectedPokoj == null) {
                         showAlert(Alert.AlertType.ERROR, "Błąd", "Musisz wybrać pokój.");
                         return null;
@@ -302,61 +305,19 @@ public class AddKlientButton extends Button {
                             klient.setImie(tempImie);
                             klient.setNazwisko(tempNazwisko);
                             klient.setWycieczka(tempWycieczka);
-                            klient.setPokoj(selectedPokoj);
+                            klient.setPokoj(pokojeService.getReference(selectedPokoj.id()));
                             klient.setUlga(ulga);
                             klient.setRower(rower);
                             klient.setEBike(eBike);
                             klient.setNoclegPrzed(noclegPrzed);
                             klient.setNoclegPo(noclegPo);
                             klient.setHb(hb);
-                            klient.setTypPokoju(selectedPokoj.getTypPokoju());
-                            klient.setDoZaplaty(BigDecimal.valueOf(0));
-
-                            // Calculate the payable amount based on room type and selected services
-                            Ceny ceny = klient.getWycieczka().getTypWycieczki().getCeny();
-
-                            switch (selectedPokoj.getIlMiejsc()) {
-                                case 1:
-                                    klient.setDoZaplaty(ceny.getPok_1().add(klient.getDoZaplaty()));
-                                    break;
-                                case 2:
-                                    klient.setDoZaplaty(ceny.getPok_2().add(klient.getDoZaplaty()));
-                                    break;
-                                case 3:
-                                    klient.setDoZaplaty(ceny.getPok_3().add(klient.getDoZaplaty()));
-                                    break;
-                                case 4:
-                                    klient.setDoZaplaty(ceny.getPok_4().add(klient.getDoZaplaty()));
-                                    break;
-                            }
-
-                            if (klient.getUlga()) {
-                                Double val = klient.getDoZaplaty().intValue() * (ceny.getUlga_dziecko() - 100) / 100.0;
-                                klient.setDoZaplaty(BigDecimal.valueOf(val));
-                            }
-
-                            if (klient.getRower()) {
-                                klient.setDoZaplaty(klient.getDoZaplaty().add(ceny.getRower()));
-                            }
-
-                            if (klient.getEBike()) {
-                                klient.setDoZaplaty(klient.getDoZaplaty().add(ceny.getE_bike()));
-                            }
-
-                            if (klient.getNoclegPo()) {
-                                klient.setDoZaplaty(klient.getDoZaplaty().add(ceny.getDodatkowa_noc()));
-                            }
-
-                            if (klient.getNoclegPrzed()) {
-                                klient.setDoZaplaty(klient.getDoZaplaty().add(ceny.getDodatkowa_noc()));
-                            }
-
-                            if (klient.getHb()) {
-                                klient.setDoZaplaty(klient.getDoZaplaty().add(ceny.getHb()));
-                            }
+                            klient.setTypPokoju(selectedPokoj.typPokoju());
 
-                            // Save the client to the database
+                            // Save the client to the database, priced by the room size and selected services
                             try {
+                                klient.setDoZaplaty(pricingEngine.quote(tempWycieczka, selectedPokoj.ilMiejsc(),
+                                        PriceTable.opcje(klient)).toBigDecimal());
                                 klienciService.add(klient);
                                 leftButton.onClick();
                                 showAlert(Alert.AlertType.INFORMATION, "Sukces", "Klient został dodany pomyślnie.");
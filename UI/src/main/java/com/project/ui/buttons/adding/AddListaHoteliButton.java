@@ -17,6 +17,7 @@ import org.controlsfx.control.textfield.TextFields;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * The {@code AddListaHoteliButton} class extends {@link Button} and provides functionality for adding hotel lists
@@ -39,17 +40,19 @@ import java.util.stream.Collectors;
  * </ol>
  *
  * <p>
- * Once the dialogs are completed, the selected hotel lists are added using {@link ListyHoteliService}, and the rooms are updated
- * via {@link PokojeService}. A success alert is displayed, and the left sidebar view is refreshed.
+ * Once the dialogs are completed, the hotels of the nights are assigned to the selected rooms with
+ * {@link ListyHoteliService#przypiszHotele(String, Map, Collection, boolean)}, which writes the lists and marks the rooms
+ * in one transaction; if some of the rooms already have a hotel list, the user is asked whether to replace it. The hotels
+ * of the trip are then checked against their number of rooms with {@link OverbookingDetector}; a success alert, or a
+ * warning listing the overbooked nights, is displayed, and the left sidebar view is refreshed.
  * </p>
  */
 public class AddListaHoteliButton extends Button {
 
     private final ListyHoteliService listyHoteliService;
-    private final WycieczkiService wycieczkiService;
+    private final ReferenceDataCache referenceDataCache;
     private final PokojeService pokojeService;
-    private final TypyWycieczekService typyWycieczekService;
-    private final HoteleService hoteleService;
+    private final OverbookingDetector overbookingDetector;
     private final CustomLeftButton<?, ?> leftButton;
 
     /**
@@ -61,10 +64,9 @@ public class AddListaHoteliButton extends Button {
     public AddListaHoteliButton(String name, CustomLeftButton<?, ?> leftButton) {
         super(name);
         this.listyHoteliService = SpringContextHolder.getContext().getBean(ListyHoteliService.class);
-        this.wycieczkiService = SpringContextHolder.getContext().getBean(WycieczkiService.class);
+        this.referenceDataCache = SpringContextHolder.getContext().getBean(ReferenceDataCache.class);
         this.pokojeService = SpringContextHolder.getContext().getBean(PokojeService.class);
-        this.typyWycieczekService = SpringContextHolder.getContext().getBean(TypyWycieczekService.class);
-        this.hoteleService = SpringContextHolder.getContext().getBean(HoteleService.class);
+        this.overbookingDetector = SpringContextHolder.getContext().getBean(OverbookingDetector.class);
         this.leftButton = leftButton;
         this.setOnAction(e -> onClick());
     }
@@ -78,9 +80,11 @@ public class AddListaHoteliButton extends Button {
      * <ol>
      *   <li>Displays a dialog to select a trip using {@link #wybierzWycieczke()}.</li>
      *   <li>Displays a dialog to select one or more rooms for the selected trip using {@link #wybierzPokoje(Wycieczki)}.</li>
-     *   <li>Displays a dialog to select hotels for each night of the trip for the selected rooms using {@link #wybierzHotele(List)}.</li>
-     *   <li>Adds the selected hotel lists via {@link ListyHoteliService} and updates the rooms with {@link PokojeService}.</li>
-     *   <li>Shows a success alert and refreshes the left sidebar view.</li>
+     *   <li>Displays a dialog to select hotels for each night of the trip for the selected rooms using {@link #wybierzHotele(Wycieczki)}.</li>
+     *   <li>Asks whether to replace the hotel lists the selected rooms already have.</li>
+     *   <li>Assigns the selected hotels to the rooms via {@link ListyHoteliService}.</li>
+     *   <li>Checks the hotels of the trip for overbooking with {@link OverbookingDetector}.</li>
+     *   <li>Shows a success alert, or a warning listing the overbooked nights, and refreshes the left sidebar view.</li>
      * </ol>
      */
     public void onClick() {
@@ -89,34 +93,62 @@ public class AddListaHoteliButton extends Button {
 
         if (wybranePokoje == null) return;
 
-        List<ListyHoteli> listaHoteli = wybierzHotele(wybranePokoje);
-
-        if (listaHoteli == null) return;
-
-        // Add each hotel list via the service
-        listaHoteli.forEach(listyHoteliService::add);
+        Map<Integer, String> hoteleNocy = wybierzHotele(wycieczka);
+
+        if (hoteleNocy == null) return;
+
+        // Rooms that already have a hotel list get the new hotels instead of the old ones only if the user agrees
+        boolean zastap = false;
+        if (wybranePokoje.stream().anyMatch(pokoj -> Boolean.TRUE.equals(pokoj.getListaHoteli()))) {
+            Alert pytanie = new Alert(Alert.AlertType.CONFIRMATION,
+                    "Niektóre z wybranych pokoi mają już listę hoteli. Zastąpić ją nowymi hotelami?\n"
+                            + "(Nie - hotele zostaną dodane tylko dla nocy bez hotelu)",
+                    ButtonType.YES, ButtonType.NO, ButtonType.CANCEL);
+            pytanie.setTitle("Istniejące listy hoteli");
+            pytanie.setHeaderText(null);
+            Optional<ButtonType> odpowiedz = pytanie.showAndWait();
+            if (odpowiedz.isEmpty() || odpowiedz.get() == ButtonType.CANCEL) return;
+            zastap = odpowiedz.get() == ButtonType.YES;
+        }
 
-        // Mark the selected rooms as having a hotel list
-        pokojeService.setListaHoteliTrue(wybranePokoje);
+        // Write the hotel lists of all selected rooms and mark the rooms in one transaction
+        try {
+            listyHoteliService.przypiszHotele(wycieczka.getWycieczka(), hoteleNocy,
+                    wybranePokoje.stream().map(Pokoje::getId).toList(), zastap);
+        } catch (IllegalArgumentException e) {
+            showAlert(Alert.AlertType.ERROR, "Błąd", e.getMessage());
+            return;
+        }
 
-        showAlert(Alert.AlertType.INFORMATION, "Sukces", "Dodano listy hoteli");
+        // Check the hotels of the trip against their number of rooms, counting the rooms of all overlapping trips
+        List<OverbookingDetector.Konflikt> konflikty = overbookingDetector.sprawdzWycieczke(wycieczka.getWycieczka());
+        if (konflikty.isEmpty()) {
+            showAlert(Alert.AlertType.INFORMATION, "Sukces", "Dodano listy hoteli");
+        } else {
+            showAlert(Alert.AlertType.WARNING, "Przepełnione hotele",
+                    "Dodano listy hoteli, ale w hotelach brakuje pokoi:\n" + konflikty.stream()
+                    .map(konflikt -> konflikt.hotel() + " " + konflikt.data() + ": " + konflikt.pokoje() + " z "
+                            + konflikt.liczbaPokoi() + " pokoi (" + String.join(", ", konflikt.wycieczki()) + ")")
+                    .collect(Collectors.joining("\n")));
+        }
         leftButton.onClick();
     }
 
     /**
-     * Displays a dialog to allow the user to select hotels for each night of the trip for the selected rooms.
+     * Displays a dialog to allow the user to select hotels for each night of the trip.
      *
      * <p>
      * For each night of the trip (based on the cities associated with the trip type), a label with the city name and a
-     * {@link ComboBox} for selecting a hotel are added to a grid layout. The selected hotels are used to create a list
-     * of {@link ListyHoteli} objects, one for each combination of room and night.
+     * {@link ComboBox} for selecting a hotel are added to a grid layout. The selected hotels are returned by night, and
+     * are written for every selected room by the database.
      * </p>
      *
-     * @param wybranePokoje the list of selected rooms (Pokoje) for which hotel lists will be created
-     * @return a list of {@link ListyHoteli} objects representing the hotel lists, or {@code null} if the dialog is cancelled
+     * @param wycieczka the trip the selected rooms belong to
+     * @return the code of the selected hotel by night number, or {@code null} if the dialog is cancelled or a night has
+     *         no hotel
      */
-    private List<ListyHoteli> wybierzHotele(List<Pokoje> wybranePokoje) {
-        Dialog<List<ListyHoteli>> dialog = new Dialog<>();
+    private Map<Integer, String> wybierzHotele(Wycieczki wycieczka) {
+        Dialog<Map<Integer, String>> dialog = new Dialog<>();
         dialog.setTitle("Listy hoteli");
         dialog.setHeaderText("Ustaw hotele dla nocy wycieczki");
 
@@ -127,20 +159,27 @@ public class AddListaHoteliButton extends Button {
         grid.setHgap(10);
         grid.setVgap(10);
 
-        // Retrieve trip type and corresponding cities for the nights of the trip
-        TypyWycieczek typWycieczki = wybranePokoje.get(0).getWycieczka().getTypWycieczki();
-        List<MiastaWycieczek> miastaWycieczki = typyWycieczekService.getMiastaWycieczki(typWycieczki);
+        // Take the compiled nights of the trip type and their cities from the reference data
+        Itinerary itinerary = referenceDataCache.getItinerary(wycieczka.getTypWycieczki());
+        List<Integer> noce = IntStream.rangeClosed(1, itinerary.getLiczbaNocy())
+                .filter(itinerary::maNoc)
+                .boxed()
+                .toList();
+        List<Miasta> miastaNocy = noce.stream().map(noc -> new Miasta(itinerary.getMiasto(noc))).toList();
+
+        // The hotels of all cities of the itinerary, taken from the reference data at once
+        Map<Miasta, List<Hotele>> hoteleMiast = referenceDataCache.getHoteleMiast(miastaNocy);
 
         // Prepare a list to hold selected hotels for each night
-        List<Hotele> hoteleWycieczki = new ArrayList<>(Collections.nCopies(miastaWycieczki.size(), null));
+        List<Hotele> hoteleWycieczki = new ArrayList<>(Collections.nCopies(noce.size(), null));
 
         // For each night, add a label for the city and a ComboBox for hotel selection
-        for (int i = 0; i < miastaWycieczki.size(); i++) {
-            Label miastoLabel = new Label(miastaWycieczki.get(i).getMiasta().getMiasto());
+        for (int i = 0; i < noce.size(); i++) {
+            Label miastoLabel = new Label(miastaNocy.get(i).getMiasto());
             TextField hotelField = new TextField();
             hotelField.setPromptText("Kod hotelu");
 
-            List<Hotele> hoteleMiasta = hoteleService.getHoteleMiasta(miastaWycieczki.get(i).getMiasta());
+            List<Hotele> hoteleMiasta = hoteleMiast.get(miastaNocy.get(i));
             ObservableList<Hotele> observableHotele = FXCollections.observableArrayList(hoteleMiasta);
 
             ComboBox<Hotele> hotelCombo = new ComboBox<>(observableHotele);
@@ -189,24 +228,22 @@ public class AddListaHoteliButton extends Button {
 
         dialog.setResultConverter(buttonType -> {
             if (buttonType == confirmButton) {
-                List<ListyHoteli> listyDoZwrotu = new ArrayList<>();
-
-                // For each selected room, create hotel lists for each night
-                for (Pokoje pokoj : wybranePokoje) {
-                    for (int j = 0; j < hoteleWycieczki.size(); j++) {
-                        ListyHoteli nowaLista = new ListyHoteli();
-                        nowaLista.setPokoj(pokoj);
-                        nowaLista.setMiastoWycieczki(miastaWycieczki.get(j));
-                        nowaLista.setHotel(hoteleWycieczki.get(j));
-                        listyDoZwrotu.add(nowaLista);
+                Map<Integer, String> hoteleNocy = new LinkedHashMap<>();
+
+                // Every night needs a hotel, the same one for all selected rooms
+                for (int j = 0; j < noce.size(); j++) {
+                    if (hoteleWycieczki.get(j) == null) {
+                        showAlert(Alert.AlertType.ERROR, "Błąd", "Musisz wybrać hotel dla każdej nocy.");
+                        return null;
                     }
+                    hoteleNocy.put(noce.get(j), hoteleWycieczki.get(j).getKod());
                 }
-                return listyDoZwrotu;
+                return hoteleNocy;
             }
             return null;
         });
 
-        Optional<List<ListyHoteli>> optionalResult = dialog.showAndWait();
+        Optional<Map<Integer, String>> optionalResult = dialog.showAndWait();
 
         return optionalResult.orElse(null);
     }
@@ -326,7 +363,7 @@ public class AddListaHoteliButton extends Button {
 
         ComboBox<Wycieczki> wycieczkiComboBox = new ComboBox<>();
         wycieczkiComboBox.setEditable(true);
-        List<Wycieczki> wycieczkiList = wycieczkiService.getAll();
+        List<Wycieczki> wycieczkiList = referenceDataCache.getWycieczki();
         ObservableList<Wycieczki> observableWycieczki = FXCollections.observableArrayList(wycieczkiList);
         wycieczkiComboBox.setItems(observableWycieczki);
         wycieczkiComboBox.setPromptText("Wybierz lub wpisz wycieczkę");
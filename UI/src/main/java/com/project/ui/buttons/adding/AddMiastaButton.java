@@ -20,7 +20,7 @@ import java.util.Optional;
  * <p>
  * When this button is clicked, a dialog is displayed prompting the user to enter the name of a new city.
  * The entered city is then added using {@link MiastaService}. Upon successful addition, the left sidebar is
- * refreshed and the main content area scrolls to the bottom. If the city already exists, an error alert is shown.
+ * refreshed and the main content area scrolls to the new city. If the city already exists, an error alert is shown.
  * </p>
  *
  * <p>
@@ -62,7 +62,7 @@ public class AddMiastaButton extends Button {
      * This method displays a dialog that prompts the user to enter the name of a new city.
      * If the user confirms the dialog, a new {@link Miasta} object is created and added using
      * {@link MiastaService}. Upon successful addition, the left sidebar is refreshed and the main content area
-     * scrolls to the bottom. In case the city already exists, an error alert is displayed.
+     * scrolls to the new city. In case the city already exists, an error alert is displayed.
      * </p>
      */
     private void openAddMiastoDialog() {
@@ -115,7 +115,7 @@ public class AddMiastaButton extends Button {
             try {
                 miastaService.add(miastoObj);
                 leftButton.onClick();
-                mainContent.scrollToBottom();
+                mainContent.scrollTo(miastoObj.getMiasto());
                 showAlert(Alert.AlertType.INFORMATION, "Sukces", "Miasto zostało dodane.");
             } catch (DuplicatedEntityExceptionn ex) {
                 showAlert(Alert.AlertType.ERROR, "Błąd", ex.getMessage());
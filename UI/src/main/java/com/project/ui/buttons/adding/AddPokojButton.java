@@ -5,7 +5,7 @@ import com.project.springbootjavafx.models.Pokoje;
 import com.project.springbootjavafx.models.Wycieczki;
 import com.project.springbootjavafx.services.KlienciService;
 import com.project.springbootjavafx.services.PokojeService;
-import com.project.springbootjavafx.services.WycieczkiService;
+import com.project.springbootjavafx.services.ReferenceDataCache;
 import com.project.ui.MainContent;
 import com.project.ui.SpringContextHolder;
 import com.project.ui.buttons.CustomLeftButton;
@@ -31,8 +31,8 @@ import java.util.stream.Collectors;
  * </p>
  *
  * <p>
- * The required services ({@link WycieczkiService}, {@link PokojeService}, and {@link KlienciService})
- * are retrieved from the Spring context via {@link SpringContextHolder}.
+ * The required services ({@link PokojeService} and {@link KlienciService}) and the {@link ReferenceDataCache}
+ * providing the trips are retrieved from the Spring context via {@link SpringContextHolder}.
  * </p>
  */
 public class AddPokojButton extends Button {
@@ -43,9 +43,9 @@ public class AddPokojButton extends Button {
     private final PokojeService pokojeService;
 
     /**
-     * Service used to manage trip (Wycieczki) related operations.
+     * The in-memory reference data providing the trips (Wycieczki) to choose from.
      */
-    private final WycieczkiService wycieczkiService;
+    private final ReferenceDataCache referenceDataCache;
 
     /**
      * Service used to manage client (Klienci) related operations.
@@ -66,7 +66,7 @@ public class AddPokojButton extends Button {
     public AddPokojButton(String name, CustomLeftButton<?, ?> leftButton) {
         super(name);
         this.leftButton = leftButton;
-        this.wycieczkiService = SpringContextHolder.getContext().getBean(WycieczkiService.class);
+        this.referenceDataCache = SpringContextHolder.getContext().getBean(ReferenceDataCache.class);
         this.klienciServices = SpringContextHolder.getContext().getBean(KlienciService.class);
         this.pokojeService = SpringContextHolder.getContext().getBean(PokojeService.class);
 
@@ -117,7 +117,7 @@ public class AddPokojButton extends Button {
         Label wycieczkaLabel = new Label("Wycieczka:");
         ComboBox<Wycieczki> wycieczkiComboBox = new ComboBox<>();
         wycieczkiComboBox.setEditable(true);
-        List<Wycieczki> wycieczkiList = wycieczkiService.getAll();
+        List<Wycieczki> wycieczkiList = referenceDataCache.getWycieczki();
         ObservableList<Wycieczki> observableWycieczki = FXCollections.observableArrayList(wycieczkiList);
         wycieczkiComboBox.setItems(observableWycieczki);
         wycieczkiComboBox.setPromptText("Wybierz lub wpisz wycieczkę");
@@ -188,22 +188,7 @@ public class AddPokojButton extends Button {
                 pokoj.setListaHoteli(false);
 
                 // Determine the room capacity based on the first character of the room type.
-                Integer pokojRozmiar = 0;
-                switch (pokoj.getTypPokoju().charAt(0)) {
-                    case 'e':
-                        pokojRozmiar = 1;
-                        break;
-                    case 'd':
-                        pokojRozmiar = 2;
-                        break;
-                    case 't':
-                        pokojRozmiar = 3;
-                        break;
-                    case 'q':
-                        pokojRozmiar = 4;
-                        break;
-                }
-                pokoj.setIlMiejsc(pokojRozmiar);
+                pokoj.setIlMiejsc(PokojeService.pojemnoscTypu(typPokoju));
                 pokoj.setIlKlientow(0);
                 return pokoj;
             }
@@ -6,7 +6,7 @@ import com.project.springbootjavafx.models.TypyWycieczek;
 import com.project.springbootjavafx.models.MiastaWycieczek;
 import com.project.springbootjavafx.models.Miasta;
 import com.project.springbootjavafx.services.CenyService;
-import com.project.springbootjavafx.services.MiastaService;
+import com.project.springbootjavafx.services.ReferenceDataCache;
 import com.project.springbootjavafx.services.TypyWycieczekService;
 import com.project.springbootjavafx.services.MiastaWycieczekService;
 import com.project.ui.SpringContextHolder;
@@ -45,8 +45,8 @@ import java.util.List;
  * </ol>
  *
  * <p>
- * The required services ({@link TypyWycieczekService}, {@link CenyService}, {@link MiastaService}, and
- * {@link MiastaWycieczekService}) are retrieved from the Spring context via {@link SpringContextHolder}.
+ * The required services ({@link TypyWycieczekService}, {@link CenyService} and {@link MiastaWycieczekService})
+ * and the {@link ReferenceDataCache} providing the cities are retrieved from the Spring context via {@link SpringContextHolder}.
  * The {@code leftButton} reference is used to refresh the view after changes are made.
  * </p>
  */
@@ -55,7 +55,7 @@ public class AddTypyWycieczekButton extends Button {
     private final CustomLeftButton<?, ?> leftButton;
     private final TypyWycieczekService typyService;
     private final CenyService cenyService;
-    private final MiastaService miastaService;
+    private final ReferenceDataCache referenceDataCache;
     private final MiastaWycieczekService miastaWycieczekService;
 
     /**
@@ -70,7 +70,7 @@ public class AddTypyWycieczekButton extends Button {
         this.leftButton = leftButton;
         this.typyService = SpringContextHolder.getContext().getBean(TypyWycieczekService.class);
         this.cenyService = SpringContextHolder.getContext().getBean(CenyService.class);
-        this.miastaService = SpringContextHolder.getContext().getBean(MiastaService.class);
+        this.referenceDataCache = SpringContextHolder.getContext().getBean(ReferenceDataCache.class);
         this.miastaWycieczekService = SpringContextHolder.getContext().getBean(MiastaWycieczekService.class);
         this.setOnAction(e -> openAddTypyDialog());
     }
@@ -299,7 +299,7 @@ public class AddTypyWycieczekButton extends Button {
         grid.setVgap(10);
 
         // Retrieve available cities.
-        List<Miasta> dostępneMiasta = miastaService.getAll();
+        List<Miasta> dostępneMiasta = referenceDataCache.getMiasta();
 
         if (dostępneMiasta.isEmpty()) {
             showAlert(Alert.AlertType.ERROR, "Błąd", "Brak dostępnych miast do przypisania.");
@@ -353,9 +353,7 @@ public class AddTypyWycieczekButton extends Button {
 
         // Process dialog result.
         dialog.showAndWait().ifPresent(miastaWycieczekList -> {
-            for (MiastaWycieczek miastaWycieczek : miastaWycieczekList) {
-                miastaWycieczekService.add(miastaWycieczek);
-            }
+            miastaWycieczekService.addAll(miastaWycieczekList);
             showAlert(Alert.AlertType.INFORMATION, "Sukces", "Miasta zostały przypisane pomyślnie.");
         });
     }
@@ -2,8 +2,7 @@ package com.project.ui.buttons.adding;
 
 import com.project.springbootjavafx.models.TypyWycieczek;
 import com.project.springbootjavafx.models.Wycieczki;
-import com.project.springbootjavafx.services.AbstractServices;
-import com.project.springbootjavafx.services.TypyWycieczekService;
+import com.project.springbootjavafx.services.ReferenceDataCache;
 import com.project.springbootjavafx.services.WycieczkiService;
 import com.project.ui.MainContent;
 import com.project.ui.SpringContextHolder;
@@ -41,7 +40,7 @@ import java.time.LocalDate;
  */
 public class AddWycieczkiButton extends Button {
 
-    private AbstractServices<TypyWycieczek, String> typyWycieczekService;
+    private ReferenceDataCache referenceDataCache;
     private WycieczkiService wycieczkiService;
     private final CustomLeftButton<?, ?> leftButton;
 
@@ -53,7 +52,7 @@ public class AddWycieczkiButton extends Button {
      */
     public AddWycieczkiButton(String name, CustomLeftButton<?, ?> leftButton) {
         super(name);
-        this.typyWycieczekService = SpringContextHolder.getContext().getBean(TypyWycieczekService.class);
+        this.referenceDataCache = SpringContextHolder.getContext().getBean(ReferenceDataCache.class);
         this.wycieczkiService = SpringContextHolder.getContext().getBean(WycieczkiService.class);
         this.leftButton = leftButton;
         this.setOnAction(e -> onClick());
@@ -105,7 +104,7 @@ public class AddWycieczkiButton extends Button {
         wycieczkaField.setPromptText("Nazwa Wycieczki");
 
         ComboBox<TypyWycieczek> typWycieczkiComboBox = new ComboBox<>();
-        typWycieczkiComboBox.setItems(FXCollections.observableArrayList(typyWycieczekService.getAll()));
+        typWycieczkiComboBox.setItems(FXCollections.observableArrayList(referenceDataCache.getTypyWycieczek()));
         typWycieczkiComboBox.setPromptText("Wybierz Typ Wycieczki");
 
         DatePicker poczatekDatePicker = new DatePicker();
@@ -1,6 +1,8 @@
 package com.project.springbootjavafx.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -21,6 +23,10 @@ import java.math.BigDecimal;
  * such as constructors, getters, and setters.
  * </p>
  *
+ * <p>
+ * Price lists are read whenever a client is priced, so they are kept in the second-level cache.
+ * </p>
+ *
  * @see TypyWycieczek
  */
 @NoArgsConstructor
@@ -28,13 +34,21 @@ import java.math.BigDecimal;
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Ceny implements Models {
 
     /**
      * The unique identifier for the pricing record.
+     *
+     * <p>
+     * Generated from the pooled {@code ceny_id_seq} sequence so that Hibernate can batch inserts
+     * (see {@code V2__sequences_for_batching.sql}).
+     * </p>
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ceny_id_gen")
+    @SequenceGenerator(name = "ceny_id_gen", sequenceName = "ceny_id_seq", allocationSize = 50)
     private Integer id;
 
     /**
@@ -45,7 +59,7 @@ public class Ceny implements Models {
      * The join column is "typ_wycieczki" which references the "typ" column in the {@code TypyWycieczek} table.
      * </p>
      */
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "typ_wycieczki", referencedColumnName = "typ")
     private TypyWycieczek typ_wycieczki;
 
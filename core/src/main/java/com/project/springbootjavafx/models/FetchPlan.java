@@ -0,0 +1,50 @@
+package com.project.springbootjavafx.models;
+
+/**
+ * The {@code FetchPlan} enum names the use cases for which associations of the entities are fetched.
+ *
+ * <p>
+ * All to-one associations of the model are lazy. A screen that needs some of them asks the service for a plan,
+ * and the plan is resolved to the named entity graph {@code <Entity>.<name>} declared on the entity, for example
+ * {@code Klienci.grid} or {@code Wycieczki.pricing}. When an entity does not declare a graph for the requested plan,
+ * only its own columns are loaded. This keeps the number of queries issued by every screen bounded and known.
+ * </p>
+ *
+ * @see com.project.springbootjavafx.services.AbstractServices
+ */
+public enum FetchPlan {
+
+    /**
+     * Everything displayed in the entity grid of the left sidebar.
+     */
+    GRID("grid"),
+
+    /**
+     * A hotel list of a room: the room, the night city with its city and the hotel.
+     */
+    ROOM_HOTEL_LIST("roomHotelList"),
+
+    /**
+     * Everything needed to price a client: the trip type of the trip and its prices.
+     */
+    PRICING("pricing");
+
+    /**
+     * The suffix of the entity graph names belonging to this plan.
+     */
+    private final String graphSuffix;
+
+    FetchPlan(String graphSuffix) {
+        this.graphSuffix = graphSuffix;
+    }
+
+    /**
+     * Returns the name of the entity graph implementing this plan for the given entity.
+     *
+     * @param entity the entity class
+     * @return the graph name, e.g. {@code Klienci.grid}
+     */
+    public String graphName(Class<?> entity) {
+        return entity.getSimpleName() + "." + graphSuffix;
+    }
+}
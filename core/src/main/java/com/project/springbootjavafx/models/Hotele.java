@@ -1,6 +1,8 @@
 package com.project.springbootjavafx.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.Setter;
 import java.util.List;
@@ -9,7 +11,8 @@ import java.util.List;
  * The {@code Hotele} class represents a hotel entity in the system.
  *
  * <p>
- * This entity contains basic information about a hotel, such as its code, name, address, email, and telephone number.
+ * This entity contains basic information about a hotel, such as its code, name, address, email, telephone number and
+ * number of rooms.
  * It is associated with a {@link Miasta} entity representing the city in which the hotel is located and may have multiple
  * {@link ListyHoteli} entries associated with it.
  * </p>
@@ -18,12 +21,24 @@ import java.util.List;
  * The class uses JPA annotations to map to a database table and Lombok annotations to generate boilerplate code (getters and setters).
  * </p>
  *
+ * <p>
+ * The city is loaded lazily; the {@code Hotele.grid} entity graph ({@link FetchPlan#GRID}) fetches it
+ * together with the hotels for the hotel grid.
+ * </p>
+ *
+ * <p>
+ * Hotels change rarely and are read by every hotel-list dialog, so they are kept in the second-level cache.
+ * </p>
+ *
  * @see Miasta
  * @see ListyHoteli
  */
 @Getter
 @Setter
+@NamedEntityGraph(name = "Hotele.grid", attributeNodes = @NamedAttributeNode("miasto"))
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Hotele implements Models {
 
     /**
@@ -45,7 +60,7 @@ public class Hotele implements Models {
      * This is defined as a many-to-one relationship with the {@link Miasta} entity.
      * </p>
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "miasto")
     private Miasta miasto;
 
@@ -74,6 +89,17 @@ public class Hotele implements Models {
      */
     private String nr_tel;
 
+    /**
+     * The number of rooms the hotel can give to the company on one night, or {@code null} if it is not known.
+     *
+     * <p>
+     * The hotel lists of all trips are checked against it by {@code OverbookingDetector}; a hotel without it is not
+     * checked.
+     * </p>
+     */
+    @Column(name = "liczba_pokoi")
+    private Integer liczbaPokoi;
+
     /**
      * Default no-argument constructor.
      */
@@ -0,0 +1,161 @@
+package com.project.springbootjavafx.models;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The {@code Itinerary} class is the compiled, immutable form of the nights of one trip type.
+ *
+ * <p>
+ * The {@link MiastaWycieczek} rows of a {@link TypyWycieczek} are turned once into arrays indexed by the night
+ * number, holding the city of the night and the identifier of its {@code MiastaWycieczek} row. Asking for the city
+ * of night N is then an array access, without a query and without sorting by {@code nr_nocy}. The dates follow the
+ * nightly hotel list, where night N of a trip falls on {@code poczatek + (N - 1)} (see
+ * {@code ListaNocyHoteliRepository}).
+ * </p>
+ *
+ * <p>
+ * Itineraries are compiled and kept by {@code ReferenceDataCache}, which compiles them again whenever a night or a
+ * trip type changes.
+ * </p>
+ */
+public final class Itinerary {
+
+    /**
+     * The trip type of the itinerary.
+     */
+    private final String typ;
+
+    /**
+     * The city of every night, at index {@code night - 1}; {@code null} for a night without a city.
+     */
+    private final String[] miasta;
+
+    /**
+     * The identifier of the {@code MiastaWycieczek} row of every night, at index {@code night - 1}; 0 for a night
+     * without a city.
+     */
+    private final int[] miastaWycieczekIds;
+
+    private Itinerary(String typ, String[] miasta, int[] miastaWycieczekIds) {
+        this.typ = typ;
+        this.miasta = miasta;
+        this.miastaWycieczekIds = miastaWycieczekIds;
+    }
+
+    /**
+     * Compiles the itinerary of a trip type from its nights.
+     *
+     * <p>
+     * The itinerary has as many nights as the highest night number. Should a night number be assigned twice, the
+     * row with the lower identifier is used.
+     * </p>
+     *
+     * @param typ  the trip type
+     * @param noce the nights of the trip type; their cities are only read by identifier
+     * @return the compiled itinerary
+     */
+    public static Itinerary compile(String typ, Collection<MiastaWycieczek> noce) {
+        List<MiastaWycieczek> posortowane = noce.stream()
+                .filter(noc -> noc.getNumerNocy() != null && noc.getNumerNocy() > 0)
+                .sorted(Comparator.comparing(MiastaWycieczek::getId))
+                .toList();
+        int liczbaNocy = posortowane.stream().mapToInt(MiastaWycieczek::getNumerNocy).max().orElse(0);
+
+        String[] miasta = new String[liczbaNocy];
+        int[] ids = new int[liczbaNocy];
+        for (MiastaWycieczek noc : posortowane) {
+            int i = noc.getNumerNocy() - 1;
+            if (miasta[i] == null && noc.getMiasta() != null) {
+                miasta[i] = noc.getMiasta().getMiasto();
+                ids[i] = noc.getId();
+            }
+        }
+        return new Itinerary(typ, miasta, ids);
+    }
+
+    /**
+     * Returns the trip type of the itinerary.
+     *
+     * @return the trip type
+     */
+    public String getTyp() {
+        return typ;
+    }
+
+    /**
+     * Returns the number of nights of the itinerary.
+     *
+     * @return the highest night number, 0 for a trip type without nights
+     */
+    public int getLiczbaNocy() {
+        return miasta.length;
+    }
+
+    /**
+     * Checks whether a city is assigned to the given night.
+     *
+     * @param noc the night number, starting with 1
+     * @return {@code true} if the night exists and has a city
+     */
+    public boolean maNoc(int noc) {
+        return noc >= 1 && noc <= miasta.length && miasta[noc - 1] != null;
+    }
+
+    /**
+     * Returns the city of the given night.
+     *
+     * @param noc the night number, starting with 1
+     * @return the name of the city
+     * @throws IllegalArgumentException if no city is assigned to the night
+     */
+    public String getMiasto(int noc) {
+        return miasta[sprawdzNoc(noc)];
+    }
+
+    /**
+     * Returns the identifier of the {@link MiastaWycieczek} row of the given night.
+     *
+     * @param noc the night number, starting with 1
+     * @return the identifier of the row
+     * @throws IllegalArgumentException if no city is assigned to the night
+     */
+    public int getMiastoWycieczkiId(int noc) {
+        return miastaWycieczekIds[sprawdzNoc(noc)];
+    }
+
+    /**
+     * Returns the date of the given night of a trip.
+     *
+     * @param poczatek the first day of the trip
+     * @param noc      the night number, starting with 1
+     * @return the date of the night
+     * @throws IllegalArgumentException if the night is outside the itinerary
+     */
+    public LocalDate getData(LocalDate poczatek, int noc) {
+        if (noc < 1 || noc > miasta.length) {
+            throw new IllegalArgumentException("Typ wycieczki " + typ + " nie ma nocy " + noc);
+        }
+        return poczatek.plusDays(noc - 1);
+    }
+
+    /**
+     * Returns the cities of all nights in order.
+     *
+     * @return an unmodifiable list with the city of every night, {@code null} for a night without a city
+     */
+    public List<String> getMiasta() {
+        return Collections.unmodifiableList(Arrays.asList(miasta.clone()));
+    }
+
+    private int sprawdzNoc(int noc) {
+        if (!maNoc(noc)) {
+            throw new IllegalArgumentException("Typ wycieczki " + typ + " nie ma miasta dla nocy " + noc);
+        }
+        return noc - 1;
+    }
+}
@@ -19,19 +19,34 @@ import java.math.BigDecimal;
  * getters and setters automatically.
  * </p>
  *
+ * <p>
+ * The trip and the room are loaded lazily; the {@code Klienci.grid} entity graph ({@link FetchPlan#GRID})
+ * fetches both of them together with the clients for the client grid.
+ * </p>
+ *
  * @see Wycieczki
  * @see Pokoje
  */
 @Getter
 @Setter
+@NamedEntityGraph(name = "Klienci.grid", attributeNodes = {
+        @NamedAttributeNode("wycieczka"),
+        @NamedAttributeNode("pokoj")
+})
 @Entity
 public class Klienci implements Models {
 
     /**
      * The unique identifier for the client.
+     *
+     * <p>
+     * Generated from the pooled {@code klienci_id_seq} sequence so that Hibernate can batch inserts
+     * (see {@code V2__sequences_for_batching.sql}).
+     * </p>
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "klienci_id_gen")
+    @SequenceGenerator(name = "klienci_id_gen", sequenceName = "klienci_id_seq", allocationSize = 50)
     private Integer id;
 
     /**
@@ -51,7 +66,7 @@ public class Klienci implements Models {
      * This represents a many-to-one relationship with the {@link Wycieczki} entity.
      * </p>
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "wycieczka")
     private Wycieczki wycieczka;
 
@@ -68,7 +83,7 @@ public class Klienci implements Models {
      * This represents a many-to-one relationship with the {@link Pokoje} entity.
      * </p>
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pokoj")
     private Pokoje pokoj;
 
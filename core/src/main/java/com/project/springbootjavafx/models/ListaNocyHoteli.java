@@ -9,16 +9,21 @@ import org.hibernate.annotations.Immutable;
 import java.time.LocalDate;
 
 /**
- * The {@code ListaNocyHoteli} class represents an immutable view of hotel night list data.
+ * The {@code ListaNocyHoteli} class represents one night of the hotel list of a room, as shown by the
+ * "Pokaż listę hoteli" screen.
  *
  * <p>
- * This entity is mapped to the database view <em>v_lista_nocy_hoteli</em> and is marked as immutable,
- * indicating that its data is read-only. It contains information about a specific hotel night entry,
- * including the room identifier, night number, date, city, and hotel name.
+ * This entity is mapped to the table <em>lista_nocy_hoteli</em>, a projection of {@code listy_hoteli} joined with
+ * the room, the trip, the trip night city and the hotel, with the date of every night already computed. It replaces
+ * the view <em>v_lista_nocy_hoteli</em>, which repeated these joins on every read. The rows of a room are rebuilt by
+ * {@code ListaNocyHoteliService} whenever {@code ListyHoteliService} adds or deletes hotel list entries of that room,
+ * and whenever the start of its trip, one of its hotels or one of its trip nights is updated, so reading a room or a
+ * date range is a plain index lookup.
  * </p>
  *
  * <p>
- * Note: Since this entity is immutable, any changes to the data should be made at the source level (i.e., in the database view).
+ * Note: Since this entity is immutable, any changes to the data should be made at the source level (i.e., in the
+ * {@code listy_hoteli} table).
  * </p>
  *
  * @see LocalDate
@@ -29,7 +34,10 @@ import java.time.LocalDate;
 @Getter
 @Entity
 @Immutable
-@Table(name = "v_lista_nocy_hoteli")
+@Table(name = "lista_nocy_hoteli", indexes = {
+        @Index(name = "ux_lista_nocy_hoteli_pokoj_noc", columnList = "pokoj_id, noc", unique = true),
+        @Index(name = "ix_lista_nocy_hoteli_data", columnList = "data")
+})
 public class ListaNocyHoteli {
 
     /**
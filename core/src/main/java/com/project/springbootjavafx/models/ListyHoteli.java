@@ -17,6 +17,11 @@ import lombok.Setter;
  * in the composite key.
  * </p>
  *
+ * <p>
+ * All associations are loaded lazily; the {@code ListyHoteli.roomHotelList} entity graph
+ * ({@link FetchPlan#ROOM_HOTEL_LIST}) fetches the room, the night city with its city and the hotel in one query.
+ * </p>
+ *
  * @see ListyHoteliKey
  * @see Pokoje
  * @see MiastaWycieczek
@@ -26,6 +31,11 @@ import lombok.Setter;
 @AllArgsConstructor
 @Setter
 @Getter
+@NamedEntityGraph(name = "ListyHoteli.roomHotelList", attributeNodes = {
+        @NamedAttributeNode("pokoj"),
+        @NamedAttributeNode(value = "miastoWycieczki", subgraph = "miastoWycieczki"),
+        @NamedAttributeNode("hotel")
+}, subgraphs = @NamedSubgraph(name = "miastoWycieczki", attributeNodes = @NamedAttributeNode("miasta")))
 @Entity
 @Table(name = "listy_hoteli")
 public class ListyHoteli implements Models {
@@ -43,7 +53,7 @@ public class ListyHoteli implements Models {
      * This relationship is mapped using {@link MapsId} with the key field "pokoj" in the composite key.
      * </p>
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @MapsId("pokoj")
     @JoinColumn(name = "pokoj")
     Pokoje pokoj;
@@ -55,7 +65,7 @@ public class ListyHoteli implements Models {
      * This relationship is mapped using {@link MapsId} with the key field "miastoWycieczki" in the composite key.
      * </p>
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @MapsId("miastoWycieczki")
     @JoinColumn(name = "miasto_wycieczki")
     MiastaWycieczek miastoWycieczki;
@@ -67,7 +77,7 @@ public class ListyHoteli implements Models {
      * This relationship is mapped using {@link MapsId} with the key field "hotelKod" in the composite key.
      * </p>
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @MapsId("hotelKod")
     @JoinColumn(name = "hotel")
     Hotele hotel;
@@ -1,9 +1,12 @@
 package com.project.springbootjavafx.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.Setter;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * The {@code Miasta} class represents a city entity in the system.
@@ -27,12 +30,23 @@ import java.util.List;
  * Lombok annotations (@Getter and @Setter) are used to automatically generate getter and setter methods.
  * </p>
  *
+ * <p>
+ * Cities are reference data: they are kept in the second-level cache and updated through it on every change.
+ * </p>
+ *
+ * <p>
+ * Two cities are equal when they have the same name, so that cities loaded in different persistence contexts can be
+ * used as keys of the same map (see {@code HoteleService#getHoteleMiast}).
+ * </p>
+ *
  * @see Hotele
  * @see MiastaWycieczek
  */
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Miasta implements Models {
 
     /**
@@ -89,4 +103,35 @@ public class Miasta implements Models {
     public String toString() {
         return miasto;
     }
+
+    /**
+     * Compares the city with another object by the city name.
+     *
+     * <p>
+     * The name of the other city is read through its getter, so an uninitialized proxy compares correctly too.
+     * </p>
+     *
+     * @param o the object to compare with
+     * @return {@code true} if the object is a city with the same name
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Miasta other)) {
+            return false;
+        }
+        return miasto != null && miasto.equals(other.getMiasto());
+    }
+
+    /**
+     * Returns a hash code based on the city name.
+     *
+     * @return the hash code of the city name
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(miasto);
+    }
 }
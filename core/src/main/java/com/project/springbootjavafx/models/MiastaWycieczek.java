@@ -1,6 +1,8 @@
 package com.project.springbootjavafx.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -19,6 +21,10 @@ import java.util.List;
  * Lombok annotations (@Getter and @Setter) are used to automatically generate getter and setter methods.
  * </p>
  *
+ * <p>
+ * The nights of a trip type are reference data kept in the second-level cache.
+ * </p>
+ *
  * @see TypyWycieczek
  * @see Miasta
  * @see ListyHoteli
@@ -27,14 +33,22 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "miasta_wycieczek")
 public class MiastaWycieczek implements Models {
 
     /**
      * The unique identifier for the MiastaWycieczek record.
+     *
+     * <p>
+     * Generated from the pooled {@code miasta_wycieczek_id_seq} sequence so that Hibernate can batch inserts
+     * (see {@code V2__sequences_for_batching.sql}).
+     * </p>
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "miasta_wycieczek_id_gen")
+    @SequenceGenerator(name = "miasta_wycieczek_id_gen", sequenceName = "miasta_wycieczek_id_seq", allocationSize = 50)
     private Integer id;
 
     /**
@@ -44,7 +58,7 @@ public class MiastaWycieczek implements Models {
      * This is a many-to-one relationship with the {@link TypyWycieczek} entity.
      * </p>
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "typ_wycieczki")
     private TypyWycieczek typyWycieczek;
 
@@ -55,7 +69,7 @@ public class MiastaWycieczek implements Models {
      * This is a many-to-one relationship with the {@link Miasta} entity.
      * </p>
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "miasto")
     private Miasta miasta;
 
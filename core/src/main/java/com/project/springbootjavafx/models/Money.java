@@ -0,0 +1,163 @@
+package com.project.springbootjavafx.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The {@code Money} record is an amount of money in whole grosze.
+ *
+ * <p>
+ * Pricing and summing of amounts are done on {@code long} grosze, without {@code BigDecimal} arithmetic and, in the
+ * static variants meant for loops over many clients, without allocation. The entities keep their amounts as
+ * {@code BigDecimal}, the type of the {@code NUMERIC(10, 2)} columns, so an amount is converted with
+ * {@link #of(BigDecimal)} when it is read from an entity and with {@link #toBigDecimal()} when it is written to one,
+ * and nowhere else.
+ * </p>
+ *
+ * <p>
+ * All arithmetic fails with an {@link ArithmeticException} on overflow instead of wrapping around.
+ * </p>
+ *
+ * @param grosze the amount in grosze
+ */
+public record Money(long grosze) implements Comparable<Money> {
+
+    /**
+     * No money.
+     */
+    public static final Money ZERO = new Money(0);
+
+    /**
+     * Converts an amount read from an entity.
+     *
+     * @param zlote the amount in złote; rounded half up to a grosz
+     * @return the amount
+     * @throws NullPointerException if the amount is {@code null}
+     * @throws ArithmeticException  if the amount does not fit
+     */
+    public static Money of(BigDecimal zlote) {
+        return new Money(grosze(zlote));
+    }
+
+    /**
+     * Converts an amount read from an entity, where a missing amount counts as no money.
+     *
+     * @param zlote the amount in złote, or {@code null}
+     * @return the amount, or {@link #ZERO}
+     */
+    public static Money ofNullable(BigDecimal zlote) {
+        return zlote == null ? ZERO : of(zlote);
+    }
+
+    /**
+     * Converts an amount in złote to grosze.
+     *
+     * @param zlote the amount in złote; rounded half up to a grosz
+     * @return the amount in grosze
+     * @throws ArithmeticException if the amount does not fit
+     */
+    public static long grosze(BigDecimal zlote) {
+        return zlote.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * Converts an amount in grosze to złote.
+     *
+     * @param grosze the amount in grosze
+     * @return the amount with two decimal places
+     */
+    public static BigDecimal zlote(long grosze) {
+        return BigDecimal.valueOf(grosze, 2);
+    }
+
+    /**
+     * Reduces an amount by a percentage.
+     *
+     * @param grosze  the amount in grosze
+     * @param procent the percentage taken off
+     * @return the reduced amount in grosze, rounded half up
+     */
+    public static long poRabacie(long grosze, int procent) {
+        long licznik = Math.multiplyExact(grosze, 100 - procent);
+        return licznik >= 0 ? (licznik + 50) / 100 : -((-licznik + 50) / 100);
+    }
+
+    /**
+     * Sums amounts.
+     *
+     * @param grosze the amounts in grosze
+     * @return the sum
+     * @throws ArithmeticException if the sum does not fit
+     */
+    public static Money sum(long[] grosze) {
+        long suma = 0;
+        for (long kwota : grosze) {
+            suma = Math.addExact(suma, kwota);
+        }
+        return new Money(suma);
+    }
+
+    /**
+     * Adds an amount.
+     *
+     * @param other the amount to add
+     * @return the sum
+     */
+    public Money plus(Money other) {
+        return new Money(Math.addExact(grosze, other.grosze));
+    }
+
+    /**
+     * Subtracts an amount.
+     *
+     * @param other the amount to subtract
+     * @return the difference
+     */
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(grosze, other.grosze));
+    }
+
+    /**
+     * Multiplies the amount.
+     *
+     * @param ile the multiplier, for example a number of nights
+     * @return the product
+     */
+    public Money times(long ile) {
+        return new Money(Math.multiplyExact(grosze, ile));
+    }
+
+    /**
+     * Reduces the amount by a percentage.
+     *
+     * @param procent the percentage taken off
+     * @return the reduced amount, rounded half up to a grosz
+     */
+    public Money poRabacie(int procent) {
+        return new Money(poRabacie(grosze, procent));
+    }
+
+    /**
+     * Converts the amount to be written to an entity.
+     *
+     * @return the amount in złote with two decimal places
+     */
+    public BigDecimal toBigDecimal() {
+        return zlote(grosze);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(grosze, other.grosze);
+    }
+
+    /**
+     * Returns the amount in złote with two decimal places, for example {@code 850.00}.
+     *
+     * @return the amount as text
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
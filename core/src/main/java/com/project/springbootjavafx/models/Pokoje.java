@@ -21,10 +21,16 @@ import java.util.List;
  * getters, and setters.
  * </p>
  *
+ * <p>
+ * The trip is loaded lazily; the {@code Pokoje.grid} entity graph ({@link FetchPlan#GRID}) fetches it
+ * together with the rooms for the room grid.
+ * </p>
+ *
  * @see Wycieczki
  * @see ListyHoteli
  * @see Klienci
  */
+@NamedEntityGraph(name = "Pokoje.grid", attributeNodes = @NamedAttributeNode("wycieczka"))
 @Entity
 @Getter
 @Setter
@@ -34,9 +40,15 @@ public class Pokoje implements Models {
 
     /**
      * The unique identifier for the room.
+     *
+     * <p>
+     * Generated from the pooled {@code pokoje_id_seq} sequence so that Hibernate can batch inserts
+     * (see {@code V2__sequences_for_batching.sql}).
+     * </p>
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pokoje_id_gen")
+    @SequenceGenerator(name = "pokoje_id_gen", sequenceName = "pokoje_id_seq", allocationSize = 50)
     private Integer id;
 
     /**
@@ -46,7 +58,7 @@ public class Pokoje implements Models {
      * This is a many-to-one relationship with the {@link Wycieczki} entity.
      * </p>
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "wycieczka")
     private Wycieczki wycieczka;
 
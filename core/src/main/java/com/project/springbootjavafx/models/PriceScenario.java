@@ -0,0 +1,116 @@
+package com.project.springbootjavafx.models;
+
+import com.project.springbootjavafx.models.PriceTable.Skladnik;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * The {@code PriceScenario} record is a named set of changes of the prices, for example "{@code pok_2} rises 5% and
+ * the e-bike drops 10 zł", whose effect on the revenue is simulated by {@code PriceSimulator}.
+ *
+ * <p>
+ * Every change raises or lowers one price by a percentage and then by an amount, either for all trip types or for
+ * one. Changes of the same price are applied in their order.
+ * </p>
+ *
+ * @param nazwa  the name of the scenario
+ * @param zmiany the changes of the prices
+ */
+public record PriceScenario(String nazwa, List<Zmiana> zmiany) {
+
+    /**
+     * Creates a scenario.
+     *
+     * @param nazwa  the name of the scenario
+     * @param zmiany the changes of the prices
+     * @return the scenario
+     */
+    public static PriceScenario of(String nazwa, Zmiana... zmiany) {
+        return new PriceScenario(nazwa, List.of(zmiany));
+    }
+
+    /**
+     * Applies the scenario to the prices of one trip type.
+     *
+     * @param cennik the current prices of the trip type
+     * @return the prices of the trip type in the scenario
+     */
+    public PriceTable zastosuj(PriceTable cennik) {
+        PriceTable wynik = cennik;
+        for (Zmiana zmiana : zmiany) {
+            if (zmiana.dotyczy(cennik.getTyp())) {
+                wynik = wynik.zmien(zmiana.skladnik(), zmiana::zastosuj);
+            }
+        }
+        return wynik;
+    }
+
+    /**
+     * One change of one price.
+     *
+     * @param typ      the trip type whose price changes, or {@code null} for all trip types
+     * @param skladnik the price that changes
+     * @param procent  the percentage by which the price rises, negative when it drops
+     * @param kwota    the amount added to the price after the percentage, negative when it drops
+     */
+    public record Zmiana(String typ, Skladnik skladnik, BigDecimal procent, Money kwota) {
+
+        /**
+         * Creates a change of a price of all trip types by a percentage.
+         *
+         * @param skladnik the price that changes
+         * @param procent  the percentage, for example {@code "5"} or {@code "-2.5"}
+         * @return the change
+         */
+        public static Zmiana procent(Skladnik skladnik, String procent) {
+            return new Zmiana(null, skladnik, new BigDecimal(procent), Money.ZERO);
+        }
+
+        /**
+         * Creates a change of a price of all trip types by an amount.
+         *
+         * @param skladnik the price that changes
+         * @param kwota    the amount, for example {@code "-10"}
+         * @return the change
+         */
+        public static Zmiana kwota(Skladnik skladnik, String kwota) {
+            return new Zmiana(null, skladnik, BigDecimal.ZERO, Money.of(new BigDecimal(kwota)));
+        }
+
+        /**
+         * Limits the change to one trip type.
+         *
+         * @param typ the trip type
+         * @return the change of the prices of the trip type only
+         */
+        public Zmiana dlaTypu(String typ) {
+            return new Zmiana(typ, skladnik, procent, kwota);
+        }
+
+        /**
+         * Checks whether the change applies to a trip type.
+         *
+         * @param typWycieczki the trip type
+         * @return {@code true} if the change applies to all trip types or to this one
+         */
+        public boolean dotyczy(String typWycieczki) {
+            return typ == null || typ.equals(typWycieczki);
+        }
+
+        /**
+         * Computes the changed price.
+         *
+         * @param grosze the current price in grosze
+         * @return the changed price in grosze, rounded half up
+         */
+        public long zastosuj(long grosze) {
+            long poProcencie = procent.signum() == 0 ? grosze : BigDecimal.valueOf(grosze)
+                    .multiply(BigDecimal.valueOf(100).add(procent))
+                    .divide(BigDecimal.valueOf(100), 0, RoundingMode.HALF_UP)
+                    .longValueExact();
+            return Math.addExact(poProcencie, kwota.grosze());
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.project.springbootjavafx.models;
+
+import java.math.BigDecimal;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * The {@code PriceTable} class is the compiled, immutable form of the {@link Ceny} of one trip type.
+ *
+ * <p>
+ * All prices are converted once to whole grosze (see {@link Money}) held in primitive fields, so a quote is a few
+ * overflow-checked additions of {@code long}s, without {@code BigDecimal} arithmetic, without allocation and without
+ * touching the entity. The options of a client are passed as a bit set of the {@code OPCJA_*} flags (see
+ * {@link #opcje(Klienci)}).
+ * </p>
+ *
+ * <p>
+ * The price of a client is the price of the room by its number of places, reduced by the child discount
+ * ({@code ulga_dziecko} percent, rounded half up to a grosz) if the client has it, plus the price of every chosen
+ * extra. A price that is missing from the {@code Ceny} row can only be quoted as an error.
+ * </p>
+ *
+ * <p>
+ * Price tables are compiled and kept by {@code ReferenceDataCache}, which compiles them again whenever the prices
+ * change; quotes are served by {@code PricingEngine}.
+ * </p>
+ */
+public final class PriceTable {
+
+    /**
+     * The client has the child discount.
+     */
+    public static final int OPCJA_ULGA = 1;
+
+    /**
+     * The client rents a bicycle.
+     */
+    public static final int OPCJA_ROWER = 1 << 1;
+
+    /**
+     * The client rents an e-bike.
+     */
+    public static final int OPCJA_E_BIKE = 1 << 2;
+
+    /**
+     * The client stays an extra night before the trip.
+     */
+    public static final int OPCJA_NOCLEG_PRZED = 1 << 3;
+
+    /**
+     * The client stays an extra night after the trip.
+     */
+    public static final int OPCJA_NOCLEG_PO = 1 << 4;
+
+    /**
+     * The client has half board.
+     */
+    public static final int OPCJA_HB = 1 << 5;
+
+    /**
+     * The largest room with a price.
+     */
+    public static final int MAX_MIEJSC = 4;
+
+    /**
+     * Marks a price missing from the {@code Ceny} row.
+     */
+    private static final long BRAK = -1;
+
+    /**
+     * One price of the {@code Ceny} row.
+     */
+    public enum Skladnik {
+        POK_1, POK_2, POK_3, POK_4, ROWER, E_BIKE, DODATKOWA_NOC, HB
+    }
+
+    /**
+     * The trip type of the prices.
+     */
+    private final String typ;
+
+    /**
+     * The price of a room by its number of places, in grosze; index 0 is unused.
+     */
+    private final long[] pokoje;
+
+    /**
+     * The child discount in percent.
+     */
+    private final int ulga;
+
+    /**
+     * The price of renting a bicycle, in grosze.
+     */
+    private final long rower;
+
+    /**
+     * The price of renting an e-bike, in grosze.
+     */
+    private final long eBike;
+
+    /**
+     * The price of one extra night before or after the trip, in grosze.
+     */
+    private final long dodatkowaNoc;
+
+    /**
+     * The price of half board, in grosze.
+     */
+    private final long hb;
+
+    private PriceTable(String typ, long[] pokoje, int ulga, long rower, long eBike, long dodatkowaNoc, long hb) {
+        this.typ = typ;
+        this.pokoje = pokoje;
+        this.ulga = ulga;
+        this.rower = rower;
+        this.eBike = eBike;
+        this.dodatkowaNoc = dodatkowaNoc;
+        this.hb = hb;
+    }
+
+    /**
+     * Compiles the price table of a trip type.
+     *
+     * @param typ  the trip type
+     * @param ceny the prices of the trip type
+     * @return the compiled price table
+     */
+    public static PriceTable compile(String typ, Ceny ceny) {
+        long[] pokoje = {BRAK, grosze(ceny.getPok_1()), grosze(ceny.getPok_2()), grosze(ceny.getPok_3()),
+                grosze(ceny.getPok_4())};
+        int ulga = ceny.getUlga_dziecko() == null ? 0 : ceny.getUlga_dziecko();
+        return new PriceTable(typ, pokoje, ulga, grosze(ceny.getRower()), grosze(ceny.getE_bike()),
+                grosze(ceny.getDodatkowa_noc()), grosze(ceny.getHb()));
+    }
+
+    /**
+     * Builds the option flags of a client.
+     *
+     * @param klient the client
+     * @return the bit set of the {@code OPCJA_*} flags chosen by the client
+     */
+    public static int opcje(Klienci klient) {
+        return opcje(Boolean.TRUE.equals(klient.getUlga()), Boolean.TRUE.equals(klient.getRower()),
+                Boolean.TRUE.equals(klient.getEBike()), Boolean.TRUE.equals(klient.getNoclegPrzed()),
+                Boolean.TRUE.equals(klient.getNoclegPo()), Boolean.TRUE.equals(klient.getHb()));
+    }
+
+    /**
+     * Builds the option flags from the individual choices.
+     *
+     * @param ulga        whether the child discount applies
+     * @param rower       whether a bicycle is rented
+     * @param eBike       whether an e-bike is rented
+     * @param noclegPrzed whether an extra night before the trip is booked
+     * @param noclegPo    whether an extra night after the trip is booked
+     * @param hb          whether half board is booked
+     * @return the bit set of the {@code OPCJA_*} flags
+     */
+    public static int opcje(boolean ulga, boolean rower, boolean eBike, boolean noclegPrzed, boolean noclegPo,
+                            boolean hb) {
+        return (ulga ? OPCJA_ULGA : 0)
+                | (rower ? OPCJA_ROWER : 0)
+                | (eBike ? OPCJA_E_BIKE : 0)
+                | (noclegPrzed ? OPCJA_NOCLEG_PRZED : 0)
+                | (noclegPo ? OPCJA_NOCLEG_PO : 0)
+                | (hb ? OPCJA_HB : 0);
+    }
+
+    /**
+     * Returns the trip type of the prices.
+     *
+     * @return the trip type
+     */
+    public String getTyp() {
+        return typ;
+    }
+
+    /**
+     * Quotes the price of one client.
+     *
+     * @param ilMiejsc the number of places of the client's room
+     * @param opcje    the bit set of the {@code OPCJA_*} flags chosen by the client
+     * @return the price in grosze
+     * @throws IllegalArgumentException if the room or a chosen option has no price
+     * @throws ArithmeticException      if the price does not fit in a {@code long}
+     */
+    public long quote(int ilMiejsc, int opcje) {
+        if (ilMiejsc < 1 || ilMiejsc > MAX_MIEJSC || pokoje[ilMiejsc] == BRAK) {
+            throw new IllegalArgumentException("Cennik typu " + typ + " nie ma ceny pokoju " + ilMiejsc + "-osobowego");
+        }
+        long cena = pokoje[ilMiejsc];
+        if ((opcje & OPCJA_ULGA) != 0) {
+            cena = Money.poRabacie(cena, ulga);
+        }
+        if ((opcje & OPCJA_ROWER) != 0) {
+            cena = Math.addExact(cena, cena(rower, "roweru"));
+        }
+        if ((opcje & OPCJA_E_BIKE) != 0) {
+            cena = Math.addExact(cena, cena(eBike, "e-bike'a"));
+        }
+        if ((opcje & OPCJA_NOCLEG_PRZED) != 0) {
+            cena = Math.addExact(cena, cena(dodatkowaNoc, "dodatkowej nocy"));
+        }
+        if ((opcje & OPCJA_NOCLEG_PO) != 0) {
+            cena = Math.addExact(cena, cena(dodatkowaNoc, "dodatkowej nocy"));
+        }
+        if ((opcje & OPCJA_HB) != 0) {
+            cena = Math.addExact(cena, cena(hb, "HB"));
+        }
+        return cena;
+    }
+
+    /**
+     * Quotes the price of one client, or returns a given value if the price cannot be computed.
+     *
+     * <p>
+     * It is {@link #quote(int, int)} without the exception, for loops over many clients where missing prices are
+     * counted rather than reported.
+     * </p>
+     *
+     * @param ilMiejsc the number of places of the client's room
+     * @param opcje    the bit set of the {@code OPCJA_*} flags chosen by the client
+     * @param inaczej  the value returned if the room or a chosen option has no price
+     * @return the price in grosze, or {@code inaczej}
+     * @throws ArithmeticException if the price does not fit in a {@code long}
+     */
+    public long quoteOrElse(int ilMiejsc, int opcje, long inaczej) {
+        if (ilMiejsc < 1 || ilMiejsc > MAX_MIEJSC || pokoje[ilMiejsc] == BRAK
+                || brak(opcje, OPCJA_ROWER, rower) || brak(opcje, OPCJA_E_BIKE, eBike)
+                || brak(opcje, OPCJA_NOCLEG_PRZED | OPCJA_NOCLEG_PO, dodatkowaNoc) || brak(opcje, OPCJA_HB, hb)) {
+            return inaczej;
+        }
+        return quote(ilMiejsc, opcje);
+    }
+
+    /**
+     * Returns the price table with one price changed, for example to simulate a change of the prices.
+     *
+     * @param skladnik the price to change
+     * @param zmiana   computes the new price in grosze from the current one; a negative price becomes zero, and a
+     *                 missing price stays missing
+     * @return the changed price table
+     */
+    public PriceTable zmien(Skladnik skladnik, LongUnaryOperator zmiana) {
+        long[] nowePokoje = pokoje.clone();
+        long nowyRower = rower;
+        long nowyEBike = eBike;
+        long nowaNoc = dodatkowaNoc;
+        long noweHb = hb;
+        switch (skladnik) {
+            case POK_1, POK_2, POK_3, POK_4 -> {
+                int ilMiejsc = skladnik.ordinal() + 1;
+                nowePokoje[ilMiejsc] = zmien(pokoje[ilMiejsc], zmiana);
+            }
+            case ROWER -> nowyRower = zmien(rower, zmiana);
+            case E_BIKE -> nowyEBike = zmien(eBike, zmiana);
+            case DODATKOWA_NOC -> nowaNoc = zmien(dodatkowaNoc, zmiana);
+            case HB -> noweHb = zmien(hb, zmiana);
+        }
+        return new PriceTable(typ, nowePokoje, ulga, nowyRower, nowyEBike, nowaNoc, noweHb);
+    }
+
+    private static long zmien(long cena, LongUnaryOperator zmiana) {
+        return cena == BRAK ? BRAK : Math.max(0, zmiana.applyAsLong(cena));
+    }
+
+    private static boolean brak(int opcje, int opcja, long cena) {
+        return (opcje & opcja) != 0 && cena == BRAK;
+    }
+
+    private long cena(long cena, String nazwa) {
+        if (cena == BRAK) {
+            throw new IllegalArgumentException("Cennik typu " + typ + " nie ma ceny " + nazwa);
+        }
+        return cena;
+    }
+
+    private static long grosze(BigDecimal cena) {
+        return cena == null ? BRAK : Money.grosze(cena);
+    }
+}
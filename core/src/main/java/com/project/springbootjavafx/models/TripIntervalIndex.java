@@ -0,0 +1,170 @@
+package com.project.springbootjavafx.models;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code TripIntervalIndex} class is the compiled, immutable index of the date ranges of trips.
+ *
+ * <p>
+ * The trips are sorted by their first day, and next to the last day of every trip the index keeps the latest last
+ * day of all trips starting before it. The trips overlapping a period are then found with a binary search for the
+ * last trip starting within the period, followed by a walk back that stops as soon as no earlier trip lasts into the
+ * period; the trips that end before the period are not looked at, except those started before a longer trip.
+ * </p>
+ *
+ * <p>
+ * A trip occupies the days from its {@code poczatek} to its {@code koniec}, both inclusive. Trips without dates are
+ * left out of the index.
+ * </p>
+ */
+public final class TripIntervalIndex {
+
+    /**
+     * The codes of the trips, ordered by their first day.
+     */
+    private final String[] wycieczki;
+
+    /**
+     * The first day of every trip, as an epoch day.
+     */
+    private final long[] poczatki;
+
+    /**
+     * The last day of every trip, as an epoch day.
+     */
+    private final long[] konce;
+
+    /**
+     * The latest last day of the trips up to and including every position, as an epoch day.
+     */
+    private final long[] maksKonce;
+
+    /**
+     * The position of every trip by code.
+     */
+    private final Map<String, Integer> pozycje;
+
+    private TripIntervalIndex(String[] wycieczki, long[] poczatki, long[] konce) {
+        this.wycieczki = wycieczki;
+        this.poczatki = poczatki;
+        this.konce = konce;
+        this.maksKonce = new long[konce.length];
+        this.pozycje = new HashMap<>();
+        for (int i = 0; i < wycieczki.length; i++) {
+            maksKonce[i] = i == 0 ? konce[i] : Math.max(maksKonce[i - 1], konce[i]);
+            pozycje.put(wycieczki[i], i);
+        }
+    }
+
+    /**
+     * Compiles the index of the given trips.
+     *
+     * @param wycieczki the trips; only their codes and dates are read
+     * @return the compiled index
+     */
+    public static TripIntervalIndex compile(Collection<Wycieczki> wycieczki) {
+        List<Wycieczki> posortowane = wycieczki.stream()
+                .filter(wycieczka -> wycieczka.getPoczatek() != null && wycieczka.getKoniec() != null)
+                .sorted(Comparator.comparing(Wycieczki::getPoczatek).thenComparing(Wycieczki::getWycieczka))
+                .toList();
+        String[] kody = new String[posortowane.size()];
+        long[] poczatki = new long[posortowane.size()];
+        long[] konce = new long[posortowane.size()];
+        for (int i = 0; i < kody.length; i++) {
+            Wycieczki wycieczka = posortowane.get(i);
+            kody[i] = wycieczka.getWycieczka();
+            poczatki[i] = wycieczka.getPoczatek().toEpochDay();
+            konce[i] = wycieczka.getKoniec().toEpochDay();
+        }
+        return new TripIntervalIndex(kody, poczatki, konce);
+    }
+
+    /**
+     * Returns the number of trips in the index.
+     *
+     * @return the number of trips with dates
+     */
+    public int size() {
+        return wycieczki.length;
+    }
+
+    /**
+     * Checks whether a trip is in the index.
+     *
+     * @param wycieczka the code of the trip
+     * @return {@code true} if the trip is known and has dates
+     */
+    public boolean zawiera(String wycieczka) {
+        return pozycje.containsKey(wycieczka);
+    }
+
+    /**
+     * Returns the first day of a trip.
+     *
+     * @param wycieczka the code of the trip
+     * @return the first day
+     * @throws IllegalArgumentException if the trip is not in the index
+     */
+    public LocalDate getPoczatek(String wycieczka) {
+        return LocalDate.ofEpochDay(poczatki[pozycja(wycieczka)]);
+    }
+
+    /**
+     * Returns the last day of a trip.
+     *
+     * @param wycieczka the code of the trip
+     * @return the last day
+     * @throws IllegalArgumentException if the trip is not in the index
+     */
+    public LocalDate getKoniec(String wycieczka) {
+        return LocalDate.ofEpochDay(konce[pozycja(wycieczka)]);
+    }
+
+    /**
+     * Returns the trips that have at least one day within a period.
+     *
+     * @param od  the first day of the period
+     * @param do_ the last day of the period
+     * @return the codes of the trips, ordered by their first day
+     */
+    public List<String> nachodzace(LocalDate od, LocalDate do_) {
+        long pierwszy = od.toEpochDay();
+        long ostatni = do_.toEpochDay();
+
+        // the number of trips starting on or before the last day of the period
+        int lo = 0;
+        int hi = poczatki.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (poczatki[mid] <= ostatni) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+
+        List<String> nachodzace = new ArrayList<>();
+        for (int i = lo - 1; i >= 0 && maksKonce[i] >= pierwszy; i--) {
+            if (konce[i] >= pierwszy) {
+                nachodzace.add(wycieczki[i]);
+            }
+        }
+        Collections.reverse(nachodzace);
+        return nachodzace;
+    }
+
+    private int pozycja(String wycieczka) {
+        Integer pozycja = pozycje.get(wycieczka);
+        if (pozycja == null) {
+            throw new IllegalArgumentException("Nieznana wycieczka: " + wycieczka);
+        }
+        return pozycja;
+    }
+}
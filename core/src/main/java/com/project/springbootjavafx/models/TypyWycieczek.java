@@ -1,6 +1,8 @@
 package com.project.springbootjavafx.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -26,6 +28,16 @@ import java.util.List;
  * Lombok annotations are used to generate constructors, getters, and setters automatically.
  * </p>
  *
+ * <p>
+ * The prices are mapped on the inverse side of a one-to-one relationship, which Hibernate always loads
+ * eagerly; the {@code TypyWycieczek.grid} entity graph ({@link FetchPlan#GRID}) joins them into the same query
+ * instead of selecting them for every trip type.
+ * </p>
+ *
+ * <p>
+ * Trip types are reference data kept in the second-level cache.
+ * </p>
+ *
  * @see Ceny
  * @see MiastaWycieczek
  * @see Wycieczki
@@ -34,7 +46,10 @@ import java.util.List;
 @AllArgsConstructor
 @Setter
 @Getter
+@NamedEntityGraph(name = "TypyWycieczek.grid", attributeNodes = @NamedAttributeNode("ceny"))
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "typy_wycieczek")
 public class TypyWycieczek implements Models {
 
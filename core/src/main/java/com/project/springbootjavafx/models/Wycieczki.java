@@ -29,12 +29,22 @@ import java.util.List;
  * constructors, getters, and setters.
  * </p>
  *
+ * <p>
+ * The trip type is loaded lazily. The {@code Wycieczki.grid} entity graph ({@link FetchPlan#GRID}) fetches it
+ * for the trip grid, and the {@code Wycieczki.pricing} graph ({@link FetchPlan#PRICING}) fetches the trip type
+ * together with its prices for the price calculation of a new client.
+ * </p>
+ *
  * @see TypyWycieczek
  * @see Pokoje
  * @see Klienci
  */
 @AllArgsConstructor
 @NoArgsConstructor
+@NamedEntityGraph(name = "Wycieczki.grid", attributeNodes = @NamedAttributeNode(value = "typWycieczki", subgraph = "typ"),
+        subgraphs = @NamedSubgraph(name = "typ", attributeNodes = @NamedAttributeNode("ceny")))
+@NamedEntityGraph(name = "Wycieczki.pricing", attributeNodes = @NamedAttributeNode(value = "typWycieczki", subgraph = "typ"),
+        subgraphs = @NamedSubgraph(name = "typ", attributeNodes = @NamedAttributeNode("ceny")))
 @Entity
 @Setter
 @Getter
@@ -53,7 +63,7 @@ public class Wycieczki implements Models {
      * This is a many-to-one relationship with the {@link TypyWycieczek} entity.
      * </p>
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "typ_wycieczki")
     private TypyWycieczek typWycieczki;
 
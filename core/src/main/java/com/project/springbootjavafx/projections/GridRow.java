@@ -0,0 +1,22 @@
+package com.project.springbootjavafx.projections;
+
+/**
+ * The {@code GridRow} interface is implemented by the read-only rows displayed in the entity grids.
+ *
+ * <p>
+ * A row is a record holding only the flat columns of one entity, selected with a single constructor-expression
+ * query instead of loading managed entities. Associations are represented by the identifier of the related entity.
+ * The grids build their columns from the record components, in declaration order.
+ * </p>
+ *
+ * @param <ID> the type of the identifier of the entity the row was read from
+ */
+public interface GridRow<ID> {
+
+    /**
+     * Returns the identifier of the entity the row was read from, used as the cursor of the keyset pagination.
+     *
+     * @return the identifier of the entity
+     */
+    ID key();
+}
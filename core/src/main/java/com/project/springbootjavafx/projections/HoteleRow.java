@@ -0,0 +1,30 @@
+package com.project.springbootjavafx.projections;
+
+import com.project.springbootjavafx.models.Hotele;
+
+/**
+ * A read-only row of the {@link Hotele} grid.
+ *
+ * @param kod         the code of the hotel
+ * @param nazwa       the name of the hotel
+ * @param miasto      the city of the hotel
+ * @param adres       the address
+ * @param mail        the e-mail address
+ * @param nr_tel      the phone number
+ * @param liczbaPokoi the number of rooms, {@code null} if not known
+ */
+public record HoteleRow(
+        String kod,
+        String nazwa,
+        String miasto,
+        String adres,
+        String mail,
+        String nr_tel,
+        Integer liczbaPokoi
+) implements GridRow<String> {
+
+    @Override
+    public String key() {
+        return kod;
+    }
+}
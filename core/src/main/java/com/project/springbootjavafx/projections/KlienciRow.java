@@ -0,0 +1,44 @@
+package com.project.springbootjavafx.projections;
+
+import com.project.springbootjavafx.models.Klienci;
+
+import java.math.BigDecimal;
+
+/**
+ * A read-only row of the {@link Klienci} grid.
+ *
+ * @param id          the unique identifier of the client
+ * @param imie        the first name
+ * @param nazwisko    the last name
+ * @param wycieczka   the code of the trip
+ * @param typPokoju   the room type
+ * @param pokoj       the identifier of the room
+ * @param ulga        whether the client has the child discount
+ * @param rower       whether the client rents a bike
+ * @param eBike       whether the client rents an e-bike
+ * @param noclegPrzed whether the client stays a night before the trip
+ * @param noclegPo    whether the client stays a night after the trip
+ * @param hb          whether the client chose half board
+ * @param doZaplaty   the amount due
+ */
+public record KlienciRow(
+        Integer id,
+        String imie,
+        String nazwisko,
+        String wycieczka,
+        String typPokoju,
+        Integer pokoj,
+        Boolean ulga,
+        Boolean rower,
+        Boolean eBike,
+        Boolean noclegPrzed,
+        Boolean noclegPo,
+        Boolean hb,
+        BigDecimal doZaplaty
+) implements GridRow<Integer> {
+
+    @Override
+    public Integer key() {
+        return id;
+    }
+}
@@ -0,0 +1,41 @@
+package com.project.springbootjavafx.projections;
+
+import com.project.springbootjavafx.models.Klienci;
+import com.project.springbootjavafx.models.PriceTable;
+
+/**
+ * What the price of a {@link Klienci} row depends on: the trip and its type, the size of the room and the chosen
+ * options. Used to load the snapshot of the price simulator.
+ *
+ * @param wycieczka   the code of the trip
+ * @param typ         the trip type
+ * @param ilMiejsc    the number of places of the client's room
+ * @param ulga        whether the client has the child discount
+ * @param rower       whether the client rents a bicycle
+ * @param eBike       whether the client rents an e-bike
+ * @param noclegPrzed whether the client stays an extra night before the trip
+ * @param noclegPo    whether the client stays an extra night after the trip
+ * @param hb          whether the client has half board
+ */
+public record KlienciWycenaRow(
+        String wycieczka,
+        String typ,
+        Integer ilMiejsc,
+        Boolean ulga,
+        Boolean rower,
+        Boolean eBike,
+        Boolean noclegPrzed,
+        Boolean noclegPo,
+        Boolean hb
+) {
+
+    /**
+     * Returns the options of the client.
+     *
+     * @return the bit set of the {@code PriceTable.OPCJA_*} flags
+     */
+    public int opcje() {
+        return PriceTable.opcje(Boolean.TRUE.equals(ulga), Boolean.TRUE.equals(rower), Boolean.TRUE.equals(eBike),
+                Boolean.TRUE.equals(noclegPrzed), Boolean.TRUE.equals(noclegPo), Boolean.TRUE.equals(hb));
+    }
+}
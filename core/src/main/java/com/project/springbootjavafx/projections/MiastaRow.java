@@ -0,0 +1,18 @@
+package com.project.springbootjavafx.projections;
+
+import com.project.springbootjavafx.models.Miasta;
+
+/**
+ * A read-only row of the {@link Miasta} grid.
+ *
+ * @param miasto the name of the city
+ */
+public record MiastaRow(
+        String miasto
+) implements GridRow<String> {
+
+    @Override
+    public String key() {
+        return miasto;
+    }
+}
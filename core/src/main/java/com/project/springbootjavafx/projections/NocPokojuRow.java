@@ -0,0 +1,35 @@
+package com.project.springbootjavafx.projections;
+
+import com.project.springbootjavafx.models.ListyHoteli;
+
+import java.time.LocalDate;
+
+/**
+ * One night of a room in a hotel, read from a {@link ListyHoteli} row together with the size of the room and the
+ * number of its clients. Used to load the hotel occupancy calendar.
+ *
+ * @param pokoj     the identifier of the room
+ * @param hotel     the code of the hotel
+ * @param poczatek  the start date of the trip of the room
+ * @param numerNocy the number of the night within the trip, starting at 1
+ * @param ilMiejsc  the number of places of the room
+ * @param goscie    the number of clients assigned to the room
+ */
+public record NocPokojuRow(
+        Integer pokoj,
+        String hotel,
+        LocalDate poczatek,
+        Integer numerNocy,
+        Integer ilMiejsc,
+        Long goscie
+) {
+
+    /**
+     * Returns the date of the night.
+     *
+     * @return the start date of the trip plus the nights before this one
+     */
+    public LocalDate data() {
+        return poczatek.plusDays(numerNocy - 1L);
+    }
+}
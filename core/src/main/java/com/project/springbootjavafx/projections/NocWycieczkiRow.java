@@ -0,0 +1,33 @@
+package com.project.springbootjavafx.projections;
+
+import com.project.springbootjavafx.models.ListyHoteli;
+
+import java.time.LocalDate;
+
+/**
+ * The number of rooms a trip has in a hotel on one night, counted from its {@link ListyHoteli} rows. Used to check
+ * the hotels for overbooking.
+ *
+ * @param wycieczka the code of the trip
+ * @param poczatek  the start date of the trip
+ * @param hotel     the code of the hotel
+ * @param numerNocy the number of the night within the trip, starting at 1
+ * @param pokoje    the number of rooms of the trip in the hotel that night
+ */
+public record NocWycieczkiRow(
+        String wycieczka,
+        LocalDate poczatek,
+        String hotel,
+        Integer numerNocy,
+        Long pokoje
+) {
+
+    /**
+     * Returns the date of the night.
+     *
+     * @return the start date of the trip plus the nights before this one
+     */
+    public LocalDate data() {
+        return poczatek.plusDays(numerNocy - 1L);
+    }
+}
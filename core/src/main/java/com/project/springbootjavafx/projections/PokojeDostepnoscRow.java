@@ -0,0 +1,38 @@
+package com.project.springbootjavafx.projections;
+
+import com.project.springbootjavafx.models.Pokoje;
+
+/**
+ * The capacity of a {@link Pokoje} row next to the number of its clients, used by the room availability index.
+ *
+ * @param id        the identifier of the room
+ * @param typPokoju the room type
+ * @param ilMiejsc  the capacity of the room
+ * @param klienci   the number of clients assigned to the room
+ */
+public record PokojeDostepnoscRow(
+        Integer id,
+        String typPokoju,
+        Integer ilMiejsc,
+        Long klienci
+) {
+
+    /**
+     * Returns the number of places left in the room.
+     *
+     * @return the capacity minus the clients, never negative
+     */
+    public int wolneMiejsca() {
+        return ilMiejsc == null ? 0 : (int) Math.max(0, ilMiejsc - klienci);
+    }
+
+    /**
+     * Returns the row after the given number of clients joined or left the room.
+     *
+     * @param zmiana the change of the number of clients, negative when clients left
+     * @return the changed row
+     */
+    public PokojeDostepnoscRow zmien(int zmiana) {
+        return new PokojeDostepnoscRow(id, typPokoju, ilMiejsc, Math.max(0, klienci + zmiana));
+    }
+}
@@ -0,0 +1,26 @@
+package com.project.springbootjavafx.projections;
+
+import com.project.springbootjavafx.models.Pokoje;
+
+/**
+ * The client counter stored on a {@link Pokoje} row next to the number of its clients.
+ *
+ * @param id         the identifier of the room
+ * @param ilKlientow the stored number of clients
+ * @param klienci    the number of clients assigned to the room
+ */
+public record PokojeLicznikiRow(
+        Integer id,
+        Integer ilKlientow,
+        Long klienci
+) {
+
+    /**
+     * Checks whether the stored number of clients matches the clients.
+     *
+     * @return {@code true} if the counter is correct
+     */
+    public boolean ilKlientowZgodna() {
+        return ilKlientow != null && ilKlientow.longValue() == klienci;
+    }
+}
@@ -0,0 +1,28 @@
+package com.project.springbootjavafx.projections;
+
+import com.project.springbootjavafx.models.Pokoje;
+
+/**
+ * A read-only row of the {@link Pokoje} grid.
+ *
+ * @param id          the unique identifier of the room
+ * @param wycieczka   the code of the trip
+ * @param typPokoju   the room type
+ * @param ilKlientow  the number of clients assigned to the room
+ * @param ilMiejsc    the capacity of the room
+ * @param listaHoteli whether a hotel list is set for the room
+ */
+public record PokojeRow(
+        Integer id,
+        String wycieczka,
+        String typPokoju,
+        Integer ilKlientow,
+        Integer ilMiejsc,
+        Boolean listaHoteli
+) implements GridRow<Integer> {
+
+    @Override
+    public Integer key() {
+        return id;
+    }
+}
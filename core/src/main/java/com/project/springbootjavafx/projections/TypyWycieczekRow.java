@@ -0,0 +1,20 @@
+package com.project.springbootjavafx.projections;
+
+import com.project.springbootjavafx.models.TypyWycieczek;
+
+/**
+ * A read-only row of the {@link TypyWycieczek} grid.
+ *
+ * @param typ         the trip type
+ * @param liczba_nocy the number of nights
+ */
+public record TypyWycieczekRow(
+        String typ,
+        Integer liczba_nocy
+) implements GridRow<String> {
+
+    @Override
+    public String key() {
+        return typ;
+    }
+}
@@ -0,0 +1,40 @@
+package com.project.springbootjavafx.projections;
+
+import com.project.springbootjavafx.models.Wycieczki;
+import java.math.BigDecimal;
+
+/**
+ * The counters stored on a {@link Wycieczki} row next to the values recomputed from its clients.
+ *
+ * @param wycieczka      the code of the trip
+ * @param ilUczestnikow  the stored number of participants
+ * @param wplyw          the stored revenue
+ * @param klienci        the number of clients of the trip
+ * @param doZaplaty      the sum of the amounts to be paid by the clients of the trip
+ */
+public record WycieczkiLicznikiRow(
+        String wycieczka,
+        Integer ilUczestnikow,
+        BigDecimal wplyw,
+        Long klienci,
+        BigDecimal doZaplaty
+) {
+
+    /**
+     * Checks whether the stored number of participants matches the clients.
+     *
+     * @return {@code true} if the counter is correct
+     */
+    public boolean ilUczestnikowZgodna() {
+        return ilUczestnikow != null && ilUczestnikow.longValue() == klienci;
+    }
+
+    /**
+     * Checks whether the stored revenue matches the amounts of the clients.
+     *
+     * @return {@code true} if the revenue is correct
+     */
+    public boolean wplywZgodny() {
+        return wplyw != null && wplyw.compareTo(doZaplaty) == 0;
+    }
+}
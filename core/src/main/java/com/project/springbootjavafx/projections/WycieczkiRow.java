@@ -0,0 +1,31 @@
+package com.project.springbootjavafx.projections;
+
+import com.project.springbootjavafx.models.Wycieczki;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A read-only row of the {@link Wycieczki} grid.
+ *
+ * @param wycieczka     the code of the trip
+ * @param typWycieczki  the trip type
+ * @param poczatek      the start date
+ * @param koniec        the end date
+ * @param ilUczestnikow the number of participants
+ * @param wplyw         the revenue of the trip
+ */
+public record WycieczkiRow(
+        String wycieczka,
+        String typWycieczki,
+        LocalDate poczatek,
+        LocalDate koniec,
+        Integer ilUczestnikow,
+        BigDecimal wplyw
+) implements GridRow<String> {
+
+    @Override
+    public String key() {
+        return wycieczka;
+    }
+}
@@ -1,7 +1,11 @@
 package com.project.springbootjavafx.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.project.springbootjavafx.models.Ceny;
@@ -11,8 +15,8 @@ import com.project.springbootjavafx.models.Ceny;
  * {@link Ceny} entities as well as a custom query to retrieve pricing information based on a trip type.
  *
  * <p>
- * It extends {@link JpaRepository} to inherit standard data access methods. In addition, a custom native query is defined
- * to find a {@code Ceny} record by its associated trip type.
+ * It extends {@link JpaRepository} to inherit standard data access methods. In addition, a custom cached query is
+ * defined to find a {@code Ceny} record by its associated trip type.
  * </p>
  *
  * @see JpaRepository
@@ -25,13 +29,35 @@ public interface CenyRepository extends JpaRepository<Ceny, Integer> {
      * Retrieves a {@link Ceny} entity based on the associated trip type.
      *
      * <p>
-     * This method uses a native SQL query to select a record from the {@code ceny} table where the
-     * column {@code typ_wycieczki} matches the specified parameter.
+     * This method selects a record from the {@code ceny} table where the column {@code typ_wycieczki} matches the
+     * specified parameter. The result is kept in the query cache and invalidated by Hibernate whenever {@code ceny}
+     * changes.
      * </p>
      *
      * @param typ_wycieczki the trip type identifier used to filter the pricing record
      * @return the {@code Ceny} entity matching the specified trip type, or {@code null} if none is found
      */
-    @Query(value = "SELECT * FROM ceny c WHERE c.typ_wycieczki = :typ_wycieczki", nativeQuery = true)
+    @Query("SELECT c FROM Ceny c WHERE c.typ_wycieczki.typ = :typ_wycieczki")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Ceny findByTypWycieczki(@Param("typ_wycieczki") String typ_wycieczki);
+
+    /**
+     * Counts the price lists of the specified trip type.
+     *
+     * @param typ the trip type
+     * @return the number of price lists
+     */
+    @Query("SELECT COUNT(c) FROM Ceny c WHERE c.typ_wycieczki.typ = :typ")
+    long countByTyp(@Param("typ") String typ);
+
+    /**
+     * Deletes the price list of the specified trip type.
+     *
+     * @param typ the trip type
+     * @return the number of deleted price lists
+     */
+    @Modifying
+    @Query(value = "DELETE FROM ceny WHERE typ_wycieczki = :typ", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "ceny"))
+    int deleteByTyp(@Param("typ") String typ);
 }
@@ -1,10 +1,18 @@
 package com.project.springbootjavafx.repositories;
 
-import org.springframework.data.jpa.repository.JpaRepository;
 import com.project.springbootjavafx.models.Hotele;
+import com.project.springbootjavafx.projections.HoteleRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -30,17 +38,101 @@ public interface HoteleRepository extends JpaRepository<Hotele, String> {
      */
     boolean existsByKod(String kod);
 
+    /**
+     * Inserts a hotel unless a row with the same {@code kod} already exists.
+     *
+     * <p>
+     * The statement is executed through JDBC as a batch, asking for the generated {@code kod}, which makes the
+     * PostgreSQL driver append {@code RETURNING kod}: a hotel whose key already existed is simply not returned.
+     * It replaces the {@code existsBy...} check followed by {@code save} (see {@code AbstractServices#insertNew}).
+     * </p>
+     */
+    String INSERT_IF_ABSENT = "INSERT INTO hotele (kod, nazwa, miasto, adres, mail, nr_tel, liczba_pokoi) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
     /**
      * Retrieves a list of hotels located in the specified city.
      *
      * <p>
-     * This method uses a native SQL query to select all hotels from the {@code hotele} table
-     * where the {@code miasto} column matches the provided city parameter.
+     * This method selects all hotels whose {@code miasto} column matches the provided city parameter. The result
+     * is kept in the query cache and the hotels themselves in the second-level cache, so repeated calls (one per
+     * night of every hotel-list dialog) do not reach the database. The query is written in JPQL rather than SQL so
+     * that Hibernate knows which table it reads and invalidates the cached result whenever {@code hotele} changes.
      * </p>
      *
      * @param miasto the name of the city for which to retrieve hotels
      * @return a list of {@code Hotele} entities that are located in the specified city
      */
-    @Query(value = "SELECT * FROM hotele h WHERE h.miasto = :miasto", nativeQuery = true)
+    @Query("SELECT h FROM Hotele h WHERE h.miasto.miasto = :miasto")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Hotele> getHoteleByMiasto(@Param("miasto") String miasto);
+
+    /**
+     * Retrieves the hotels located in any of the specified cities, with their city.
+     *
+     * <p>
+     * One query answers a whole itinerary instead of one {@link #getHoteleByMiasto(String)} per night. The names are
+     * bound as a list parameter, which Hibernate expands to {@code IN (?, ...)}; PostgreSQL plans it like
+     * {@code miasto = ANY(?)} on the {@code ix_hotele_miasto} index. The result is kept in the query cache like the
+     * single-city query.
+     * </p>
+     *
+     * @param miasta the names of the cities
+     * @return the hotels of the cities, ordered by city and code
+     */
+    @Query("SELECT h FROM Hotele h JOIN FETCH h.miasto m WHERE m.miasto IN :miasta ORDER BY m.miasto, h.kod")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Hotele> getHoteleByMiastaIn(@Param("miasta") Collection<String> miasta);
+
+    /**
+     * Retrieves the first page of grid rows, ordered like {@link #findGridRowsAfter(String, Pageable)}.
+     *
+     * @param pageable the size of the page
+     * @return a {@link Slice} of grid rows
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.HoteleRow(h.kod, h.nazwa, m.miasto, h.adres, h.mail, " +
+            "h.nr_tel, h.liczbaPokoi) " +
+            "FROM Hotele h LEFT JOIN h.miasto m " +
+            "ORDER BY h.kod")
+    Slice<HoteleRow> findFirstGridRows(Pageable pageable);
+
+    /**
+     * Retrieves one page of {@link HoteleRow} grid rows ordered by identifier, starting after the given identifier.
+     *
+     * <p>
+     * The rows are built with a constructor expression from a single column-list query, so no {@code Hotele}
+     * entity is hydrated or tracked by the persistence context. The {@code pageable} limits the page size and
+     * should always point at the first page; the position is given by {@code after} (keyset pagination).
+     * The first page is read by {@link #findFirstGridRows(Pageable)}, without the condition on the key.
+     * </p>
+     *
+     * @param after    the code of the last hotel of the previous page
+     * @param pageable the size of the page
+     * @return a {@link Slice} of grid rows
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.HoteleRow(h.kod, h.nazwa, m.miasto, h.adres, h.mail, " +
+            "h.nr_tel, h.liczbaPokoi) " +
+            "FROM Hotele h LEFT JOIN h.miasto m " +
+            "WHERE h.kod > :after ORDER BY h.kod")
+    Slice<HoteleRow> findGridRowsAfter(@Param("after") String after, Pageable pageable);
+
+    /**
+     * Counts the hotels of the specified city.
+     *
+     * @param miasto the name of the city
+     * @return the number of hotels
+     */
+    @Query("SELECT COUNT(h) FROM Hotele h WHERE h.miasto.miasto = :miasto")
+    long countByMiasto(@Param("miasto") String miasto);
+
+    /**
+     * Deletes the hotels of the specified city. Their hotel list records have to be deleted first.
+     *
+     * @param miasto the name of the city
+     * @return the number of deleted hotels
+     */
+    @Modifying
+    @Query(value = "DELETE FROM hotele WHERE miasto = :miasto", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "hotele"))
+    int deleteByMiasto(@Param("miasto") String miasto);
 }
@@ -1,10 +1,23 @@
 package com.project.springbootjavafx.repositories;
 
 import com.project.springbootjavafx.models.Klienci;
+import com.project.springbootjavafx.projections.KlienciRow;
+import com.project.springbootjavafx.projections.KlienciWycenaRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * The {@code KlienciRepository} interface provides data access operations for the {@link Klienci} entity.
@@ -14,12 +27,82 @@ import java.util.List;
  * In addition, it declares a custom query method to retrieve clients associated with a specific room.
  * </p>
  *
+ * <p>
+ * Reads that may return a whole season of clients return a {@link Stream} instead of a {@link List}. The rows are
+ * fetched from the database {@value RepositoryConstants#STREAM_FETCH_SIZE} at a time while the stream is consumed;
+ * the stream must be consumed and closed inside a transaction (see {@code AbstractServices#forEachChunk}).
+ * </p>
+ *
  * @see JpaRepository
  * @see Klienci
  */
 @Repository
 public interface KlienciRepository extends JpaRepository<Klienci, Integer> {
 
+    /**
+     * The price of client {@code k} according to the current {@code Ceny} of trip type {@code :typ}, as a SQL
+     * expression.
+     *
+     * <p>
+     * It follows {@link com.project.springbootjavafx.models.PriceTable#quote(int, int)}: the price of the room by its
+     * number of places, reduced by {@code ulga_dziecko} percent rounded to the grosz for a client with the discount,
+     * plus the price of every chosen extra. It is {@code NULL} for a client without a room or when a needed price is
+     * missing.
+     * </p>
+     */
+    String NOWA_CENA = "(SELECT ROUND(CASE p.il_miejsc WHEN 1 THEN c.pok_1 WHEN 2 THEN c.pok_2 " +
+            "WHEN 3 THEN c.pok_3 WHEN 4 THEN c.pok_4 END " +
+            "* CASE WHEN k.ulga THEN 100 - COALESCE(c.ulga_dziecko, 0) ELSE 100 END / 100.0, 2) " +
+            "+ CASE WHEN k.rower THEN c.rower ELSE 0 END " +
+            "+ CASE WHEN k.e_bike THEN c.e_bike ELSE 0 END " +
+            "+ CASE WHEN k.nocleg_przed THEN c.dodatkowa_noc ELSE 0 END " +
+            "+ CASE WHEN k.nocleg_po THEN c.dodatkowa_noc ELSE 0 END " +
+            "+ CASE WHEN k.hb THEN c.hb ELSE 0 END " +
+            "FROM pokoje p, ceny c WHERE p.id = k.pokoj AND c.typ_wycieczki = :typ)";
+
+    /**
+     * Selects the clients of all trips of trip type {@code :typ} whose price would change.
+     */
+    String KLIENCI_DO_WYCENY = "FROM klienci k WHERE k.wycieczka IN " +
+            "(SELECT w.wycieczka FROM wycieczki w WHERE w.typ_wycieczki = :typ) " +
+            "AND COALESCE(" + NOWA_CENA + ", k.do_zaplaty) IS DISTINCT FROM k.do_zaplaty";
+
+    /**
+     * Counts the clients of a trip type whose price differs from the current prices of the type.
+     *
+     * @param typ the trip type
+     * @return the number of clients to reprice
+     */
+    @Query(value = "SELECT COUNT(*) " + KLIENCI_DO_WYCENY, nativeQuery = true)
+    long policzDoWyceny(@Param("typ") String typ);
+
+    /**
+     * Sums the change of the prices of the clients of a trip type if they were repriced.
+     *
+     * @param typ the trip type
+     * @return the new minus the stored prices, in total
+     */
+    @Query(value = "SELECT COALESCE(SUM(" + NOWA_CENA + " - COALESCE(k.do_zaplaty, 0)), 0) " + KLIENCI_DO_WYCENY,
+            nativeQuery = true)
+    BigDecimal roznicaWyceny(@Param("typ") String typ);
+
+    /**
+     * Reprices all clients of all trips of a trip type with one statement.
+     *
+     * <p>
+     * Clients whose price cannot be computed keep it. The statement declares {@code klienci} as its query space, so
+     * Hibernate does not clear the second-level cache of the reference entities after it.
+     * </p>
+     *
+     * @param typ the trip type
+     * @return the number of repriced clients
+     */
+    @Modifying
+    @Query(value = "UPDATE klienci k SET do_zaplaty = " + NOWA_CENA + " WHERE k.id IN (SELECT k.id " +
+            KLIENCI_DO_WYCENY + ")", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "klienci"))
+    int przeliczCeny(@Param("typ") String typ);
+
     /**
      * Retrieves a list of clients associated with a given room.
      *
@@ -33,4 +116,110 @@ public interface KlienciRepository extends JpaRepository<Klienci, Integer> {
      */
     @Query(value = "SELECT * FROM klienci WHERE klienci.pokoj = :ID", nativeQuery = true)
     List<Klienci> getKlienciByPokoj(Integer ID);
+
+    /**
+     * Retrieves the clients of a trip that have no room yet.
+     *
+     * @param wycieczka the code of the trip
+     * @return the clients without a room, ordered by identifier
+     */
+    @Query("SELECT k FROM Klienci k WHERE k.wycieczka.wycieczka = :wycieczka AND k.pokoj IS NULL ORDER BY k.id")
+    List<Klienci> findNieprzypisani(@Param("wycieczka") String wycieczka);
+
+    /**
+     * Retrieves the rooms of the specified clients, once for every client with a room.
+     *
+     * @param ids the identifiers of the clients
+     * @return the identifiers of their rooms
+     */
+    @Query("SELECT k.pokoj.id FROM Klienci k WHERE k.id IN :ids AND k.pokoj IS NOT NULL")
+    List<Integer> findPokojeKlientow(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Retrieves the first page of grid rows, ordered like {@link #findGridRowsAfter(Integer, Pageable)}.
+     *
+     * @param pageable the size of the page
+     * @return a {@link Slice} of grid rows
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.KlienciRow(k.id, k.imie, k.nazwisko, w.wycieczka, k.typPokoju, p.id, k.ulga, k.rower, k.eBike, " +
+            "k.noclegPrzed, k.noclegPo, k.hb, k.doZaplaty) " +
+            "FROM Klienci k LEFT JOIN k.wycieczka w LEFT JOIN k.pokoj p " +
+            "ORDER BY k.id")
+    Slice<KlienciRow> findFirstGridRows(Pageable pageable);
+
+    /**
+     * Retrieves one page of {@link KlienciRow} grid rows ordered by identifier, starting after the given identifier.
+     *
+     * <p>
+     * The rows are built with a constructor expression from a single column-list query, so no {@code Klienci}
+     * entity is hydrated or tracked by the persistence context. The {@code pageable} limits the page size and
+     * should always point at the first page; the position is given by {@code after} (keyset pagination).
+     * The first page is read by {@link #findFirstGridRows(Pageable)}, without the condition on the key.
+     * </p>
+     *
+     * @param after    the identifier of the last client of the previous page
+     * @param pageable the size of the page
+     * @return a {@link Slice} of grid rows
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.KlienciRow(k.id, k.imie, k.nazwisko, w.wycieczka, k.typPokoju, p.id, k.ulga, k.rower, k.eBike, " +
+            "k.noclegPrzed, k.noclegPo, k.hb, k.doZaplaty) " +
+            "FROM Klienci k LEFT JOIN k.wycieczka w LEFT JOIN k.pokoj p " +
+            "WHERE k.id > :after ORDER BY k.id")
+    Slice<KlienciRow> findGridRowsAfter(@Param("after") Integer after, Pageable pageable);
+
+    /**
+     * Streams the clients of the trips starting within the given dates, ordered by identifier.
+     *
+     * <p>
+     * The trip of every client is fetched in the same query. The entities are loaded read-only, so Hibernate keeps
+     * no dirty-checking snapshot for them.
+     * </p>
+     *
+     * @param od  the first start date of the trips (inclusive)
+     * @param do_ the last start date of the trips (inclusive)
+     * @return a stream of clients that has to be closed after use
+     */
+    @Query("SELECT k FROM Klienci k JOIN FETCH k.wycieczka w WHERE w.poczatek BETWEEN :od AND :do_ ORDER BY k.id")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RepositoryConstants.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Klienci> streamBySezon(@Param("od") LocalDate od, @Param("do_") LocalDate do_);
+
+    /**
+     * Streams what the prices of the clients of the trips starting within the given dates depend on, ordered by trip
+     * type and trip.
+     *
+     * <p>
+     * Clients without a room are skipped, as they cannot be priced.
+     * </p>
+     *
+     * @param od  the first start date
+     * @param do_ the last start date
+     * @return a stream of pricing rows, to be consumed inside a transaction
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.KlienciWycenaRow(w.wycieczka, t.typ, p.ilMiejsc, " +
+            "k.ulga, k.rower, k.eBike, k.noclegPrzed, k.noclegPo, k.hb) " +
+            "FROM Klienci k JOIN k.wycieczka w JOIN w.typWycieczki t JOIN k.pokoj p " +
+            "WHERE w.poczatek BETWEEN :od AND :do_ ORDER BY t.typ, w.wycieczka")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RepositoryConstants.STREAM_FETCH_SIZE))
+    Stream<KlienciWycenaRow> streamWycenaBySezon(@Param("od") LocalDate od, @Param("do_") LocalDate do_);
+
+    /**
+     * Counts the clients of the specified trips.
+     *
+     * @param wycieczki the codes of the trips
+     * @return the number of clients
+     */
+    @Query("SELECT COUNT(k) FROM Klienci k WHERE k.wycieczka.wycieczka IN :wycieczki")
+    long countByWycieczkaIn(@Param("wycieczki") Collection<String> wycieczki);
+
+    /**
+     * Deletes the clients of the specified trips.
+     *
+     * @param wycieczki the codes of the trips
+     * @return the number of deleted clients
+     */
+    @Modifying
+    @Query(value = "DELETE FROM klienci WHERE wycieczka IN (:wycieczki)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "klienci"))
+    int deleteByWycieczkaIn(@Param("wycieczki") Collection<String> wycieczki);
 }
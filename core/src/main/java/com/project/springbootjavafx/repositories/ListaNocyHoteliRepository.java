@@ -1,8 +1,16 @@
 package com.project.springbootjavafx.repositories;
 
 import com.project.springbootjavafx.models.ListaNocyHoteli;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -11,8 +19,9 @@ import java.util.List;
  *
  * <p>
  * It extends {@link JpaRepository} to inherit standard CRUD operations and additional query capabilities.
- * In particular, it declares a custom method for retrieving a list of {@code ListaNocyHoteli} records
- * based on a given room identifier.
+ * In particular, it declares custom methods for retrieving {@code ListaNocyHoteli} records of a room or of a date
+ * range, the two statements that rebuild the records of a set of rooms from {@code listy_hoteli}, and the queries
+ * finding the rooms whose records show a given trip, hotel or trip night.
  * </p>
  *
  * @see JpaRepository
@@ -22,10 +31,94 @@ import java.util.List;
 public interface ListaNocyHoteliRepository extends JpaRepository<ListaNocyHoteli, Integer> {
 
     /**
-     * Retrieves all {@code ListaNocyHoteli} entities associated with the specified room identifier.
+     * Retrieves all {@code ListaNocyHoteli} entities associated with the specified room identifier, ordered by night.
      *
      * @param pokojId the identifier of the room
      * @return a list of {@code ListaNocyHoteli} records corresponding to the given room identifier
      */
-    List<ListaNocyHoteli> findByPokojId(Integer pokojId);
+    List<ListaNocyHoteli> findByPokojIdOrderByNoc(Integer pokojId);
+
+    /**
+     * Retrieves all {@code ListaNocyHoteli} entities whose night falls within the given dates, ordered by date and
+     * hotel.
+     *
+     * @param od the first date of the range (inclusive)
+     * @param do_ the last date of the range (inclusive)
+     * @return a list of {@code ListaNocyHoteli} records of the given dates
+     */
+    List<ListaNocyHoteli> findByDataBetweenOrderByDataAscHotelAsc(LocalDate od, LocalDate do_);
+
+    /**
+     * Deletes the records of the specified rooms.
+     *
+     * @param pokojIds the identifiers of the rooms
+     * @return the number of deleted records
+     */
+    @Modifying
+    @Query(value = "DELETE FROM lista_nocy_hoteli WHERE pokoj_id IN (:pokojIds)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "lista_nocy_hoteli"))
+    int deleteByPokojIdIn(@Param("pokojIds") Collection<Integer> pokojIds);
+
+    /**
+     * Builds the records of the specified rooms from their hotel lists.
+     *
+     * <p>
+     * This method executes a single native INSERT ... SELECT joining {@code listy_hoteli} with the room, the trip,
+     * the trip night city and the hotel. The date of a night is the start of the trip plus the night number minus
+     * one. The records of the rooms have to be deleted first (see {@link #deleteByPokojIdIn(Collection)}).
+     * </p>
+     *
+     * @param pokojIds the identifiers of the rooms
+     * @return the number of inserted records
+     */
+    @Modifying
+    @Query(value = "INSERT INTO lista_nocy_hoteli (pokoj_id, noc, data, miasto, hotel) " +
+            "SELECT lh.pokoj, mw.nr_nocy, wy.poczatek + (mw.nr_nocy - 1), mw.miasto, h.nazwa " +
+            "FROM listy_hoteli lh " +
+            "JOIN pokoje p ON lh.pokoj = p.id " +
+            "JOIN wycieczki wy ON p.wycieczka = wy.wycieczka " +
+            "JOIN miasta_wycieczek mw ON lh.miasto_wycieczki = mw.id " +
+            "JOIN hotele h ON lh.hotel = h.kod " +
+            "WHERE lh.pokoj IN (:pokojIds)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "lista_nocy_hoteli"))
+    int insertForPokojIdIn(@Param("pokojIds") Collection<Integer> pokojIds);
+
+    /**
+     * Deletes the records of the rooms of the specified trips.
+     *
+     * @param wycieczki the codes of the trips
+     * @return the number of deleted records
+     */
+    @Modifying
+    @Query(value = "DELETE FROM lista_nocy_hoteli WHERE pokoj_id IN " +
+            "(SELECT p.id FROM pokoje p WHERE p.wycieczka IN (:wycieczki))", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "lista_nocy_hoteli"))
+    int deleteByWycieczkaIn(@Param("wycieczki") Collection<String> wycieczki);
+
+    /**
+     * Retrieves the identifiers of the rooms of the specified trips that have a hotel list.
+     *
+     * @param wycieczki the codes of the trips
+     * @return the identifiers of the rooms whose records show the start date of one of the trips
+     */
+    @Query("SELECT DISTINCT l.pokoj.id FROM ListyHoteli l WHERE l.pokoj.wycieczka.wycieczka IN :wycieczki")
+    List<Integer> findPokojIdsByWycieczkaIn(@Param("wycieczki") Collection<String> wycieczki);
+
+    /**
+     * Retrieves the identifiers of the rooms whose hotel lists contain one of the specified hotels.
+     *
+     * @param hotele the codes of the hotels
+     * @return the identifiers of the rooms whose records show the name of one of the hotels
+     */
+    @Query("SELECT DISTINCT l.pokoj.id FROM ListyHoteli l WHERE l.hotel.kod IN :hotele")
+    List<Integer> findPokojIdsByHotelIn(@Param("hotele") Collection<String> hotele);
+
+    /**
+     * Retrieves the identifiers of the rooms whose hotel lists contain one of the specified trip nights.
+     *
+     * @param miastaWycieczek the identifiers of the trip night cities
+     * @return the identifiers of the rooms whose records show the number or the city of one of the nights
+     */
+    @Query("SELECT DISTINCT l.pokoj.id FROM ListyHoteli l WHERE l.miastoWycieczki.id IN :miastaWycieczek")
+    List<Integer> findPokojIdsByMiastoWycieczkiIn(@Param("miastaWycieczek") Collection<Integer> miastaWycieczek);
 }
@@ -2,11 +2,20 @@ package com.project.springbootjavafx.repositories;
 
 import com.project.springbootjavafx.models.ListyHoteli;
 import com.project.springbootjavafx.models.ListyHoteliKey;
+import com.project.springbootjavafx.projections.NocPokojuRow;
+import com.project.springbootjavafx.projections.NocWycieczkiRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * The {@code ListyHoteliRepository} interface provides data access operations for the
@@ -14,7 +23,15 @@ import org.springframework.stereotype.Repository;
  *
  * <p>
  * It extends {@link JpaRepository} to inherit standard CRUD operations. In addition, it declares a custom
- * modifying query to delete hotel list records associated with a specific room.
+ * modifying queries to delete hotel list records associated with a specific room or a set of rooms, set-based
+ * writes of the hotel lists of the rooms of a trip and of cloned trips, a streaming read of the hotel lists of a
+ * whole season, reads of the hotel nights of rooms for the hotel occupancy calendar, and counts of the rooms of
+ * trips in hotels for the overbooking check.
+ * </p>
+ *
+ * <p>
+ * The native statements declare the table they modify as their query space. Without it Hibernate cannot tell
+ * what a native statement touched and clears the whole second-level cache after each of them.
  * </p>
  *
  * @see JpaRepository
@@ -24,6 +41,31 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface ListyHoteliRepository extends JpaRepository<ListyHoteli, ListyHoteliKey> {
 
+    /**
+     * The select part of the queries reading the hotel nights of rooms, one row per room and night.
+     */
+    String NOCE_POKOI = "SELECT new com.project.springbootjavafx.projections.NocPokojuRow(p.id, h.kod, w.poczatek, " +
+            "m.numerNocy, p.ilMiejsc, COUNT(k)) " +
+            "FROM ListyHoteli l JOIN l.pokoj p JOIN p.wycieczka w JOIN l.miastoWycieczki m JOIN l.hotel h " +
+            "LEFT JOIN p.klienci k ";
+
+    /**
+     * The grouping of the queries reading the hotel nights of rooms, which keeps the nights of a room together.
+     */
+    String NOCE_POKOI_GRUPY = " GROUP BY p.id, h.kod, w.poczatek, m.numerNocy, p.ilMiejsc ORDER BY p.id, m.numerNocy";
+
+    /**
+     * The select part of the queries counting the rooms of trips in hotels, one row per trip, hotel and night.
+     */
+    String NOCE_WYCIECZEK = "SELECT new com.project.springbootjavafx.projections.NocWycieczkiRow(w.wycieczka, " +
+            "w.poczatek, h.kod, m.numerNocy, COUNT(l)) " +
+            "FROM ListyHoteli l JOIN l.pokoj p JOIN p.wycieczka w JOIN l.miastoWycieczki m JOIN l.hotel h ";
+
+    /**
+     * The grouping of the queries counting the rooms of trips in hotels.
+     */
+    String NOCE_WYCIECZEK_GRUPY = " GROUP BY w.wycieczka, w.poczatek, h.kod, m.numerNocy";
+
     /**
      * Deletes all {@code ListyHoteli} records associated with the specified room identifier.
      *
@@ -36,5 +78,222 @@ public interface ListyHoteliRepository extends JpaRepository<ListyHoteli, ListyH
      */
     @Modifying
     @Query(value = "DELETE FROM listy_hoteli WHERE pokoj = :pokojID", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "listy_hoteli"))
     void deleteByPokoj(@Param("pokojID") Integer pokojID);
+
+    /**
+     * Deletes all {@code ListyHoteli} records associated with any of the specified room identifiers.
+     *
+     * <p>
+     * This method executes a single native SQL DELETE query on the {@code listy_hoteli} table,
+     * removing all records where the {@code pokoj} column is one of the given room IDs.
+     * </p>
+     *
+     * @param pokojIDs the identifiers of the rooms whose hotel list records should be deleted
+     * @return the number of deleted records
+     */
+    @Modifying
+    @Query(value = "DELETE FROM listy_hoteli WHERE pokoj IN (:pokojIDs)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "listy_hoteli"))
+    int deleteByPokojIn(@Param("pokojIDs") Collection<Integer> pokojIDs);
+
+    /**
+     * Writes the hotel list records of the specified rooms of a trip, one for every night of the trip's itinerary,
+     * with a single {@code INSERT ... SELECT}.
+     *
+     * <p>
+     * The assignment is given as two parallel arrays, the night numbers and the hotel codes, which the database
+     * turns into a table with {@code unnest}; the rooms are joined with the nights of their trip type, the
+     * assignment by the night number and the hotels by their key. A room has one hotel per night, so the nights that
+     * already have a hotel are left as they are.
+     * </p>
+     *
+     * @param wycieczka the code of the trip
+     * @param pokoje    the identifiers of the rooms, all of the trip
+     * @param noce      the night numbers of the assignment
+     * @param hotele    the code of the hotel of every night, at the position of the night in {@code noce}
+     * @return the number of written records
+     */
+    @Modifying
+    @Query(value = "INSERT INTO listy_hoteli (pokoj, miasto_wycieczki, hotel) " +
+            "SELECT p.id, m.id, h.kod FROM pokoje p " +
+            "JOIN wycieczki w ON w.wycieczka = p.wycieczka " +
+            "JOIN miasta_wycieczek m ON m.typ_wycieczki = w.typ_wycieczki " +
+            "JOIN unnest(CAST(:noce AS INTEGER ARRAY), CAST(:hotele AS VARCHAR ARRAY)) AS przydzial(nr_nocy, kod) " +
+            "ON przydzial.nr_nocy = m.nr_nocy " +
+            "JOIN hotele h ON h.kod = przydzial.kod " +
+            "WHERE p.wycieczka = :wycieczka AND p.id IN (:pokoje) AND NOT EXISTS (" +
+            "SELECT 1 FROM listy_hoteli l WHERE l.pokoj = p.id AND l.miasto_wycieczki = m.id) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "listy_hoteli"))
+    int insertPrzydzial(@Param("wycieczka") String wycieczka, @Param("pokoje") Collection<Integer> pokoje,
+                        @Param("noce") Integer[] noce, @Param("hotele") String[] hotele);
+
+    /**
+     * Deletes the hotel list records of the specified rooms that do not match the given assignment, so that writing
+     * the assignment afterwards replaces the lists without touching the records that stay the same.
+     *
+     * @param pokoje the identifiers of the rooms
+     * @param noce   the night numbers of the assignment to keep
+     * @param hotele the code of the hotel of every night, at the position of the night in {@code noce}
+     * @return the number of deleted records
+     * @see #insertPrzydzial(String, Collection, Integer[], String[])
+     */
+    @Modifying
+    @Query(value = "DELETE FROM listy_hoteli WHERE pokoj IN (:pokoje) AND NOT EXISTS (" +
+            "SELECT 1 FROM miasta_wycieczek m " +
+            "JOIN unnest(CAST(:noce AS INTEGER ARRAY), CAST(:hotele AS VARCHAR ARRAY)) AS przydzial(nr_nocy, kod) " +
+            "ON przydzial.nr_nocy = m.nr_nocy " +
+            "WHERE m.id = listy_hoteli.miasto_wycieczki AND przydzial.kod = listy_hoteli.hotel)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "listy_hoteli"))
+    int deletePozaPrzydzialem(@Param("pokoje") Collection<Integer> pokoje, @Param("noce") Integer[] noce,
+                              @Param("hotele") String[] hotele);
+
+    /**
+     * Copies the hotel list records of the rooms of a trip to the rooms copied from them with
+     * {@link PokojeRepository#insertKopie(String, Collection, boolean)}, with a single {@code INSERT ... SELECT}.
+     *
+     * <p>
+     * A copied room is matched with its original by position: the n-th room of a new trip, by identifier, is the
+     * copy of the n-th room of the copied trip. The new trips have the type of the copied trip, so the records keep
+     * their trip night city and hotel.
+     * </p>
+     *
+     * @param zrodlo the code of the copied trip
+     * @param cele   the codes of the new trips, whose rooms are all copies
+     * @return the number of written records
+     */
+    @Modifying
+    @Query(value = "INSERT INTO listy_hoteli (pokoj, miasto_wycieczki, hotel) " +
+            "SELECT n.id, l.miasto_wycieczki, l.hotel " +
+            "FROM (SELECT p.id, ROW_NUMBER() OVER (ORDER BY p.id) AS nr FROM pokoje p " +
+            "WHERE p.wycieczka = :zrodlo) s " +
+            "JOIN listy_hoteli l ON l.pokoj = s.id " +
+            "JOIN (SELECT p.id, ROW_NUMBER() OVER (PARTITION BY p.wycieczka ORDER BY p.id) AS nr FROM pokoje p " +
+            "WHERE p.wycieczka IN (:cele)) n ON n.nr = s.nr", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "listy_hoteli"))
+    int insertKopie(@Param("zrodlo") String zrodlo, @Param("cele") Collection<String> cele);
+
+    /**
+     * Streams the hotel list records of the trips starting within the given dates, ordered by room and night.
+     *
+     * <p>
+     * The room, its trip, the trip night city and the hotel are fetched in the same query. The entities are loaded
+     * read-only and the rows are fetched {@value RepositoryConstants#STREAM_FETCH_SIZE} at a time while the stream is
+     * consumed; the stream must be consumed and closed inside a transaction.
+     * </p>
+     *
+     * @param od  the first start date of the trips (inclusive)
+     * @param do_ the last start date of the trips (inclusive)
+     * @return a stream of hotel list records that has to be closed after use
+     */
+    @Query("SELECT l FROM ListyHoteli l JOIN FETCH l.pokoj p JOIN FETCH p.wycieczka w " +
+            "JOIN FETCH l.miastoWycieczki m JOIN FETCH l.hotel " +
+            "WHERE w.poczatek BETWEEN :od AND :do_ ORDER BY p.id, m.numerNocy")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RepositoryConstants.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<ListyHoteli> streamBySezon(@Param("od") LocalDate od, @Param("do_") LocalDate do_);
+
+    /**
+     * Streams the hotel nights of the rooms of the trips overlapping the given dates, with the size and the number
+     * of clients of every room.
+     *
+     * <p>
+     * The hotel, the date and the counts of every night are computed by the database in one query; the rows are
+     * fetched {@value RepositoryConstants#STREAM_FETCH_SIZE} at a time while the stream is consumed, which has to
+     * happen inside a transaction.
+     * </p>
+     *
+     * @param od  the first date
+     * @param do_ the last date
+     * @return a stream of night rows, ordered by room and night, that has to be closed after use
+     */
+    @Query(NOCE_POKOI + "WHERE w.koniec >= :od AND w.poczatek <= :do_" + NOCE_POKOI_GRUPY)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RepositoryConstants.STREAM_FETCH_SIZE))
+    Stream<NocPokojuRow> streamNoceBySezon(@Param("od") LocalDate od, @Param("do_") LocalDate do_);
+
+    /**
+     * Retrieves the hotel nights of the specified rooms, with the size and the number of clients of every room.
+     *
+     * @param pokoje the identifiers of the rooms
+     * @return the night rows of the rooms that have a hotel list, ordered by room and night
+     */
+    @Query(NOCE_POKOI + "WHERE p.id IN :pokoje" + NOCE_POKOI_GRUPY)
+    List<NocPokojuRow> findNoceByPokojIn(@Param("pokoje") Collection<Integer> pokoje);
+
+    /**
+     * Streams the number of rooms the trips overlapping the given dates have in every hotel on every night.
+     *
+     * <p>
+     * The rows are fetched {@value RepositoryConstants#STREAM_FETCH_SIZE} at a time while the stream is consumed,
+     * which has to happen inside a transaction.
+     * </p>
+     *
+     * @param od  the first date
+     * @param do_ the last date
+     * @return a stream of night rows that has to be closed after use
+     */
+    @Query(NOCE_WYCIECZEK + "WHERE w.koniec >= :od AND w.poczatek <= :do_" + NOCE_WYCIECZEK_GRUPY)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = RepositoryConstants.STREAM_FETCH_SIZE))
+    Stream<NocWycieczkiRow> streamNoceWycieczekBySezon(@Param("od") LocalDate od, @Param("do_") LocalDate do_);
+
+    /**
+     * Retrieves the number of rooms the specified trips have in every hotel on every night.
+     *
+     * @param wycieczki the codes of the trips
+     * @return the night rows of the trips
+     */
+    @Query(NOCE_WYCIECZEK + "WHERE w.wycieczka IN :wycieczki" + NOCE_WYCIECZEK_GRUPY)
+    List<NocWycieczkiRow> findNoceByWycieczkaIn(@Param("wycieczki") Collection<String> wycieczki);
+
+    /**
+     * Counts the hotel list records of the rooms of the specified trips.
+     *
+     * @param wycieczki the codes of the trips
+     * @return the number of records
+     */
+    @Query("SELECT COUNT(l) FROM ListyHoteli l WHERE l.pokoj.wycieczka.wycieczka IN :wycieczki")
+    long countByWycieczkaIn(@Param("wycieczki") Collection<String> wycieczki);
+
+    /**
+     * Deletes the hotel list records of the rooms of the specified trips.
+     *
+     * @param wycieczki the codes of the trips
+     * @return the number of deleted records
+     */
+    @Modifying
+    @Query(value = "DELETE FROM listy_hoteli WHERE pokoj IN " +
+            "(SELECT p.id FROM pokoje p WHERE p.wycieczka IN (:wycieczki))", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "listy_hoteli"))
+    int deleteByWycieczkaIn(@Param("wycieczki") Collection<String> wycieczki);
+
+    /**
+     * Retrieves the rooms with a night in a hotel of the specified city.
+     *
+     * @param miasto the name of the city
+     * @return the room identifiers
+     */
+    @Query("SELECT DISTINCT l.pokoj.id FROM ListyHoteli l WHERE l.hotel.miasto.miasto = :miasto")
+    List<Integer> findPokojIdsByMiastoHotelu(@Param("miasto") String miasto);
+
+    /**
+     * Counts the hotel list records of the hotels of the specified city.
+     *
+     * @param miasto the name of the city
+     * @return the number of records
+     */
+    @Query("SELECT COUNT(l) FROM ListyHoteli l WHERE l.hotel.miasto.miasto = :miasto")
+    long countByMiastoHotelu(@Param("miasto") String miasto);
+
+    /**
+     * Deletes the hotel list records of the hotels of the specified city.
+     *
+     * @param miasto the name of the city
+     * @return the number of deleted records
+     */
+    @Modifying
+    @Query(value = "DELETE FROM listy_hoteli WHERE hotel IN (SELECT h.kod FROM hotele h WHERE h.miasto = :miasto)",
+            nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "listy_hoteli"))
+    int deleteByMiastoHotelu(@Param("miasto") String miasto);
 }
@@ -1,7 +1,16 @@
 package com.project.springbootjavafx.repositories;
 
 import com.project.springbootjavafx.models.Miasta;
+import com.project.springbootjavafx.projections.MiastaRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -25,4 +34,50 @@ public interface MiastaRepository extends JpaRepository<Miasta, String> {
      * @return {@code true} if a city with the given name exists; {@code false} otherwise
      */
     boolean existsByMiasto(String miasto);
+
+    /**
+     * Inserts a city unless a row with the same {@code miasto} already exists.
+     *
+     * @see HoteleRepository#INSERT_IF_ABSENT
+     */
+    String INSERT_IF_ABSENT = "INSERT INTO miasta (miasto) VALUES (?) ON CONFLICT DO NOTHING";
+
+    /**
+     * Retrieves the first page of grid rows, ordered like {@link #findGridRowsAfter(String, Pageable)}.
+     *
+     * @param pageable the size of the page
+     * @return a {@link Slice} of grid rows
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.MiastaRow(m.miasto) FROM Miasta m " +
+            "ORDER BY m.miasto")
+    Slice<MiastaRow> findFirstGridRows(Pageable pageable);
+
+    /**
+     * Retrieves one page of {@link MiastaRow} grid rows ordered by identifier, starting after the given identifier.
+     *
+     * <p>
+     * The rows are built with a constructor expression from a single column-list query, so no {@code Miasta}
+     * entity is hydrated or tracked by the persistence context. The {@code pageable} limits the page size and
+     * should always point at the first page; the position is given by {@code after} (keyset pagination).
+     * The first page is read by {@link #findFirstGridRows(Pageable)}, without the condition on the key.
+     * </p>
+     *
+     * @param after    the name of the last city of the previous page
+     * @param pageable the size of the page
+     * @return a {@link Slice} of grid rows
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.MiastaRow(m.miasto) FROM Miasta m " +
+            "WHERE m.miasto > :after ORDER BY m.miasto")
+    Slice<MiastaRow> findGridRowsAfter(@Param("after") String after, Pageable pageable);
+
+    /**
+     * Deletes the specified city without loading it. Its hotels have to be deleted first.
+     *
+     * @param miasto the name of the city
+     * @return the number of deleted cities
+     */
+    @Modifying
+    @Query(value = "DELETE FROM miasta WHERE miasto = :miasto", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "miasta"))
+    int deleteByMiasto(@Param("miasto") String miasto);
 }
@@ -1,8 +1,12 @@
 package com.project.springbootjavafx.repositories;
 
 import com.project.springbootjavafx.models.MiastaWycieczek;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -35,4 +39,45 @@ public interface MiastaWycieczekRepository extends JpaRepository<MiastaWycieczek
      */
     @Query(value = "SELECT * FROM miasta_wycieczek m WHERE m.typ_wycieczki = :typ_wycieczki", nativeQuery = true)
     List<MiastaWycieczek> findByTypWycieczki(@Param("typ_wycieczki") String typ_wycieczki);
+
+    /**
+     * Retrieves the numbers of the nights of the itinerary of the specified trip.
+     *
+     * @param wycieczka the code of the trip
+     * @return the night numbers in ascending order
+     */
+    @Query("SELECT DISTINCT m.numerNocy FROM MiastaWycieczek m, Wycieczki w " +
+            "WHERE w.wycieczka = :wycieczka AND m.typyWycieczek = w.typWycieczki ORDER BY m.numerNocy")
+    List<Integer> findNumeryNocyByWycieczka(@Param("wycieczka") String wycieczka);
+
+    /**
+     * Counts the nights of the itinerary of the specified trip type.
+     *
+     * @param typ the trip type
+     * @return the number of nights
+     */
+    @Query("SELECT COUNT(m) FROM MiastaWycieczek m WHERE m.typyWycieczek.typ = :typ")
+    long countByTyp(@Param("typ") String typ);
+
+    /**
+     * Deletes the nights of the itinerary of the specified trip type. The hotel lists of the trips of the type have
+     * to be deleted first.
+     *
+     * @param typ the trip type
+     * @return the number of deleted nights
+     */
+    @Modifying
+    @Query(value = "DELETE FROM miasta_wycieczek WHERE typ_wycieczki = :typ", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "miasta_wycieczek"))
+    int deleteByTyp(@Param("typ") String typ);
+
+    /**
+     * Retrieves the trip types that spend a night in the specified city.
+     *
+     * @param miasto the name of the city
+     * @return the trip types in alphabetical order
+     */
+    @Query("SELECT DISTINCT m.typyWycieczek.typ FROM MiastaWycieczek m WHERE m.miasta.miasto = :miasto " +
+            "ORDER BY m.typyWycieczek.typ")
+    List<String> findTypyByMiasto(@Param("miasto") String miasto);
 }
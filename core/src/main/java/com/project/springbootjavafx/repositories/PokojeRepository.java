@@ -2,12 +2,23 @@ package com.project.springbootjavafx.repositories;
 
 import com.project.springbootjavafx.models.Klienci;
 import com.project.springbootjavafx.models.ListyHoteli;
-import com.project.springbootjavafx.models.Wycieczki;
 import com.project.springbootjavafx.models.Pokoje;
+import com.project.springbootjavafx.models.Wycieczki;
+import com.project.springbootjavafx.projections.PokojeDostepnoscRow;
+import com.project.springbootjavafx.projections.PokojeLicznikiRow;
+import com.project.springbootjavafx.projections.PokojeRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,7 +31,7 @@ import java.util.List;
  * <ul>
  *   <li>Retrieve rooms by trip.</li>
  *   <li>Retrieve rooms by trip that have an associated hotel list.</li>
- *   <li>Update the flag indicating the presence of a hotel list for a room.</li>
+ *   <li>Update the flag indicating the presence of a hotel list for a set of rooms.</li>
  *   <li>Retrieve the list of hotel lists for a specific room, ordered by night number.</li>
  *   <li>Retrieve the list of clients assigned to a specific room.</li>
  * </ul>
@@ -60,45 +71,38 @@ public interface PokojeRepository extends JpaRepository<Pokoje, Integer> {
     List<Pokoje> getByWycieczkaAndListaHoteli(String wycieczka);
 
     /**
-     * Updates the {@code czy_lista_hoteli} flag to true for a room with the specified identifier.
+     * Sets the {@code czy_lista_hoteli} flag of all rooms with the specified identifiers.
      *
      * <p>
-     * This method uses a native SQL query to update the {@code pokoje} table and set the {@code czy_lista_hoteli}
-     * column to true for the room identified by the given ID.
+     * This method uses a single native SQL UPDATE on the {@code pokoje} table, so the number of round trips
+     * does not depend on the number of rooms.
+     * The statement declares {@code pokoje} as its query space, so Hibernate does not clear the second-level
+     * cache of the reference entities after it.
      * </p>
      *
-     * @param pokojID the identifier of the room
+     * @param ids     the identifiers of the rooms
+     * @param wartosc the new value of the flag
+     * @return the number of updated rooms
      */
     @Modifying
-    @Query(value = "UPDATE pokoje SET czy_lista_hoteli = true WHERE id = :pokojID", nativeQuery = true)
-    void updateListaHoteliTrue(Integer pokojID);
-
-    /**
-     * Updates the {@code czy_lista_hoteli} flag to false for a room with the specified identifier.
-     *
-     * <p>
-     * This method uses a native SQL query to update the {@code pokoje} table and set the {@code czy_lista_hoteli}
-     * column to false for the room identified by the given ID.
-     * </p>
-     *
-     * @param pokojID the identifier of the room
-     */
-    @Modifying
-    @Query(value = "UPDATE pokoje SET czy_lista_hoteli = false WHERE id = :pokojID", nativeQuery = true)
-    void updateListaHoteliFalse(Integer pokojID);
+    @Query(value = "UPDATE pokoje SET czy_lista_hoteli = :wartosc WHERE id IN (:ids)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "pokoje"))
+    int updateListaHoteli(@Param("ids") Collection<Integer> ids, @Param("wartosc") boolean wartosc);
 
     /**
      * Retrieves a list of hotel lists associated with a specific room, ordered by the night number.
      *
      * <p>
-     * This method performs a join between the {@code listy_hoteli} and {@code miasta_wycieczek} tables to order the
-     * hotel list entries by the {@code nr_nocy} column from the {@code miasta_wycieczek} table.
+     * The entries are ordered by the {@code numerNocy} of their trip night city. The
+     * {@code ListyHoteli.roomHotelList} entity graph ({@link com.project.springbootjavafx.models.FetchPlan#ROOM_HOTEL_LIST})
+     * fetches the room, the night city with its city and the hotel in the same query.
      * </p>
      *
      * @param ID the identifier of the room
      * @return a list of {@code ListyHoteli} entities associated with the specified room, ordered by night number
      */
-    @Query(value = "SELECT l.* FROM listy_hoteli l JOIN miasta_wycieczek m ON l.miasto_wycieczek = m.id WHERE l.pokoj = :ID ORDER BY m.nr_nocy", nativeQuery = true)
+    @EntityGraph("ListyHoteli.roomHotelList")
+    @Query("SELECT l FROM ListyHoteli l WHERE l.pokoj.id = :ID ORDER BY l.miastoWycieczki.numerNocy")
     List<ListyHoteli> getListeHoteli(Integer ID);
 
     /**
@@ -114,4 +118,151 @@ public interface PokojeRepository extends JpaRepository<Pokoje, Integer> {
      */
     @Query(value = "SELECT * FROM klienci k WHERE k.pokoj = :ID", nativeQuery = true)
     List<Klienci> getKlienciPokoju(Integer ID);
+
+    /**
+     * Retrieves the first page of grid rows, ordered like {@link #findGridRowsAfter(Integer, Pageable)}.
+     *
+     * @param pageable the size of the page
+     * @return a {@link Slice} of grid rows
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.PokojeRow(p.id, w.wycieczka, p.typPokoju, p.ilKlientow, p.ilMiejsc, p.listaHoteli) " +
+            "FROM Pokoje p LEFT JOIN p.wycieczka w " +
+            "ORDER BY p.id")
+    Slice<PokojeRow> findFirstGridRows(Pageable pageable);
+
+    /**
+     * Retrieves one page of {@link PokojeRow} grid rows ordered by identifier, starting after the given identifier.
+     *
+     * <p>
+     * The rows are built with a constructor expression from a single column-list query, so no {@code Pokoje}
+     * entity is hydrated or tracked by the persistence context. The {@code pageable} limits the page size and
+     * should always point at the first page; the position is given by {@code after} (keyset pagination).
+     * The first page is read by {@link #findFirstGridRows(Pageable)}, without the condition on the key.
+     * </p>
+     *
+     * @param after    the identifier of the last room of the previous page
+     * @param pageable the size of the page
+     * @return a {@link Slice} of grid rows
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.PokojeRow(p.id, w.wycieczka, p.typPokoju, p.ilKlientow, p.ilMiejsc, p.listaHoteli) " +
+            "FROM Pokoje p LEFT JOIN p.wycieczka w " +
+            "WHERE p.id > :after ORDER BY p.id")
+    Slice<PokojeRow> findGridRowsAfter(@Param("after") Integer after, Pageable pageable);
+
+    /**
+     * Retrieves the capacity and the number of clients of every room of the specified trip.
+     *
+     * <p>
+     * The clients are counted instead of reading {@code il_klientow}, so the result does not depend on the counter
+     * triggers. Only the rooms of the trip and their clients are read (see {@code V5__query_indexes.sql}).
+     * </p>
+     *
+     * @param wycieczka the code of the trip
+     * @return the availability rows ordered by room identifier
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.PokojeDostepnoscRow(p.id, p.typPokoju, p.ilMiejsc, COUNT(k)) " +
+            "FROM Pokoje p LEFT JOIN p.klienci k " +
+            "WHERE p.wycieczka.wycieczka = :wycieczka " +
+            "GROUP BY p.id, p.typPokoju, p.ilMiejsc ORDER BY p.id")
+    List<PokojeDostepnoscRow> findDostepnosc(@Param("wycieczka") String wycieczka);
+
+    /**
+     * Retrieves the identifiers of the rooms of the specified trip.
+     *
+     * @param wycieczka the code of the trip
+     * @return the room identifiers in ascending order
+     */
+    @Query("SELECT p.id FROM Pokoje p WHERE p.wycieczka.wycieczka = :wycieczka ORDER BY p.id")
+    List<Integer> findIdsByWycieczka(@Param("wycieczka") String wycieczka);
+
+    /**
+     * Retrieves the identifiers of the rooms of the specified trips.
+     *
+     * @param wycieczki the codes of the trips
+     * @return the room identifiers in ascending order
+     */
+    @Query("SELECT p.id FROM Pokoje p WHERE p.wycieczka.wycieczka IN :wycieczki ORDER BY p.id")
+    List<Integer> findIdsByWycieczkaIn(@Param("wycieczki") Collection<String> wycieczki);
+
+    /**
+     * Copies the rooms of a trip to each of the specified trips with a single {@code INSERT ... SELECT}.
+     *
+     * <p>
+     * The copies have the type and the size of the originals and no clients; they keep the hotel list flag of the
+     * originals only if the hotel lists are copied too. The identifiers are taken from {@code pokoje_id_seq} in the
+     * order of the original rooms, which {@link ListyHoteliRepository#insertKopie(String, Collection)} relies on:
+     * the database evaluates {@code nextval} after sorting the selected rows.
+     * </p>
+     *
+     * @param zrodlo      the code of the copied trip
+     * @param cele        the codes of the new trips, which must not have rooms yet
+     * @param listyHoteli whether the hotel lists of the rooms are copied as well
+     * @return the number of created rooms
+     */
+    @Modifying
+    @Query(value = "INSERT INTO pokoje (id, wycieczka, typ_pokoju, il_klientow, il_miejsc, czy_lista_hoteli) " +
+            "SELECT nextval('pokoje_id_seq'), w.wycieczka, p.typ_pokoju, 0, p.il_miejsc, " +
+            "CASE WHEN :listyHoteli THEN p.czy_lista_hoteli ELSE FALSE END " +
+            "FROM pokoje p JOIN wycieczki w ON w.wycieczka IN (:cele) " +
+            "WHERE p.wycieczka = :zrodlo ORDER BY w.wycieczka, p.id", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "pokoje"))
+    int insertKopie(@Param("zrodlo") String zrodlo, @Param("cele") Collection<String> cele,
+                    @Param("listyHoteli") boolean listyHoteli);
+
+    /**
+     * Retrieves the stored client counters of the rooms of the specified trips together with the number of clients
+     * assigned to each room.
+     *
+     * @param wycieczki the codes of the trips
+     * @return the counter rows ordered by room identifier
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.PokojeLicznikiRow(p.id, p.ilKlientow, COUNT(k)) " +
+            "FROM Pokoje p LEFT JOIN p.klienci k " +
+            "WHERE p.wycieczka.wycieczka IN :wycieczki " +
+            "GROUP BY p.id, p.ilKlientow ORDER BY p.id")
+    List<PokojeLicznikiRow> findLiczniki(@Param("wycieczki") Collection<String> wycieczki);
+
+    /**
+     * Recomputes the number of clients of the specified rooms.
+     *
+     * @param ids the identifiers of the rooms
+     * @return the number of updated rooms
+     */
+    @Modifying
+    @Query(value = "UPDATE pokoje p SET il_klientow = (SELECT COUNT(*) FROM klienci k WHERE k.pokoj = p.id) " +
+            "WHERE p.id IN (:ids)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "pokoje"))
+    int przeliczLiczniki(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Counts the rooms of the specified trips.
+     *
+     * @param wycieczki the codes of the trips
+     * @return the number of rooms
+     */
+    @Query("SELECT COUNT(p) FROM Pokoje p WHERE p.wycieczka.wycieczka IN :wycieczki")
+    long countByWycieczkaIn(@Param("wycieczki") Collection<String> wycieczki);
+
+    /**
+     * Deletes the rooms of the specified trips. Their clients and hotel lists have to be deleted first.
+     *
+     * @param wycieczki the codes of the trips
+     * @return the number of deleted rooms
+     */
+    @Modifying
+    @Query(value = "DELETE FROM pokoje WHERE wycieczka IN (:wycieczki)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "pokoje"))
+    int deleteByWycieczkaIn(@Param("wycieczki") Collection<String> wycieczki);
+
+    /**
+     * Sets the hotel list flag of the specified rooms from the records they have left in {@code listy_hoteli}.
+     *
+     * @param ids the identifiers of the rooms
+     * @return the number of updated rooms
+     */
+    @Modifying
+    @Query(value = "UPDATE pokoje p SET czy_lista_hoteli = EXISTS (SELECT 1 FROM listy_hoteli l WHERE l.pokoj = p.id) " +
+            "WHERE p.id IN (:ids)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "pokoje"))
+    int przeliczListaHoteli(@Param("ids") Collection<Integer> ids);
 }
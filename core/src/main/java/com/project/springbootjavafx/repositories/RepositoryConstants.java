@@ -0,0 +1,19 @@
+package com.project.springbootjavafx.repositories;
+
+/**
+ * The {@code RepositoryConstants} class holds the settings shared by the queries of several repositories.
+ *
+ * <p>
+ * The values are strings so that they can be used in {@code @QueryHint} annotations.
+ * </p>
+ */
+public final class RepositoryConstants {
+
+    /**
+     * The number of rows fetched from the database in one round trip by the streaming reads.
+     */
+    public static final String STREAM_FETCH_SIZE = "500";
+
+    private RepositoryConstants() {
+    }
+}
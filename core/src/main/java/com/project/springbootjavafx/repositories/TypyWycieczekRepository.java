@@ -2,8 +2,15 @@ package com.project.springbootjavafx.repositories;
 
 import com.project.springbootjavafx.models.MiastaWycieczek;
 import com.project.springbootjavafx.models.TypyWycieczek;
+import com.project.springbootjavafx.projections.TypyWycieczekRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -40,17 +47,65 @@ public interface TypyWycieczekRepository extends JpaRepository<TypyWycieczek, St
      */
     boolean existsByTyp(String s);
 
+    /**
+     * Inserts a trip type unless a row with the same {@code typ} already exists.
+     *
+     * @see HoteleRepository#INSERT_IF_ABSENT
+     */
+    String INSERT_IF_ABSENT = "INSERT INTO typy_wycieczek (typ, liczba_nocy) VALUES (?, ?) ON CONFLICT DO NOTHING";
+
     /**
      * Retrieves all {@link MiastaWycieczek} records associated with the specified trip type, ordered by the night number.
      *
      * <p>
-     * This method uses a native SQL query to select records from the {@code miasta_wycieczek} table where the
-     * {@code typ_wycieczki} column matches the given trip type. The results are ordered by the {@code nr_nocy} column.
+     * This method selects records from the {@code miasta_wycieczek} table where the {@code typ_wycieczki} column
+     * matches the given trip type. The results are ordered by the {@code nr_nocy} column. The result is kept in the
+     * query cache and invalidated by Hibernate whenever {@code miasta_wycieczek} changes.
      * </p>
      *
      * @param typ the identifier of the trip type
      * @return a list of {@code MiastaWycieczek} entities associated with the specified trip type
      */
-    @Query(value = "SELECT * FROM miasta_wycieczek WHERE typ_wycieczki = :typ ORDER BY nr_nocy", nativeQuery = true)
+    @Query("SELECT m FROM MiastaWycieczek m WHERE m.typyWycieczek.typ = :typ ORDER BY m.numerNocy")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<MiastaWycieczek> getMiastaWycieczki(@Param("typ") String typ);
+
+    /**
+     * Retrieves the first page of grid rows, ordered like {@link #findGridRowsAfter(String, Pageable)}.
+     *
+     * @param pageable the size of the page
+     * @return a {@link Slice} of grid rows
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.TypyWycieczekRow(t.typ, t.liczba_nocy) FROM TypyWycieczek t " +
+            "ORDER BY t.typ")
+    Slice<TypyWycieczekRow> findFirstGridRows(Pageable pageable);
+
+    /**
+     * Retrieves one page of {@link TypyWycieczekRow} grid rows ordered by identifier, starting after the given identifier.
+     *
+     * <p>
+     * The rows are built with a constructor expression from a single column-list query, so no {@code TypyWycieczek}
+     * entity is hydrated or tracked by the persistence context. The {@code pageable} limits the page size and
+     * should always point at the first page; the position is given by {@code after} (keyset pagination).
+     * The first page is read by {@link #findFirstGridRows(Pageable)}, without the condition on the key.
+     * </p>
+     *
+     * @param after    the last trip type of the previous page
+     * @param pageable the size of the page
+     * @return a {@link Slice} of grid rows
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.TypyWycieczekRow(t.typ, t.liczba_nocy) FROM TypyWycieczek t " +
+            "WHERE t.typ > :after ORDER BY t.typ")
+    Slice<TypyWycieczekRow> findGridRowsAfter(@Param("after") String after, Pageable pageable);
+
+    /**
+     * Deletes the specified trip type without loading it. Its trips, nights and price list have to be deleted first.
+     *
+     * @param typ the trip type
+     * @return the number of deleted trip types
+     */
+    @Modifying
+    @Query(value = "DELETE FROM typy_wycieczek WHERE typ = :typ", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "typy_wycieczek"))
+    int deleteByTyp(@Param("typ") String typ);
 }
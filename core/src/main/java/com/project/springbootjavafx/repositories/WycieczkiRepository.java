@@ -1,8 +1,20 @@
 package com.project.springbootjavafx.repositories;
 
 import com.project.springbootjavafx.models.Wycieczki;
+import com.project.springbootjavafx.projections.WycieczkiLicznikiRow;
+import com.project.springbootjavafx.projections.WycieczkiRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * The {@code WycieczkiRepository} interface provides CRUD operations for the {@link Wycieczki} entity.
@@ -25,4 +37,121 @@ public interface WycieczkiRepository extends JpaRepository<Wycieczki, String> {
      * @return {@code true} if a trip with the given name exists, {@code false} otherwise
      */
     boolean existsByWycieczka(String nazwa);
+
+    /**
+     * Inserts a trip unless a row with the same {@code wycieczka} already exists.
+     *
+     * @see HoteleRepository#INSERT_IF_ABSENT
+     */
+    String INSERT_IF_ABSENT = "INSERT INTO wycieczki (wycieczka, typ_wycieczki, poczatek, koniec, il_uczestnikow, wplyw) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    /**
+     * Retrieves the first page of grid rows, ordered like {@link #findGridRowsAfter(String, Pageable)}.
+     *
+     * @param pageable the size of the page
+     * @return a {@link Slice} of grid rows
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.WycieczkiRow(w.wycieczka, t.typ, w.poczatek, w.koniec, w.ilUczestinkow, w.wplyw) " +
+            "FROM Wycieczki w LEFT JOIN w.typWycieczki t " +
+            "ORDER BY w.wycieczka")
+    Slice<WycieczkiRow> findFirstGridRows(Pageable pageable);
+
+    /**
+     * Retrieves one page of {@link WycieczkiRow} grid rows ordered by identifier, starting after the given identifier.
+     *
+     * <p>
+     * The rows are built with a constructor expression from a single column-list query, so no {@code Wycieczki}
+     * entity is hydrated or tracked by the persistence context. The {@code pageable} limits the page size and
+     * should always point at the first page; the position is given by {@code after} (keyset pagination).
+     * The first page is read by {@link #findFirstGridRows(Pageable)}, without the condition on the key.
+     * </p>
+     *
+     * @param after    the code of the last trip of the previous page
+     * @param pageable the size of the page
+     * @return a {@link Slice} of grid rows
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.WycieczkiRow(w.wycieczka, t.typ, w.poczatek, w.koniec, w.ilUczestinkow, w.wplyw) " +
+            "FROM Wycieczki w LEFT JOIN w.typWycieczki t " +
+            "WHERE w.wycieczka > :after ORDER BY w.wycieczka")
+    Slice<WycieczkiRow> findGridRowsAfter(@Param("after") String after, Pageable pageable);
+
+    /**
+     * Retrieves the first page of counter rows, ordered like {@link #findLicznikiAfter(String, Pageable)}.
+     *
+     * @param pageable the size of the page
+     * @return a {@link Slice} of counter rows
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.WycieczkiLicznikiRow(" +
+            "w.wycieczka, w.ilUczestinkow, w.wplyw, COUNT(k), COALESCE(SUM(k.doZaplaty), 0)) " +
+            "FROM Wycieczki w LEFT JOIN w.klienci k " +
+            "GROUP BY w.wycieczka, w.ilUczestinkow, w.wplyw ORDER BY w.wycieczka")
+    Slice<WycieczkiLicznikiRow> findFirstLiczniki(Pageable pageable);
+
+    /**
+     * Retrieves the stored counters of one page of trips together with the values recomputed from their clients.
+     *
+     * <p>
+     * The page is positioned with {@code after} (keyset pagination), like {@link #findGridRowsAfter(String, Pageable)}.
+     * The first page is read by {@link #findFirstLiczniki(Pageable)}, without the condition on the key.
+     * </p>
+     *
+     * @param after    the code of the last trip of the previous page
+     * @param pageable the size of the page
+     * @return a {@link Slice} of counter rows ordered by trip code
+     */
+    @Query("SELECT new com.project.springbootjavafx.projections.WycieczkiLicznikiRow(" +
+            "w.wycieczka, w.ilUczestinkow, w.wplyw, COUNT(k), COALESCE(SUM(k.doZaplaty), 0)) " +
+            "FROM Wycieczki w LEFT JOIN w.klienci k " +
+            "WHERE w.wycieczka > :after " +
+            "GROUP BY w.wycieczka, w.ilUczestinkow, w.wplyw ORDER BY w.wycieczka")
+    Slice<WycieczkiLicznikiRow> findLicznikiAfter(@Param("after") String after, Pageable pageable);
+
+    /**
+     * Retrieves the codes of all trips of a trip type.
+     *
+     * @param typ the trip type
+     * @return the codes of the trips
+     */
+    @Query("SELECT w.wycieczka FROM Wycieczki w WHERE w.typWycieczki.typ = :typ ORDER BY w.wycieczka")
+    List<String> findKodyByTyp(@Param("typ") String typ);
+
+    /**
+     * Recomputes the number of participants and the revenue of the specified trips from their clients.
+     *
+     * <p>
+     * The values are computed inside the UPDATE, which locks the trip rows first, so clients added concurrently are
+     * counted either here or by the trigger of their own statement, never twice.
+     * </p>
+     *
+     * @param ids the codes of the trips
+     * @return the number of updated trips
+     */
+    @Modifying
+    @Query(value = "UPDATE wycieczki w " +
+            "SET il_uczestnikow = (SELECT COUNT(*) FROM klienci k WHERE k.wycieczka = w.wycieczka), " +
+            "wplyw = (SELECT COALESCE(SUM(k.do_zaplaty), 0) FROM klienci k WHERE k.wycieczka = w.wycieczka) " +
+            "WHERE w.wycieczka IN (:ids)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "wycieczki"))
+    int przeliczLiczniki(@Param("ids") Collection<String> ids);
+
+    /**
+     * Counts the specified trips that exist.
+     *
+     * @param wycieczki the codes of the trips
+     * @return the number of trips
+     */
+    @Query("SELECT COUNT(w) FROM Wycieczki w WHERE w.wycieczka IN :wycieczki")
+    long countByWycieczkaIn(@Param("wycieczki") Collection<String> wycieczki);
+
+    /**
+     * Deletes the specified trips. Their rooms and clients have to be deleted first.
+     *
+     * @param wycieczki the codes of the trips
+     * @return the number of deleted trips
+     */
+    @Modifying
+    @Query(value = "DELETE FROM wycieczki WHERE wycieczka IN (:wycieczki)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "wycieczki"))
+    int deleteByWycieczkaIn(@Param("wycieczki") Collection<String> wycieczki);
 }
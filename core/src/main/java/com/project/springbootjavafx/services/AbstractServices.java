@@ -1,12 +1,54 @@
 package com.project.springbootjavafx.services;
 
 import java.lang.reflect.Field;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import com.project.springbootjavafx.exceptions.DuplicatedEntityExceptionn;
+import com.project.springbootjavafx.models.FetchPlan;
+import com.project.springbootjavafx.projections.GridRow;
+import com.project.springbootjavafx.repositories.RepositoryConstants;
 import com.project.springbootjavafx.utils.Pair;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.transaction.Transactional;
 import lombok.Getter;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
@@ -21,6 +63,24 @@ import jakarta.persistence.ManyToMany;
  * classes that implement domain-specific behavior.
  * </p>
  *
+ * <p>
+ * Besides the single-row operations, the class offers set-based variants ({@link #addAll(Collection)},
+ * {@link #updateAll(Collection)} and {@link #deleteAllById(Collection)}) which run in one transaction and let
+ * Hibernate send the statements as JDBC batches (see {@code hibernate.jdbc.batch_size} in
+ * {@code application.properties}). Callers that would otherwise loop over {@link #add(Object)} should use them.
+ * </p>
+ *
+ * <p>
+ * The read methods take a {@link FetchPlan} naming the screen they serve; the matching entity graph decides which
+ * lazy associations are fetched in the same query. The overloads without a plan use {@link FetchPlan#GRID}.
+ * </p>
+ *
+ * <p>
+ * Exports and batch jobs that read many rows use {@link #forEachChunk(int, Consumer)} instead of {@link #getAll()}:
+ * the rows are streamed from the database and handed over in chunks, which are detached once processed, so the
+ * memory used does not depend on the number of rows.
+ * </p>
+ *
  * @param <T>  the type of the entity managed by the service
  * @param <ID> the type of the entity's identifier
  */
@@ -34,6 +94,7 @@ public abstract class AbstractServices<T, ID> {
     /**
      * The domain class of the entity managed by this service.
      */
+    @Getter
     protected final Class<T> domainClass;
 
     /**
@@ -42,6 +103,41 @@ public abstract class AbstractServices<T, ID> {
     @Getter
     protected final Class<ID> idClass;
 
+    /**
+     * The entity manager used by the set-based operations.
+     */
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    /**
+     * Runs the streaming reads in a read-only transaction.
+     */
+    private TransactionTemplate readOnlyTransaction;
+
+    /**
+     * Announces the writes of the service (see {@link #publishChange()}); {@code null} outside of a Spring context.
+     */
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Binds the columns of one entity to an insert statement (see {@link #insertNew(String, String, Collection,
+     * RowBinder, Function)}).
+     *
+     * @param <T> the type of the entity
+     */
+    @FunctionalInterface
+    protected interface RowBinder<T> {
+
+        /**
+         * Sets the parameters of the statement to the columns of the entity.
+         *
+         * @param statement the insert statement
+         * @param model     the entity to insert
+         * @throws SQLException if a parameter cannot be set
+         */
+        void bind(PreparedStatement statement, T model) throws SQLException;
+    }
+
     /**
      * Constructs a new {@code AbstractServices} instance.
      *
@@ -55,6 +151,27 @@ public abstract class AbstractServices<T, ID> {
         this.idClass = idClass;
     }
 
+    /**
+     * Sets the transaction manager used by the streaming reads.
+     *
+     * @param transactionManager the transaction manager
+     */
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Sets the publisher used to announce the writes of the service.
+     *
+     * @param eventPublisher the application event publisher
+     */
+    @Autowired
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
     /**
      * Adds a new record to the database.
      *
@@ -98,12 +215,206 @@ public abstract class AbstractServices<T, ID> {
     }
 
     /**
-     * Retrieves all records of the managed entity.
+     * Retrieves all records of the managed entity using the {@link FetchPlan#GRID} plan.
      *
      * @return a {@link List} of all entities
      */
     public List<T> getAll() {
-        return repository.findAll();
+        return getAll(FetchPlan.GRID);
+    }
+
+    /**
+     * Retrieves all records of the managed entity, fetching the associations required by the given plan.
+     *
+     * @param plan the fetch plan of the calling screen
+     * @return a {@link List} of all entities
+     */
+    public List<T> getAll(FetchPlan plan) {
+        CriteriaQuery<T> query = entityManager.getCriteriaBuilder().createQuery(domainClass);
+        query.select(query.from(domainClass));
+        return withPlan(entityManager.createQuery(query), plan).getResultList();
+    }
+
+    /**
+     * Processes all records of the managed entity in chunks, using the {@link FetchPlan#GRID} plan.
+     *
+     * @param chunkSize the number of entities passed to the action at once
+     * @param action    processes one chunk of entities
+     * @throws IllegalArgumentException if the chunk size is not positive
+     * @see #forEachChunk(int, FetchPlan, Consumer)
+     */
+    public void forEachChunk(int chunkSize, Consumer<List<T>> action) {
+        forEachChunk(chunkSize, FetchPlan.GRID, action);
+    }
+
+    /**
+     * Processes all records of the managed entity in chunks, fetching the associations required by the given plan.
+     *
+     * <p>
+     * The rows are read with one query whose result is streamed with a JDBC fetch size, instead of being collected
+     * into a list. The entities are loaded read-only. See {@link #forEachChunk(Supplier, int, Consumer)} for how the
+     * chunks are handed over and detached.
+     * </p>
+     *
+     * @param chunkSize the number of entities passed to the action at once
+     * @param plan      the fetch plan of the calling job; it may only contain to-one associations
+     * @param action    processes one chunk of entities
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    public void forEachChunk(int chunkSize, FetchPlan plan, Consumer<List<T>> action) {
+        forEachChunk(() -> {
+            CriteriaQuery<T> query = entityManager.getCriteriaBuilder().createQuery(domainClass);
+            query.select(query.from(domainClass));
+            return withPlan(entityManager.createQuery(query), plan)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, RepositoryConstants.STREAM_FETCH_SIZE)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultStream();
+        }, chunkSize, action);
+    }
+
+    /**
+     * Processes the entities of a stream in chunks.
+     *
+     * <p>
+     * The stream is opened and consumed in a read-only transaction, or in the caller's transaction if there is one.
+     * Every chunk is passed to the action while its entities are still managed, so the action may navigate their
+     * lazy associations. Afterwards the chunk is detached: in its own transaction the whole persistence context is
+     * cleared, in the caller's transaction only the entities of the chunk are detached. Changes the action makes to
+     * the entities are not saved.
+     * </p>
+     *
+     * @param source    opens the stream, usually a {@code Stream}-returning repository method
+     * @param chunkSize the number of entities passed to the action at once
+     * @param action    processes one chunk of entities
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    protected void forEachChunk(Supplier<Stream<T>> source, int chunkSize, Consumer<List<T>> action) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Rozmiar porcji musi być dodatni");
+        }
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> stream = source.get()) {
+                Iterator<T> rows = stream.iterator();
+                List<T> chunk = new ArrayList<>(chunkSize);
+                while (rows.hasNext()) {
+                    chunk.add(rows.next());
+                    // the chunk is handed over before the next row is read, so that row is not detached with it
+                    if (chunk.size() == chunkSize) {
+                        processChunk(chunk, action, status.isNewTransaction());
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    processChunk(chunk, action, status.isNewTransaction());
+                }
+            }
+        });
+    }
+
+    /**
+     * Passes one chunk to the action and detaches it.
+     *
+     * @param chunk          the entities of the chunk
+     * @param action         processes the chunk
+     * @param ownTransaction whether the stream runs in its own transaction, whose persistence context may be cleared
+     */
+    private void processChunk(List<T> chunk, Consumer<List<T>> action, boolean ownTransaction) {
+        action.accept(chunk);
+        if (ownTransaction) {
+            entityManager.clear();
+        } else {
+            chunk.forEach(entityManager::detach);
+        }
+    }
+
+    /**
+     * Retrieves one page of records ordered by identifier, starting right after the given identifier.
+     *
+     * <p>
+     * This is keyset pagination: instead of an offset, the query filters on {@code id > after} and limits the
+     * result, so every page costs one small indexed query no matter how deep the user has scrolled. One row more
+     * than requested is fetched to find out whether another page exists. To read the next page, pass the
+     * identifier of the last element of the returned slice (see {@link #getId(Object)}).
+     * </p>
+     *
+     * @param after the identifier of the last record of the previous page, or {@code null} for the first page
+     * @param size  the maximum number of records on the page
+     * @return a {@link Slice} with at most {@code size} records, ordered by identifier
+     * @throws UnsupportedOperationException if the entity has a composite (non-comparable) identifier
+     */
+    public Slice<T> getPage(ID after, int size) {
+        return getPage(after, size, FetchPlan.GRID);
+    }
+
+    /**
+     * Retrieves one page of records ordered by identifier, fetching the associations required by the given plan.
+     *
+     * <p>
+     * The plan may only contain to-one associations; joining a collection would make Hibernate apply the limit
+     * in memory.
+     * </p>
+     *
+     * @param after the identifier of the last record of the previous page, or {@code null} for the first page
+     * @param size  the maximum number of records on the page
+     * @param plan  the fetch plan of the calling screen
+     * @return a {@link Slice} with at most {@code size} records, ordered by identifier
+     * @throws UnsupportedOperationException if the entity has a composite (non-comparable) identifier
+     * @see #getPage(Object, int)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Slice<T> getPage(ID after, int size, FetchPlan plan) {
+        if (!Comparable.class.isAssignableFrom(idClass)) {
+            throw new UnsupportedOperationException("Stronicowanie wymaga prostego klucza dla " + domainClass.getSimpleName());
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        SingularAttribute<? super T, ID> idAttribute = entityManager.getMetamodel().entity(domainClass).getId(idClass);
+        Expression<Comparable> id = (Expression) root.get(idAttribute);
+
+        query.select(root);
+        if (after != null) {
+            query.where(cb.greaterThan(id, (Comparable) after));
+        }
+        query.orderBy(cb.asc(id));
+
+        List<T> rows = withPlan(entityManager.createQuery(query), plan)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, size)) : rows;
+        return new SliceImpl<>(content, PageRequest.of(0, size, Sort.by(idAttribute.getName())), hasNext);
+    }
+
+    /**
+     * Returns the type of the read-only rows displayed in the grid of the managed entity.
+     *
+     * <p>
+     * Services whose entity is shown in a grid override this method together with {@link #getRows(Object, int)}.
+     * </p>
+     *
+     * @return the row record class, or {@code null} if the entity has no grid projection
+     */
+    public Class<? extends GridRow<ID>> getRowClass() {
+        return null;
+    }
+
+    /**
+     * Retrieves one page of read-only grid rows ordered by identifier, starting right after the given identifier.
+     *
+     * <p>
+     * Unlike {@link #getPage(Object, int)}, the rows are projections selected with a single column-list query,
+     * so no entity is hydrated and no dirty-checking snapshot is kept for them.
+     * </p>
+     *
+     * @param after the key of the last row of the previous page, or {@code null} for the first page
+     * @param size  the maximum number of rows on the page
+     * @return a {@link Slice} with at most {@code size} rows
+     * @throws UnsupportedOperationException if the entity has no grid projection
+     * @see #getRowClass()
+     */
+    public Slice<? extends GridRow<ID>> getRows(ID after, int size) {
+        throw new UnsupportedOperationException("Brak projekcji tabeli dla " + domainClass.getSimpleName());
     }
 
     /**
@@ -116,6 +427,40 @@ public abstract class AbstractServices<T, ID> {
         return repository.findById(id).get();
     }
 
+    /**
+     * Retrieves a record by its identifier, fetching the associations required by the given plan.
+     *
+     * @param id   the identifier of the entity
+     * @param plan the fetch plan of the calling screen
+     * @return the entity with the specified id
+     * @throws NoSuchElementException if there is no entity with the specified id
+     */
+    public T getById(ID id, FetchPlan plan) {
+        Map<String, Object> hints = new HashMap<>();
+        findGraph(plan).ifPresent(graph -> hints.put(SpecHints.HINT_SPEC_FETCH_GRAPH, graph));
+        T model = entityManager.find(domainClass, id, hints);
+        if (model == null) {
+            throw new NoSuchElementException("Brak rekordu " + domainClass.getSimpleName() + " o id " + id);
+        }
+        return model;
+    }
+
+    /**
+     * Returns a reference to the entity with the specified identifier without loading it.
+     *
+     * <p>
+     * The reference is enough to set an association of another entity, for example when the identifier was taken
+     * from an {@link com.project.springbootjavafx.models.Itinerary}. Reading any other state of it outside a
+     * transaction fails.
+     * </p>
+     *
+     * @param id the identifier of the entity
+     * @return an uninitialized reference to the entity
+     */
+    public T getReference(ID id) {
+        return entityManager.getReference(domainClass, id);
+    }
+
     /**
      * Checks whether an entity with the specified identifier exists.
      *
@@ -129,9 +474,268 @@ public abstract class AbstractServices<T, ID> {
     /**
      * Deletes the entity with the specified identifier.
      *
+     * <p>
+     * Rows removed by the database together with the entity (see {@link #getCachedDependents()}) are evicted from
+     * the second-level cache afterwards.
+     * </p>
+     *
      * @param id the identifier of the entity to delete
      */
     public void delete(ID id) {
         repository.deleteById(id);
+        evictFromCache(List.of(id));
+        publishChange();
+    }
+
+    /**
+     * Counts the records that {@link #delete(Object)} removes, by entity type, without deleting anything.
+     *
+     * <p>
+     * Services whose entities own other records override this method together with {@link #delete(Object)}; by
+     * default only the entity itself is counted.
+     * </p>
+     *
+     * @param id the identifier of the entity to delete
+     * @return the records that would be removed
+     */
+    public DeletePreview previewDelete(ID id) {
+        Map<Class<?>, Long> rekordy = new LinkedHashMap<>();
+        rekordy.put(domainClass, existsById(id) ? 1L : 0L);
+        return new DeletePreview(rekordy);
+    }
+
+    /**
+     * Adds all given records to the database in a single transaction.
+     *
+     * <p>
+     * Every entity is passed to {@link EntityManager#persist(Object)} and the persistence context is flushed once
+     * at the end, so the inserts are grouped into JDBC batches. Unlike {@code saveAll}, no entity is merged, which
+     * means no SELECT is issued for entities with an assigned identifier. Subclasses that validate in
+     * {@link #add(Object)} override this method to apply the same rules to the whole collection first.
+     * </p>
+     *
+     * @param models the entities to add
+     * @return the added entities, in the order they were given
+     */
+    @Transactional
+    public List<T> addAll(Collection<T> models) {
+        List<T> added = new ArrayList<>(models.size());
+        for (T model : models) {
+            entityManager.persist(model);
+            added.add(model);
+        }
+        entityManager.flush();
+        publishChange();
+        return added;
+    }
+
+    /**
+     * Updates all given records in a single transaction.
+     *
+     * <p>
+     * The current rows are loaded with one query before merging, so {@link EntityManager#merge(Object)} finds them
+     * in the persistence context instead of selecting each one separately. The resulting UPDATE statements are
+     * sent as JDBC batches on flush.
+     * </p>
+     *
+     * @param models the detached entities carrying the new state
+     * @return the managed, updated entities
+     */
+    @Transactional
+    public List<T> updateAll(Collection<T> models) {
+        List<ID> ids = new ArrayList<>(models.size());
+        for (T model : models) {
+            ids.add(getId(model));
+        }
+        repository.findAllById(ids);
+
+        List<T> updated = new ArrayList<>(models.size());
+        for (T model : models) {
+            updated.add(entityManager.merge(model));
+        }
+        entityManager.flush();
+        publishChange();
+        return updated;
+    }
+
+    /**
+     * Deletes all entities with the specified identifiers using a single bulk DELETE statement.
+     *
+     * <p>
+     * The statement is executed directly in the database, so JPA cascades and orphan removal are not applied.
+     * Dependent rows must be removed beforehand or by the database itself. The deleted entities and their cached
+     * dependents are evicted from the second-level cache.
+     * </p>
+     *
+     * @param ids the identifiers of the entities to delete
+     */
+    @Transactional
+    public void deleteAllById(Collection<ID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        repository.deleteAllByIdInBatch(ids);
+        evictFromCache(ids);
+        publishChange();
+    }
+
+    /**
+     * Returns the identifier of the given entity.
+     *
+     * @param model the entity
+     * @return the identifier of the entity, or {@code null} if it has not been assigned yet
+     */
+    @SuppressWarnings("unchecked")
+    public ID getId(T model) {
+        return (ID) entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(model);
+    }
+
+    /**
+     * Returns the cached entity types whose rows the database may change when an entity of this service is deleted,
+     * for example through {@code ON DELETE CASCADE}.
+     *
+     * <p>
+     * Hibernate keeps the second-level cache in sync with the changes it makes itself, but it cannot see rows changed
+     * by the database. Services of referenced entities override this method so that such rows are evicted.
+     * </p>
+     *
+     * @return the dependent entity classes, empty by default
+     */
+    protected List<Class<?>> getCachedDependents() {
+        return List.of();
+    }
+
+    /**
+     * Evicts the given entities and all entities of the types returned by {@link #getCachedDependents()} from the
+     * second-level cache.
+     *
+     * @param ids the identifiers of the changed entities
+     */
+    protected void evictFromCache(Collection<ID> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        for (ID id : ids) {
+            cache.evict(domainClass, id);
+        }
+        for (Class<?> dependent : getCachedDependents()) {
+            cache.evict(dependent);
+        }
+    }
+
+    /**
+     * Announces that records of the managed entity, and of the types returned by {@link #getCachedDependents()},
+     * may have changed.
+     *
+     * <p>
+     * The event is published inside the caller's transaction, if there is one, so transactional listeners see it
+     * only once the change is committed. Subclasses call this method after writes done outside of the inherited
+     * methods.
+     * </p>
+     */
+    protected void publishChange() {
+        Set<Class<?>> types = new HashSet<>(getCachedDependents());
+        types.add(domainClass);
+        publishEvent(new EntitiesChangedEvent(Set.copyOf(types)));
+    }
+
+    /**
+     * Publishes an application event inside the caller's transaction, if there is one.
+     *
+     * @param event the event; nothing is published outside of a Spring context
+     */
+    protected void publishEvent(Object event) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    /**
+     * Looks up the entity graph implementing the given plan for the managed entity.
+     *
+     * @param plan the fetch plan
+     * @return the graph named {@code <Entity>.<plan>}, or an empty optional if the entity does not declare one
+     */
+    protected Optional<EntityGraph<? super T>> findGraph(FetchPlan plan) {
+        String name = plan.graphName(domainClass);
+        return entityManager.getEntityGraphs(domainClass).stream()
+                .filter(graph -> name.equals(graph.getName()))
+                .findFirst();
+    }
+
+    /**
+     * Applies the entity graph of the given plan to a query as a fetch graph.
+     *
+     * @param query the query to configure
+     * @param plan  the fetch plan
+     * @return the same query
+     */
+    protected TypedQuery<T> withPlan(TypedQuery<T> query, FetchPlan plan) {
+        findGraph(plan).ifPresent(graph -> query.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, graph));
+        return query;
+    }
+
+    /**
+     * Inserts the given entities with a statement that skips rows whose key already exists, and fails if any was
+     * skipped.
+     *
+     * <p>
+     * The statement must end with {@code ON CONFLICT DO NOTHING}. It is sent once per entity as a single JDBC batch
+     * and asks the driver for the generated value of the key column, which the PostgreSQL driver implements by
+     * appending {@code RETURNING <key>}. Only the rows that were actually inserted come back, so a key that already
+     * existed is found without a separate existence query, and two operators adding the same key at the same time
+     * cannot both succeed. Keys repeating within the collection are rejected before anything is sent.
+     * </p>
+     *
+     * <p>
+     * The statement bypasses the persistence context, so the given entities stay unmanaged, and the cached query
+     * results are evicted afterwards. Callers inserting more than one entity must run in a transaction so that a
+     * conflict rolls back the rows inserted before it.
+     * </p>
+     *
+     * @param sql       the insert statement
+     * @param keyColumn the key column returned for the inserted rows
+     * @param models    the entities to insert
+     * @param binder    sets the parameters of the statement for one entity
+     * @param message   builds the error message for a duplicated identifier
+     * @return the given entities
+     * @throws DuplicatedEntityExceptionn if a key repeats or already exists
+     */
+    protected List<T> insertNew(String sql, String keyColumn, Collection<T> models, RowBinder<T> binder,
+                                Function<ID, String> message) throws DuplicatedEntityExceptionn {
+        Set<ID> keys = new HashSet<>();
+        for (T model : models) {
+            if (!keys.add(getId(model))) {
+                throw new DuplicatedEntityExceptionn(message.apply(getId(model)));
+            }
+        }
+        if (models.isEmpty()) {
+            return List.of();
+        }
+        Session session = entityManager.unwrap(Session.class);
+        // rows the new ones reference may still be waiting in the persistence context
+        session.flush();
+        Set<ID> inserted = session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql, new String[]{keyColumn})) {
+                for (T model : models) {
+                    binder.bind(statement, model);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                Set<ID> returned = new HashSet<>();
+                try (ResultSet rows = statement.getGeneratedKeys()) {
+                    while (rows.next()) {
+                        returned.add(rows.getObject(1, idClass));
+                    }
+                }
+                return returned;
+            }
+        });
+        entityManager.getEntityManagerFactory().getCache().unwrap(org.hibernate.Cache.class).evictDefaultQueryRegion();
+        for (T model : models) {
+            if (!inserted.contains(getId(model))) {
+                throw new DuplicatedEntityExceptionn(message.apply(getId(model)));
+            }
+        }
+        publishChange();
+        return new ArrayList<>(models);
     }
 }
@@ -0,0 +1,144 @@
+package com.project.springbootjavafx.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@code CacheStatisticsService} class reports how well the second-level and query caches work.
+ *
+ * <p>
+ * The reference entities ({@code Miasta}, {@code Hotele}, {@code TypyWycieczek}, {@code Ceny} and
+ * {@code MiastaWycieczek}) and the queries reading them are cached by Hibernate in the regions configured in
+ * {@code ehcache.xml}. This service reads the hit, miss and put counters that Hibernate collects for every region
+ * and can empty the caches when the database was changed outside of the application.
+ * </p>
+ *
+ * <p>
+ * Hibernate collects the counters only with {@code bird.cache-statistics.enabled=true} in
+ * {@code application.properties}, which turns on {@code hibernate.generate_statistics}; otherwise every counter
+ * stays at zero (see {@link #isEnabled()}).
+ * </p>
+ */
+@Service
+public class CacheStatisticsService {
+
+    /**
+     * The Hibernate statistics of the persistence unit.
+     */
+    private final Statistics statistics;
+
+    /**
+     * The entity manager factory whose caches are managed.
+     */
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * The counters of one cache region.
+     *
+     * @param region the name of the region
+     * @param hits   the number of lookups answered by the cache
+     * @param misses the number of lookups that had to go to the database
+     * @param puts   the number of entries stored in the region
+     */
+    public record RegionStatistics(String region, long hits, long misses, long puts) {
+
+        /**
+         * Returns the part of the lookups answered by the cache.
+         *
+         * @return the hit ratio between 0 and 1, or 0 if there were no lookups
+         */
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    /**
+     * Constructs a new {@code CacheStatisticsService} instance.
+     *
+     * @param entityManagerFactory the entity manager factory whose caches are reported
+     */
+    @Autowired
+    public CacheStatisticsService(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Tells whether Hibernate collects the counters.
+     *
+     * @return {@code true} if {@code bird.cache-statistics.enabled} is set, {@code false} if every counter stays zero
+     */
+    public boolean isEnabled() {
+        return statistics.isStatisticsEnabled();
+    }
+
+    /**
+     * Returns the counters of every second-level cache region, including the query cache region.
+     *
+     * @return the statistics of the regions, ordered by region name
+     */
+    public List<RegionStatistics> getRegionStatistics() {
+        String[] regions = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regions);
+        List<RegionStatistics> result = new ArrayList<>(regions.length);
+        for (String region : regions) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats != null) {
+                result.add(new RegionStatistics(region, stats.getHitCount(), stats.getMissCount(), stats.getPutCount()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the counters summed over all entity regions of the second-level cache.
+     *
+     * @return the entity cache statistics
+     */
+    public RegionStatistics getEntityStatistics() {
+        return new RegionStatistics("second-level",
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount());
+    }
+
+    /**
+     * Returns the counters of the query cache.
+     *
+     * @return the query cache statistics
+     */
+    public RegionStatistics getQueryStatistics() {
+        return new RegionStatistics("query",
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount());
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public void clearStatistics() {
+        statistics.clear();
+    }
+
+    /**
+     * Empties the second-level cache and the query cache.
+     *
+     * <p>
+     * Hibernate keeps the caches in sync with its own changes; this is only needed after the reference tables were
+     * modified directly in the database.
+     * </p>
+     */
+    public void evictAll() {
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+    }
+}
@@ -43,7 +43,9 @@ public class CenyService extends AbstractServices<Ceny, Integer> {
      */
     @Override
     public Ceny add(Ceny ceny) {
-        return cenyRepository.save(ceny);
+        Ceny saved = cenyRepository.save(ceny);
+        publishChange();
+        return saved;
     }
 
     /**
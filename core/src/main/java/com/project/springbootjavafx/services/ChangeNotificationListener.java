@@ -0,0 +1,285 @@
+package com.project.springbootjavafx.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.springbootjavafx.models.*;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@code ChangeNotificationListener} class keeps the caches of this instance in line with the changes made by
+ * other instances of the application working on the same database.
+ *
+ * <p>
+ * The triggers from the migration {@code V7__change_notifications.sql} send one notification on the
+ * {@value #CHANNEL} channel per table for every committed statement that changed rows, with the table, the keys of
+ * the changed rows in an {@code "ids"} array and the {@code application_name} of the connection that made it. A
+ * statement changing more rows than fit in one notification sends {@code "all": true} instead of the keys, and the
+ * whole entity is evicted. The listener holds one connection of the pool on which it runs {@code LISTEN} and waits
+ * for notifications in a background thread. Every batch of notifications of other instances evicts the changed
+ * entities from the second-level cache, evicts the cached query results and publishes an
+ * {@link EntitiesChangedEvent} with {@code remote} set, which refreshes the {@link ReferenceDataCache} and lets the
+ * user interface reload the displayed table.
+ * </p>
+ *
+ * <p>
+ * The own changes are recognised by the {@code application_name}, which is why every instance gives its connections
+ * a unique one (see {@code application.properties}); without it the own changes are handled like the others. The
+ * notifications sent while the connection was lost cannot be recovered, so after reconnecting everything is evicted.
+ * On a database other than PostgreSQL the listener does nothing. It can be switched off with
+ * {@code bird.change-notifications.enabled=false}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "bird.change-notifications.enabled", havingValue = "true", matchIfMissing = true)
+public class ChangeNotificationListener implements SmartLifecycle {
+
+    /**
+     * The channel the triggers notify on.
+     */
+    public static final String CHANNEL = "bird_changes";
+
+    /**
+     * The entity of every notifying table.
+     */
+    static final Map<String, Class<?>> TABLES = Map.of(
+            "miasta", Miasta.class,
+            "hotele", Hotele.class,
+            "typy_wycieczek", TypyWycieczek.class,
+            "ceny", Ceny.class,
+            "miasta_wycieczek", MiastaWycieczek.class,
+            "wycieczki", Wycieczki.class,
+            "pokoje", Pokoje.class,
+            "klienci", Klienci.class,
+            "listy_hoteli", ListyHoteli.class,
+            "lista_nocy_hoteli", ListaNocyHoteli.class);
+
+    /**
+     * The tables whose notifications carry the room instead of the key of the row; their entities are evicted whole.
+     */
+    private static final Set<String> KEYED_BY_ROOM = Set.of("listy_hoteli", "lista_nocy_hoteli");
+
+    /**
+     * How long one wait for notifications blocks, in milliseconds.
+     */
+    private static final int POLL_MILLIS = 500;
+
+    /**
+     * How long to wait before reconnecting after the connection was lost, in milliseconds.
+     */
+    private static final long RETRY_MILLIS = 5000;
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeNotificationListener.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final DataSource dataSource;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    /**
+     * Constructs a new {@code ChangeNotificationListener} instance.
+     *
+     * @param dataSource           the data source providing the listening connection
+     * @param entityManagerFactory the entity manager factory whose caches are evicted
+     * @param eventPublisher       the publisher of the change events
+     */
+    public ChangeNotificationListener(DataSource dataSource, EntityManagerFactory entityManagerFactory,
+                                      ApplicationEventPublisher eventPublisher) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Starts the listening thread.
+     */
+    @Override
+    public synchronized void start() {
+        running = true;
+        thread = new Thread(this::listen, "change-notifications");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the listening thread; the connection is given back to the pool.
+     */
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Listens on the channel until stopped, reconnecting whenever the connection is lost.
+     */
+    private void listen() {
+        boolean reconnected = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isWrapperFor(PGConnection.class)) {
+                    log.info("Baza danych nie obsługuje LISTEN/NOTIFY, powiadomienia o zmianach są wyłączone");
+                    running = false;
+                    return;
+                }
+                String ownApplication = subscribe(connection);
+                if (reconnected) {
+                    evictAll();
+                }
+                reconnected = true;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null && notifications.length > 0) {
+                        apply(Arrays.stream(notifications).map(PGNotification::getParameter).toList(), ownApplication);
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    log.warn("Utracono połączenie nasłuchujące zmian, ponowna próba za {} ms", RETRY_MILLIS, e);
+                    try {
+                        Thread.sleep(RETRY_MILLIS);
+                    } catch (InterruptedException interrupted) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Subscribes the connection to the channel.
+     *
+     * @param connection the listening connection
+     * @return the {@code application_name} of the connections of this instance
+     * @throws SQLException if the subscription fails
+     */
+    private String subscribe(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+            if (!connection.getAutoCommit()) {
+                // LISTEN takes effect on commit
+                connection.commit();
+            }
+            try (ResultSet rows = statement.executeQuery("SHOW application_name")) {
+                return rows.next() ? rows.getString(1) : "";
+            }
+        }
+    }
+
+    /**
+     * Evicts the entities named by a batch of notifications and announces the change.
+     *
+     * <p>
+     * Every notification names the changed rows of one table, either by their keys or, for large statements, as the
+     * whole table. Notifications of this instance, of unknown tables and malformed ones are skipped.
+     * </p>
+     *
+     * @param payloads       the payloads of the notifications
+     * @param ownApplication the {@code application_name} of this instance, or an empty string if it is not set
+     */
+    public void apply(Collection<String> payloads, String ownApplication) {
+        Map<Class<?>, Set<Object>> changed = new HashMap<>();
+        for (String payload : payloads) {
+            JsonNode change;
+            try {
+                change = objectMapper.readTree(payload);
+            } catch (JsonProcessingException e) {
+                continue;
+            }
+            String table = change.path("table").asText();
+            Class<?> entity = TABLES.get(table);
+            if (entity == null || (!ownApplication.isEmpty() && ownApplication.equals(change.path("app").asText()))) {
+                continue;
+            }
+            Set<Object> ids = changed.computeIfAbsent(entity, key -> new HashSet<>());
+            JsonNode keys = change.path("ids");
+            if (!KEYED_BY_ROOM.contains(table) && !change.path("all").asBoolean() && keys.isArray()) {
+                keys.forEach(key -> ids.add(key.asText()));
+            } else {
+                // null marks the whole entity for eviction
+                ids.add(null);
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        Cache cache = entityManagerFactory.getCache();
+        changed.forEach((entity, ids) -> {
+            if (ids.contains(null)) {
+                cache.evict(entity);
+            } else {
+                ids.forEach(id -> cache.evict(entity, toId(entity, (String) id)));
+            }
+        });
+        cache.unwrap(org.hibernate.Cache.class).evictQueryRegions();
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.copyOf(changed.keySet()), true));
+    }
+
+    /**
+     * Evicts all cached entities and query results and announces a change of every entity.
+     */
+    private void evictAll() {
+        Cache cache = entityManagerFactory.getCache();
+        cache.evictAll();
+        cache.unwrap(org.hibernate.Cache.class).evictQueryRegions();
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.copyOf(TABLES.values()), true));
+    }
+
+    /**
+     * Converts the key sent by the trigger to the identifier type of the entity.
+     *
+     * @param entity the entity class
+     * @param key    the key as text
+     * @return the identifier
+     */
+    private Object toId(Class<?> entity, String key) {
+        EntityType<?> type = entityManagerFactory.getMetamodel().entity(entity);
+        Class<?> idType = type.getIdType().getJavaType();
+        if (idType == Integer.class) {
+            return Integer.valueOf(key);
+        }
+        if (idType == Long.class) {
+            return Long.valueOf(key);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,170 @@
+package com.project.springbootjavafx.services;
+
+import com.project.springbootjavafx.projections.PokojeLicznikiRow;
+import com.project.springbootjavafx.projections.WycieczkiLicznikiRow;
+import com.project.springbootjavafx.repositories.PokojeRepository;
+import com.project.springbootjavafx.repositories.WycieczkiRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code CounterReconciliationService} class checks the counters maintained by the database triggers on
+ * {@code klienci} against the clients themselves.
+ *
+ * <p>
+ * The statement-level triggers from the migration {@code V4__statement_level_counter_triggers.sql} keep
+ * {@code pokoje.il_klientow}, {@code wycieczki.il_uczestnikow} and {@code wycieczki.wplyw} up to date. The counters can still drift, for example
+ * after the triggers were disabled or the rows were edited by hand. {@link #reconcile(int, boolean)} recomputes them
+ * from {@code klienci}, trip by trip in chunks of a given size, each chunk in its own short transaction, reports
+ * every difference and optionally repairs it.
+ * </p>
+ */
+@Service
+public class CounterReconciliationService {
+
+    /**
+     * The default number of trips checked in one transaction.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 50;
+
+    private final WycieczkiRepository wycieczkiRepository;
+
+    private final PokojeRepository pokojeRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * One counter whose stored value differs from the value recomputed from the clients.
+     *
+     * @param table   the table holding the counter
+     * @param key     the key of the row holding the counter
+     * @param counter the column of the counter
+     * @param stored  the stored value
+     * @param counted the value recomputed from the clients
+     */
+    public record CounterDrift(String table, String key, String counter, Object stored, Object counted) {
+    }
+
+    /**
+     * The result of one reconciliation run.
+     *
+     * @param checkedTrips the number of checked trips
+     * @param checkedRooms the number of checked rooms
+     * @param drifts       the counters that differed
+     * @param repaired     whether the differing counters were recomputed
+     */
+    public record ReconciliationReport(int checkedTrips, int checkedRooms, List<CounterDrift> drifts, boolean repaired) {
+
+        /**
+         * Checks whether all counters were correct.
+         *
+         * @return {@code true} if no drift was found
+         */
+        public boolean consistent() {
+            return drifts.isEmpty();
+        }
+    }
+
+    /**
+     * Constructs a new {@code CounterReconciliationService} instance.
+     *
+     * @param wycieczkiRepository the repository of the trips
+     * @param pokojeRepository    the repository of the rooms
+     * @param transactionManager  the transaction manager used to run every chunk in its own transaction
+     */
+    @Autowired
+    public CounterReconciliationService(WycieczkiRepository wycieczkiRepository, PokojeRepository pokojeRepository,
+                                        PlatformTransactionManager transactionManager) {
+        this.wycieczkiRepository = wycieczkiRepository;
+        this.pokojeRepository = pokojeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Checks the counters of all trips and their rooms.
+     *
+     * @param chunkSize the number of trips checked in one transaction
+     * @param repair    whether the differing counters should be recomputed
+     * @return the report of the run
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    public ReconciliationReport reconcile(int chunkSize, boolean repair) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Rozmiar porcji musi być dodatni");
+        }
+        List<CounterDrift> drifts = new ArrayList<>();
+        int[] checked = new int[2];
+        String after = null;
+        boolean hasNext = true;
+        while (hasNext) {
+            String position = after;
+            Slice<WycieczkiLicznikiRow> chunk = transactionTemplate.execute(
+                    status -> reconcileChunk(position, chunkSize, repair, drifts, checked));
+            if (chunk.hasContent()) {
+                after = chunk.getContent().get(chunk.getNumberOfElements() - 1).wycieczka();
+            }
+            hasNext = chunk.hasNext();
+        }
+        return new ReconciliationReport(checked[0], checked[1], drifts, repair && !drifts.isEmpty());
+    }
+
+    /**
+     * Checks, and optionally repairs, the counters of one chunk of trips and of their rooms.
+     *
+     * @param after     the code of the last trip of the previous chunk, or {@code null} for the first chunk
+     * @param chunkSize the number of trips in the chunk
+     * @param repair    whether the differing counters should be recomputed
+     * @param drifts    collects the differing counters
+     * @param checked   the numbers of checked trips and rooms, increased by this chunk
+     * @return the checked trips
+     */
+    private Slice<WycieczkiLicznikiRow> reconcileChunk(String after, int chunkSize, boolean repair,
+                                                       List<CounterDrift> drifts, int[] checked) {
+        Slice<WycieczkiLicznikiRow> wycieczki = after == null
+                ? wycieczkiRepository.findFirstLiczniki(PageRequest.of(0, chunkSize))
+                : wycieczkiRepository.findLicznikiAfter(after, PageRequest.of(0, chunkSize));
+        if (!wycieczki.hasContent()) {
+            return wycieczki;
+        }
+        List<String> kody = wycieczki.map(WycieczkiLicznikiRow::wycieczka).toList();
+        List<PokojeLicznikiRow> pokoje = pokojeRepository.findLiczniki(kody);
+        checked[0] += kody.size();
+        checked[1] += pokoje.size();
+
+        List<String> doNaprawy = new ArrayList<>();
+        for (WycieczkiLicznikiRow row : wycieczki) {
+            if (!row.ilUczestnikowZgodna()) {
+                drifts.add(new CounterDrift("wycieczki", row.wycieczka(), "il_uczestnikow", row.ilUczestnikow(), row.klienci()));
+            }
+            if (!row.wplywZgodny()) {
+                drifts.add(new CounterDrift("wycieczki", row.wycieczka(), "wplyw", row.wplyw(), row.doZaplaty()));
+            }
+            if (!row.ilUczestnikowZgodna() || !row.wplywZgodny()) {
+                doNaprawy.add(row.wycieczka());
+            }
+        }
+        List<Integer> pokojeDoNaprawy = new ArrayList<>();
+        for (PokojeLicznikiRow row : pokoje) {
+            if (!row.ilKlientowZgodna()) {
+                drifts.add(new CounterDrift("pokoje", String.valueOf(row.id()), "il_klientow", row.ilKlientow(), row.klienci()));
+                pokojeDoNaprawy.add(row.id());
+            }
+        }
+
+        if (repair) {
+            if (!doNaprawy.isEmpty()) {
+                wycieczkiRepository.przeliczLiczniki(doNaprawy);
+            }
+            if (!pokojeDoNaprawy.isEmpty()) {
+                pokojeRepository.przeliczLiczniki(pokojeDoNaprawy);
+            }
+        }
+        return wycieczki;
+    }
+}
@@ -0,0 +1,54 @@
+package com.project.springbootjavafx.services;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code DeletePreview} record lists the records that deleting an entity removes, by entity type, before
+ * anything is deleted (see {@link AbstractServices#previewDelete(Object)}).
+ *
+ * <p>
+ * The types are kept in the order in which their records are deleted, and types without records are left out.
+ * </p>
+ *
+ * @param rekordy the number of records removed of every entity type
+ */
+public record DeletePreview(Map<Class<?>, Long> rekordy) {
+
+    /**
+     * Creates the preview from the counts of the entity types, in the order of deletion.
+     *
+     * @param rekordy the number of records of every entity type, zero counts included
+     */
+    public DeletePreview {
+        Map<Class<?>, Long> niepuste = new LinkedHashMap<>();
+        rekordy.forEach((typ, liczba) -> {
+            if (liczba > 0) {
+                niepuste.put(typ, liczba);
+            }
+        });
+        rekordy = Collections.unmodifiableMap(niepuste);
+    }
+
+    /**
+     * Returns the number of all removed records.
+     *
+     * @return the sum of the counts
+     */
+    public long suma() {
+        return rekordy.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Describes the counts for the user, one entity type per line.
+     *
+     * @return lines such as {@code "Pokoje: 40"}
+     */
+    public String opis() {
+        return rekordy.entrySet().stream()
+                .map(rekord -> rekord.getKey().getSimpleName() + ": " + rekord.getValue())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.project.springbootjavafx.services;
+
+import java.util.Set;
+
+/**
+ * The {@code EntitiesChangedEvent} record is published whenever records are added, updated or deleted.
+ *
+ * <p>
+ * The services publish it for their own writes, inside the transaction of the write, and
+ * {@link ChangeNotificationListener} publishes it with {@code remote} set for the committed writes of other
+ * instances of the application. Listeners that keep copies of the data, such as {@link ReferenceDataCache}, use it
+ * to find out which entity types became stale. A listener interested in committed data only should be a
+ * transactional event listener with fallback execution, so that it handles both kinds.
+ * </p>
+ *
+ * @param types  the entity classes whose rows may have changed
+ * @param remote whether the change was made by another instance of the application
+ */
+public record EntitiesChangedEvent(Set<Class<?>> types, boolean remote) {
+
+    /**
+     * Creates the event of a change made by this instance.
+     *
+     * @param types the entity classes whose rows may have changed
+     */
+    public EntitiesChangedEvent(Set<Class<?>> types) {
+        this(types, false);
+    }
+
+    /**
+     * Checks whether any of the given entity types may have changed.
+     *
+     * @param candidates the entity classes the caller depends on
+     * @return {@code true} if at least one of them is among the changed types
+     */
+    public boolean affectsAny(Set<Class<?>> candidates) {
+        return types.stream().anyMatch(candidates::contains);
+    }
+}
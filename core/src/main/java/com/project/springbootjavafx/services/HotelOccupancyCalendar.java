@@ -0,0 +1,390 @@
+package com.project.springbootjavafx.services;
+
+import com.project.springbootjavafx.models.Klienci;
+import com.project.springbootjavafx.models.ListyHoteli;
+import com.project.springbootjavafx.models.MiastaWycieczek;
+import com.project.springbootjavafx.models.Pokoje;
+import com.project.springbootjavafx.models.TypyWycieczek;
+import com.project.springbootjavafx.models.Wycieczki;
+import com.project.springbootjavafx.projections.NocPokojuRow;
+import com.project.springbootjavafx.repositories.ListyHoteliRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * The {@code HotelOccupancyCalendar} class answers how many rooms, places and guests the company has in a hotel on
+ * a date, without walking the hotel lists, the trip nights and the trip dates row by row.
+ *
+ * <p>
+ * The calendar covers one season. For every hotel it keeps three counters per day of the season, the rooms, their
+ * places and their clients, in primitive arrays indexed by the day within the season, so a day is read in constant
+ * time and a range of days in time proportional to its length. The season is loaded with one query computing the
+ * hotel and the date of every night of every room ({@link ListyHoteliRepository#streamNoceBySezon(LocalDate,
+ * LocalDate)}), by default the calendar year of the first date asked for.
+ * </p>
+ *
+ * <p>
+ * The counters are then updated in place once the writes of this instance are committed: the
+ * {@link ListyHoteliPokoiEvent}s of {@link ListyHoteliService} reload the nights of the changed rooms only, and the
+ * {@link ZajetoscPokoiEvent}s of the client writes move the guests of the rooms. Changes of rooms, trips and
+ * itineraries, and all changes made by other instances of the application, drop the calendar, which is loaded again
+ * on the next read.
+ * </p>
+ */
+@Service
+public class HotelOccupancyCalendar {
+
+    /**
+     * The entity types whose local changes drop the calendar; the hotel list and client changes of this instance
+     * are applied in place.
+     */
+    private static final Set<Class<?>> KALENDARZ_LOKALNIE =
+            Set.of(Pokoje.class, Wycieczki.class, MiastaWycieczek.class, TypyWycieczek.class);
+
+    /**
+     * The entity types whose changes made by other instances drop the calendar.
+     */
+    private static final Set<Class<?>> KALENDARZ_ZDALNIE = Set.of(Pokoje.class, Wycieczki.class,
+            MiastaWycieczek.class, TypyWycieczek.class, ListyHoteli.class, Klienci.class);
+
+    private final ListyHoteliRepository listyHoteliRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The loaded season, or {@code null} when the calendar has to be loaded again.
+     */
+    private Sezon sezon;
+
+    /**
+     * The first day of the season to load again after the calendar was dropped.
+     */
+    private LocalDate sezonOd;
+
+    /**
+     * The last day of the season to load again after the calendar was dropped.
+     */
+    private LocalDate sezonDo;
+
+    /**
+     * The occupancy of a hotel on one day.
+     *
+     * @param data    the date of the night
+     * @param pokoje  the number of rooms
+     * @param miejsca the number of places in the rooms
+     * @param goscie  the number of clients in the rooms
+     */
+    public record Oblozenie(LocalDate data, int pokoje, int miejsca, int goscie) {
+    }
+
+    /**
+     * The counters of one hotel, one element per day of the season.
+     */
+    private static final class Licznik {
+
+        private final int[] pokoje;
+
+        private final int[] miejsca;
+
+        private final int[] goscie;
+
+        private Licznik(int dni) {
+            this.pokoje = new int[dni];
+            this.miejsca = new int[dni];
+            this.goscie = new int[dni];
+        }
+    }
+
+    /**
+     * The nights of one room within the season, kept to take the room out of the counters or to move its guests.
+     */
+    private static final class NocePokoju {
+
+        private final Licznik[] hotele;
+
+        private final int[] dni;
+
+        private final int miejsca;
+
+        private int goscie;
+
+        private NocePokoju(Licznik[] hotele, int[] dni, int miejsca, int goscie) {
+            this.hotele = hotele;
+            this.dni = dni;
+            this.miejsca = miejsca;
+            this.goscie = goscie;
+        }
+
+        private void dodaj(int znak) {
+            for (int i = 0; i < dni.length; i++) {
+                hotele[i].pokoje[dni[i]] += znak;
+                hotele[i].miejsca[dni[i]] += znak * miejsca;
+                hotele[i].goscie[dni[i]] += znak * goscie;
+            }
+        }
+
+        private void zmienGosci(int zmiana) {
+            for (int i = 0; i < dni.length; i++) {
+                hotele[i].goscie[dni[i]] += zmiana;
+            }
+            goscie += zmiana;
+        }
+    }
+
+    /**
+     * The counters of all hotels over one season.
+     */
+    private static final class Sezon {
+
+        private final LocalDate od;
+
+        private final int dni;
+
+        private final Map<String, Licznik> hotele = new HashMap<>();
+
+        private final Map<Integer, NocePokoju> pokoje = new HashMap<>();
+
+        private Sezon(LocalDate od, LocalDate do_) {
+            this.od = od;
+            this.dni = (int) ChronoUnit.DAYS.between(od, do_) + 1;
+        }
+
+        private boolean obejmuje(LocalDate data) {
+            return dzien(data) >= 0 && dzien(data) < dni;
+        }
+
+        private int dzien(LocalDate data) {
+            return (int) ChronoUnit.DAYS.between(od, data);
+        }
+
+        /**
+         * Adds the nights of rooms to the counters, skipping the nights outside the season.
+         *
+         * @param rows the night rows, ordered by room
+         */
+        private void dodaj(Iterable<NocPokojuRow> rows) {
+            Integer pokoj = null;
+            List<NocPokojuRow> noce = new ArrayList<>();
+            for (NocPokojuRow row : rows) {
+                if (!row.pokoj().equals(pokoj)) {
+                    dodajPokoj(noce);
+                    noce.clear();
+                    pokoj = row.pokoj();
+                }
+                if (obejmuje(row.data())) {
+                    noce.add(row);
+                }
+            }
+            dodajPokoj(noce);
+        }
+
+        private void dodajPokoj(List<NocPokojuRow> noce) {
+            if (noce.isEmpty()) {
+                return;
+            }
+            Licznik[] liczniki = new Licznik[noce.size()];
+            int[] dniPokoju = new int[noce.size()];
+            for (int i = 0; i < noce.size(); i++) {
+                liczniki[i] = hotele.computeIfAbsent(noce.get(i).hotel(), hotel -> new Licznik(dni));
+                dniPokoju[i] = dzien(noce.get(i).data());
+            }
+            NocPokojuRow pierwsza = noce.get(0);
+            NocePokoju nocePokoju = new NocePokoju(liczniki, dniPokoju,
+                    pierwsza.ilMiejsc() == null ? 0 : pierwsza.ilMiejsc(), pierwsza.goscie().intValue());
+            nocePokoju.dodaj(1);
+            pokoje.put(pierwsza.pokoj(), nocePokoju);
+        }
+    }
+
+    /**
+     * Constructs a new {@code HotelOccupancyCalendar} instance.
+     *
+     * @param listyHoteliRepository the repository of the hotel lists
+     * @param transactionManager    the transaction manager used to read the nights
+     */
+    @Autowired
+    public HotelOccupancyCalendar(ListyHoteliRepository listyHoteliRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.listyHoteliRepository = listyHoteliRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // the nights are also read after the commit of a write, when the committed transaction is still bound
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Loads the calendar of the given season, replacing the loaded one.
+     *
+     * @param od  the first day of the season
+     * @param do_ the last day of the season
+     * @throws IllegalArgumentException if the season ends before it starts
+     */
+    public synchronized void zaladuj(LocalDate od, LocalDate do_) {
+        if (do_.isBefore(od)) {
+            throw new IllegalArgumentException("Sezon kończy się przed początkiem: " + od + " - " + do_);
+        }
+        sezonOd = od;
+        sezonDo = do_;
+        sezon = wczytaj(od, do_);
+    }
+
+    /**
+     * Returns the occupancy of a hotel on one day.
+     *
+     * @param hotel the code of the hotel
+     * @param data  the date of the night
+     * @return the rooms, places and guests of the hotel that night
+     */
+    public synchronized Oblozenie naDzien(String hotel, LocalDate data) {
+        Sezon biezacy = getSezon(data, data);
+        Licznik licznik = biezacy.hotele.get(hotel);
+        if (licznik == null) {
+            return new Oblozenie(data, 0, 0, 0);
+        }
+        int dzien = biezacy.dzien(data);
+        return new Oblozenie(data, licznik.pokoje[dzien], licznik.miejsca[dzien], licznik.goscie[dzien]);
+    }
+
+    /**
+     * Returns the occupancy of a hotel on every day of a period.
+     *
+     * @param hotel the code of the hotel
+     * @param od    the first day
+     * @param do_   the last day
+     * @return the occupancy of every day, in the order of the days
+     * @throws IllegalArgumentException if the period does not fit in one season
+     */
+    public synchronized List<Oblozenie> wOkresie(String hotel, LocalDate od, LocalDate do_) {
+        Sezon biezacy = getSezon(od, do_);
+        Licznik licznik = biezacy.hotele.get(hotel);
+        List<Oblozenie> oblozenie = new ArrayList<>();
+        for (int dzien = biezacy.dzien(od); dzien <= biezacy.dzien(do_); dzien++) {
+            LocalDate data = biezacy.od.plusDays(dzien);
+            oblozenie.add(licznik == null ? new Oblozenie(data, 0, 0, 0)
+                    : new Oblozenie(data, licznik.pokoje[dzien], licznik.miejsca[dzien], licznik.goscie[dzien]));
+        }
+        return oblozenie;
+    }
+
+    /**
+     * Returns the largest number of rooms a hotel holds on one day of a period.
+     *
+     * @param hotel the code of the hotel
+     * @param od    the first day
+     * @param do_   the last day
+     * @return the number of rooms on the busiest day, {@code 0} if the hotel is not used
+     * @throws IllegalArgumentException if the period does not fit in one season
+     */
+    public synchronized int maksPokoi(String hotel, LocalDate od, LocalDate do_) {
+        Sezon biezacy = getSezon(od, do_);
+        Licznik licznik = biezacy.hotele.get(hotel);
+        int maks = 0;
+        for (int dzien = biezacy.dzien(od); licznik != null && dzien <= biezacy.dzien(do_); dzien++) {
+            maks = Math.max(maks, licznik.pokoje[dzien]);
+        }
+        return maks;
+    }
+
+    /**
+     * Reloads the nights of the rooms whose hotel lists were written, once the write is committed.
+     *
+     * @param event the changed rooms
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onListyHoteliPokoi(ListyHoteliPokoiEvent event) {
+        if (sezon == null || event.pokoje().isEmpty()) {
+            return;
+        }
+        for (Integer pokoj : event.pokoje()) {
+            NocePokoju noce = sezon.pokoje.remove(pokoj);
+            if (noce != null) {
+                noce.dodaj(-1);
+            }
+        }
+        sezon.dodaj(transactionTemplate.execute(status -> listyHoteliRepository.findNoceByPokojIn(event.pokoje())));
+    }
+
+    /**
+     * Moves the committed changes of the number of clients of rooms into the guest counters.
+     *
+     * @param event the changes of the rooms
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onZajetoscPokoi(ZajetoscPokoiEvent event) {
+        if (sezon == null) {
+            return;
+        }
+        event.zmiany().forEach((pokoj, zmiana) -> {
+            NocePokoju noce = sezon.pokoje.get(pokoj);
+            if (noce != null) {
+                noce.zmienGosci(zmiana);
+            }
+        });
+    }
+
+    /**
+     * Drops the calendar after committed changes of rooms, trips or itineraries, or after any change of the data it
+     * depends on made by another instance of the application.
+     *
+     * @param event the change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onEntitiesChanged(EntitiesChangedEvent event) {
+        if (event.affectsAny(event.remote() ? KALENDARZ_ZDALNIE : KALENDARZ_LOKALNIE)) {
+            sezon = null;
+        }
+    }
+
+    /**
+     * Returns the season covering a period, loading it if needed.
+     *
+     * <p>
+     * A period outside the last loaded season loads the calendar year of its first day.
+     * </p>
+     *
+     * @param od  the first day of the period
+     * @param do_ the last day of the period
+     * @return the season
+     * @throws IllegalArgumentException if the period does not fit in one season
+     */
+    private Sezon getSezon(LocalDate od, LocalDate do_) {
+        if (do_.isBefore(od)) {
+            throw new IllegalArgumentException("Okres kończy się przed początkiem: " + od + " - " + do_);
+        }
+        if (sezonOd == null || od.isBefore(sezonOd) || do_.isAfter(sezonDo)) {
+            sezonOd = od.withDayOfYear(1);
+            sezonDo = sezonOd.plusYears(1).minusDays(1);
+            sezon = null;
+        }
+        if (do_.isAfter(sezonDo)) {
+            throw new IllegalArgumentException("Okres " + od + " - " + do_ + " nie mieści się w jednym sezonie");
+        }
+        if (sezon == null) {
+            sezon = wczytaj(sezonOd, sezonDo);
+        }
+        return sezon;
+    }
+
+    private Sezon wczytaj(LocalDate od, LocalDate do_) {
+        return transactionTemplate.execute(status -> {
+            Sezon nowy = new Sezon(od, do_);
+            try (Stream<NocPokojuRow> rows = listyHoteliRepository.streamNoceBySezon(od, do_)) {
+                nowy.dodaj(rows::iterator);
+            }
+            return nowy;
+        });
+    }
+}
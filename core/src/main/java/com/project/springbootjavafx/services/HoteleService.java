@@ -4,10 +4,19 @@ import com.project.springbootjavafx.exceptions.DuplicatedEntityExceptionn;
 import com.project.springbootjavafx.exceptions.WrongCodeLengthException;
 import com.project.springbootjavafx.models.Hotele;
 import com.project.springbootjavafx.models.Miasta;
+import com.project.springbootjavafx.projections.HoteleRow;
 import com.project.springbootjavafx.repositories.HoteleRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The {@code HoteleService} class provides service methods for managing hotel entities
@@ -32,40 +41,89 @@ public class HoteleService extends AbstractServices<Hotele, String> {
      */
     private HoteleRepository hoteleRepository;
 
+    /**
+     * The service rebuilding the hotel night lists that show the names of changed hotels.
+     */
+    private ListaNocyHoteliService listaNocyHoteliService;
+
     /**
      * Constructs a new {@code HoteleService} instance with the specified {@link HoteleRepository}.
      *
-     * @param hoteleRepository the repository used for data access operations on {@code Hotele} entities
+     * @param hoteleRepository       the repository used for data access operations on {@code Hotele} entities
+     * @param listaNocyHoteliService the service rebuilding the hotel night lists of changed hotels
      */
     @Autowired
-    public HoteleService(HoteleRepository hoteleRepository) {
+    public HoteleService(HoteleRepository hoteleRepository, ListaNocyHoteliService listaNocyHoteliService) {
         super(hoteleRepository, Hotele.class, String.class);
         this.hoteleRepository = hoteleRepository;
+        this.listaNocyHoteliService = listaNocyHoteliService;
     }
 
     /**
      * Adds a new hotel to the database after performing necessary validations.
      *
      * <p>
-     * This method first checks if a hotel with the given code already exists. If so, it throws a
-     * {@link DuplicatedEntityExceptionn}. It also validates that the hotel code is exactly 6 characters long;
-     * if not, a {@link WrongCodeLengthException} is thrown. If all validations pass, the hotel is saved using
-     * the repository.
+     * This method validates that the hotel code is exactly 6 characters long; if not, a
+     * {@link WrongCodeLengthException} is thrown. The hotel is then inserted with a single statement that skips
+     * an existing code ({@link HoteleRepository#INSERT_IF_ABSENT}); if the code already exists, a
+     * {@link DuplicatedEntityExceptionn} is thrown. The returned entity is not managed.
      * </p>
      *
      * @param hotel the {@code Hotele} entity to add
-     * @return the saved {@code Hotele} entity
+     * @return the added {@code Hotele} entity
      * @throws DuplicatedEntityExceptionn if a hotel with the same code already exists
      * @throws WrongCodeLengthException   if the hotel code is not exactly 6 characters long
      */
     @Override
+    @Transactional
     public Hotele add(Hotele hotel) throws DuplicatedEntityExceptionn, WrongCodeLengthException {
-        if (hoteleRepository.existsByKod(hotel.getKod())) {
-            throw new DuplicatedEntityExceptionn("Hotel o kodzie " + hotel.getKod() + " już istnieje");
-        } else if (hotel.getKod().trim().length() != 6) {
-            throw new WrongCodeLengthException("Za krótki lub za długi kod hotelu (ma być 6 znaków)");
+        return addAll(List.of(hotel)).get(0);
+    }
+
+    /**
+     * Adds several hotels in one transaction after validating all of them, for example a catalog import.
+     *
+     * <p>
+     * Every code must be exactly 6 characters long and none of the codes may repeat. All hotels are then sent as
+     * one JDBC batch of {@link HoteleRepository#INSERT_IF_ABSENT}; if any code already exists, nothing is added.
+     * </p>
+     *
+     * @param hotele the {@code Hotele} entities to add
+     * @return the added {@code Hotele} entities
+     * @throws DuplicatedEntityExceptionn if a hotel code repeats or already exists
+     * @throws WrongCodeLengthException   if a hotel code is not exactly 6 characters long
+     */
+    @Override
+    @Transactional
+    public List<Hotele> addAll(Collection<Hotele> hotele) throws DuplicatedEntityExceptionn, WrongCodeLengthException {
+        for (Hotele hotel : hotele) {
+            if (hotel.getKod().trim().length() != 6) {
+                throw new WrongCodeLengthException("Za krótki lub za długi kod hotelu (ma być 6 znaków)");
+            }
         }
-        return hoteleRepository.save(hotel);
+        return insertNew(HoteleRepository.INSERT_IF_ABSENT, "kod", hotele, (statement, hotel) -> {
+            statement.setString(1, hotel.getKod());
+            statement.setString(2, hotel.getNazwa());
+            statement.setString(3, hotel.getMiasto() == null ? null : hotel.getMiasto().getMiasto());
+            statement.setString(4, hotel.getAdres());
+            statement.setString(5, hotel.getMail());
+            statement.setString(6, hotel.getNr_tel());
+            statement.setObject(7, hotel.getLiczbaPokoi(), Types.INTEGER);
+        }, kod -> "Hotel o kodzie " + kod + " już istnieje");
+    }
+
+    /**
+     * Updates the given hotels and rebuilds the hotel night lists that show their names.
+     *
+     * @param hotele the detached hotels carrying the new state
+     * @return the managed, updated hotels
+     */
+    @Override
+    @Transactional
+    public List<Hotele> updateAll(Collection<Hotele> hotele) {
+        List<Hotele> updated = super.updateAll(hotele);
+        listaNocyHoteliService.odswiezDlaHoteli(updated.stream().map(Hotele::getKod).toList());
+        return updated;
     }
 
     /**
@@ -83,4 +141,57 @@ public class HoteleService extends AbstractServices<Hotele, String> {
     public List<Hotele> getHoteleMiasta(Miasta miasto) {
         return hoteleRepository.getHoteleByMiasto(miasto.getMiasto());
     }
+
+    /**
+     * Retrieves the hotels of all given cities with a single query, grouped by city.
+     *
+     * <p>
+     * It is meant for itineraries, where the same question would otherwise be asked once per night. Every given
+     * city is a key of the result, in the given order and without repetitions; a city without hotels maps to an
+     * empty list. The hotels are returned with their city initialized. Dialogs that already hold the reference data
+     * use {@link ReferenceDataCache#getHoteleMiast(Collection)}, which answers without a query.
+     * </p>
+     *
+     * @param miasta the cities, for example those of the nights of a trip type
+     * @return the hotels of every city, ordered by code
+     */
+    public Map<Miasta, List<Hotele>> getHoteleMiast(Collection<Miasta> miasta) {
+        Map<Miasta, List<Hotele>> hoteleMiast = new LinkedHashMap<>();
+        for (Miasta miasto : miasta) {
+            hoteleMiast.putIfAbsent(miasto, new ArrayList<>());
+        }
+        if (hoteleMiast.isEmpty()) {
+            return hoteleMiast;
+        }
+        List<String> nazwy = hoteleMiast.keySet().stream().map(Miasta::getMiasto).toList();
+        for (Hotele hotel : hoteleRepository.getHoteleByMiastaIn(nazwy)) {
+            hoteleMiast.get(hotel.getMiasto()).add(hotel);
+        }
+        return hoteleMiast;
+    }
+
+    /**
+     * Returns {@link HoteleRow}, the row type of the hotels grid.
+     *
+     * @return the {@code HoteleRow} class
+     */
+    @Override
+    public Class<HoteleRow> getRowClass() {
+        return HoteleRow.class;
+    }
+
+    /**
+     * Retrieves one page of the hotels grid as {@link HoteleRow} projections.
+     *
+     * @param after the key of the last row of the previous page, or {@code null} for the first page
+     * @param size  the maximum number of rows on the page
+     * @return a {@link Slice} with at most {@code size} rows
+     */
+    @Override
+    public Slice<HoteleRow> getRows(String after, int size) {
+        // separate queries, so that the next pages compare the key without a null check
+        return after == null
+                ? hoteleRepository.findFirstGridRows(PageRequest.of(0, size))
+                : hoteleRepository.findGridRowsAfter(after, PageRequest.of(0, size));
+    }
 }
@@ -2,10 +2,20 @@ package com.project.springbootjavafx.services;
 
 import com.project.springbootjavafx.models.Klienci;
 import com.project.springbootjavafx.models.Pokoje;
+import com.project.springbootjavafx.projections.KlienciRow;
 import com.project.springbootjavafx.repositories.KlienciRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * The {@code KlienciService} class provides service methods for managing client data
@@ -16,6 +26,11 @@ import java.util.List;
  * functionality specific to clients, such as retrieving a list of clients associated with a particular room.
  * </p>
  *
+ * <p>
+ * Every write announces the rooms the clients joined or left with a {@link ZajetoscPokoiEvent}, which keeps the
+ * room availability index of {@link PokojeService} up to date without loading it again.
+ * </p>
+ *
  * @see Klienci
  * @see Pokoje
  * @see KlienciRepository
@@ -52,7 +67,87 @@ public class KlienciService extends AbstractServices<Klienci, Integer> {
      */
     @Override
     public Klienci add(Klienci klient) {
-        return repository.save(klient);
+        Klienci saved = repository.save(klient);
+        publishChange();
+        if (saved.getPokoj() != null) {
+            publishEvent(ZajetoscPokoiEvent.of(saved.getPokoj().getId(), 1));
+        }
+        return saved;
+    }
+
+    /**
+     * Adds all given clients in a single transaction and announces the rooms they joined.
+     *
+     * @param klienci the clients to add
+     * @return the added clients, in the order they were given
+     */
+    @Override
+    @Transactional
+    public List<Klienci> addAll(Collection<Klienci> klienci) {
+        List<Klienci> added = super.addAll(klienci);
+        publishEvent(new ZajetoscPokoiEvent(policzPokoje(added.stream()
+                .filter(klient -> klient.getPokoj() != null)
+                .map(klient -> klient.getPokoj().getId())
+                .toList(), 1)));
+        return added;
+    }
+
+    /**
+     * Updates all given clients in a single transaction.
+     *
+     * <p>
+     * A client may have been moved to another room, so the rooms are announced as changed as a whole.
+     * </p>
+     *
+     * @param klienci the detached clients carrying the new state
+     * @return the managed, updated clients
+     */
+    @Override
+    @Transactional
+    public List<Klienci> updateAll(Collection<Klienci> klienci) {
+        List<Klienci> updated = super.updateAll(klienci);
+        publishEvent(new EntitiesChangedEvent(Set.of(Pokoje.class)));
+        return updated;
+    }
+
+    /**
+     * Deletes the client with the specified identifier and announces the room it left.
+     *
+     * @param id the identifier of the client
+     */
+    @Override
+    @Transactional
+    public void delete(Integer id) {
+        List<Integer> pokoje = repository.findPokojeKlientow(List.of(id));
+        super.delete(id);
+        publishEvent(new ZajetoscPokoiEvent(policzPokoje(pokoje, -1)));
+    }
+
+    /**
+     * Deletes all clients with the specified identifiers and announces the rooms they left.
+     *
+     * @param ids the identifiers of the clients
+     */
+    @Override
+    @Transactional
+    public void deleteAllById(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Integer> pokoje = repository.findPokojeKlientow(ids);
+        super.deleteAllById(ids);
+        publishEvent(new ZajetoscPokoiEvent(policzPokoje(pokoje, -1)));
+    }
+
+    /**
+     * Sums the change of the number of clients by room.
+     *
+     * @param pokoje the room of every client, repeated for every client
+     * @param zmiana the change for one client
+     * @return the change by room identifier
+     */
+    private static Map<Integer, Integer> policzPokoje(List<Integer> pokoje, int zmiana) {
+        return pokoje.stream().collect(Collectors.toMap(pokoj -> pokoj, pokoj -> zmiana, Integer::sum));
     }
 
     /**
@@ -69,4 +164,48 @@ public class KlienciService extends AbstractServices<Klienci, Integer> {
     public List<Klienci> getKlienciPokoju(Pokoje pokoj) {
         return repository.getKlienciByPokoj(pokoj.getId());
     }
+
+    /**
+     * Returns {@link KlienciRow}, the row type of the clients grid.
+     *
+     * @return the {@code KlienciRow} class
+     */
+    @Override
+    public Class<KlienciRow> getRowClass() {
+        return KlienciRow.class;
+    }
+
+    /**
+     * Retrieves one page of the clients grid as {@link KlienciRow} projections.
+     *
+     * @param after the key of the last row of the previous page, or {@code null} for the first page
+     * @param size  the maximum number of rows on the page
+     * @return a {@link Slice} with at most {@code size} rows
+     */
+    @Override
+    public Slice<KlienciRow> getRows(Integer after, int size) {
+        // separate queries, so that the next pages compare the key without a null check
+        return after == null
+                ? repository.findFirstGridRows(PageRequest.of(0, size))
+                : repository.findGridRowsAfter(after, PageRequest.of(0, size));
+    }
+
+    /**
+     * Processes the clients of the trips starting within the given dates in chunks,
+     * for exports and reports over a whole season.
+     *
+     * <p>
+     * The records are streamed from the database and every chunk is detached once the action returns (see
+     * {@link AbstractServices#forEachChunk(java.util.function.Supplier, int, Consumer)}).
+     * </p>
+     *
+     * @param od        the first start date of the trips (inclusive)
+     * @param do_       the last start date of the trips (inclusive)
+     * @param chunkSize the number of records passed to the action at once
+     * @param action    processes one chunk of records
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    public void forEachChunk(LocalDate od, LocalDate do_, int chunkSize, Consumer<List<Klienci>> action) {
+        forEachChunk(() -> repository.streamBySezon(od, do_), chunkSize, action);
+    }
 }
@@ -3,8 +3,11 @@ package com.project.springbootjavafx.services;
 import com.project.springbootjavafx.models.ListaNocyHoteli;
 import com.project.springbootjavafx.models.Pokoje;
 import com.project.springbootjavafx.repositories.ListaNocyHoteliRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,7 +16,15 @@ import java.util.List;
  * <p>
  * This service encapsulates data access operations for {@link ListaNocyHoteli} entities through
  * the {@link ListaNocyHoteliRepository}. It offers methods to retrieve all hotel night list records
- * or to filter them by a specific room.
+ * or to filter them by a specific room or by dates.
+ * </p>
+ *
+ * <p>
+ * The records are a maintained projection of {@code listy_hoteli}, with copies of the start date of the trip, the
+ * city of the night and the name of the hotel. {@link ListyHoteliService} calls {@link #odswiezDlaPokoi(Collection)}
+ * for the rooms whose hotel lists it changed, and the services writing the copied columns call
+ * {@link #odswiezDlaWycieczek(Collection)}, {@link #odswiezDlaHoteli(Collection)} and
+ * {@link #odswiezDlaMiastWycieczek(Collection)}, so only the rooms showing the changed rows are rebuilt.
  * </p>
  *
  * @see ListaNocyHoteli
@@ -59,6 +70,73 @@ public class ListaNocyHoteliService {
      * @return a {@link List} of {@code ListaNocyHoteli} entities associated with the specified room
      */
     public List<ListaNocyHoteli> getListyByPokoj(Pokoje pokoj) {
-        return repository.findByPokojId(pokoj.getId());
+        return repository.findByPokojIdOrderByNoc(pokoj.getId());
+    }
+
+    /**
+     * Retrieves the hotel night list records of all rooms for the nights between the given dates.
+     *
+     * @param od the first date (inclusive)
+     * @param do_ the last date (inclusive)
+     * @return a {@link List} of {@code ListaNocyHoteli} entities ordered by date and hotel
+     */
+    public List<ListaNocyHoteli> getListyWOkresie(LocalDate od, LocalDate do_) {
+        return repository.findByDataBetweenOrderByDataAscHotelAsc(od, do_);
+    }
+
+    /**
+     * Rebuilds the hotel night list records of the specified rooms from their current hotel lists.
+     *
+     * <p>
+     * The old records of the rooms are deleted and the new ones are inserted with one statement each, in the
+     * transaction of the caller. Rooms without a hotel list end up without records.
+     * </p>
+     *
+     * @param pokojIds the identifiers of the rooms to rebuild
+     */
+    @Transactional
+    public void odswiezDlaPokoi(Collection<Integer> pokojIds) {
+        if (pokojIds.isEmpty()) {
+            return;
+        }
+        repository.deleteByPokojIdIn(pokojIds);
+        repository.insertForPokojIdIn(pokojIds);
+    }
+
+    /**
+     * Rebuilds the hotel night list records of the rooms of the specified trips, after their dates changed.
+     *
+     * @param wycieczki the codes of the trips
+     */
+    @Transactional
+    public void odswiezDlaWycieczek(Collection<String> wycieczki) {
+        if (!wycieczki.isEmpty()) {
+            odswiezDlaPokoi(repository.findPokojIdsByWycieczkaIn(wycieczki));
+        }
+    }
+
+    /**
+     * Rebuilds the hotel night list records of the rooms staying in the specified hotels, after their names changed.
+     *
+     * @param hotele the codes of the hotels
+     */
+    @Transactional
+    public void odswiezDlaHoteli(Collection<String> hotele) {
+        if (!hotele.isEmpty()) {
+            odswiezDlaPokoi(repository.findPokojIdsByHotelIn(hotele));
+        }
+    }
+
+    /**
+     * Rebuilds the hotel night list records of the rooms staying on the specified trip nights, after their number or
+     * city changed.
+     *
+     * @param miastaWycieczek the identifiers of the trip night cities
+     */
+    @Transactional
+    public void odswiezDlaMiastWycieczek(Collection<Integer> miastaWycieczek) {
+        if (!miastaWycieczek.isEmpty()) {
+            odswiezDlaPokoi(repository.findPokojIdsByMiastoWycieczkiIn(miastaWycieczek));
+        }
     }
 }
@@ -0,0 +1,28 @@
+package com.project.springbootjavafx.services;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * The {@code ListyHoteliPokoiEvent} record is published by {@link ListyHoteliService} whenever the hotel lists of
+ * rooms are written.
+ *
+ * <p>
+ * It is published inside the transaction of the write, and {@link HotelOccupancyCalendar} reads the nights of the
+ * rooms again once the transaction is committed, so only the changed rooms are reloaded.
+ * </p>
+ *
+ * @param pokoje the identifiers of the rooms whose hotel lists changed
+ */
+public record ListyHoteliPokoiEvent(Set<Integer> pokoje) {
+
+    /**
+     * Creates the event of a change of the given rooms.
+     *
+     * @param pokoje the identifiers of the rooms
+     * @return the event
+     */
+    public static ListyHoteliPokoiEvent of(Collection<Integer> pokoje) {
+        return new ListyHoteliPokoiEvent(Set.copyOf(pokoje));
+    }
+}
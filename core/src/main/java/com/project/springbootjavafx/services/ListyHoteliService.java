@@ -1,14 +1,24 @@
 package com.project.springbootjavafx.services;
 
+import com.project.springbootjavafx.models.ListaNocyHoteli;
 import com.project.springbootjavafx.models.ListyHoteli;
 import com.project.springbootjavafx.models.ListyHoteliKey;
 import com.project.springbootjavafx.models.Pokoje;
 import com.project.springbootjavafx.repositories.ListyHoteliRepository;
+import com.project.springbootjavafx.repositories.MiastaWycieczekRepository;
+import com.project.springbootjavafx.repositories.PokojeRepository;
 import jakarta.transaction.Transactional;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * The {@code ListyHoteliService} class provides service methods for managing hotel list entries,
@@ -25,6 +35,17 @@ import org.springframework.stereotype.Service;
  * annotation is used for the deletion method to ensure the delete operation is executed within a transaction.
  * </p>
  *
+ * <p>
+ * Every write also rebuilds, in the same transaction, the {@link ListaNocyHoteli} records of the rooms it touched
+ * (see {@link ListaNocyHoteliService#odswiezDlaPokoi(Collection)}), and announces the rooms with a
+ * {@link ListyHoteliPokoiEvent}, which keeps the {@link HotelOccupancyCalendar} up to date.
+ * </p>
+ *
+ * <p>
+ * The hotels of a whole trip are assigned with {@link #przypiszHotele(String, Map, Collection, boolean)}, which
+ * writes the lists of all its rooms with a fixed number of statements, however many rooms and nights the trip has.
+ * </p>
+ *
  * @see ListyHoteli
  * @see ListyHoteliKey
  * @see Pokoje
@@ -40,26 +61,78 @@ public class ListyHoteliService extends AbstractServices<ListyHoteli, ListyHotel
      */
     private ListyHoteliRepository repository;
 
+    /**
+     * The service maintaining the hotel night list records of the rooms.
+     */
+    private ListaNocyHoteliService listaNocyHoteliService;
+
+    /**
+     * The repository used to find the rooms of a trip and mark their hotel lists.
+     */
+    private PokojeRepository pokojeRepository;
+
+    /**
+     * The repository used to find the nights of the itinerary of a trip.
+     */
+    private MiastaWycieczekRepository miastaWycieczekRepository;
+
     /**
      * Constructs a new {@code ListyHoteliService} with the specified repository.
      *
-     * @param repository the {@link ListyHoteliRepository} used for performing CRUD operations on {@code ListyHoteli} entities
+     * @param repository                the {@link ListyHoteliRepository} used for performing CRUD operations on
+     *                                  {@code ListyHoteli} entities
+     * @param listaNocyHoteliService    the service rebuilding the hotel night lists of the changed rooms
+     * @param pokojeRepository          the repository of the rooms
+     * @param miastaWycieczekRepository the repository of the itinerary nights
      */
     @Autowired
-    public ListyHoteliService(ListyHoteliRepository repository) {
+    public ListyHoteliService(ListyHoteliRepository repository, ListaNocyHoteliService listaNocyHoteliService,
+                              PokojeRepository pokojeRepository, MiastaWycieczekRepository miastaWycieczekRepository) {
         super(repository, ListyHoteli.class, ListyHoteliKey.class);
         this.repository = repository;
+        this.listaNocyHoteliService = listaNocyHoteliService;
+        this.pokojeRepository = pokojeRepository;
+        this.miastaWycieczekRepository = miastaWycieczekRepository;
     }
 
     /**
-     * Adds a new hotel list entry to the database.
+     * Adds a new hotel list entry to the database and rebuilds the hotel night list of its room.
      *
      * @param entity the {@code ListyHoteli} entity to be added
      * @return the saved {@code ListyHoteli} entity
      */
     @Override
+    @Transactional
     public ListyHoteli add(ListyHoteli entity) {
-        return repository.save(entity);
+        ListyHoteli saved = repository.saveAndFlush(entity);
+        odswiez(List.of(saved.getPokoj().getId()));
+        return saved;
+    }
+
+    /**
+     * Adds several hotel list entries in one transaction and rebuilds the hotel night lists of their rooms.
+     *
+     * @param listyHoteli the {@code ListyHoteli} entities to add
+     * @return the saved {@code ListyHoteli} entities
+     */
+    @Override
+    @Transactional
+    public List<ListyHoteli> addAll(Collection<ListyHoteli> listyHoteli) {
+        List<ListyHoteli> added = super.addAll(listyHoteli);
+        odswiez(added.stream().map(lista -> lista.getPokoj().getId()).distinct().toList());
+        return added;
+    }
+
+    /**
+     * Deletes the hotel list entries with the given keys and rebuilds the hotel night lists of their rooms.
+     *
+     * @param ids the keys of the entries to delete
+     */
+    @Override
+    @Transactional
+    public void deleteAllById(Collection<ListyHoteliKey> ids) {
+        super.deleteAllById(ids);
+        odswiez(ids.stream().map(ListyHoteliKey::getPokoj).distinct().toList());
     }
 
     /**
@@ -75,5 +148,144 @@ public class ListyHoteliService extends AbstractServices<ListyHoteli, ListyHotel
     @Transactional
     public void usunDlaPokoju(Pokoje pokoj) {
         repository.deleteByPokoj(pokoj.getId());
+        odswiez(List.of(pokoj.getId()));
+    }
+
+    /**
+     * Deletes all hotel list entries associated with any of the specified rooms.
+     *
+     * <p>
+     * Unlike calling {@link #usunDlaPokoju(Pokoje)} for every room, this method removes the entries of all rooms
+     * with a single DELETE statement.
+     * </p>
+     *
+     * @param pokoje the {@code Pokoje} entities whose associated hotel list entries should be deleted
+     */
+    @Transactional
+    public void usunDlaPokoi(List<Pokoje> pokoje) {
+        if (pokoje.isEmpty()) {
+            return;
+        }
+        List<Integer> pokojIds = pokoje.stream().map(Pokoje::getId).toList();
+        repository.deleteByPokojIn(pokojIds);
+        odswiez(pokojIds);
+    }
+
+    /**
+     * Assigns one hotel to every night of a trip's itinerary for all, or the selected, rooms of the trip.
+     *
+     * <p>
+     * The records are written by the database with one {@code INSERT ... SELECT} over the rooms and the nights of
+     * the trip (see {@link ListyHoteliRepository#insertPrzydzial}), and the rooms are marked as having a hotel list
+     * with one {@code UPDATE}, in the same transaction. A room has one hotel per night: in the add mode only the
+     * nights without a hotel get one and the existing records are kept. In the replace mode the records that differ
+     * from the assignment are deleted first, in the same transaction, and the records that already match are not
+     * touched; other transactions see either the old lists or the new ones.
+     * </p>
+     *
+     * @param wycieczka  the code of the trip
+     * @param hoteleNocy the code of the hotel of every night of the itinerary, by night number
+     * @param pokoje     the identifiers of the selected rooms of the trip, or {@code null} for all its rooms
+     * @param zastap     {@code true} to replace the existing hotel lists of the rooms, {@code false} to add to them
+     * @return the number of written records
+     * @throws IllegalArgumentException if the hotels do not cover exactly the nights of the itinerary, or a selected
+     *                                  room does not belong to the trip
+     */
+    @Transactional
+    public int przypiszHotele(String wycieczka, Map<Integer, String> hoteleNocy, Collection<Integer> pokoje,
+                              boolean zastap) {
+        List<Integer> noce = miastaWycieczekRepository.findNumeryNocyByWycieczka(wycieczka);
+        if (!new HashSet<>(noce).equals(hoteleNocy.keySet())) {
+            throw new IllegalArgumentException("Hotele muszą być podane dla nocy " + noce + " wycieczki " + wycieczka
+                    + ", podano dla nocy " + hoteleNocy.keySet());
+        }
+        for (Map.Entry<Integer, String> hotelNocy : hoteleNocy.entrySet()) {
+            if (hotelNocy.getValue() == null) {
+                throw new IllegalArgumentException("Brak hotelu dla nocy " + hotelNocy.getKey() + " wycieczki "
+                        + wycieczka);
+            }
+        }
+
+        List<Integer> pokojeWycieczki = pokojeRepository.findIdsByWycieczka(wycieczka);
+        List<Integer> pokojIds = pokojeWycieczki;
+        if (pokoje != null) {
+            Set<Integer> znane = new HashSet<>(pokojeWycieczki);
+            for (Integer pokoj : pokoje) {
+                if (!znane.contains(pokoj)) {
+                    throw new IllegalArgumentException("Pokój " + pokoj + " nie należy do wycieczki " + wycieczka);
+                }
+            }
+            pokojIds = pokoje.stream().distinct().toList();
+        }
+        if (pokojIds.isEmpty()) {
+            return 0;
+        }
+
+        // the nights and their hotels as parallel arrays, matched by position
+        Integer[] numeryNocy = hoteleNocy.keySet().toArray(new Integer[0]);
+        String[] hotele = new String[numeryNocy.length];
+        for (int i = 0; i < numeryNocy.length; i++) {
+            hotele[i] = hoteleNocy.get(numeryNocy[i]);
+        }
+        if (zastap) {
+            repository.deletePozaPrzydzialem(pokojIds, numeryNocy, hotele);
+        }
+        int zapisane = repository.insertPrzydzial(wycieczka, pokojIds, numeryNocy, hotele);
+        pokojeRepository.updateListaHoteli(pokojIds, true);
+        odswiez(pokojIds);
+        publishEvent(new EntitiesChangedEvent(Set.of(ListyHoteli.class, Pokoje.class)));
+        return zapisane;
+    }
+
+    /**
+     * Copies the hotel lists of the rooms of a trip to the rooms of trips cloned from it.
+     *
+     * <p>
+     * The records of all new trips are written with one {@code INSERT ... SELECT} (see
+     * {@link ListyHoteliRepository#insertKopie(String, Collection)}), and the hotel night lists of the new rooms are
+     * rebuilt in the same transaction.
+     * </p>
+     *
+     * @param zrodlo the code of the copied trip
+     * @param cele   the codes of the new trips, whose rooms were all copied from the rooms of the copied trip
+     * @return the number of written records
+     */
+    @Transactional
+    public int kopiujDlaWycieczek(String zrodlo, Collection<String> cele) {
+        int zapisane = repository.insertKopie(zrodlo, cele);
+        if (zapisane > 0) {
+            odswiez(pokojeRepository.findIdsByWycieczkaIn(cele));
+            publishChange();
+        }
+        return zapisane;
+    }
+
+    /**
+     * Rebuilds the hotel night lists of the rooms whose hotel lists were written and announces the rooms.
+     *
+     * @param pokojIds the identifiers of the changed rooms
+     */
+    private void odswiez(List<Integer> pokojIds) {
+        listaNocyHoteliService.odswiezDlaPokoi(pokojIds);
+        publishEvent(ListyHoteliPokoiEvent.of(pokojIds));
+    }
+
+    /**
+     * Processes the hotel list entries of the rooms of the trips starting within the given dates in chunks,
+     * for exports and reports over a whole season.
+     *
+     * <p>
+     * The records are streamed from the database and every chunk is detached once the action returns (see
+     * {@link AbstractServices#forEachChunk(java.util.function.Supplier, int, Consumer)}).
+     * </p>
+     *
+     * @param od        the first start date of the trips (inclusive)
+     * @param do_       the last start date of the trips (inclusive)
+     * @param chunkSize the number of records passed to the action at once
+     * @param action    processes one chunk of records
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    public void forEachChunk(LocalDate od, LocalDate do_, int chunkSize, Consumer<List<ListyHoteli>> action) {
+        forEachChunk(() -> repository.streamBySezon(od, do_), chunkSize, action);
     }
 }
@@ -1,11 +1,28 @@
 package com.project.springbootjavafx.services;
 
+import com.project.springbootjavafx.exceptions.DuplicatedEntityExceptionn;
+import com.project.springbootjavafx.models.Hotele;
+import com.project.springbootjavafx.models.ListyHoteli;
 import com.project.springbootjavafx.models.Miasta;
+import com.project.springbootjavafx.models.MiastaWycieczek;
+import com.project.springbootjavafx.models.Pokoje;
+import com.project.springbootjavafx.projections.MiastaRow;
+import com.project.springbootjavafx.repositories.HoteleRepository;
+import com.project.springbootjavafx.repositories.ListaNocyHoteliRepository;
+import com.project.springbootjavafx.repositories.ListyHoteliRepository;
 import com.project.springbootjavafx.repositories.MiastaRepository;
+import com.project.springbootjavafx.repositories.MiastaWycieczekRepository;
+import com.project.springbootjavafx.repositories.PokojeRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import com.project.springbootjavafx.exceptions.DuplicatedEntityExceptionn;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * The {@code MiastaService} class provides service operations for managing cities
@@ -20,6 +37,11 @@ import com.project.springbootjavafx.exceptions.DuplicatedEntityExceptionn;
  * The service uses {@link MiastaRepository} for data access, ensuring that no duplicate city entries are created.
  * </p>
  *
+ * <p>
+ * A city is deleted with its hotels and their hotel list records by bulk statements (see {@link #delete(String)}).
+ * A city in the itinerary of a trip type is not deleted: the type has to be changed or deleted first.
+ * </p>
+ *
  * @see Miasta
  * @see MiastaRepository
  * @see DuplicatedEntityExceptionn
@@ -32,35 +54,187 @@ public class MiastaService extends AbstractServices<Miasta, String> {
      */
     private MiastaRepository miastaRepository;
 
+    /**
+     * The repository used to find the trip types spending a night in a deleted city.
+     */
+    private MiastaWycieczekRepository miastaWycieczekRepository;
+
+    /**
+     * The repository used to delete the hotels of deleted cities.
+     */
+    private HoteleRepository hoteleRepository;
+
+    /**
+     * The repository used to delete the hotel list records of the hotels of deleted cities.
+     */
+    private ListyHoteliRepository listyHoteliRepository;
+
+    /**
+     * The repository used to update the hotel list flag of the rooms that lost a hotel.
+     */
+    private PokojeRepository pokojeRepository;
+
+    /**
+     * The repository used to rebuild the night lists of the rooms that lost a hotel.
+     */
+    private ListaNocyHoteliRepository listaNocyHoteliRepository;
+
     /**
      * Constructs a new {@code MiastaService} instance with the specified {@link MiastaRepository}.
      *
-     * @param miastaRepository the repository used for CRUD operations on {@code Miasta} entities
+     * @param miastaRepository          the repository used for CRUD operations on {@code Miasta} entities
+     * @param miastaWycieczekRepository the repository used to find the trip types spending a night in a city
+     * @param hoteleRepository          the repository used to delete the hotels of deleted cities
+     * @param listyHoteliRepository     the repository used to delete the hotel list records of deleted hotels
+     * @param pokojeRepository          the repository used to update the rooms that lost a hotel
+     * @param listaNocyHoteliRepository the repository used to rebuild the night lists of the rooms that lost a hotel
      */
     @Autowired
-    public MiastaService(MiastaRepository miastaRepository) {
+    public MiastaService(MiastaRepository miastaRepository, MiastaWycieczekRepository miastaWycieczekRepository,
+                         HoteleRepository hoteleRepository, ListyHoteliRepository listyHoteliRepository,
+                         PokojeRepository pokojeRepository, ListaNocyHoteliRepository listaNocyHoteliRepository) {
         super(miastaRepository, Miasta.class, String.class);
         this.miastaRepository = miastaRepository;
+        this.miastaWycieczekRepository = miastaWycieczekRepository;
+        this.hoteleRepository = hoteleRepository;
+        this.listyHoteliRepository = listyHoteliRepository;
+        this.pokojeRepository = pokojeRepository;
+        this.listaNocyHoteliRepository = listaNocyHoteliRepository;
     }
 
     /**
      * Adds a new city to the database after verifying that it does not already exist.
      *
      * <p>
-     * This method checks if a city with the same name already exists by using the repository's
-     * {@code existsByMiasto} method. If a duplicate is found, a {@link DuplicatedEntityExceptionn} is thrown.
-     * Otherwise, the new {@code Miasta} entity is saved and returned.
+     * This method inserts the city with a single statement that skips an existing name
+     * ({@link MiastaRepository#INSERT_IF_ABSENT}). If the city already exists, a {@link DuplicatedEntityExceptionn}
+     * is thrown. The returned entity is not managed.
      * </p>
      *
      * @param miasto the {@code Miasta} entity to be added
-     * @return the saved {@code Miasta} entity
+     * @return the added {@code Miasta} entity
      * @throws DuplicatedEntityExceptionn if a city with the same name already exists
      */
     @Override
+    @Transactional
     public Miasta add(Miasta miasto) throws DuplicatedEntityExceptionn {
-        if (miastaRepository.existsByMiasto(miasto.getMiasto())) {
-            throw new DuplicatedEntityExceptionn("Miasto " + miasto.getMiasto() + " już istnieje");
+        return addAll(List.of(miasto)).get(0);
+    }
+
+    /**
+     * Adds several cities in one transaction.
+     *
+     * <p>
+     * None of the city names may repeat. All cities are then sent as one JDBC batch of
+     * {@link MiastaRepository#INSERT_IF_ABSENT}; if any name already exists, nothing is added.
+     * </p>
+     *
+     * @param miasta the {@code Miasta} entities to add
+     * @return the added {@code Miasta} entities
+     * @throws DuplicatedEntityExceptionn if a city name repeats or already exists
+     */
+    @Override
+    @Transactional
+    public List<Miasta> addAll(Collection<Miasta> miasta) throws DuplicatedEntityExceptionn {
+        return insertNew(MiastaRepository.INSERT_IF_ABSENT, "miasto", miasta,
+                (statement, nowe) -> statement.setString(1, nowe.getMiasto()),
+                nazwa -> "Miasto " + nazwa + " już istnieje");
+    }
+
+    /**
+     * Deletes a city together with its hotels and their hotel list records.
+     *
+     * <p>
+     * The rooms with a night in one of the hotels are read first. The hotel list records of the hotels, the hotels
+     * and the city are then deleted with one bulk {@code DELETE} each; the hotel list flag of the rooms is set again
+     * from the records they have left and their night lists are rebuilt, one statement each for all rooms.
+     * </p>
+     *
+     * @param miasto the name of the city
+     * @throws IllegalArgumentException if a trip type spends a night in the city
+     */
+    @Override
+    @Transactional
+    public void delete(String miasto) {
+        sprawdzPlanyWycieczek(miasto);
+        List<Integer> pokoje = listyHoteliRepository.findPokojIdsByMiastoHotelu(miasto);
+        listyHoteliRepository.deleteByMiastoHotelu(miasto);
+        if (!pokoje.isEmpty()) {
+            pokojeRepository.przeliczListaHoteli(pokoje);
+            listaNocyHoteliRepository.deleteByPokojIdIn(pokoje);
+            listaNocyHoteliRepository.insertForPokojIdIn(pokoje);
+            publishEvent(ListyHoteliPokoiEvent.of(pokoje));
         }
-        return miastaRepository.save(miasto);
+        hoteleRepository.deleteByMiasto(miasto);
+        miastaRepository.deleteByMiasto(miasto);
+        evictFromCache(List.of(miasto));
+        publishEvent(new EntitiesChangedEvent(Set.of(Miasta.class, Hotele.class, MiastaWycieczek.class,
+                ListyHoteli.class, Pokoje.class)));
+    }
+
+    /**
+     * Counts the hotel list records and the hotels that {@link #delete(String)} removes together with the city.
+     *
+     * @param miasto the name of the city
+     * @return the records that would be removed
+     * @throws IllegalArgumentException if a trip type spends a night in the city
+     */
+    @Override
+    public DeletePreview previewDelete(String miasto) {
+        sprawdzPlanyWycieczek(miasto);
+        Map<Class<?>, Long> rekordy = new LinkedHashMap<>();
+        rekordy.put(ListyHoteli.class, listyHoteliRepository.countByMiastoHotelu(miasto));
+        rekordy.put(Hotele.class, hoteleRepository.countByMiasto(miasto));
+        rekordy.put(Miasta.class, existsById(miasto) ? 1L : 0L);
+        return new DeletePreview(rekordy);
+    }
+
+    /**
+     * Refuses to delete a city in the itinerary of a trip type.
+     *
+     * @param miasto the name of the city
+     * @throws IllegalArgumentException if a trip type spends a night in the city
+     */
+    private void sprawdzPlanyWycieczek(String miasto) {
+        List<String> typy = miastaWycieczekRepository.findTypyByMiasto(miasto);
+        if (!typy.isEmpty()) {
+            throw new IllegalArgumentException("Miasto " + miasto + " jest w planie typów wycieczek: "
+                    + String.join(", ", typy));
+        }
+    }
+
+    /**
+     * Returns the cached entities referencing a city: its hotels and the trip nights spent in it.
+     *
+     * @return the {@code Hotele} and {@code MiastaWycieczek} classes
+     */
+    @Override
+    protected List<Class<?>> getCachedDependents() {
+        return List.of(Hotele.class, MiastaWycieczek.class);
+    }
+
+    /**
+     * Returns {@link MiastaRow}, the row type of the cities grid.
+     *
+     * @return the {@code MiastaRow} class
+     */
+    @Override
+    public Class<MiastaRow> getRowClass() {
+        return MiastaRow.class;
+    }
+
+    /**
+     * Retrieves one page of the cities grid as {@link MiastaRow} projections.
+     *
+     * @param after the key of the last row of the previous page, or {@code null} for the first page
+     * @param size  the maximum number of rows on the page
+     * @return a {@link Slice} with at most {@code size} rows
+     */
+    @Override
+    public Slice<MiastaRow> getRows(String after, int size) {
+        // separate queries, so that the next pages compare the key without a null check
+        return after == null
+                ? miastaRepository.findFirstGridRows(PageRequest.of(0, size))
+                : miastaRepository.findGridRowsAfter(after, PageRequest.of(0, size));
     }
 }
@@ -3,8 +3,10 @@ package com.project.springbootjavafx.services;
 import com.project.springbootjavafx.models.MiastaWycieczek;
 import com.project.springbootjavafx.models.TypyWycieczek;
 import com.project.springbootjavafx.repositories.MiastaWycieczekRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -17,6 +19,11 @@ import java.util.List;
  * based on a specific trip type. The trip type parameter is validated to ensure it is not null.
  * </p>
  *
+ * <p>
+ * Changing a night of an itinerary rebuilds the hotel night lists of the rooms staying on it (see
+ * {@link ListaNocyHoteliService#odswiezDlaMiastWycieczek(Collection)}).
+ * </p>
+ *
  * @see MiastaWycieczek
  * @see TypyWycieczek
  * @see MiastaWycieczekRepository
@@ -29,26 +36,59 @@ public class MiastaWycieczekService extends AbstractServices<MiastaWycieczek, In
      */
     private MiastaWycieczekRepository repository;
 
+    /**
+     * The service rebuilding the hotel night lists of the rooms staying on changed nights.
+     */
+    private ListaNocyHoteliService listaNocyHoteliService;
+
     /**
      * Constructs a new {@code MiastaWycieczekService} with the specified {@link MiastaWycieczekRepository}.
      *
      * @param miastaWycieczekRepository the repository used for CRUD operations on {@code MiastaWycieczek} entities
+     * @param listaNocyHoteliService    the service rebuilding the hotel night lists of changed nights
      */
     @Autowired
-    public MiastaWycieczekService(MiastaWycieczekRepository miastaWycieczekRepository) {
+    public MiastaWycieczekService(MiastaWycieczekRepository miastaWycieczekRepository,
+                                  ListaNocyHoteliService listaNocyHoteliService) {
         super(miastaWycieczekRepository, MiastaWycieczek.class, Integer.class);
         this.repository = miastaWycieczekRepository;
+        this.listaNocyHoteliService = listaNocyHoteliService;
     }
 
     /**
-     * Adds a new trip night city assignment to the database.
+     * Adds a new trip night city assignment to the database, or saves an existing one.
+     *
+     * <p>
+     * An existing night may already be on hotel lists, so the hotel night lists of its rooms are rebuilt.
+     * </p>
      *
      * @param miastoWycieczki the {@code MiastaWycieczek} entity to be added
      * @return the saved {@code MiastaWycieczek} entity
      */
     @Override
+    @Transactional
     public MiastaWycieczek add(MiastaWycieczek miastoWycieczki) {
-        return repository.save(miastoWycieczki);
+        MiastaWycieczek saved = repository.save(miastoWycieczki);
+        if (miastoWycieczki.getId() != null) {
+            repository.flush();
+            listaNocyHoteliService.odswiezDlaMiastWycieczek(List.of(saved.getId()));
+        }
+        publishChange();
+        return saved;
+    }
+
+    /**
+     * Updates the given trip night cities and rebuilds the hotel night lists of the rooms staying on them.
+     *
+     * @param miastaWycieczek the detached entities carrying the new state
+     * @return the managed, updated entities
+     */
+    @Override
+    @Transactional
+    public List<MiastaWycieczek> updateAll(Collection<MiastaWycieczek> miastaWycieczek) {
+        List<MiastaWycieczek> updated = super.updateAll(miastaWycieczek);
+        listaNocyHoteliService.odswiezDlaMiastWycieczek(updated.stream().map(MiastaWycieczek::getId).toList());
+        return updated;
     }
 
     /**
@@ -0,0 +1,207 @@
+package com.project.springbootjavafx.services;
+
+import com.project.springbootjavafx.models.Hotele;
+import com.project.springbootjavafx.models.TripIntervalIndex;
+import com.project.springbootjavafx.projections.NocWycieczkiRow;
+import com.project.springbootjavafx.repositories.ListyHoteliRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The {@code OverbookingDetector} class finds the nights on which the trips put more rooms in a hotel than the hotel
+ * has ({@link Hotele#getLiczbaPokoi()}).
+ *
+ * <p>
+ * Trips of different types may use the same hotel on the same dates, so the rooms of all trips overlapping a night
+ * are added up. The trips overlapping a trip are found in a {@link TripIntervalIndex} compiled from the trips of
+ * {@link ReferenceDataCache}, and compiled again when the reference data changes; the rooms of only these trips are
+ * then counted with one grouped query. Checking a whole season counts the rooms of all its trips with one streamed
+ * query into a counter per hotel and day, so its cost grows with the number of nights, not with the number of pairs
+ * of trips.
+ * </p>
+ *
+ * <p>
+ * Hotels without a number of rooms are not checked.
+ * </p>
+ */
+@Service
+public class OverbookingDetector {
+
+    private final ListyHoteliRepository listyHoteliRepository;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The trip index and the hotel capacities compiled for the last seen version of the reference data.
+     */
+    private volatile Stan stan;
+
+    /**
+     * One night of a hotel with more rooms than the hotel has.
+     *
+     * @param hotel       the code of the hotel
+     * @param data        the date of the night
+     * @param pokoje      the number of rooms of all trips in the hotel that night
+     * @param liczbaPokoi the number of rooms of the hotel
+     * @param wycieczki   the codes of the trips with rooms in the hotel that night, in alphabetical order
+     */
+    public record Konflikt(String hotel, LocalDate data, int pokoje, int liczbaPokoi, List<String> wycieczki) {
+    }
+
+    /**
+     * The trip index and the number of rooms of every hotel that has one, for one version of the reference data.
+     */
+    private record Stan(long wersja, TripIntervalIndex indeks, Map<String, Integer> liczbaPokoi) {
+    }
+
+    /**
+     * The rooms of one hotel over the checked period.
+     */
+    private static final class Obciazenie {
+
+        private final int[] pokoje;
+
+        private final List<NocWycieczkiRow> noce = new ArrayList<>();
+
+        private Obciazenie(int dni) {
+            this.pokoje = new int[dni];
+        }
+    }
+
+    /**
+     * Constructs a new {@code OverbookingDetector} instance.
+     *
+     * @param listyHoteliRepository the repository of the hotel lists
+     * @param referenceDataCache    the source of the trips and the hotels
+     * @param transactionManager    the transaction manager used to read the season
+     */
+    @Autowired
+    public OverbookingDetector(ListyHoteliRepository listyHoteliRepository, ReferenceDataCache referenceDataCache,
+                               PlatformTransactionManager transactionManager) {
+        this.listyHoteliRepository = listyHoteliRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Finds the overbooked nights of the hotels of one trip, for example after its hotel lists were written.
+     *
+     * @param wycieczka the code of the trip
+     * @return the overbooked nights the trip takes part in, ordered by hotel and date
+     * @throws IllegalArgumentException if the trip is unknown or has no dates
+     */
+    public List<Konflikt> sprawdzWycieczke(String wycieczka) {
+        Stan biezacy = getStan();
+        LocalDate od = biezacy.indeks().getPoczatek(wycieczka);
+        LocalDate do_ = biezacy.indeks().getKoniec(wycieczka);
+        List<String> nachodzace = biezacy.indeks().nachodzace(od, do_);
+        List<NocWycieczkiRow> noce = listyHoteliRepository.findNoceByWycieczkaIn(nachodzace);
+        Set<String> hotele = noce.stream()
+                .filter(noc -> noc.wycieczka().equals(wycieczka))
+                .map(NocWycieczkiRow::hotel)
+                .collect(Collectors.toSet());
+        return policz(noce, od, do_, hotele::contains, biezacy.liczbaPokoi()).stream()
+                .filter(konflikt -> konflikt.wycieczki().contains(wycieczka))
+                .toList();
+    }
+
+    /**
+     * Finds all overbooked nights of a season.
+     *
+     * @param od  the first day of the season
+     * @param do_ the last day of the season
+     * @return the overbooked nights, ordered by hotel and date
+     * @throws IllegalArgumentException if the season ends before it starts
+     */
+    public List<Konflikt> sprawdzSezon(LocalDate od, LocalDate do_) {
+        if (do_.isBefore(od)) {
+            throw new IllegalArgumentException("Sezon kończy się przed początkiem: " + od + " - " + do_);
+        }
+        Map<String, Integer> liczbaPokoi = getStan().liczbaPokoi();
+        return transactionTemplate.execute(status -> {
+            try (Stream<NocWycieczkiRow> noce = listyHoteliRepository.streamNoceWycieczekBySezon(od, do_)) {
+                return policz(noce::iterator, od, do_, hotel -> true, liczbaPokoi);
+            }
+        });
+    }
+
+    /**
+     * Adds up the rooms of the nights by hotel and day, and returns the days with more rooms than the hotel has.
+     *
+     * @param noce        the rooms of the trips by hotel and night
+     * @param od          the first day to check
+     * @param do_         the last day to check
+     * @param hotele      the hotels to check
+     * @param liczbaPokoi the number of rooms of every hotel that has one
+     * @return the overbooked nights, ordered by hotel and date
+     */
+    private static List<Konflikt> policz(Iterable<NocWycieczkiRow> noce, LocalDate od, LocalDate do_,
+                                         Predicate<String> hotele, Map<String, Integer> liczbaPokoi) {
+        int dni = (int) ChronoUnit.DAYS.between(od, do_) + 1;
+        Map<String, Obciazenie> obciazenia = new HashMap<>();
+        for (NocWycieczkiRow noc : noce) {
+            int dzien = (int) ChronoUnit.DAYS.between(od, noc.data());
+            if (dzien < 0 || dzien >= dni || !liczbaPokoi.containsKey(noc.hotel()) || !hotele.test(noc.hotel())) {
+                continue;
+            }
+            Obciazenie obciazenie = obciazenia.computeIfAbsent(noc.hotel(), hotel -> new Obciazenie(dni));
+            obciazenie.pokoje[dzien] += noc.pokoje().intValue();
+            obciazenie.noce.add(noc);
+        }
+
+        List<Konflikt> konflikty = new ArrayList<>();
+        obciazenia.forEach((hotel, obciazenie) -> {
+            int limit = liczbaPokoi.get(hotel);
+            Map<Integer, Set<String>> wycieczki = new HashMap<>();
+            for (NocWycieczkiRow noc : obciazenie.noce) {
+                int dzien = (int) ChronoUnit.DAYS.between(od, noc.data());
+                if (obciazenie.pokoje[dzien] > limit) {
+                    wycieczki.computeIfAbsent(dzien, d -> new TreeSet<>()).add(noc.wycieczka());
+                }
+            }
+            wycieczki.forEach((dzien, kody) -> konflikty.add(new Konflikt(hotel, od.plusDays(dzien),
+                    obciazenie.pokoje[dzien], limit, List.copyOf(kody))));
+        });
+        konflikty.sort(Comparator.comparing(Konflikt::hotel).thenComparing(Konflikt::data));
+        return konflikty;
+    }
+
+    /**
+     * Returns the trip index and the hotel capacities of the current reference data, compiling them if needed.
+     *
+     * @return the current state
+     */
+    private Stan getStan() {
+        ReferenceDataCache.Snapshot snapshot = referenceDataCache.getSnapshot();
+        Stan biezacy = stan;
+        if (biezacy == null || biezacy.wersja() != snapshot.version()) {
+            Map<String, Integer> liczbaPokoi = new HashMap<>();
+            for (Hotele hotel : snapshot.hotele()) {
+                if (hotel.getLiczbaPokoi() != null) {
+                    liczbaPokoi.put(hotel.getKod(), hotel.getLiczbaPokoi());
+                }
+            }
+            biezacy = new Stan(snapshot.version(), TripIntervalIndex.compile(snapshot.wycieczki()), liczbaPokoi);
+            stan = biezacy;
+        }
+        return biezacy;
+    }
+}
@@ -4,11 +4,23 @@ import com.project.springbootjavafx.models.Klienci;
 import com.project.springbootjavafx.models.ListyHoteli;
 import com.project.springbootjavafx.models.Pokoje;
 import com.project.springbootjavafx.models.Wycieczki;
+import com.project.springbootjavafx.projections.PokojeDostepnoscRow;
+import com.project.springbootjavafx.projections.PokojeRow;
 import com.project.springbootjavafx.repositories.PokojeRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The {@code PokojeService} class provides service methods for managing room entities
@@ -21,6 +33,14 @@ import java.util.List;
  * hotel list and client information for a room.
  * </p>
  *
+ * <p>
+ * The rooms with free places are served from an availability index kept per trip. The index of a trip is loaded
+ * with one query over the rooms of the trip ({@link PokojeRepository#findDostepnosc(String)}) the first time it is
+ * needed, and is then updated in place with the {@link ZajetoscPokoiEvent}s of {@link KlienciService}, once their
+ * transaction is committed. Changes of rooms or trips, and all changes made by other instances of the application,
+ * drop the index, which is loaded again on the next read.
+ * </p>
+ *
  * @see Pokoje
  * @see Wycieczki
  * @see ListyHoteli
@@ -35,6 +55,27 @@ public class PokojeService extends AbstractServices<Pokoje, Integer> {
      */
     private final PokojeRepository repository;
 
+    /**
+     * The entity types whose local changes drop the availability index; the client changes of this instance are
+     * applied in place.
+     */
+    private static final Set<Class<?>> DOSTEPNOSC_LOKALNIE = Set.of(Pokoje.class, Wycieczki.class);
+
+    /**
+     * The entity types whose changes made by other instances drop the availability index.
+     */
+    private static final Set<Class<?>> DOSTEPNOSC_ZDALNIE = Set.of(Pokoje.class, Wycieczki.class, Klienci.class);
+
+    /**
+     * The availability index: the rooms of every loaded trip by room identifier.
+     */
+    private final ConcurrentMap<String, ConcurrentMap<Integer, PokojeDostepnoscRow>> dostepnosc = new ConcurrentHashMap<>();
+
+    /**
+     * The trip of every room in the availability index.
+     */
+    private final ConcurrentMap<Integer, String> wycieczkiPokoi = new ConcurrentHashMap<>();
+
     /**
      * Constructs a new {@code PokojeService} with the specified {@link PokojeRepository}.
      *
@@ -54,7 +95,33 @@ public class PokojeService extends AbstractServices<Pokoje, Integer> {
      */
     @Override
     public Pokoje add(Pokoje pokoj) {
-        return repository.save(pokoj);
+        Pokoje saved = repository.save(pokoj);
+        publishChange();
+        return saved;
+    }
+
+    /**
+     * Returns the number of places of a new room of the given type.
+     *
+     * <p>
+     * The capacity follows from the first letter of the room type: {@code e} for one place, {@code d} for two,
+     * {@code t} for three and {@code q} for four.
+     * </p>
+     *
+     * @param typPokoju the room type
+     * @return the number of places, or {@code 0} if the type is not known
+     */
+    public static int pojemnoscTypu(String typPokoju) {
+        if (typPokoju == null || typPokoju.isEmpty()) {
+            return 0;
+        }
+        return switch (typPokoju.charAt(0)) {
+            case 'e' -> 1;
+            case 'd' -> 2;
+            case 't' -> 3;
+            case 'q' -> 4;
+            default -> 0;
+        };
     }
 
     /**
@@ -67,6 +134,88 @@ public class PokojeService extends AbstractServices<Pokoje, Integer> {
         return repository.getByWycieczka(wycieczka.getWycieczka());
     }
 
+    /**
+     * Retrieves the rooms of a trip that have at least one free place.
+     *
+     * <p>
+     * The rooms are read from the availability index, so only the first call for a trip queries the database.
+     * </p>
+     *
+     * @param wycieczka the {@code Wycieczki} entity representing the trip
+     * @return the rooms with free places, ordered by identifier
+     */
+    public List<PokojeDostepnoscRow> getDostepnePokoje(Wycieczki wycieczka) {
+        return getDostepnosc(wycieczka.getWycieczka()).values().stream()
+                .filter(pokoj -> pokoj.wolneMiejsca() > 0)
+                .sorted(Comparator.comparing(PokojeDostepnoscRow::id))
+                .toList();
+    }
+
+    /**
+     * Retrieves the rooms of a trip that have at least one free place, grouped by room type.
+     *
+     * @param wycieczka the {@code Wycieczki} entity representing the trip
+     * @return the rooms with free places by room type, the types in the order of their first room
+     */
+    public Map<String, List<PokojeDostepnoscRow>> getDostepnePokojeWgTypu(Wycieczki wycieczka) {
+        Map<String, List<PokojeDostepnoscRow>> wgTypu = new LinkedHashMap<>();
+        for (PokojeDostepnoscRow pokoj : getDostepnePokoje(wycieczka)) {
+            wgTypu.computeIfAbsent(String.valueOf(pokoj.typPokoju()), typ -> new ArrayList<>()).add(pokoj);
+        }
+        return wgTypu;
+    }
+
+    /**
+     * Returns the availability index of a trip, loading it if needed.
+     *
+     * @param wycieczka the code of the trip
+     * @return the rooms of the trip by identifier
+     */
+    private Map<Integer, PokojeDostepnoscRow> getDostepnosc(String wycieczka) {
+        return dostepnosc.computeIfAbsent(wycieczka, kod -> {
+            ConcurrentMap<Integer, PokojeDostepnoscRow> pokoje = new ConcurrentHashMap<>();
+            for (PokojeDostepnoscRow pokoj : repository.findDostepnosc(kod)) {
+                pokoje.put(pokoj.id(), pokoj);
+                wycieczkiPokoi.put(pokoj.id(), kod);
+            }
+            return pokoje;
+        });
+    }
+
+    /**
+     * Applies committed changes of the number of clients to the availability index.
+     *
+     * <p>
+     * Rooms of trips that are not in the index are skipped; their numbers are read when the trip is loaded.
+     * </p>
+     *
+     * @param event the changes of the rooms
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onZajetoscPokoi(ZajetoscPokoiEvent event) {
+        event.zmiany().forEach((pokoj, zmiana) -> {
+            String wycieczka = wycieczkiPokoi.get(pokoj);
+            Map<Integer, PokojeDostepnoscRow> pokoje = wycieczka == null ? null : dostepnosc.get(wycieczka);
+            if (pokoje != null) {
+                pokoje.computeIfPresent(pokoj, (id, row) -> row.zmien(zmiana));
+            }
+        });
+    }
+
+    /**
+     * Drops the availability index after committed changes of rooms or trips, or after any change of the rooms,
+     * trips or clients made by another instance of the application.
+     *
+     * @param event the change event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntitiesChanged(EntitiesChangedEvent event) {
+        if (event.affectsAny(event.remote() ? DOSTEPNOSC_ZDALNIE : DOSTEPNOSC_LOKALNIE)) {
+            dostepnosc.clear();
+            wycieczkiPokoi.clear();
+        }
+    }
+
     /**
      * Retrieves a list of rooms for a given trip that have an associated hotel list.
      *
@@ -81,34 +230,43 @@ public class PokojeService extends AbstractServices<Pokoje, Integer> {
      * Sets the flag indicating that rooms have an associated hotel list to true.
      *
      * <p>
-     * This method iterates over the provided list of rooms and updates each room's flag by calling
-     * {@link PokojeRepository#updateListaHoteliTrue(Integer)}.
+     * All rooms are updated with a single statement by calling
+     * {@link PokojeRepository#updateListaHoteli(java.util.Collection, boolean)}.
      * </p>
      *
      * @param pokoje the list of {@code Pokoje} entities to update
      */
     @Transactional
     public void setListaHoteliTrue(List<Pokoje> pokoje) {
-        for (Pokoje pokoj : pokoje) {
-            repository.updateListaHoteliTrue(pokoj.getId());
-        }
+        updateListaHoteli(pokoje, true);
     }
 
     /**
      * Sets the flag indicating that rooms have an associated hotel list to false.
      *
      * <p>
-     * This method iterates over the provided list of rooms and updates each room's flag by calling
-     * {@link PokojeRepository#updateListaHoteliFalse(Integer)}.
+     * All rooms are updated with a single statement by calling
+     * {@link PokojeRepository#updateListaHoteli(java.util.Collection, boolean)}.
      * </p>
      *
      * @param pokoje the list of {@code Pokoje} entities to update
      */
     @Transactional
     public void setListaHoteliFalse(List<Pokoje> pokoje) {
-        for (Pokoje pokoj : pokoje) {
-            repository.updateListaHoteliFalse(pokoj.getId());
+        updateListaHoteli(pokoje, false);
+    }
+
+    /**
+     * Updates the hotel list flag of the given rooms, skipping the query when there is nothing to update.
+     *
+     * @param pokoje  the rooms to update
+     * @param wartosc the new value of the flag
+     */
+    private void updateListaHoteli(List<Pokoje> pokoje, boolean wartosc) {
+        if (pokoje.isEmpty()) {
+            return;
         }
+        repository.updateListaHoteli(pokoje.stream().map(Pokoje::getId).toList(), wartosc);
     }
 
     /**
@@ -130,4 +288,29 @@ public class PokojeService extends AbstractServices<Pokoje, Integer> {
     public List<Klienci> getKlienci(Pokoje pokoj) {
         return repository.getKlienciPokoju(pokoj.getId());
     }
+
+    /**
+     * Returns {@link PokojeRow}, the row type of the rooms grid.
+     *
+     * @return the {@code PokojeRow} class
+     */
+    @Override
+    public Class<PokojeRow> getRowClass() {
+        return PokojeRow.class;
+    }
+
+    /**
+     * Retrieves one page of the rooms grid as {@link PokojeRow} projections.
+     *
+     * @param after the key of the last row of the previous page, or {@code null} for the first page
+     * @param size  the maximum number of rows on the page
+     * @return a {@link Slice} with at most {@code size} rows
+     */
+    @Override
+    public Slice<PokojeRow> getRows(Integer after, int size) {
+        // separate queries, so that the next pages compare the key without a null check
+        return after == null
+                ? repository.findFirstGridRows(PageRequest.of(0, size))
+                : repository.findGridRowsAfter(after, PageRequest.of(0, size));
+    }
 }
@@ -0,0 +1,309 @@
+package com.project.springbootjavafx.services;
+
+import com.project.springbootjavafx.models.Money;
+import com.project.springbootjavafx.models.PriceScenario;
+import com.project.springbootjavafx.models.PriceTable;
+import com.project.springbootjavafx.projections.KlienciWycenaRow;
+import com.project.springbootjavafx.repositories.KlienciRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The {@code PriceSimulator} class answers "what if" questions about the prices: how the revenue of every trip and of
+ * every trip type would change under a {@link PriceScenario}.
+ *
+ * <p>
+ * The clients of a season are loaded once into a {@link ClientSnapshot}, which keeps only what their prices depend
+ * on, column by column in primitive arrays. Any number of scenarios can then be evaluated against the snapshot
+ * without reading the database: every scenario compiles the changed {@link PriceTable}s of the trip types and quotes
+ * every client with both the current and the changed prices. The scenarios, and the trips within every scenario, are
+ * evaluated in parallel on a fork-join pool owned by the simulator.
+ * </p>
+ *
+ * <p>
+ * The current prices are taken from {@link ReferenceDataCache} when the scenarios are evaluated. A client whose price
+ * cannot be computed with the current or the changed prices contributes nothing and is counted instead.
+ * </p>
+ */
+@Service
+public class PriceSimulator {
+
+    private final KlienciRepository klienciRepository;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The pool evaluating the scenarios.
+     */
+    private final ForkJoinPool pool = new ForkJoinPool();
+
+    /**
+     * The clients of a season, reduced to what their prices depend on.
+     *
+     * <p>
+     * The clients are ordered by trip type and trip, so the clients of a trip, and the trips of a type, are
+     * contiguous ranges of the arrays.
+     * </p>
+     */
+    public static final class ClientSnapshot {
+
+        /**
+         * The trip types.
+         */
+        private final String[] typy;
+
+        /**
+         * The index of the first trip of every trip type, followed by the number of trips.
+         */
+        private final int[] typOd;
+
+        /**
+         * The codes of the trips.
+         */
+        private final String[] wycieczki;
+
+        /**
+         * The index of the trip type of every trip.
+         */
+        private final int[] typWycieczki;
+
+        /**
+         * The index of the first client of every trip, followed by the number of clients.
+         */
+        private final int[] wycieczkaOd;
+
+        /**
+         * The number of places of the room of every client.
+         */
+        private final byte[] ilMiejsc;
+
+        /**
+         * The options of every client.
+         */
+        private final byte[] opcje;
+
+        private ClientSnapshot(String[] typy, int[] typOd, String[] wycieczki, int[] wycieczkaOd, byte[] ilMiejsc,
+                               byte[] opcje) {
+            this.typy = typy;
+            this.typOd = typOd;
+            this.wycieczki = wycieczki;
+            this.typWycieczki = new int[wycieczki.length];
+            for (int t = 0; t < typy.length; t++) {
+                Arrays.fill(typWycieczki, typOd[t], typOd[t + 1], t);
+            }
+            this.wycieczkaOd = wycieczkaOd;
+            this.ilMiejsc = ilMiejsc;
+            this.opcje = opcje;
+        }
+
+        /**
+         * Returns the number of clients in the snapshot.
+         *
+         * @return the number of clients
+         */
+        public int klienci() {
+            return ilMiejsc.length;
+        }
+
+        /**
+         * Returns the number of trips in the snapshot.
+         *
+         * @return the number of trips
+         */
+        public int wycieczki() {
+            return wycieczki.length;
+        }
+    }
+
+    /**
+     * The change of the revenue under one scenario.
+     *
+     * @param scenariusz   the name of the scenario
+     * @param wycieczki    the change of the revenue of every trip, by trip code
+     * @param typy         the change of the revenue of every trip type, by trip type
+     * @param razem        the change of the revenue of the whole season
+     * @param niewycenieni the number of clients whose price could not be computed
+     */
+    public record SimulationResult(String scenariusz, Map<String, Money> wycieczki, Map<String, Money> typy,
+                                   Money razem, int niewycenieni) {
+    }
+
+    /**
+     * Constructs a new {@code PriceSimulator} instance.
+     *
+     * @param klienciRepository  the repository of the clients
+     * @param referenceDataCache the source of the current prices
+     * @param transactionManager the transaction manager used to load the snapshot
+     */
+    @Autowired
+    public PriceSimulator(KlienciRepository klienciRepository, ReferenceDataCache referenceDataCache,
+                          PlatformTransactionManager transactionManager) {
+        this.klienciRepository = klienciRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Loads the clients of the trips starting within the given dates.
+     *
+     * @param od  the first start date
+     * @param do_ the last start date
+     * @return the snapshot of the clients
+     */
+    public ClientSnapshot zaladuj(LocalDate od, LocalDate do_) {
+        return transactionTemplate.execute(status -> {
+            SnapshotBuilder builder = new SnapshotBuilder();
+            try (Stream<KlienciWycenaRow> rows = klienciRepository.streamWycenaBySezon(od, do_)) {
+                rows.forEach(builder::add);
+            }
+            return builder.build();
+        });
+    }
+
+    /**
+     * Evaluates scenarios against a snapshot of the clients.
+     *
+     * @param snapshot    the clients
+     * @param scenariusze the scenarios
+     * @return the result of every scenario, in the order of the scenarios
+     */
+    public List<SimulationResult> symuluj(ClientSnapshot snapshot, List<PriceScenario> scenariusze) {
+        Map<String, PriceTable> cenniki = referenceDataCache.getSnapshot().cenniki();
+        PriceTable[] bazowe = new PriceTable[snapshot.typy.length];
+        for (int t = 0; t < bazowe.length; t++) {
+            bazowe[t] = cenniki.get(snapshot.typy[t]);
+        }
+        return pool.submit(() -> scenariusze.parallelStream()
+                .map(scenariusz -> symuluj(snapshot, bazowe, scenariusz))
+                .toList()).join();
+    }
+
+    /**
+     * Stops the pool evaluating the scenarios.
+     */
+    @PreDestroy
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private static SimulationResult symuluj(ClientSnapshot snapshot, PriceTable[] bazowe, PriceScenario scenariusz) {
+        PriceTable[] nowe = new PriceTable[bazowe.length];
+        for (int t = 0; t < bazowe.length; t++) {
+            nowe[t] = bazowe[t] == null ? null : scenariusz.zastosuj(bazowe[t]);
+        }
+
+        long[] roznice = new long[snapshot.wycieczki.length];
+        int[] niewycenieni = new int[snapshot.wycieczki.length];
+        IntStream.range(0, snapshot.wycieczki.length).parallel().forEach(w -> {
+            PriceTable bazowy = bazowe[snapshot.typWycieczki[w]];
+            PriceTable nowy = nowe[snapshot.typWycieczki[w]];
+            long roznica = 0;
+            int brak = 0;
+            for (int k = snapshot.wycieczkaOd[w]; k < snapshot.wycieczkaOd[w + 1]; k++) {
+                long przed = bazowy == null ? -1 : bazowy.quoteOrElse(snapshot.ilMiejsc[k], snapshot.opcje[k], -1);
+                long po = nowy == null ? -1 : nowy.quoteOrElse(snapshot.ilMiejsc[k], snapshot.opcje[k], -1);
+                if (przed < 0 || po < 0) {
+                    brak++;
+                } else {
+                    roznica += po - przed;
+                }
+            }
+            roznice[w] = roznica;
+            niewycenieni[w] = brak;
+        });
+
+        Map<String, Money> wycieczki = new LinkedHashMap<>();
+        Map<String, Money> typy = new LinkedHashMap<>();
+        long razem = 0;
+        int brak = 0;
+        for (int t = 0; t < snapshot.typy.length; t++) {
+            long typ = 0;
+            for (int w = snapshot.typOd[t]; w < snapshot.typOd[t + 1]; w++) {
+                wycieczki.put(snapshot.wycieczki[w], new Money(roznice[w]));
+                typ += roznice[w];
+                brak += niewycenieni[w];
+            }
+            typy.put(snapshot.typy[t], new Money(typ));
+            razem += typ;
+        }
+        return new SimulationResult(scenariusz.nazwa(), wycieczki, typy, new Money(razem), brak);
+    }
+
+    /**
+     * Collects the rows of the clients, ordered by trip type and trip, into the columns of a snapshot.
+     */
+    private static final class SnapshotBuilder {
+
+        private String[] typy = new String[16];
+
+        private int[] typOd = new int[17];
+
+        private String[] wycieczki = new String[64];
+
+        private int[] wycieczkaOd = new int[65];
+
+        private byte[] ilMiejsc = new byte[1024];
+
+        private byte[] opcje = new byte[1024];
+
+        private int liczbaTypow;
+
+        private int liczbaWycieczek;
+
+        private int liczbaKlientow;
+
+        void add(KlienciWycenaRow row) {
+            if (liczbaTypow == 0 || !typy[liczbaTypow - 1].equals(row.typ())) {
+                typy = ensure(typy, liczbaTypow + 1);
+                typOd = ensure(typOd, liczbaTypow + 2);
+                typy[liczbaTypow] = row.typ();
+                typOd[liczbaTypow++] = liczbaWycieczek;
+            }
+            if (liczbaWycieczek == 0 || !wycieczki[liczbaWycieczek - 1].equals(row.wycieczka())) {
+                wycieczki = ensure(wycieczki, liczbaWycieczek + 1);
+                wycieczkaOd = ensure(wycieczkaOd, liczbaWycieczek + 2);
+                wycieczki[liczbaWycieczek] = row.wycieczka();
+                wycieczkaOd[liczbaWycieczek++] = liczbaKlientow;
+            }
+            ilMiejsc = ensure(ilMiejsc, liczbaKlientow + 1);
+            opcje = ensure(opcje, liczbaKlientow + 1);
+            ilMiejsc[liczbaKlientow] = row.ilMiejsc() == null ? 0 : row.ilMiejsc().byteValue();
+            opcje[liczbaKlientow++] = (byte) row.opcje();
+        }
+
+        ClientSnapshot build() {
+            typOd[liczbaTypow] = liczbaWycieczek;
+            wycieczkaOd[liczbaWycieczek] = liczbaKlientow;
+            return new ClientSnapshot(Arrays.copyOf(typy, liczbaTypow), Arrays.copyOf(typOd, liczbaTypow + 1),
+                    Arrays.copyOf(wycieczki, liczbaWycieczek), Arrays.copyOf(wycieczkaOd, liczbaWycieczek + 1),
+                    Arrays.copyOf(ilMiejsc, liczbaKlientow), Arrays.copyOf(opcje, liczbaKlientow));
+        }
+
+        private static String[] ensure(String[] array, int length) {
+            return array.length >= length ? array : Arrays.copyOf(array, Math.max(length, array.length * 2));
+        }
+
+        private static int[] ensure(int[] array, int length) {
+            return array.length >= length ? array : Arrays.copyOf(array, Math.max(length, array.length * 2));
+        }
+
+        private static byte[] ensure(byte[] array, int length) {
+            return array.length >= length ? array : Arrays.copyOf(array, Math.max(length, array.length * 2));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.project.springbootjavafx.services;
+
+import com.project.springbootjavafx.models.Ceny;
+import com.project.springbootjavafx.models.Money;
+import com.project.springbootjavafx.models.PriceTable;
+import com.project.springbootjavafx.models.Wycieczki;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@code PricingEngine} class quotes the price a client pays for a trip.
+ *
+ * <p>
+ * Quotes are computed from the {@link PriceTable}s compiled by {@link ReferenceDataCache} from the {@link Ceny} of
+ * every trip type, so no quote reads the database or walks the {@code Wycieczki -> TypyWycieczek -> Ceny}
+ * associations. Prices are {@link Money}; only the caller writing a price to a {@code Klienci} converts it to
+ * {@code BigDecimal}. A client is described by the number of places of the room and the bit set of the
+ * {@code PriceTable.OPCJA_*} flags (see {@link PriceTable#opcje(com.project.springbootjavafx.models.Klienci)}).
+ * </p>
+ *
+ * <p>
+ * The batch variants, meant for re-quotes and imports of many clients, take the clients as parallel arrays and write
+ * the prices in grosze to an array, so they allocate nothing per client. All quotes of one batch use the same
+ * snapshot of the prices.
+ * </p>
+ */
+@Component
+public class PricingEngine {
+
+    /**
+     * The source of the compiled price tables.
+     */
+    private final ReferenceDataCache referenceDataCache;
+
+    /**
+     * Constructs a new {@code PricingEngine} instance.
+     *
+     * @param referenceDataCache the cache holding the compiled price tables
+     */
+    public PricingEngine(ReferenceDataCache referenceDataCache) {
+        this.referenceDataCache = referenceDataCache;
+    }
+
+    /**
+     * Quotes the price of one client of a trip type.
+     *
+     * @param typ      the trip type
+     * @param ilMiejsc the number of places of the client's room
+     * @param opcje    the bit set of the options chosen by the client
+     * @return the price
+     * @throws NoSuchElementException   if the trip type has no prices
+     * @throws IllegalArgumentException if the room or a chosen option has no price
+     */
+    public Money quote(String typ, int ilMiejsc, int opcje) {
+        return new Money(referenceDataCache.getPriceTable(typ).quote(ilMiejsc, opcje));
+    }
+
+    /**
+     * Quotes the price of one client of a trip.
+     *
+     * @param wycieczka the trip; only the identifier of its type is read, so an uninitialized type will do
+     * @param ilMiejsc  the number of places of the client's room
+     * @param opcje     the bit set of the options chosen by the client
+     * @return the price
+     * @throws NoSuchElementException   if the trip type has no prices
+     * @throws IllegalArgumentException if the room or a chosen option has no price
+     */
+    public Money quote(Wycieczki wycieczka, int ilMiejsc, int opcje) {
+        return quote(wycieczka.getTypWycieczki().getTyp(), ilMiejsc, opcje);
+    }
+
+    /**
+     * Quotes the prices of many clients of one trip type.
+     *
+     * @param typ      the trip type
+     * @param ilMiejsc the number of places of the room of every client
+     * @param opcje    the options of every client
+     * @param grosze   receives the price of every client, in grosze
+     * @throws NoSuchElementException   if the trip type has no prices
+     * @throws IllegalArgumentException if the arrays differ in length, or a room or a chosen option has no price
+     */
+    public void quote(String typ, int[] ilMiejsc, int[] opcje, long[] grosze) {
+        sprawdzDlugosci(ilMiejsc.length, opcje.length, grosze.length);
+        PriceTable cennik = referenceDataCache.getPriceTable(typ);
+        for (int i = 0; i < ilMiejsc.length; i++) {
+            grosze[i] = cennik.quote(ilMiejsc[i], opcje[i]);
+        }
+    }
+
+    /**
+     * Quotes the prices of many clients of any trip types.
+     *
+     * <p>
+     * The price table is looked up only when the trip type changes from one client to the next, so clients sorted by
+     * trip type are quoted fastest.
+     * </p>
+     *
+     * @param typy     the trip type of every client
+     * @param ilMiejsc the number of places of the room of every client
+     * @param opcje    the options of every client
+     * @param grosze   receives the price of every client, in grosze
+     * @throws NoSuchElementException   if a trip type has no prices
+     * @throws IllegalArgumentException if the arrays differ in length, or a room or a chosen option has no price
+     */
+    public void quote(String[] typy, int[] ilMiejsc, int[] opcje, long[] grosze) {
+        sprawdzDlugosci(typy.length, ilMiejsc.length, opcje.length, grosze.length);
+        Map<String, PriceTable> cenniki = referenceDataCache.getSnapshot().cenniki();
+        PriceTable cennik = null;
+        for (int i = 0; i < typy.length; i++) {
+            if (cennik == null || !cennik.getTyp().equals(typy[i])) {
+                cennik = cenniki.get(typy[i]);
+                if (cennik == null) {
+                    throw new NoSuchElementException("Brak cennika typu wycieczki " + typy[i]);
+                }
+            }
+            grosze[i] = cennik.quote(ilMiejsc[i], opcje[i]);
+        }
+    }
+
+    private static void sprawdzDlugosci(int... dlugosci) {
+        for (int dlugosc : dlugosci) {
+            if (dlugosc != dlugosci[0]) {
+                throw new IllegalArgumentException("Tablice wyceny mają różne długości: " + Arrays.toString(dlugosci));
+            }
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.project.springbootjavafx.services;
+
+import com.project.springbootjavafx.models.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code ReferenceDataCache} class keeps an in-memory snapshot of the reference data used to fill the choice
+ * lists of the adding dialogs.
+ *
+ * <p>
+ * The snapshot holds the cities, the hotels with their city, the trip types with their prices and itinerary, and the
+ * trip headers with their type. It is read once with four queries in a single persistence context, so all entities in
+ * it share their associations (the type of a trip is the same object as the one in {@link Snapshot#typyWycieczek()})
+ * and can be navigated after the context is closed. Opening a dialog therefore costs no query at all. The hotels are
+ * also indexed by city, so the hotels of a whole itinerary are found without a query as well, and the nights of every
+ * trip type are compiled into an {@link Itinerary}, answering "the city of night N" without a query or sorting. The
+ * prices of every trip type are compiled into a {@link PriceTable}, from which {@link PricingEngine} quotes.
+ * </p>
+ *
+ * <p>
+ * Every write of a service publishes an {@link EntitiesChangedEvent}. Once the write is committed, a change of any
+ * of the reference types increments the version and a new snapshot is read and swapped in atomically; readers
+ * always see either the old or the new snapshot as a whole. A snapshot read for an older version never replaces a
+ * newer one. The trip counters ({@code il_uczestnikow}, {@code wplyw}) are maintained by the database when clients are
+ * added and are not refreshed here, so the trips of the snapshot serve as headers only.
+ * </p>
+ *
+ * <p>
+ * The entities of the snapshot are shared between all callers and must not be modified.
+ * </p>
+ */
+@Component
+public class ReferenceDataCache {
+
+    /**
+     * The entity types whose changes make the snapshot stale.
+     */
+    static final Set<Class<?>> REFERENCE_TYPES = Set.of(
+            Miasta.class, Hotele.class, TypyWycieczek.class, Ceny.class, MiastaWycieczek.class, Wycieczki.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Reads a snapshot in its own read-only transaction, also when called after the commit of a write.
+     */
+    private final TransactionTemplate readTransaction;
+
+    /**
+     * The version of the reference data, incremented on every committed change.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * The current snapshot, or {@code null} before the first read.
+     */
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    /**
+     * One consistent copy of the reference data.
+     *
+     * @param version       the version of the data the snapshot was read for
+     * @param miasta        the cities, ordered by name
+     * @param hotele        the hotels with their city, ordered by code
+     * @param typyWycieczek the trip types with their prices and itinerary, ordered by type
+     * @param wycieczki     the trips with their type, ordered by code
+     * @param hoteleMiast   the hotels of every city that has any, ordered by code
+     * @param itineraries   the compiled nights of every trip type, by type
+     * @param cenniki       the compiled prices of every trip type that has prices, by type
+     */
+    public record Snapshot(long version, List<Miasta> miasta, List<Hotele> hotele,
+                           List<TypyWycieczek> typyWycieczek, List<Wycieczki> wycieczki,
+                           Map<Miasta, List<Hotele>> hoteleMiast, Map<String, Itinerary> itineraries,
+                           Map<String, PriceTable> cenniki) {
+
+        /**
+         * Creates a snapshot holding unmodifiable copies of the given lists and index.
+         */
+        public Snapshot {
+            miasta = List.copyOf(miasta);
+            hotele = List.copyOf(hotele);
+            typyWycieczek = List.copyOf(typyWycieczek);
+            wycieczki = List.copyOf(wycieczki);
+            hoteleMiast = hoteleMiast.entrySet().stream()
+                    .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, entry -> List.copyOf(entry.getValue())));
+            itineraries = Map.copyOf(itineraries);
+            cenniki = Map.copyOf(cenniki);
+        }
+    }
+
+    /**
+     * Constructs a new {@code ReferenceDataCache} instance.
+     *
+     * @param transactionManager the transaction manager used to read the snapshots
+     */
+    public ReferenceDataCache(PlatformTransactionManager transactionManager) {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Reads the first snapshot once the application has started, so that the first dialog opens without waiting.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        getSnapshot();
+    }
+
+    /**
+     * Returns the current snapshot, reading it first if there is none yet or if it is older than the data.
+     *
+     * @return the current snapshot
+     */
+    public Snapshot getSnapshot() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null || snapshot.version() < version.get()) {
+            snapshot = refresh(version.get());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the version of the reference data.
+     *
+     * @return the number of committed changes seen since the start of the application
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Returns all cities.
+     *
+     * @return an unmodifiable list of cities, ordered by name
+     */
+    public List<Miasta> getMiasta() {
+        return getSnapshot().miasta();
+    }
+
+    /**
+     * Returns all hotels with their city.
+     *
+     * @return an unmodifiable list of hotels, ordered by code
+     */
+    public List<Hotele> getHotele() {
+        return getSnapshot().hotele();
+    }
+
+    /**
+     * Returns the hotels of the given cities, without a query.
+     *
+     * <p>
+     * Every given city is a key of the result, in the given order and without repetitions; a city without hotels
+     * maps to an empty list. It answers the same question as {@link HoteleService#getHoteleMiast(Collection)}.
+     * </p>
+     *
+     * @param miasta the cities, for example those of the nights of a trip type
+     * @return the hotels of every city, ordered by code
+     */
+    public Map<Miasta, List<Hotele>> getHoteleMiast(Collection<Miasta> miasta) {
+        Map<Miasta, List<Hotele>> index = getSnapshot().hoteleMiast();
+        Map<Miasta, List<Hotele>> hoteleMiast = new LinkedHashMap<>();
+        for (Miasta miasto : miasta) {
+            hoteleMiast.putIfAbsent(miasto, index.getOrDefault(miasto, List.of()));
+        }
+        return hoteleMiast;
+    }
+
+    /**
+     * Returns all trip types with their prices and itinerary.
+     *
+     * @return an unmodifiable list of trip types, ordered by type
+     */
+    public List<TypyWycieczek> getTypyWycieczek() {
+        return getSnapshot().typyWycieczek();
+    }
+
+    /**
+     * Returns the compiled itinerary of the given trip type.
+     *
+     * @param typ the trip type
+     * @return the itinerary of the type
+     * @throws NoSuchElementException if there is no such trip type
+     */
+    public Itinerary getItinerary(String typ) {
+        Itinerary itinerary = getSnapshot().itineraries().get(typ);
+        if (itinerary == null) {
+            throw new NoSuchElementException("Brak typu wycieczki " + typ);
+        }
+        return itinerary;
+    }
+
+    /**
+     * Returns the compiled itinerary of the given trip type, for example the type of a trip.
+     *
+     * @param typ the trip type; only its identifier is read, so an uninitialized proxy will do
+     * @return the itinerary of the type
+     * @throws NoSuchElementException if there is no such trip type
+     */
+    public Itinerary getItinerary(TypyWycieczek typ) {
+        return getItinerary(typ.getTyp());
+    }
+
+    /**
+     * Returns the compiled prices of the given trip type.
+     *
+     * @param typ the trip type
+     * @return the price table of the type
+     * @throws NoSuchElementException if there is no such trip type or it has no prices
+     */
+    public PriceTable getPriceTable(String typ) {
+        PriceTable cennik = getSnapshot().cenniki().get(typ);
+        if (cennik == null) {
+            throw new NoSuchElementException("Brak cennika typu wycieczki " + typ);
+        }
+        return cennik;
+    }
+
+    /**
+     * Returns the headers of all trips with their type.
+     *
+     * @return an unmodifiable list of trips, ordered by code
+     */
+    public List<Wycieczki> getWycieczki() {
+        return getSnapshot().wycieczki();
+    }
+
+    /**
+     * Replaces the snapshot after a committed change of the reference data.
+     *
+     * <p>
+     * Changes made outside of a transaction are handled immediately; changes of rolled back transactions are ignored.
+     * </p>
+     *
+     * @param event the change published by a service
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntitiesChanged(EntitiesChangedEvent event) {
+        if (event.affectsAny(REFERENCE_TYPES)) {
+            refresh(version.incrementAndGet());
+        }
+    }
+
+    /**
+     * Reads a snapshot for the given version and makes it current unless a newer one was swapped in meanwhile.
+     *
+     * @param forVersion the version the snapshot is read for
+     * @return the current snapshot after the swap
+     */
+    private Snapshot refresh(long forVersion) {
+        Snapshot read = readTransaction.execute(status -> read(forVersion));
+        return current.accumulateAndGet(read,
+                (previous, next) -> previous == null || next.version() > previous.version() ? next : previous);
+    }
+
+    /**
+     * Reads all reference data within one persistence context.
+     *
+     * @param forVersion the version the snapshot is read for
+     * @return the new snapshot
+     */
+    private Snapshot read(long forVersion) {
+        List<Miasta> miasta = entityManager
+                .createQuery("SELECT m FROM Miasta m ORDER BY m.miasto", Miasta.class)
+                .getResultList();
+        List<Hotele> hotele = entityManager
+                .createQuery("SELECT h FROM Hotele h LEFT JOIN FETCH h.miasto ORDER BY h.kod", Hotele.class)
+                .getResultList();
+        List<TypyWycieczek> typy = entityManager
+                .createQuery("SELECT t FROM TypyWycieczek t LEFT JOIN FETCH t.ceny "
+                        + "LEFT JOIN FETCH t.miastaWycieczek mw LEFT JOIN FETCH mw.miasta ORDER BY t.typ",
+                        TypyWycieczek.class)
+                .getResultList();
+        List<Wycieczki> wycieczki = entityManager
+                .createQuery("SELECT w FROM Wycieczki w JOIN FETCH w.typWycieczki ORDER BY w.wycieczka",
+                        Wycieczki.class)
+                .getResultList();
+        Map<Miasta, List<Hotele>> hoteleMiast = hotele.stream()
+                .filter(hotel -> hotel.getMiasto() != null)
+                .collect(Collectors.groupingBy(Hotele::getMiasto));
+        Map<String, Itinerary> itineraries = typy.stream().collect(Collectors.toMap(
+                TypyWycieczek::getTyp, typ -> Itinerary.compile(typ.getTyp(), typ.getMiastaWycieczek())));
+        Map<String, PriceTable> cenniki = typy.stream()
+                .filter(typ -> typ.getCeny() != null)
+                .collect(Collectors.toMap(TypyWycieczek::getTyp, typ -> PriceTable.compile(typ.getTyp(), typ.getCeny())));
+        return new Snapshot(forVersion, miasta, hotele, typy, wycieczki, hoteleMiast, itineraries, cenniki);
+    }
+}
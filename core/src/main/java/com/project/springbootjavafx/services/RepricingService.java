@@ -0,0 +1,93 @@
+package com.project.springbootjavafx.services;
+
+import com.project.springbootjavafx.models.Klienci;
+import com.project.springbootjavafx.models.Money;
+import com.project.springbootjavafx.models.Wycieczki;
+import com.project.springbootjavafx.repositories.KlienciRepository;
+import com.project.springbootjavafx.repositories.WycieczkiRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The {@code RepricingService} class recomputes the prices of the clients after the prices of a trip type changed.
+ *
+ * <p>
+ * The prices of all clients of all trips of the type are recomputed in the database by a single statement
+ * ({@link KlienciRepository#przeliczCeny(String)}), which touches only the clients whose price actually changes, and
+ * the revenue of every trip of the type is then rebuilt from its clients. Both run in one transaction, so no trip ever
+ * shows a revenue that does not match its clients. The price of a client is computed like
+ * {@link PricingEngine#quote(String, int, int)} would; a client whose price cannot be computed keeps it.
+ * </p>
+ *
+ * <p>
+ * A dry run only counts the clients whose price would change and sums the change, without writing anything.
+ * </p>
+ */
+@Service
+public class RepricingService {
+
+    private final KlienciRepository klienciRepository;
+
+    private final WycieczkiRepository wycieczkiRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The result of one repricing.
+     *
+     * @param typ         the trip type
+     * @param klienci     the number of clients whose price changes, or has changed
+     * @param roznica     the new minus the old prices of these clients, in total
+     * @param zastosowano whether the new prices were written
+     */
+    public record RepricingReport(String typ, long klienci, Money roznica, boolean zastosowano) {
+    }
+
+    /**
+     * Constructs a new {@code RepricingService} instance.
+     *
+     * @param klienciRepository   the repository of the clients
+     * @param wycieczkiRepository the repository of the trips
+     * @param eventPublisher      the publisher of the changes
+     * @param transactionManager  the transaction manager used to run every repricing in one transaction
+     */
+    @Autowired
+    public RepricingService(KlienciRepository klienciRepository, WycieczkiRepository wycieczkiRepository,
+                            ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        this.klienciRepository = klienciRepository;
+        this.wycieczkiRepository = wycieczkiRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Recomputes the prices of all clients of a trip type from its current prices.
+     *
+     * @param typ    the trip type
+     * @param dryRun whether the change should only be reported
+     * @return the report of the repricing
+     */
+    public RepricingReport reprice(String typ, boolean dryRun) {
+        return transactionTemplate.execute(status -> {
+            long klienci = klienciRepository.policzDoWyceny(typ);
+            Money roznica = Money.of(klienciRepository.roznicaWyceny(typ));
+            if (dryRun || klienci == 0) {
+                return new RepricingReport(typ, klienci, roznica, false);
+            }
+            klienciRepository.przeliczCeny(typ);
+            List<String> wycieczki = wycieczkiRepository.findKodyByTyp(typ);
+            wycieczkiRepository.przeliczLiczniki(wycieczki);
+            // published inside the transaction, so the listeners run after the commit
+            eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Klienci.class, Wycieczki.class)));
+            return new RepricingReport(typ, klienci, roznica, true);
+        });
+    }
+}
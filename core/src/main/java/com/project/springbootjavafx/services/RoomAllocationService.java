@@ -0,0 +1,243 @@
+package com.project.springbootjavafx.services;
+
+import com.project.springbootjavafx.models.Klienci;
+import com.project.springbootjavafx.models.Pokoje;
+import com.project.springbootjavafx.models.Wycieczki;
+import com.project.springbootjavafx.projections.PokojeDostepnoscRow;
+import com.project.springbootjavafx.repositories.KlienciRepository;
+import com.project.springbootjavafx.repositories.PokojeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The {@code RoomAllocationService} class places the clients of a trip in its rooms all at once.
+ *
+ * <p>
+ * The clients come in parties ({@link Grupa}): clients who asked for the same room type and should share rooms, for
+ * example a couple or a family. The rooms are filled by their number of places with a best-fit decreasing heuristic:
+ * a party larger than a room is first split into parts of the size of the room, the parts are placed largest first,
+ * and every part goes to the room of its type with the fewest free places that still takes it, the older room on a
+ * tie. When no room takes a part, a new room of the type is created. The result depends only on the rooms of the trip
+ * and on the order of the parties.
+ * </p>
+ *
+ * <p>
+ * The free places of the rooms are read with one query, and all new rooms and all clients are written in one
+ * transaction, as JDBC batches on flush. The prices of the clients are not changed.
+ * </p>
+ */
+@Service
+public class RoomAllocationService {
+
+    private final PokojeRepository pokojeRepository;
+
+    private final KlienciRepository klienciRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * A party of clients who asked for the same room type and should share rooms.
+     *
+     * @param typPokoju the requested room type
+     * @param klienci   the clients of the party, new or without a room
+     */
+    public record Grupa(String typPokoju, List<Klienci> klienci) {
+
+        /**
+         * Creates a party.
+         *
+         * @param typPokoju the requested room type
+         * @param klienci   the clients of the party
+         * @return the party
+         */
+        public static Grupa of(String typPokoju, Klienci... klienci) {
+            return new Grupa(typPokoju, List.of(klienci));
+        }
+    }
+
+    /**
+     * The result of an allocation.
+     *
+     * @param przydzieleni the number of placed clients
+     * @param nowePokoje   the rooms created for them
+     */
+    public record AllocationReport(int przydzieleni, List<Pokoje> nowePokoje) {
+    }
+
+    /**
+     * A room that receives clients during an allocation.
+     */
+    private static final class Miejsca {
+
+        private final Pokoje pokoj;
+
+        private final boolean nowy;
+
+        private int wolne;
+
+        private int przydzieleni;
+
+        private Miejsca(Pokoje pokoj, boolean nowy, int wolne) {
+            this.pokoj = pokoj;
+            this.nowy = nowy;
+            this.wolne = wolne;
+        }
+    }
+
+    /**
+     * Constructs a new {@code RoomAllocationService} instance.
+     *
+     * @param pokojeRepository  the repository of the rooms
+     * @param klienciRepository the repository of the clients
+     * @param eventPublisher    the publisher of the changes
+     */
+    @Autowired
+    public RoomAllocationService(PokojeRepository pokojeRepository, KlienciRepository klienciRepository,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.pokojeRepository = pokojeRepository;
+        this.klienciRepository = klienciRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Places the clients of a trip who have no room yet, every client with the room type it asked for.
+     *
+     * <p>
+     * No party of these clients is known, so every client is a party of its own; clients of the same room type
+     * still share rooms up to their number of places.
+     * </p>
+     *
+     * @param wycieczka the code of the trip
+     * @return the report of the allocation
+     * @throws IllegalArgumentException if a client asked for an unknown room type
+     */
+    @Transactional
+    public AllocationReport przydzielNieprzypisanych(String wycieczka) {
+        List<Grupa> grupy = new ArrayList<>();
+        for (Klienci klient : klienciRepository.findNieprzypisani(wycieczka)) {
+            grupy.add(Grupa.of(klient.getTypPokoju(), klient));
+        }
+        return przydziel(wycieczka, grupy);
+    }
+
+    /**
+     * Places parties of clients in the rooms of a trip, creating rooms where needed.
+     *
+     * <p>
+     * New clients are added to the trip; clients that are already stored must not have a room.
+     * </p>
+     *
+     * @param wycieczka the code of the trip
+     * @param grupy     the parties, in the order of their priority
+     * @return the report of the allocation
+     * @throws IllegalArgumentException if a party asked for an unknown room type or a client already has a room
+     */
+    @Transactional
+    public AllocationReport przydziel(String wycieczka, List<Grupa> grupy) {
+        Wycieczki trip = entityManager.getReference(Wycieczki.class, wycieczka);
+        Map<String, List<Miejsca>> pokojeWgTypu = new LinkedHashMap<>();
+        Map<String, Integer> pojemnosci = new HashMap<>();
+        for (PokojeDostepnoscRow row : pokojeRepository.findDostepnosc(wycieczka)) {
+            pokojeWgTypu.computeIfAbsent(row.typPokoju(), typ -> new ArrayList<>())
+                    .add(new Miejsca(entityManager.getReference(Pokoje.class, row.id()), false, row.wolneMiejsca()));
+            pojemnosci.merge(row.typPokoju(), row.ilMiejsc() == null ? 0 : row.ilMiejsc(), Math::max);
+        }
+
+        // the parties are cut into parts that fit one room, placed largest first
+        List<Grupa> czesci = new ArrayList<>();
+        for (Grupa grupa : grupy) {
+            int pojemnosc = pojemnosci.computeIfAbsent(grupa.typPokoju(), PokojeService::pojemnoscTypu);
+            if (pojemnosc <= 0) {
+                throw new IllegalArgumentException("Nieznany typ pokoju: " + grupa.typPokoju());
+            }
+            for (int od = 0; od < grupa.klienci().size(); od += pojemnosc) {
+                czesci.add(new Grupa(grupa.typPokoju(),
+                        grupa.klienci().subList(od, Math.min(od + pojemnosc, grupa.klienci().size()))));
+            }
+        }
+        czesci.sort(Comparator.comparingInt((Grupa czesc) -> czesc.klienci().size()).reversed());
+
+        List<Klienci> zapisani = klienciRepository.findAllById(czesci.stream()
+                .flatMap(czesc -> czesc.klienci().stream())
+                .map(Klienci::getId)
+                .filter(Objects::nonNull)
+                .toList());
+        Map<Integer, Klienci> zapisaniWgId = new HashMap<>();
+        for (Klienci klient : zapisani) {
+            zapisaniWgId.put(klient.getId(), klient);
+        }
+
+        List<Pokoje> nowePokoje = new ArrayList<>();
+        int przydzieleni = 0;
+        for (Grupa czesc : czesci) {
+            List<Miejsca> pokoje = pokojeWgTypu.computeIfAbsent(czesc.typPokoju(), typ -> new ArrayList<>());
+            Miejsca cel = null;
+            for (Miejsca miejsca : pokoje) {
+                if (miejsca.wolne >= czesc.klienci().size() && (cel == null || miejsca.wolne < cel.wolne)) {
+                    cel = miejsca;
+                }
+            }
+            if (cel == null) {
+                Pokoje pokoj = new Pokoje();
+                pokoj.setWycieczka(trip);
+                pokoj.setTypPokoju(czesc.typPokoju());
+                pokoj.setIlMiejsc(pojemnosci.get(czesc.typPokoju()));
+                pokoj.setIlKlientow(0);
+                pokoj.setListaHoteli(false);
+                entityManager.persist(pokoj);
+                nowePokoje.add(pokoj);
+                cel = new Miejsca(pokoj, true, pokoj.getIlMiejsc());
+                pokoje.add(cel);
+            }
+
+            for (Klienci klient : czesc.klienci()) {
+                Klienci zapisany = klient.getId() == null ? null : zapisaniWgId.get(klient.getId());
+                if (zapisany != null && zapisany.getPokoj() != null) {
+                    throw new IllegalArgumentException("Klient " + klient.getId() + " ma już przydzielony pokój");
+                }
+                klient.setWycieczka(trip);
+                klient.setTypPokoju(czesc.typPokoju());
+                klient.setPokoj(cel.pokoj);
+                if (zapisany == null) {
+                    entityManager.persist(klient);
+                } else if (zapisany != klient) {
+                    entityManager.merge(klient);
+                }
+            }
+            cel.wolne -= czesc.klienci().size();
+            cel.przydzieleni += czesc.klienci().size();
+            przydzieleni += czesc.klienci().size();
+        }
+        entityManager.flush();
+
+        Map<Integer, Integer> zajetosc = new HashMap<>();
+        for (List<Miejsca> pokoje : pokojeWgTypu.values()) {
+            for (Miejsca miejsca : pokoje) {
+                if (miejsca.przydzieleni > 0 && !miejsca.nowy) {
+                    zajetosc.put(miejsca.pokoj.getId(), miejsca.przydzieleni);
+                }
+            }
+        }
+        // published inside the transaction, so the listeners run after the commit
+        eventPublisher.publishEvent(new ZajetoscPokoiEvent(zajetosc));
+        eventPublisher.publishEvent(new EntitiesChangedEvent(nowePokoje.isEmpty()
+                ? Set.of(Klienci.class) : Set.of(Klienci.class, Pokoje.class)));
+        return new AllocationReport(przydzieleni, nowePokoje);
+    }
+}
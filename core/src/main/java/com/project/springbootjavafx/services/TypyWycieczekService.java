@@ -2,12 +2,28 @@ package com.project.springbootjavafx.services;
 
 import com.project.springbootjavafx.exceptions.DuplicatedEntityExceptionn;
 import com.project.springbootjavafx.exceptions.WrongCodeLengthException;
+import com.project.springbootjavafx.models.Ceny;
+import com.project.springbootjavafx.models.Klienci;
+import com.project.springbootjavafx.models.ListyHoteli;
 import com.project.springbootjavafx.models.MiastaWycieczek;
+import com.project.springbootjavafx.models.Pokoje;
 import com.project.springbootjavafx.models.TypyWycieczek;
+import com.project.springbootjavafx.models.Wycieczki;
+import com.project.springbootjavafx.projections.TypyWycieczekRow;
+import com.project.springbootjavafx.repositories.CenyRepository;
+import com.project.springbootjavafx.repositories.MiastaWycieczekRepository;
 import com.project.springbootjavafx.repositories.TypyWycieczekRepository;
+import com.project.springbootjavafx.repositories.WycieczkiRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import java.sql.Types;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * The {@code TypyWycieczekService} class provides service operations for managing trip types
@@ -20,6 +36,12 @@ import java.util.List;
  * the list of city assignments (represented by {@link MiastaWycieczek}) for a given trip type.
  * </p>
  *
+ * <p>
+ * Deleting a trip type removes its trips with everything they own, its nights and its price list with one bulk
+ * {@code DELETE} per table (see {@link #delete(String)}), so an old type with a season of trips is deleted with the
+ * same few statements as an unused one.
+ * </p>
+ *
  * @see TypyWycieczek
  * @see MiastaWycieczek
  * @see TypyWycieczekRepository
@@ -32,40 +54,135 @@ public class TypyWycieczekService extends AbstractServices<TypyWycieczek, String
      */
     private TypyWycieczekRepository typy_wycieczekRepository;
 
+    /**
+     * The service deleting the trips of deleted types.
+     */
+    private WycieczkiService wycieczkiService;
+
+    /**
+     * The repository used to find the trips of deleted types.
+     */
+    private WycieczkiRepository wycieczkiRepository;
+
+    /**
+     * The repository used to delete the nights of deleted types.
+     */
+    private MiastaWycieczekRepository miastaWycieczekRepository;
+
+    /**
+     * The repository used to delete the price lists of deleted types.
+     */
+    private CenyRepository cenyRepository;
+
     /**
      * Constructs a new {@code TypyWycieczekService} with the specified {@link TypyWycieczekRepository}.
      *
-     * @param typy_wycieczekRepository the repository used for CRUD operations on {@code TypyWycieczek} entities
+     * @param typy_wycieczekRepository  the repository used for CRUD operations on {@code TypyWycieczek} entities
+     * @param wycieczkiService          the service deleting the trips of deleted types
+     * @param wycieczkiRepository       the repository used to find the trips of deleted types
+     * @param miastaWycieczekRepository the repository used to delete the nights of deleted types
+     * @param cenyRepository            the repository used to delete the price lists of deleted types
      */
     @Autowired
-    public TypyWycieczekService(TypyWycieczekRepository typy_wycieczekRepository) {
+    public TypyWycieczekService(TypyWycieczekRepository typy_wycieczekRepository, WycieczkiService wycieczkiService,
+                                WycieczkiRepository wycieczkiRepository,
+                                MiastaWycieczekRepository miastaWycieczekRepository, CenyRepository cenyRepository) {
         super(typy_wycieczekRepository, TypyWycieczek.class, String.class);
         this.typy_wycieczekRepository = typy_wycieczekRepository;
+        this.wycieczkiService = wycieczkiService;
+        this.wycieczkiRepository = wycieczkiRepository;
+        this.miastaWycieczekRepository = miastaWycieczekRepository;
+        this.cenyRepository = cenyRepository;
     }
 
     /**
      * Adds a new trip type to the database after performing necessary validations.
      *
      * <p>
-     * This method checks if a trip type with the same code already exists by using
-     * {@link TypyWycieczekRepository#existsByTyp(String)}. If a duplicate is found, it throws a
-     * {@link DuplicatedEntityExceptionn}. Additionally, it validates that the trip type code, after trimming,
-     * has a length of either 2 or 3 characters; if not, a {@link WrongCodeLengthException} is thrown.
+     * This method validates that the trip type code, after trimming, has a length of either 2 or 3 characters;
+     * if not, a {@link WrongCodeLengthException} is thrown. The type is then inserted with a single statement that
+     * skips an existing code ({@link TypyWycieczekRepository#INSERT_IF_ABSENT}); if the code already exists, a
+     * {@link DuplicatedEntityExceptionn} is thrown. Only the type row is inserted: its prices and night cities are
+     * added afterwards by their own services. The returned entity is not managed.
      * </p>
      *
      * @param typy_wycieczek the {@code TypyWycieczek} entity to be added
-     * @return the saved {@code TypyWycieczek} entity
+     * @return the added {@code TypyWycieczek} entity
      * @throws DuplicatedEntityExceptionn if a trip type with the same code already exists
      * @throws WrongCodeLengthException   if the trip type code is not 2 or 3 characters long
      */
     @Override
+    @Transactional
     public TypyWycieczek add(TypyWycieczek typy_wycieczek) {
-        if (typy_wycieczekRepository.existsByTyp(typy_wycieczek.getTyp())) {
-            throw new DuplicatedEntityExceptionn("Wycieczka o typie " + typy_wycieczek.getTyp() + " już istnieje");
-        } else if (typy_wycieczek.getTyp().trim().length() != 3 && typy_wycieczek.getTyp().trim().length() != 2) {
-            throw new WrongCodeLengthException("Za krótka lub za długa nazwa typu (mają być 3 albo 2 znaki)");
+        return addAll(List.of(typy_wycieczek)).get(0);
+    }
+
+    /**
+     * Adds several trip types in one transaction after validating all of them.
+     *
+     * <p>
+     * Every type must be 2 or 3 characters long and none of the types may repeat. All types are then sent as one
+     * JDBC batch of {@link TypyWycieczekRepository#INSERT_IF_ABSENT}; if any type already exists, nothing is added.
+     * As in {@link #add(TypyWycieczek)}, only the type rows are inserted.
+     * </p>
+     *
+     * @param typy the {@code TypyWycieczek} entities to add
+     * @return the added {@code TypyWycieczek} entities
+     * @throws DuplicatedEntityExceptionn if a trip type repeats or already exists
+     * @throws WrongCodeLengthException   if a trip type is not 2 or 3 characters long
+     */
+    @Override
+    @Transactional
+    public List<TypyWycieczek> addAll(Collection<TypyWycieczek> typy) throws DuplicatedEntityExceptionn, WrongCodeLengthException {
+        for (TypyWycieczek typ : typy) {
+            if (typ.getTyp().trim().length() != 3 && typ.getTyp().trim().length() != 2) {
+                throw new WrongCodeLengthException("Za krótka lub za długa nazwa typu (mają być 3 albo 2 znaki)");
+            }
         }
-        return typy_wycieczekRepository.save(typy_wycieczek);
+        return insertNew(TypyWycieczekRepository.INSERT_IF_ABSENT, "typ", typy, (statement, typ) -> {
+            statement.setString(1, typ.getTyp());
+            statement.setObject(2, typ.getLiczba_nocy(), Types.INTEGER);
+        }, typ -> "Wycieczka o typie " + typ + " już istnieje");
+    }
+
+    /**
+     * Deletes a trip type together with its trips, their rooms, hotel lists and clients, its nights and its price
+     * list.
+     *
+     * <p>
+     * The codes of the trips are read with one query and the trips are deleted by
+     * {@link WycieczkiService#usunKaskadowo(Collection)}; the nights, the price list and the type are then deleted
+     * with one bulk {@code DELETE} each. Nothing is loaded into the persistence context, so the cost does not grow
+     * with the entity cascades of the type.
+     * </p>
+     *
+     * @param typ the trip type
+     */
+    @Override
+    @Transactional
+    public void delete(String typ) {
+        wycieczkiService.usunKaskadowo(wycieczkiRepository.findKodyByTyp(typ));
+        miastaWycieczekRepository.deleteByTyp(typ);
+        cenyRepository.deleteByTyp(typ);
+        typy_wycieczekRepository.deleteByTyp(typ);
+        evictFromCache(List.of(typ));
+        publishEvent(new EntitiesChangedEvent(Set.of(TypyWycieczek.class, Ceny.class, MiastaWycieczek.class,
+                Wycieczki.class, Pokoje.class, Klienci.class, ListyHoteli.class)));
+    }
+
+    /**
+     * Counts the records that {@link #delete(String)} removes, in the order they are deleted.
+     *
+     * @param typ the trip type
+     * @return the records that would be removed
+     */
+    @Override
+    public DeletePreview previewDelete(String typ) {
+        Map<Class<?>, Long> rekordy = wycieczkiService.policzKaskadowo(wycieczkiRepository.findKodyByTyp(typ));
+        rekordy.put(MiastaWycieczek.class, miastaWycieczekRepository.countByTyp(typ));
+        rekordy.put(Ceny.class, cenyRepository.countByTyp(typ));
+        rekordy.put(TypyWycieczek.class, existsById(typ) ? 1L : 0L);
+        return new DeletePreview(rekordy);
     }
 
     /**
@@ -82,4 +199,39 @@ public class TypyWycieczekService extends AbstractServices<TypyWycieczek, String
     public List<MiastaWycieczek> getMiastaWycieczki(TypyWycieczek typWycieczki) {
         return typy_wycieczekRepository.getMiastaWycieczki(typWycieczki.getTyp());
     }
+
+    /**
+     * Returns the cached entities belonging to a trip type: its price list and its nights.
+     *
+     * @return the {@code Ceny} and {@code MiastaWycieczek} classes
+     */
+    @Override
+    protected List<Class<?>> getCachedDependents() {
+        return List.of(Ceny.class, MiastaWycieczek.class);
+    }
+
+    /**
+     * Returns {@link TypyWycieczekRow}, the row type of the trip types grid.
+     *
+     * @return the {@code TypyWycieczekRow} class
+     */
+    @Override
+    public Class<TypyWycieczekRow> getRowClass() {
+        return TypyWycieczekRow.class;
+    }
+
+    /**
+     * Retrieves one page of the trip types grid as {@link TypyWycieczekRow} projections.
+     *
+     * @param after the key of the last row of the previous page, or {@code null} for the first page
+     * @param size  the maximum number of rows on the page
+     * @return a {@link Slice} with at most {@code size} rows
+     */
+    @Override
+    public Slice<TypyWycieczekRow> getRows(String after, int size) {
+        // separate queries, so that the next pages compare the key without a null check
+        return after == null
+                ? typy_wycieczekRepository.findFirstGridRows(PageRequest.of(0, size))
+                : typy_wycieczekRepository.findGridRowsAfter(after, PageRequest.of(0, size));
+    }
 }
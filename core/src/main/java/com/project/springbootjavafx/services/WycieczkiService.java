@@ -2,11 +2,31 @@ package com.project.springbootjavafx.services;
 
 import com.project.springbootjavafx.exceptions.DuplicatedEntityExceptionn;
 import com.project.springbootjavafx.exceptions.WrongCodeLengthException;
+import com.project.springbootjavafx.models.Klienci;
+import com.project.springbootjavafx.models.ListyHoteli;
+import com.project.springbootjavafx.models.Pokoje;
 import com.project.springbootjavafx.models.Wycieczki;
+import com.project.springbootjavafx.projections.WycieczkiRow;
+import com.project.springbootjavafx.repositories.KlienciRepository;
+import com.project.springbootjavafx.repositories.ListaNocyHoteliRepository;
+import com.project.springbootjavafx.repositories.ListyHoteliRepository;
+import com.project.springbootjavafx.repositories.PokojeRepository;
 import com.project.springbootjavafx.repositories.WycieczkiRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * The {@code WycieczkiService} class provides service methods for managing trip entities
@@ -18,17 +38,26 @@ import java.util.List;
  * </p>
  * <ul>
  *   <li>
- *     It checks if a trip with the same code already exists using the repository's
- *     {@code existsByWycieczka} method. If so, it throws a {@link DuplicatedEntityExceptionn}.
- *   </li>
- *   <li>
  *     It validates that the trip code (obtained from {@code wycieczka.getWycieczka()}) has a length of either 4 or 5 characters.
  *     If the code length is not as expected, a {@link WrongCodeLengthException} is thrown.
  *   </li>
+ *   <li>
+ *     It inserts the trip with a statement that skips an existing code. If the code already exists, it throws a
+ *     {@link DuplicatedEntityExceptionn}.
+ *   </li>
  * </ul>
  *
  * <p>
- * If all validations pass, the new {@code Wycieczki} entity is saved to the database.
+ * A trip can also be cloned, together with its rooms and optionally their hotel lists, into one new trip or a weekly
+ * series of trips ({@link #cloneTrip(String, String, LocalDate, CloneOptions)},
+ * {@link #cloneSeries(String, List, LocalDate, CloneOptions)}). The copies are made by the database with a fixed number
+ * of statements, however many trips, rooms and nights there are.
+ * </p>
+ *
+ * <p>
+ * Deleting a trip removes its hotel lists, clients and rooms with one bulk {@code DELETE} per table, in the order of
+ * the foreign keys, instead of loading the rooms and clients to remove them one by one
+ * ({@link #usunKaskadowo(Collection)}). {@link TypyWycieczekService} deletes the trips of a type the same way.
  * </p>
  *
  * @see Wycieczki
@@ -42,39 +71,332 @@ public class WycieczkiService extends AbstractServices<Wycieczki, String> {
      */
     private WycieczkiRepository repository;
 
+    /**
+     * The repository used to copy the rooms of cloned trips.
+     */
+    private PokojeRepository pokojeRepository;
+
+    /**
+     * The service copying the hotel lists of cloned trips.
+     */
+    private ListyHoteliService listyHoteliService;
+
+    /**
+     * The repository used to delete the clients of deleted trips.
+     */
+    private KlienciRepository klienciRepository;
+
+    /**
+     * The repository used to delete the hotel lists of deleted trips.
+     */
+    private ListyHoteliRepository listyHoteliRepository;
+
+    /**
+     * The repository used to delete the night lists of the rooms of deleted trips.
+     */
+    private ListaNocyHoteliRepository listaNocyHoteliRepository;
+
+    /**
+     * The service rebuilding the night lists of the rooms of trips whose dates changed.
+     */
+    private ListaNocyHoteliService listaNocyHoteliService;
+
+    /**
+     * What is copied along with the rooms when a trip is cloned.
+     *
+     * @param listyHoteli whether the hotel lists of the rooms are copied
+     */
+    public record CloneOptions(boolean listyHoteli) {
+
+        /**
+         * Copies the rooms only.
+         */
+        public static final CloneOptions POKOJE = new CloneOptions(false);
+
+        /**
+         * Copies the rooms and their hotel lists.
+         */
+        public static final CloneOptions POKOJE_I_LISTY_HOTELI = new CloneOptions(true);
+    }
+
     /**
      * Constructs a new {@code WycieczkiService} with the specified {@link WycieczkiRepository}.
      *
-     * @param repository the repository used for CRUD operations on {@code Wycieczki} entities
+     * @param repository                the repository used for CRUD operations on {@code Wycieczki} entities
+     * @param pokojeRepository          the repository used to copy the rooms of cloned trips
+     * @param listyHoteliService        the service copying the hotel lists of cloned trips
+     * @param klienciRepository         the repository used to delete the clients of deleted trips
+     * @param listyHoteliRepository     the repository used to delete the hotel lists of deleted trips
+     * @param listaNocyHoteliRepository the repository used to delete the night lists of deleted trips
+     * @param listaNocyHoteliService    the service rebuilding the night lists of trips whose dates changed
      */
     @Autowired
-    public WycieczkiService(WycieczkiRepository repository) {
+    public WycieczkiService(WycieczkiRepository repository, PokojeRepository pokojeRepository,
+                            ListyHoteliService listyHoteliService, KlienciRepository klienciRepository,
+                            ListyHoteliRepository listyHoteliRepository,
+                            ListaNocyHoteliRepository listaNocyHoteliRepository,
+                            ListaNocyHoteliService listaNocyHoteliService) {
         super(repository, Wycieczki.class, String.class);
         this.repository = repository;
+        this.pokojeRepository = pokojeRepository;
+        this.listyHoteliService = listyHoteliService;
+        this.klienciRepository = klienciRepository;
+        this.listyHoteliRepository = listyHoteliRepository;
+        this.listaNocyHoteliRepository = listaNocyHoteliRepository;
+        this.listaNocyHoteliService = listaNocyHoteliService;
     }
 
     /**
      * Adds a new trip to the database after performing validations.
      *
      * <p>
-     * This method first checks whether a trip with the same code already exists. If it does,
-     * a {@link DuplicatedEntityExceptionn} is thrown with an appropriate message.
-     * It also validates that the trip code (after trimming) is either 4 or 5 characters long.
-     * If not, a {@link WrongCodeLengthException} is thrown.
+     * This method validates that the trip code (after trimming) is either 4 or 5 characters long.
+     * If not, a {@link WrongCodeLengthException} is thrown. The trip is then inserted with a single statement that
+     * skips an existing code ({@link WycieczkiRepository#INSERT_IF_ABSENT}); if the code already exists,
+     * a {@link DuplicatedEntityExceptionn} is thrown with an appropriate message. The returned entity is not managed.
      * </p>
      *
      * @param wycieczka the {@code Wycieczki} entity to be added
-     * @return the saved {@code Wycieczki} entity
+     * @return the added {@code Wycieczki} entity
      * @throws DuplicatedEntityExceptionn if a trip with the same code already exists
      * @throws WrongCodeLengthException   if the trip code length is not 4 or 5 characters
      */
     @Override
+    @Transactional
     public Wycieczki add(Wycieczki wycieczka) {
-        if (repository.existsByWycieczka(wycieczka.getWycieczka())) {
-            throw new DuplicatedEntityExceptionn("Wycieczka o kodzie: " + wycieczka.getWycieczka() + " juz istnieje");
-        } else if (wycieczka.getWycieczka().trim().length() != 5 && wycieczka.getWycieczka().trim().length() != 4) {
-            throw new WrongCodeLengthException("Za krótka lub za długa nazwa wycieczki (mają być 5 albo 4 znaki)");
+        return addAll(List.of(wycieczka)).get(0);
+    }
+
+    /**
+     * Creates a new trip with the rooms of an existing one.
+     *
+     * <p>
+     * The new trip has the type and the length of the copied trip, starts on the given date and has no participants.
+     * Its rooms have the types and sizes of the rooms of the copied trip and no clients; with
+     * {@link CloneOptions#listyHoteli()} they also get the hotel lists of the rooms they were copied from. Everything
+     * is written in one transaction.
+     * </p>
+     *
+     * @param zrodlo   the code of the copied trip
+     * @param kod      the code of the new trip
+     * @param poczatek the first day of the new trip
+     * @param opcje    what is copied along with the rooms
+     * @return the new trip, not managed
+     * @throws IllegalArgumentException   if the copied trip does not exist or has no dates
+     * @throws DuplicatedEntityExceptionn if the new code already exists
+     * @throws WrongCodeLengthException   if the new code is not 4 or 5 characters long
+     */
+    @Transactional
+    public Wycieczki cloneTrip(String zrodlo, String kod, LocalDate poczatek, CloneOptions opcje) {
+        return cloneSeries(zrodlo, List.of(kod), poczatek, opcje).get(0);
+    }
+
+    /**
+     * Creates a weekly series of trips with the rooms of an existing one, one departure per code.
+     *
+     * <p>
+     * The n-th trip starts {@code n} weeks after the first one (counting from zero) and is otherwise made as described
+     * in {@link #cloneTrip(String, String, LocalDate, CloneOptions)}. The trips are inserted with one JDBC batch, the
+     * rooms of all of them with one {@code INSERT ... SELECT} (see {@link PokojeRepository#insertKopie}) and their
+     * hotel lists with another (see {@link ListyHoteliService#kopiujDlaWycieczek(String, Collection)}), so a season
+     * of departures takes the same few statements as a single one.
+     * </p>
+     *
+     * @param zrodlo           the code of the copied trip
+     * @param kody             the codes of the new trips, in the order of their departures
+     * @param pierwszyPoczatek the first day of the first new trip
+     * @param opcje            what is copied along with the rooms
+     * @return the new trips, not managed, in the order of the codes
+     * @throws IllegalArgumentException   if the copied trip does not exist or has no dates, or no code is given
+     * @throws DuplicatedEntityExceptionn if a new code repeats or already exists
+     * @throws WrongCodeLengthException   if a new code is not 4 or 5 characters long
+     */
+    @Transactional
+    public List<Wycieczki> cloneSeries(String zrodlo, List<String> kody, LocalDate pierwszyPoczatek,
+                                       CloneOptions opcje) {
+        if (kody.isEmpty()) {
+            throw new IllegalArgumentException("Nie podano kodów nowych wycieczek");
+        }
+        for (String kod : kody) {
+            if (kod.trim().length() != 5 && kod.trim().length() != 4) {
+                throw new WrongCodeLengthException("Za krótka lub za długa nazwa wycieczki (mają być 5 albo 4 znaki)");
+            }
+        }
+        Wycieczki wzor = repository.findById(zrodlo)
+                .orElseThrow(() -> new IllegalArgumentException("Nieznana wycieczka: " + zrodlo));
+        if (wzor.getPoczatek() == null || wzor.getKoniec() == null) {
+            throw new IllegalArgumentException("Wycieczka bez dat: " + zrodlo);
+        }
+        long dlugosc = ChronoUnit.DAYS.between(wzor.getPoczatek(), wzor.getKoniec());
+
+        List<Wycieczki> nowe = new ArrayList<>();
+        for (int i = 0; i < kody.size(); i++) {
+            Wycieczki nowa = new Wycieczki();
+            nowa.setWycieczka(kody.get(i));
+            nowa.setTypWycieczki(wzor.getTypWycieczki());
+            nowa.setPoczatek(pierwszyPoczatek.plusWeeks(i));
+            nowa.setKoniec(nowa.getPoczatek().plusDays(dlugosc));
+            nowa.setIlUczestinkow(0);
+            nowa.setWplyw(BigDecimal.ZERO);
+            nowe.add(nowa);
+        }
+        wstaw(nowe);
+
+        pokojeRepository.insertKopie(zrodlo, kody, opcje.listyHoteli());
+        if (opcje.listyHoteli()) {
+            listyHoteliService.kopiujDlaWycieczek(zrodlo, kody);
+        }
+        publishEvent(new EntitiesChangedEvent(Set.of(Pokoje.class)));
+        return nowe;
+    }
+
+    /**
+     * Deletes a trip together with its rooms, their hotel lists and its clients.
+     *
+     * @param wycieczka the code of the trip
+     */
+    @Override
+    @Transactional
+    public void delete(String wycieczka) {
+        usunKaskadowo(List.of(wycieczka));
+        evictFromCache(List.of(wycieczka));
+        publishEvent(new EntitiesChangedEvent(Set.of(Wycieczki.class, Pokoje.class, Klienci.class,
+                ListyHoteli.class)));
+    }
+
+    /**
+     * Counts the hotel lists, clients and rooms that {@link #delete(String)} removes together with the trip.
+     *
+     * @param wycieczka the code of the trip
+     * @return the records that would be removed
+     */
+    @Override
+    public DeletePreview previewDelete(String wycieczka) {
+        return new DeletePreview(policzKaskadowo(List.of(wycieczka)));
+    }
+
+    /**
+     * Counts the records owned by the specified trips, and the trips themselves, in the order
+     * {@link #usunKaskadowo(Collection)} deletes them.
+     *
+     * @param wycieczki the codes of the trips
+     * @return the number of records of every entity type, zero counts included
+     */
+    public Map<Class<?>, Long> policzKaskadowo(Collection<String> wycieczki) {
+        Map<Class<?>, Long> rekordy = new LinkedHashMap<>();
+        if (wycieczki.isEmpty()) {
+            return rekordy;
         }
-        return repository.save(wycieczka);
+        rekordy.put(ListyHoteli.class, listyHoteliRepository.countByWycieczkaIn(wycieczki));
+        rekordy.put(Klienci.class, klienciRepository.countByWycieczkaIn(wycieczki));
+        rekordy.put(Pokoje.class, pokojeRepository.countByWycieczkaIn(wycieczki));
+        rekordy.put(Wycieczki.class, repository.countByWycieczkaIn(wycieczki));
+        return rekordy;
+    }
+
+    /**
+     * Deletes the specified trips with their rooms, hotel lists and clients.
+     *
+     * <p>
+     * Every table is cleared with one bulk {@code DELETE}, children before parents: the night lists and the hotel
+     * lists of the rooms, the clients, the rooms and the trips. The rooms are selected by a subquery, so the number
+     * of statements does not depend on the number of trips or rooms. The statements bypass the persistence context;
+     * the second-level cache regions of the tables are invalidated by their query spaces. Callers announce the
+     * change.
+     * </p>
+     *
+     * @param wycieczki the codes of the trips
+     */
+    @Transactional
+    public void usunKaskadowo(Collection<String> wycieczki) {
+        if (wycieczki.isEmpty()) {
+            return;
+        }
+        listaNocyHoteliRepository.deleteByWycieczkaIn(wycieczki);
+        listyHoteliRepository.deleteByWycieczkaIn(wycieczki);
+        klienciRepository.deleteByWycieczkaIn(wycieczki);
+        pokojeRepository.deleteByWycieczkaIn(wycieczki);
+        repository.deleteByWycieczkaIn(wycieczki);
+    }
+
+    /**
+     * Inserts new trips with one JDBC batch of {@link WycieczkiRepository#INSERT_IF_ABSENT}.
+     *
+     * @param wycieczki the trips to insert
+     * @return the given trips
+     * @throws DuplicatedEntityExceptionn if a code repeats or already exists
+     */
+    private List<Wycieczki> wstaw(Collection<Wycieczki> wycieczki) {
+        return insertNew(WycieczkiRepository.INSERT_IF_ABSENT, "wycieczka", wycieczki, (statement, nowa) -> {
+            statement.setString(1, nowa.getWycieczka());
+            statement.setString(2, nowa.getTypWycieczki() == null ? null : nowa.getTypWycieczki().getTyp());
+            statement.setObject(3, nowa.getPoczatek(), Types.DATE);
+            statement.setObject(4, nowa.getKoniec(), Types.DATE);
+            statement.setObject(5, nowa.getIlUczestinkow(), Types.INTEGER);
+            statement.setBigDecimal(6, nowa.getWplyw());
+        }, kod -> "Wycieczka o kodzie: " + kod + " juz istnieje");
+    }
+
+    /**
+     * Adds several trips in one transaction after validating all of them.
+     *
+     * <p>
+     * Every trip code must be 4 or 5 characters long and none of the codes may repeat. All trips are then sent as
+     * one JDBC batch of {@link WycieczkiRepository#INSERT_IF_ABSENT}; if any code already exists, nothing is added.
+     * </p>
+     *
+     * @param wycieczki the {@code Wycieczki} entities to add
+     * @return the added {@code Wycieczki} entities, not managed
+     * @throws DuplicatedEntityExceptionn if a trip code repeats or already exists
+     * @throws WrongCodeLengthException   if a trip code is not 4 or 5 characters long
+     */
+    @Override
+    @Transactional
+    public List<Wycieczki> addAll(Collection<Wycieczki> wycieczki) throws DuplicatedEntityExceptionn, WrongCodeLengthException {
+        for (Wycieczki wycieczka : wycieczki) {
+            if (wycieczka.getWycieczka().trim().length() != 5 && wycieczka.getWycieczka().trim().length() != 4) {
+                throw new WrongCodeLengthException("Za krótka lub za długa nazwa wycieczki (mają być 5 albo 4 znaki)");
+            }
+        }
+        return wstaw(wycieczki);
+    }
+
+    /**
+     * Updates the given trips and rebuilds the night lists of their rooms, whose dates follow the start of the trip.
+     *
+     * @param wycieczki the detached trips carrying the new state
+     * @return the managed, updated trips
+     */
+    @Override
+    @Transactional
+    public List<Wycieczki> updateAll(Collection<Wycieczki> wycieczki) {
+        List<Wycieczki> updated = super.updateAll(wycieczki);
+        listaNocyHoteliService.odswiezDlaWycieczek(updated.stream().map(Wycieczki::getWycieczka).toList());
+        return updated;
+    }
+
+    /**
+     * Returns {@link WycieczkiRow}, the row type of the trips grid.
+     *
+     * @return the {@code WycieczkiRow} class
+     */
+    @Override
+    public Class<WycieczkiRow> getRowClass() {
+        return WycieczkiRow.class;
+    }
+
+    /**
+     * Retrieves one page of the trips grid as {@link WycieczkiRow} projections.
+     *
+     * @param after the key of the last row of the previous page, or {@code null} for the first page
+     * @param size  the maximum number of rows on the page
+     * @return a {@link Slice} with at most {@code size} rows
+     */
+    @Override
+    public Slice<WycieczkiRow> getRows(String after, int size) {
+        // separate queries, so that the next pages compare the key without a null check
+        return after == null
+                ? repository.findFirstGridRows(PageRequest.of(0, size))
+                : repository.findGridRowsAfter(after, PageRequest.of(0, size));
     }
 }
@@ -0,0 +1,28 @@
+package com.project.springbootjavafx.services;
+
+import java.util.Map;
+
+/**
+ * The {@code ZajetoscPokoiEvent} record is published by {@link KlienciService} whenever clients join or leave rooms.
+ *
+ * <p>
+ * It is published inside the transaction of the write, and {@link PokojeService} applies it to its room
+ * availability index, and {@link HotelOccupancyCalendar} to its guest counters, once the transaction is committed,
+ * so both are updated in place instead of being loaded again.
+ * </p>
+ *
+ * @param zmiany the change of the number of clients by room identifier, negative when clients left
+ */
+public record ZajetoscPokoiEvent(Map<Integer, Integer> zmiany) {
+
+    /**
+     * Creates the event of a change of one room.
+     *
+     * @param pokoj  the identifier of the room
+     * @param zmiana the change of the number of clients
+     * @return the event
+     */
+    public static ZajetoscPokoiEvent of(Integer pokoj, int zmiana) {
+        return new ZajetoscPokoiEvent(Map.of(pokoj, zmiana));
+    }
+}
@@ -0,0 +1,14 @@
+-- Indeksy kluczy obcych dla usuwania typow wycieczek, wycieczek i miast zbiorczymi DELETE-ami.
+--
+-- Przy usuwaniu wiersza PostgreSQL sprawdza, czy nie odwoluja sie do niego wiersze innych tabel.
+-- Bez indeksu na kolumnie odwolujacej sie kazdy usuniety nocleg typu wycieczki albo hotel
+-- przegladal cale listy_hoteli, a kazde usuniete miasto cale miasta_wycieczek.
+
+-- Usuwanie noclegow typu wycieczki (MiastaWycieczekRepository.deleteByTyp)
+CREATE INDEX IF NOT EXISTS ix_listy_hoteli_miasto_wycieczki ON listy_hoteli (miasto_wycieczki);
+
+-- Usuwanie hoteli miasta i ich list hoteli (ListyHoteliRepository.deleteByMiastoHotelu)
+CREATE INDEX IF NOT EXISTS ix_listy_hoteli_hotel ON listy_hoteli (hotel);
+
+-- Usuwanie miasta i sprawdzanie, czy nocuja w nim typy wycieczek (MiastaWycieczekRepository.findTypyByMiasto)
+CREATE INDEX IF NOT EXISTS ix_miasta_wycieczek_miasto ON miasta_wycieczek (miasto);
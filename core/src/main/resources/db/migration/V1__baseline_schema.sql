@@ -0,0 +1,218 @@
+-- Schemat bazy bird w postaci, w jakiej dzialal przed migracjami (tabele z Dokumentacja.md,
+-- wyzwalacze wierszowe i widok v_lista_nocy_hoteli).
+--
+-- Na istniejacej bazie ta wersja nie jest wykonywana: spring.flyway.baseline-on-migrate
+-- oznacza ja jako baseline i uruchamiane sa tylko kolejne migracje.
+
+CREATE TABLE typy_wycieczek (
+    typ         VARCHAR(3) PRIMARY KEY,
+    liczba_nocy INTEGER    NOT NULL
+);
+
+CREATE TABLE ceny (
+    id            SERIAL PRIMARY KEY,
+    typ_wycieczki VARCHAR(3) UNIQUE REFERENCES typy_wycieczek (typ),
+    pok_1         NUMERIC(10, 2),
+    pok_2         NUMERIC(10, 2),
+    pok_3         NUMERIC(10, 2),
+    pok_4         NUMERIC(10, 2),
+    ulga_dziecko  INTEGER,
+    rower         NUMERIC(10, 2),
+    e_bike        NUMERIC(10, 2),
+    dodatkowa_noc NUMERIC(10, 2),
+    hb            NUMERIC(10, 2)
+);
+
+CREATE TABLE miasta (
+    miasto VARCHAR(100) PRIMARY KEY
+);
+
+CREATE TABLE miasta_wycieczek (
+    id            SERIAL PRIMARY KEY,
+    typ_wycieczki VARCHAR(3) REFERENCES typy_wycieczek (typ),
+    miasto        VARCHAR(100) REFERENCES miasta (miasto),
+    nr_nocy       INTEGER
+);
+
+CREATE TABLE wycieczki (
+    wycieczka      VARCHAR(5) PRIMARY KEY,
+    typ_wycieczki  VARCHAR(3) REFERENCES typy_wycieczek (typ),
+    poczatek       DATE NOT NULL,
+    koniec         DATE NOT NULL,
+    il_uczestnikow INTEGER        DEFAULT 0,
+    wplyw          NUMERIC(12, 2) DEFAULT 0
+);
+
+CREATE TABLE hotele (
+    kod    VARCHAR(6) PRIMARY KEY,
+    nazwa  VARCHAR(100) NOT NULL,
+    miasto VARCHAR(100) REFERENCES miasta (miasto),
+    adres  VARCHAR(100),
+    mail   VARCHAR(100),
+    nr_tel VARCHAR(13)
+);
+
+CREATE TABLE pokoje (
+    id               SERIAL PRIMARY KEY,
+    wycieczka        VARCHAR(5) REFERENCES wycieczki (wycieczka),
+    typ_pokoju       VARCHAR(3) NOT NULL,
+    il_klientow      INTEGER DEFAULT 0,
+    il_miejsc        INTEGER,
+    czy_lista_hoteli BOOLEAN DEFAULT FALSE
+);
+
+CREATE TABLE listy_hoteli (
+    pokoj            INTEGER REFERENCES pokoje (id),
+    miasto_wycieczki INTEGER REFERENCES miasta_wycieczek (id),
+    hotel            VARCHAR(6) REFERENCES hotele (kod),
+    PRIMARY KEY (pokoj, miasto_wycieczki, hotel)
+);
+
+CREATE TABLE klienci (
+    id           SERIAL PRIMARY KEY,
+    imie         VARCHAR(100) NOT NULL,
+    nazwisko     VARCHAR(100) NOT NULL,
+    wycieczka    VARCHAR(5) REFERENCES wycieczki (wycieczka),
+    typ_pokoju   VARCHAR(3) NOT NULL,
+    pokoj        INTEGER REFERENCES pokoje (id),
+    ulga         BOOLEAN,
+    rower        BOOLEAN,
+    e_bike       BOOLEAN,
+    nocleg_przed BOOLEAN,
+    nocleg_po    BOOLEAN,
+    hb           BOOLEAN,
+    do_zaplaty   NUMERIC(10, 2)
+);
+
+-- Wyzwalacze wierszowe licznikow (zastapione w V4).
+
+CREATE OR REPLACE FUNCTION update_pokoje_on_add()
+    RETURNS TRIGGER AS $$
+        BEGIN
+            UPDATE pokoje
+            SET il_klientow = il_klientow + 1
+            WHERE id = NEW.pokoj;
+
+            RETURN NEW;
+        END;
+    $$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION update_wycieczki_on_add()
+    RETURNS TRIGGER AS $$
+        BEGIN
+            UPDATE wycieczki
+            SET il_uczestnikow = il_uczestnikow + 1
+            WHERE wycieczka = NEW.wycieczka;
+
+            RETURN NEW;
+        end;
+    $$ LANGUAGE plpgsql;
+
+
+CREATE OR REPLACE FUNCTION update_pokoje_on_delete()
+    RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE pokoje
+    SET il_klientow = il_klientow - 1
+    WHERE id = OLD.pokoj;
+
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+
+CREATE OR REPLACE FUNCTION update_wycieczki_on_delete()
+    RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE wycieczki
+    SET il_uczestnikow = il_uczestnikow - 1
+    WHERE wycieczka = OLD.wycieczka;
+
+    RETURN OLD;
+end;
+$$ LANGUAGE plpgsql;
+
+
+CREATE TRIGGER trigger_on_add_klinet_pokoje
+    AFTER INSERT
+    ON klienci
+    FOR EACH ROW
+EXECUTE FUNCTION update_pokoje_on_add();
+
+
+CREATE TRIGGER trigger_on_add_klinet_wycieczki
+    AFTER INSERT
+    ON klienci
+    FOR EACH ROW
+EXECUTE FUNCTION update_wycieczki_on_add();
+
+
+CREATE TRIGGER trigger_on_delete_klinet_pokoje
+    AFTER DELETE
+    ON klienci
+    FOR EACH ROW
+EXECUTE FUNCTION update_pokoje_on_delete();
+
+
+CREATE TRIGGER trigger_on_delete_klinet_wycieczki
+    AFTER DELETE
+    ON klienci
+    FOR EACH ROW
+EXECUTE FUNCTION update_wycieczki_on_delete();
+
+
+CREATE OR REPLACE FUNCTION update_ceny_on_add()
+RETURNS TRIGGER AS $$
+    BEGIN
+        UPDATE wycieczki
+        SET wplyw = wplyw + NEW.do_zaplaty
+        WHERE wycieczka = NEW.wycieczka;
+
+        RETURN NEW;
+    end;
+    $$ LANGUAGE plpgsql;
+
+
+CREATE OR REPLACE FUNCTION update_ceny_on_delete()
+    RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE wycieczki
+    SET wplyw = wplyw - OLD.do_zaplaty
+    WHERE wycieczka = OLD.wycieczka;
+
+    RETURN OLD;
+end;
+$$ LANGUAGE plpgsql;
+
+
+CREATE TRIGGER on_add_klient_ceny AFTER INSERT
+    ON klienci FOR EACH ROW
+    EXECUTE FUNCTION update_ceny_on_add();
+
+
+CREATE TRIGGER on_delete_klient_ceny AFTER DELETE
+    ON klienci FOR EACH ROW
+EXECUTE FUNCTION update_ceny_on_delete();
+
+
+-- Widok listy hoteli (zastapiony tabela lista_nocy_hoteli w V3).
+
+CREATE OR REPLACE VIEW v_lista_nocy_hoteli AS
+SELECT
+    row_number() OVER () AS id,
+    lh.pokoj AS pokoj_id,
+    mw.nr_nocy AS noc,
+    ( wy.poczatek + (mw.nr_nocy - 1) * INTERVAL '1 day' ) AS data,
+    m.miasto AS miasto,
+    h.nazwa AS hotel
+FROM listy_hoteli lh
+         JOIN pokoje p
+              ON lh.pokoj = p.id
+         JOIN wycieczki wy
+              ON p.wycieczka = wy.wycieczka
+         JOIN miasta_wycieczek mw
+              ON lh.miasto_wycieczki = mw.id
+         JOIN miasta m
+              ON mw.miasto = m.miasto
+         JOIN hotele h
+              ON lh.hotel = h.kod;
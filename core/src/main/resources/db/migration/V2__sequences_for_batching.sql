@@ -0,0 +1,45 @@
+-- Sekwencje dla kluczy generowanych w klienci, pokoje, miasta_wycieczek i ceny.
+--
+-- Encje uzywaja GenerationType.SEQUENCE z allocationSize = 50 (optymalizator pooled),
+-- dzieki czemu Hibernate moze grupowac INSERT-y w batche JDBC. Krok sekwencji w bazie
+-- musi byc rowny allocationSize, inaczej identyfikatory beda sie powtarzac.
+--
+-- Skrypt obsluguje zarowno kolumny SERIAL, jak i GENERATED ... AS IDENTITY,
+-- a sekwencje nazywa zgodnie z encjami (<tabela>_id_seq).
+
+DO $$
+DECLARE
+    tabela   TEXT;
+    sekwencja TEXT;
+    tozsamosc "char";
+BEGIN
+    FOREACH tabela IN ARRAY ARRAY['klienci', 'pokoje', 'miasta_wycieczek', 'ceny']
+    LOOP
+        sekwencja := pg_get_serial_sequence(tabela, 'id');
+
+        SELECT a.attidentity
+        INTO tozsamosc
+        FROM pg_attribute a
+        WHERE a.attrelid = tabela::regclass
+          AND a.attname = 'id';
+
+        IF sekwencja IS NULL THEN
+            EXECUTE format('CREATE SEQUENCE %I INCREMENT BY 50 OWNED BY %I.id', tabela || '_id_seq', tabela);
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', tabela, tabela || '_id_seq');
+            sekwencja := tabela || '_id_seq';
+        ELSIF tozsamosc <> '' THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET INCREMENT BY 50', tabela);
+        ELSE
+            EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50', sekwencja);
+        END IF;
+
+        IF (SELECT c.relname FROM pg_class c WHERE c.oid = sekwencja::regclass) <> tabela || '_id_seq' THEN
+            EXECUTE format('ALTER SEQUENCE %s RENAME TO %I', sekwencja, tabela || '_id_seq');
+        END IF;
+
+        -- Kolejna wartosc sekwencji musi byc wieksza od najwiekszego istniejacego id.
+        EXECUTE format('SELECT setval(%L, GREATEST((SELECT COALESCE(MAX(id), 0) FROM %I), 1))',
+                       tabela || '_id_seq', tabela);
+    END LOOP;
+END;
+$$;
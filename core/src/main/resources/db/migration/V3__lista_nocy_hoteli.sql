@@ -0,0 +1,36 @@
+-- Tabela lista_nocy_hoteli zastepuje widok v_lista_nocy_hoteli.
+--
+-- Widok przy kazdym odczycie laczyl listy_hoteli z pokojami, wycieczkami, miastami wycieczek
+-- i hotelami oraz liczyl date kazdej nocy. Tabela przechowuje gotowy wynik; aplikacja
+-- (ListaNocyHoteliService.odswiezDlaPokoi) przebudowuje wiersze tylko tych pokoi, ktorych
+-- listy hoteli zostaly dodane lub usuniete przez ListyHoteliService, oraz tych, ktore pokazuja
+-- zmieniony poczatek wycieczki (WycieczkiService), nazwe hotelu (HoteleService) albo noc planu
+-- wycieczki (MiastaWycieczekService).
+--
+-- Indeksy: (pokoj_id, noc) dla ekranu "Pokaz liste hoteli", (data) dla zestawien po datach.
+
+CREATE TABLE IF NOT EXISTS lista_nocy_hoteli (
+    id       INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    pokoj_id INTEGER NOT NULL REFERENCES pokoje (id) ON DELETE CASCADE,
+    noc      INTEGER NOT NULL,
+    data     DATE    NOT NULL,
+    miasto   VARCHAR NOT NULL,
+    hotel    VARCHAR NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_lista_nocy_hoteli_pokoj_noc ON lista_nocy_hoteli (pokoj_id, noc);
+CREATE INDEX IF NOT EXISTS ix_lista_nocy_hoteli_data ON lista_nocy_hoteli (data);
+
+-- Jednorazowe wypelnienie tabeli istniejacymi listami hoteli.
+TRUNCATE lista_nocy_hoteli;
+
+INSERT INTO lista_nocy_hoteli (pokoj_id, noc, data, miasto, hotel)
+SELECT lh.pokoj, mw.nr_nocy, wy.poczatek + (mw.nr_nocy - 1), mw.miasto, h.nazwa
+FROM listy_hoteli lh
+         JOIN pokoje p ON lh.pokoj = p.id
+         JOIN wycieczki wy ON p.wycieczka = wy.wycieczka
+         JOIN miasta_wycieczek mw ON lh.miasto_wycieczki = mw.id
+         JOIN hotele h ON lh.hotel = h.kod;
+
+-- Widok nie jest juz uzywany przez aplikacje.
+DROP VIEW IF EXISTS v_lista_nocy_hoteli;
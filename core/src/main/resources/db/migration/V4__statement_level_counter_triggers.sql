@@ -0,0 +1,128 @@
+-- Liczniki pokoje.il_klientow, wycieczki.il_uczestnikow i wycieczki.wplyw.
+--
+-- Wyzwalacze dzialaja raz na instrukcje (FOR EACH STATEMENT) i korzystaja z tabel przejsciowych
+-- (REFERENCING NEW/OLD TABLE). Dodanie wielu klientow jednym INSERT-em (batch JDBC z
+-- reWriteBatchedInserts) aktualizuje kazdy pokoj i kazda wycieczke jednym UPDATE-em z sumaryczna
+-- zmiana, zamiast trzech UPDATE-ow na klienta blokujacych ten sam wiersz wycieczki.
+--
+-- Rozbieznosci licznikow wykrywa i naprawia CounterReconciliationService.
+
+DROP TRIGGER IF EXISTS trigger_on_add_klinet_pokoje ON klienci;
+DROP TRIGGER IF EXISTS trigger_on_add_klinet_wycieczki ON klienci;
+DROP TRIGGER IF EXISTS trigger_on_delete_klinet_pokoje ON klienci;
+DROP TRIGGER IF EXISTS trigger_on_delete_klinet_wycieczki ON klienci;
+DROP TRIGGER IF EXISTS on_add_klient_ceny ON klienci;
+DROP TRIGGER IF EXISTS on_delete_klient_ceny ON klienci;
+DROP TRIGGER IF EXISTS trigger_liczniki_on_add ON klienci;
+DROP TRIGGER IF EXISTS trigger_liczniki_on_delete ON klienci;
+DROP TRIGGER IF EXISTS trigger_liczniki_on_update ON klienci;
+
+DROP FUNCTION IF EXISTS update_pokoje_on_add();
+DROP FUNCTION IF EXISTS update_wycieczki_on_add();
+DROP FUNCTION IF EXISTS update_pokoje_on_delete();
+DROP FUNCTION IF EXISTS update_wycieczki_on_delete();
+DROP FUNCTION IF EXISTS update_ceny_on_add();
+DROP FUNCTION IF EXISTS update_ceny_on_delete();
+
+
+CREATE OR REPLACE FUNCTION update_liczniki_on_add()
+    RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE pokoje p
+    SET il_klientow = p.il_klientow + n.ile
+    FROM (SELECT pokoj, COUNT(*) AS ile
+          FROM nowi_klienci
+          WHERE pokoj IS NOT NULL
+          GROUP BY pokoj) n
+    WHERE p.id = n.pokoj;
+
+    UPDATE wycieczki w
+    SET il_uczestnikow = w.il_uczestnikow + n.ile,
+        wplyw = w.wplyw + n.suma
+    FROM (SELECT wycieczka, COUNT(*) AS ile, COALESCE(SUM(do_zaplaty), 0) AS suma
+          FROM nowi_klienci
+          GROUP BY wycieczka) n
+    WHERE w.wycieczka = n.wycieczka;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+
+CREATE OR REPLACE FUNCTION update_liczniki_on_delete()
+    RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE pokoje p
+    SET il_klientow = p.il_klientow - s.ile
+    FROM (SELECT pokoj, COUNT(*) AS ile
+          FROM usunieci_klienci
+          WHERE pokoj IS NOT NULL
+          GROUP BY pokoj) s
+    WHERE p.id = s.pokoj;
+
+    UPDATE wycieczki w
+    SET il_uczestnikow = w.il_uczestnikow - s.ile,
+        wplyw = w.wplyw - s.suma
+    FROM (SELECT wycieczka, COUNT(*) AS ile, COALESCE(SUM(do_zaplaty), 0) AS suma
+          FROM usunieci_klienci
+          GROUP BY wycieczka) s
+    WHERE w.wycieczka = s.wycieczka;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+
+-- Zmiana pokoju, wycieczki lub kwoty klienta przenosi jego udzial w licznikach.
+CREATE OR REPLACE FUNCTION update_liczniki_on_update()
+    RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE pokoje p
+    SET il_klientow = p.il_klientow + z.ile
+    FROM (SELECT pokoj, SUM(ile) AS ile
+          FROM (SELECT pokoj, 1 AS ile FROM nowi_klienci
+                UNION ALL
+                SELECT pokoj, -1 AS ile FROM stare_klienci) r
+          WHERE pokoj IS NOT NULL
+          GROUP BY pokoj
+          HAVING SUM(ile) <> 0) z
+    WHERE p.id = z.pokoj;
+
+    UPDATE wycieczki w
+    SET il_uczestnikow = w.il_uczestnikow + z.ile,
+        wplyw = w.wplyw + z.suma
+    FROM (SELECT wycieczka, SUM(ile) AS ile, SUM(kwota) AS suma
+          FROM (SELECT wycieczka, 1 AS ile, COALESCE(do_zaplaty, 0) AS kwota FROM nowi_klienci
+                UNION ALL
+                SELECT wycieczka, -1 AS ile, -COALESCE(do_zaplaty, 0) AS kwota FROM stare_klienci) r
+          GROUP BY wycieczka
+          HAVING SUM(ile) <> 0 OR SUM(kwota) <> 0) z
+    WHERE w.wycieczka = z.wycieczka;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+
+CREATE TRIGGER trigger_liczniki_on_add
+    AFTER INSERT
+    ON klienci
+    REFERENCING NEW TABLE AS nowi_klienci
+    FOR EACH STATEMENT
+EXECUTE FUNCTION update_liczniki_on_add();
+
+
+CREATE TRIGGER trigger_liczniki_on_delete
+    AFTER DELETE
+    ON klienci
+    REFERENCING OLD TABLE AS usunieci_klienci
+    FOR EACH STATEMENT
+EXECUTE FUNCTION update_liczniki_on_delete();
+
+
+CREATE TRIGGER trigger_liczniki_on_update
+    AFTER UPDATE
+    ON klienci
+    REFERENCING OLD TABLE AS stare_klienci NEW TABLE AS nowi_klienci
+    FOR EACH STATEMENT
+EXECUTE FUNCTION update_liczniki_on_update();
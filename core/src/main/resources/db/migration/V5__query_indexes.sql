@@ -0,0 +1,27 @@
+-- Indeksy na kolumnach, po ktorych filtruja zapytania repozytoriow.
+--
+-- PostgreSQL nie tworzy indeksow na kluczach obcych, wiec bez nich kazde wyszukanie pokoi wycieczki,
+-- klientow pokoju czy hoteli miasta przegladalo cala tabele. Plany zapytan sprawdza QueryPlanTest.
+
+-- PokojeRepository.getByWycieczka, getByWycieczkaAndListaHoteli, findLiczniki
+CREATE INDEX IF NOT EXISTS ix_pokoje_wycieczka_lista_hoteli ON pokoje (wycieczka, czy_lista_hoteli);
+
+-- KlienciRepository.getKlienciByPokoj, PokojeRepository.getKlienciPokoju i przeliczanie il_klientow
+CREATE INDEX IF NOT EXISTS ix_klienci_pokoj ON klienci (pokoj);
+
+-- Przeliczanie il_uczestnikow i wplyw (WycieczkiRepository.findLiczniki, przeliczLiczniki)
+CREATE INDEX IF NOT EXISTS ix_klienci_wycieczka ON klienci (wycieczka);
+
+-- HoteleRepository.getHoteleByMiasto
+CREATE INDEX IF NOT EXISTS ix_hotele_miasto ON hotele (miasto);
+
+-- TypyWycieczekRepository.getMiastaWycieczki (z sortowaniem po nocy), MiastaWycieczekRepository.findByTypWycieczki
+CREATE INDEX IF NOT EXISTS ix_miasta_wycieczek_typ_nr_nocy ON miasta_wycieczek (typ_wycieczki, nr_nocy);
+
+-- ListyHoteliRepository.deleteByPokoj, deleteByPokojIn, PokojeRepository.getListeHoteli.
+-- Klucz glowny zaczyna sie od pokoj tylko w bazach utworzonych przez V1; na starszych bazach
+-- kolejnosc kolumn klucza moze byc inna, dlatego indeks jest tworzony jawnie.
+CREATE INDEX IF NOT EXISTS ix_listy_hoteli_pokoj ON listy_hoteli (pokoj);
+
+-- CenyRepository.findByTypWycieczki
+CREATE INDEX IF NOT EXISTS ix_ceny_typ_wycieczki ON ceny (typ_wycieczki);
@@ -0,0 +1,3 @@
+-- Odczyty strumieniowe calego sezonu (KlienciRepository.streamBySezon, ListyHoteliRepository.streamBySezon)
+-- wybieraja wycieczki po dacie rozpoczecia.
+CREATE INDEX IF NOT EXISTS ix_wycieczki_poczatek ON wycieczki (poczatek);
@@ -0,0 +1,245 @@
+-- Powiadomienia o zmianach dla innych instancji aplikacji.
+--
+-- Kazda instrukcja zmieniajaca tabele wysyla na kanale bird_changes jeden NOTIFY z nazwa tabeli,
+-- tablica kluczy zmienionych wierszy i nazwa aplikacji polaczenia, ktore je zmienilo (application_name,
+-- unikalna dla instancji):
+--
+--   {"table": "klienci", "ids": ["1", "2"], "app": "bird-..."}
+--
+-- Powyzej 200 kluczy, albo gdy tablica nie zmiesci sie w powiadomieniu (8000 bajtow), zamiast kluczy
+-- wysylany jest znacznik calej tabeli:
+--
+--   {"table": "klienci", "all": true, "app": "bird-..."}
+--
+-- Wyzwalacze dzialaja raz na instrukcje (FOR EACH STATEMENT), tak jak liczniki z V4, i czytaja klucze
+-- z tabel przejsciowych (REFERENCING NEW/OLD TABLE), wiec zbiorczy INSERT, UPDATE albo DELETE na
+-- tysiacach wierszy nie wstawia do kolejki tysiecy powiadomien. Tabele przejsciowe moga miec tylko
+-- wyzwalacze jednego zdarzenia, dlatego kazda tabela ma trzy wyzwalacze korzystajace z tej samej funkcji.
+--
+-- Powiadomienia sa dostarczane dopiero po zatwierdzeniu transakcji, a transakcja wycofana nie wysyla
+-- zadnego. ChangeNotificationListener nasluchuje na kanale, pomija wlasne zmiany i uniewaznia cache.
+
+CREATE OR REPLACE FUNCTION notify_change()
+    RETURNS TRIGGER AS $$
+DECLARE
+    -- najwieksza liczba kluczy wysylana w jednym powiadomieniu
+    limit_kluczy CONSTANT INTEGER := 200;
+    klucze JSONB;
+    ile INTEGER;
+    payload TEXT;
+BEGIN
+    -- klucze zmienionych wierszy, najwyzej o jeden wiecej niz limit
+    IF TG_OP = 'INSERT' THEN
+        SELECT COUNT(*), jsonb_agg(k.klucz)
+        INTO ile, klucze
+        FROM (SELECT DISTINCT to_jsonb(n) ->> TG_ARGV[0] AS klucz
+              FROM nowe_wiersze n
+              LIMIT limit_kluczy + 1) k;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT COUNT(*), jsonb_agg(k.klucz)
+        INTO ile, klucze
+        FROM (SELECT DISTINCT to_jsonb(s) ->> TG_ARGV[0] AS klucz
+              FROM stare_wiersze s
+              LIMIT limit_kluczy + 1) k;
+    ELSE
+        -- zmiana klucza uniewaznia stary i nowy klucz
+        SELECT COUNT(*), jsonb_agg(k.klucz)
+        INTO ile, klucze
+        FROM (SELECT DISTINCT r.klucz
+              FROM (SELECT to_jsonb(n) ->> TG_ARGV[0] AS klucz FROM nowe_wiersze n
+                    UNION ALL
+                    SELECT to_jsonb(s) ->> TG_ARGV[0] AS klucz FROM stare_wiersze s) r
+              LIMIT limit_kluczy + 1) k;
+    END IF;
+
+    IF ile = 0 THEN
+        RETURN NULL;
+    END IF;
+
+    IF ile <= limit_kluczy THEN
+        payload := json_build_object(
+                'table', TG_TABLE_NAME,
+                'ids', klucze,
+                'app', current_setting('application_name'))::text;
+    END IF;
+    IF payload IS NULL OR octet_length(payload) >= 8000 THEN
+        payload := json_build_object(
+                'table', TG_TABLE_NAME,
+                'all', TRUE,
+                'app', current_setting('application_name'))::text;
+    END IF;
+    PERFORM pg_notify('bird_changes', payload);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+
+-- miasta
+DROP TRIGGER IF EXISTS trigger_notify_change_insert ON miasta;
+DROP TRIGGER IF EXISTS trigger_notify_change_update ON miasta;
+DROP TRIGGER IF EXISTS trigger_notify_change_delete ON miasta;
+CREATE TRIGGER trigger_notify_change_insert
+    AFTER INSERT ON miasta
+    REFERENCING NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('miasto');
+CREATE TRIGGER trigger_notify_change_update
+    AFTER UPDATE ON miasta
+    REFERENCING OLD TABLE AS stare_wiersze NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('miasto');
+CREATE TRIGGER trigger_notify_change_delete
+    AFTER DELETE ON miasta
+    REFERENCING OLD TABLE AS stare_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('miasto');
+
+-- hotele
+DROP TRIGGER IF EXISTS trigger_notify_change_insert ON hotele;
+DROP TRIGGER IF EXISTS trigger_notify_change_update ON hotele;
+DROP TRIGGER IF EXISTS trigger_notify_change_delete ON hotele;
+CREATE TRIGGER trigger_notify_change_insert
+    AFTER INSERT ON hotele
+    REFERENCING NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('kod');
+CREATE TRIGGER trigger_notify_change_update
+    AFTER UPDATE ON hotele
+    REFERENCING OLD TABLE AS stare_wiersze NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('kod');
+CREATE TRIGGER trigger_notify_change_delete
+    AFTER DELETE ON hotele
+    REFERENCING OLD TABLE AS stare_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('kod');
+
+-- typy_wycieczek
+DROP TRIGGER IF EXISTS trigger_notify_change_insert ON typy_wycieczek;
+DROP TRIGGER IF EXISTS trigger_notify_change_update ON typy_wycieczek;
+DROP TRIGGER IF EXISTS trigger_notify_change_delete ON typy_wycieczek;
+CREATE TRIGGER trigger_notify_change_insert
+    AFTER INSERT ON typy_wycieczek
+    REFERENCING NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('typ');
+CREATE TRIGGER trigger_notify_change_update
+    AFTER UPDATE ON typy_wycieczek
+    REFERENCING OLD TABLE AS stare_wiersze NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('typ');
+CREATE TRIGGER trigger_notify_change_delete
+    AFTER DELETE ON typy_wycieczek
+    REFERENCING OLD TABLE AS stare_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('typ');
+
+-- ceny
+DROP TRIGGER IF EXISTS trigger_notify_change_insert ON ceny;
+DROP TRIGGER IF EXISTS trigger_notify_change_update ON ceny;
+DROP TRIGGER IF EXISTS trigger_notify_change_delete ON ceny;
+CREATE TRIGGER trigger_notify_change_insert
+    AFTER INSERT ON ceny
+    REFERENCING NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('id');
+CREATE TRIGGER trigger_notify_change_update
+    AFTER UPDATE ON ceny
+    REFERENCING OLD TABLE AS stare_wiersze NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('id');
+CREATE TRIGGER trigger_notify_change_delete
+    AFTER DELETE ON ceny
+    REFERENCING OLD TABLE AS stare_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('id');
+
+-- miasta_wycieczek
+DROP TRIGGER IF EXISTS trigger_notify_change_insert ON miasta_wycieczek;
+DROP TRIGGER IF EXISTS trigger_notify_change_update ON miasta_wycieczek;
+DROP TRIGGER IF EXISTS trigger_notify_change_delete ON miasta_wycieczek;
+CREATE TRIGGER trigger_notify_change_insert
+    AFTER INSERT ON miasta_wycieczek
+    REFERENCING NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('id');
+CREATE TRIGGER trigger_notify_change_update
+    AFTER UPDATE ON miasta_wycieczek
+    REFERENCING OLD TABLE AS stare_wiersze NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('id');
+CREATE TRIGGER trigger_notify_change_delete
+    AFTER DELETE ON miasta_wycieczek
+    REFERENCING OLD TABLE AS stare_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('id');
+
+-- wycieczki
+DROP TRIGGER IF EXISTS trigger_notify_change_insert ON wycieczki;
+DROP TRIGGER IF EXISTS trigger_notify_change_update ON wycieczki;
+DROP TRIGGER IF EXISTS trigger_notify_change_delete ON wycieczki;
+CREATE TRIGGER trigger_notify_change_insert
+    AFTER INSERT ON wycieczki
+    REFERENCING NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('wycieczka');
+CREATE TRIGGER trigger_notify_change_update
+    AFTER UPDATE ON wycieczki
+    REFERENCING OLD TABLE AS stare_wiersze NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('wycieczka');
+CREATE TRIGGER trigger_notify_change_delete
+    AFTER DELETE ON wycieczki
+    REFERENCING OLD TABLE AS stare_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('wycieczka');
+
+-- pokoje
+DROP TRIGGER IF EXISTS trigger_notify_change_insert ON pokoje;
+DROP TRIGGER IF EXISTS trigger_notify_change_update ON pokoje;
+DROP TRIGGER IF EXISTS trigger_notify_change_delete ON pokoje;
+CREATE TRIGGER trigger_notify_change_insert
+    AFTER INSERT ON pokoje
+    REFERENCING NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('id');
+CREATE TRIGGER trigger_notify_change_update
+    AFTER UPDATE ON pokoje
+    REFERENCING OLD TABLE AS stare_wiersze NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('id');
+CREATE TRIGGER trigger_notify_change_delete
+    AFTER DELETE ON pokoje
+    REFERENCING OLD TABLE AS stare_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('id');
+
+-- klienci
+DROP TRIGGER IF EXISTS trigger_notify_change_insert ON klienci;
+DROP TRIGGER IF EXISTS trigger_notify_change_update ON klienci;
+DROP TRIGGER IF EXISTS trigger_notify_change_delete ON klienci;
+CREATE TRIGGER trigger_notify_change_insert
+    AFTER INSERT ON klienci
+    REFERENCING NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('id');
+CREATE TRIGGER trigger_notify_change_update
+    AFTER UPDATE ON klienci
+    REFERENCING OLD TABLE AS stare_wiersze NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('id');
+CREATE TRIGGER trigger_notify_change_delete
+    AFTER DELETE ON klienci
+    REFERENCING OLD TABLE AS stare_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('id');
+
+-- listy_hoteli; listy hoteli i noce hoteli sa uniewazniane calymi pokojami
+DROP TRIGGER IF EXISTS trigger_notify_change_insert ON listy_hoteli;
+DROP TRIGGER IF EXISTS trigger_notify_change_update ON listy_hoteli;
+DROP TRIGGER IF EXISTS trigger_notify_change_delete ON listy_hoteli;
+CREATE TRIGGER trigger_notify_change_insert
+    AFTER INSERT ON listy_hoteli
+    REFERENCING NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('pokoj');
+CREATE TRIGGER trigger_notify_change_update
+    AFTER UPDATE ON listy_hoteli
+    REFERENCING OLD TABLE AS stare_wiersze NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('pokoj');
+CREATE TRIGGER trigger_notify_change_delete
+    AFTER DELETE ON listy_hoteli
+    REFERENCING OLD TABLE AS stare_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('pokoj');
+
+-- lista_nocy_hoteli
+DROP TRIGGER IF EXISTS trigger_notify_change_insert ON lista_nocy_hoteli;
+DROP TRIGGER IF EXISTS trigger_notify_change_update ON lista_nocy_hoteli;
+DROP TRIGGER IF EXISTS trigger_notify_change_delete ON lista_nocy_hoteli;
+CREATE TRIGGER trigger_notify_change_insert
+    AFTER INSERT ON lista_nocy_hoteli
+    REFERENCING NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('pokoj_id');
+CREATE TRIGGER trigger_notify_change_update
+    AFTER UPDATE ON lista_nocy_hoteli
+    REFERENCING OLD TABLE AS stare_wiersze NEW TABLE AS nowe_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('pokoj_id');
+CREATE TRIGGER trigger_notify_change_delete
+    AFTER DELETE ON lista_nocy_hoteli
+    REFERENCING OLD TABLE AS stare_wiersze
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_change('pokoj_id');
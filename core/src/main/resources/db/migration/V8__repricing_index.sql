@@ -0,0 +1,2 @@
+-- Przeliczanie cen klientow (RepricingService) wybiera wycieczki po typie wycieczki.
+CREATE INDEX IF NOT EXISTS ix_wycieczki_typ_wycieczki ON wycieczki (typ_wycieczki);
@@ -0,0 +1,3 @@
+-- Liczba pokoi hotelu, z ktora OverbookingDetector porownuje pokoje list hoteli w kazda noc.
+-- Hotel bez liczby pokoi nie jest sprawdzany.
+ALTER TABLE hotele ADD COLUMN IF NOT EXISTS liczba_pokoi INTEGER CHECK (liczba_pokoi >= 0);
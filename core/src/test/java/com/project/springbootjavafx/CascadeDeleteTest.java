@@ -0,0 +1,222 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.services.DeletePreview;
+import com.project.springbootjavafx.services.EntitiesChangedEvent;
+import com.project.springbootjavafx.services.ListaNocyHoteliService;
+import com.project.springbootjavafx.services.ListyHoteliService;
+import com.project.springbootjavafx.services.MiastaService;
+import com.project.springbootjavafx.services.TypyWycieczekService;
+import com.project.springbootjavafx.services.WycieczkiService;
+import com.project.springbootjavafx.services.WycieczkiService.CloneOptions;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static com.project.springbootjavafx.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that trip types, trips and cities are deleted with everything they own by a fixed number of bulk
+ * statements, and that the preview counts the same records.
+ *
+ * <p>
+ * The tests run without a surrounding transaction, because every delete commits its own transaction.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TypyWycieczekService.class, WycieczkiService.class, MiastaService.class, ListyHoteliService.class,
+        ListaNocyHoteliService.class})
+public class CascadeDeleteTest {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TypyWycieczekService typyWycieczekService;
+
+    @Autowired
+    private WycieczkiService wycieczkiService;
+
+    @Autowired
+    private MiastaService miastaService;
+
+    @Autowired
+    private ListyHoteliService listyHoteliService;
+
+    @BeforeEach
+    void setUp() {
+        // Given: a two-night type with a price list, Gdansk for the first night and Sopot for the second, and a trip
+        // with a double room with a client and a triple room, both with hotels; Hel has a hotel but no itinerary
+        transactionTemplate.executeWithoutResult(status -> {
+            Miasta gdansk = new Miasta("Gdansk");
+            Miasta sopot = new Miasta("Sopot");
+            Miasta hel = new Miasta("Hel");
+            em.persist(gdansk);
+            em.persist(sopot);
+            em.persist(hel);
+            em.persist(new Hotele("GDA001", "Hotel Gdansk", gdansk, "ul. Dluga 1", "gda@hotel.pl", "111"));
+            em.persist(new Hotele("SOP001", "Hotel Sopot", sopot, "ul. Morska 1", "sop@hotel.pl", "222"));
+            em.persist(new Hotele("HEL001", "Hotel Hel", hel, "ul. Portowa 1", "hel@hotel.pl", "333"));
+
+            TypyWycieczek typ = new TypyWycieczek();
+            typ.setTyp("PM");
+            typ.setLiczba_nocy(2);
+            em.persist(typ);
+
+            Ceny ceny = new Ceny();
+            ceny.setTyp_wycieczki(typ);
+            ceny.setPok_2(new BigDecimal("800"));
+            em.persist(ceny);
+
+            int noc = 1;
+            for (Miasta miasto : List.of(gdansk, sopot)) {
+                MiastaWycieczek miastoWycieczki = new MiastaWycieczek();
+                miastoWycieczki.setTypyWycieczek(typ);
+                miastoWycieczki.setMiasta(miasto);
+                miastoWycieczki.setNumerNocy(noc++);
+                em.persist(miastoWycieczki);
+            }
+
+            Wycieczki wycieczka = new Wycieczki();
+            wycieczka.setWycieczka("PM01");
+            wycieczka.setTypWycieczki(typ);
+            wycieczka.setPoczatek(LocalDate.of(2025, 6, 1));
+            wycieczka.setKoniec(LocalDate.of(2025, 6, 3));
+            wycieczka.setIlUczestinkow(1);
+            wycieczka.setWplyw(new BigDecimal("800"));
+            em.persist(wycieczka);
+
+            Pokoje dwojka = pokoj(em, wycieczka, "dbl", 2);
+            pokoj(em, wycieczka, "tpl", 3);
+            Klienci klient = new Klienci();
+            klient.setImie("Jan");
+            klient.setNazwisko("Kowalski");
+            klient.setWycieczka(wycieczka);
+            klient.setTypPokoju("dbl");
+            klient.setPokoj(dwojka);
+            klient.setDoZaplaty(new BigDecimal("800"));
+            em.persist(klient);
+        });
+        listyHoteliService.przypiszHotele("PM01", Map.of(1, "GDA001", 2, "SOP001"), null, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String entity : List.of("ListaNocyHoteli", "ListyHoteli", "Klienci", "Pokoje", "Wycieczki",
+                    "MiastaWycieczek", "Ceny", "TypyWycieczek", "Hotele", "Miasta")) {
+                em.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+        // the bulk deletes bypass the services, so the change is announced by hand
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(TypyWycieczek.class, Wycieczki.class,
+                Pokoje.class, Miasta.class, Hotele.class)));
+    }
+
+    @Test
+    void testTypeWithSeasonOfTripsIsDeletedWithFixedNumberOfStatements() {
+        // Given: twenty more departures of the type, with their rooms and hotel lists
+        List<String> kody = IntStream.rangeClosed(1, 20).mapToObj(i -> String.format("S%03d", i)).toList();
+        wycieczkiService.cloneSeries("PM01", kody, LocalDate.of(2025, 6, 8), CloneOptions.POKOJE_I_LISTY_HOTELI);
+
+        // When: the deletion of the type is previewed
+        DeletePreview preview = typyWycieczekService.previewDelete("PM");
+
+        // Then: every record owned by the type is counted, in the order of deletion
+        assertEquals(List.of(ListyHoteli.class, Klienci.class, Pokoje.class, Wycieczki.class, MiastaWycieczek.class,
+                Ceny.class, TypyWycieczek.class), List.copyOf(preview.rekordy().keySet()));
+        assertEquals(84L, preview.rekordy().get(ListyHoteli.class));
+        assertEquals(1L, preview.rekordy().get(Klienci.class));
+        assertEquals(42L, preview.rekordy().get(Pokoje.class));
+        assertEquals(21L, preview.rekordy().get(Wycieczki.class));
+        assertEquals(152L, preview.suma());
+
+        // When: the type is deleted
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        typyWycieczekService.delete("PM");
+
+        // Then: nothing of the type is left, and the statements do not depend on the number of trips
+        assertTrue(statistics.getPrepareStatementCount() <= 10, "statements: " + statistics.getPrepareStatementCount());
+        for (String entity : List.of("ListaNocyHoteli", "ListyHoteli", "Klienci", "Pokoje", "Wycieczki",
+                "MiastaWycieczek", "Ceny", "TypyWycieczek")) {
+            assertEquals(0L, count(entity), entity);
+        }
+        assertEquals(3L, count("Miasta"));
+    }
+
+    @Test
+    void testTripIsDeletedWithItsRoomsClientsAndHotelLists() {
+        // Given: a second trip of the type
+        wycieczkiService.cloneTrip("PM01", "PM02", LocalDate.of(2025, 6, 8), CloneOptions.POKOJE_I_LISTY_HOTELI);
+
+        // When: the first trip is previewed and deleted
+        DeletePreview preview = wycieczkiService.previewDelete("PM01");
+        wycieczkiService.delete("PM01");
+
+        // Then: its records are gone, and the other trip and the type keep theirs
+        assertEquals("ListyHoteli: 4\nKlienci: 1\nPokoje: 2\nWycieczki: 1", preview.opis());
+        assertNull(em.find(Wycieczki.class, "PM01"));
+        assertEquals(0L, count("Klienci"));
+        assertEquals(2L, count("Pokoje"));
+        assertEquals(4L, count("ListyHoteli"));
+        assertEquals(4L, count("ListaNocyHoteli"));
+        assertNotNull(em.find(TypyWycieczek.class, "PM"));
+    }
+
+    @Test
+    void testCityIsDeletedWithItsHotelsUnlessTypesSpendNightsThere() {
+        // Then: a city in the itinerary of a type is refused, naming the type
+        IllegalArgumentException blad = assertThrows(IllegalArgumentException.class,
+                () -> miastaService.delete("Sopot"));
+        assertTrue(blad.getMessage().contains("PM"), blad.getMessage());
+        assertNotNull(em.find(Miasta.class, "Sopot"));
+        assertNotNull(em.find(Hotele.class, "SOP001"));
+
+        // When: a city out of the itineraries is previewed and deleted
+        DeletePreview preview = miastaService.previewDelete("Hel");
+        miastaService.delete("Hel");
+
+        // Then: the city goes with its hotel, and the hotel lists of the trip are untouched
+        assertEquals(Map.of(Hotele.class, 1L, Miasta.class, 1L), preview.rekordy());
+        assertNull(em.find(Miasta.class, "Hel"));
+        assertNull(em.find(Hotele.class, "HEL001"));
+        assertEquals(4L, count("ListyHoteli"));
+    }
+
+    private long count(String entity) {
+        return em.createQuery("SELECT COUNT(*) FROM " + entity, Long.class).getSingleResult();
+    }
+}
@@ -0,0 +1,134 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.Hotele;
+import com.project.springbootjavafx.models.ListyHoteli;
+import com.project.springbootjavafx.models.Miasta;
+import com.project.springbootjavafx.services.ChangeNotificationListener;
+import com.project.springbootjavafx.services.EntitiesChangedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks how the notifications of the change triggers are applied to the caches.
+ *
+ * <p>
+ * H2 has no {@code LISTEN}, so the listening thread stops by itself and the payloads are handed to the listener
+ * directly. The notifications sent by the PostgreSQL triggers are checked by {@link ChangeNotificationPostgresTest}.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+@Import(ChangeNotificationListener.class)
+public class ChangeNotificationListenerTest {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ChangeNotificationListener listener;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void setUp() {
+        // Given: a committed city and hotel, both in the second-level cache
+        transactionTemplate.executeWithoutResult(status -> {
+            Miasta gdansk = new Miasta("Gdansk");
+            em.persist(gdansk);
+            em.persist(new Hotele("GDA001", "Hotel Gdansk", gdansk, "ul. Dluga 1", "gda@hotel.pl", "111"));
+        });
+        entityManagerFactory.getCache().evictAll();
+        transactionTemplate.executeWithoutResult(status -> {
+            em.find(Miasta.class, "Gdansk");
+            em.find(Hotele.class, "GDA001");
+        });
+        assertTrue(entityManagerFactory.getCache().contains(Miasta.class, "Gdansk"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("DELETE FROM Hotele").executeUpdate();
+            em.createQuery("DELETE FROM Miasta").executeUpdate();
+        });
+    }
+
+    @Test
+    void testChangesOfOtherInstancesAreEvicted() {
+        // When: another instance reports a changed city and a changed hotel list
+        listener.apply(List.of(
+                "{\"table\": \"miasta\", \"ids\": [\"Gdansk\"], \"app\": \"bird-other\"}",
+                "{\"table\": \"listy_hoteli\", \"ids\": [\"7\"], \"app\": \"bird-other\"}"), "bird-own");
+
+        // Then: the city is evicted, the hotel is kept, and the change is announced as remote
+        assertFalse(entityManagerFactory.getCache().contains(Miasta.class, "Gdansk"));
+        assertTrue(entityManagerFactory.getCache().contains(Hotele.class, "GDA001"));
+        EntitiesChangedEvent event = events.stream(EntitiesChangedEvent.class).findFirst().orElseThrow();
+        assertTrue(event.remote());
+        assertEquals(Set.of(Miasta.class, ListyHoteli.class), event.types());
+    }
+
+    @Test
+    void testOwnAndUnknownChangesAreSkipped() {
+        // When: the own instance, an unknown table and a malformed payload are reported
+        listener.apply(List.of(
+                "{\"table\": \"miasta\", \"ids\": [\"Gdansk\"], \"app\": \"bird-own\"}",
+                "{\"table\": \"flyway_schema_history\", \"ids\": [\"1\"], \"app\": \"bird-other\"}",
+                "nie json"), "bird-own");
+
+        // Then: nothing is evicted and nothing is announced
+        assertTrue(entityManagerFactory.getCache().contains(Miasta.class, "Gdansk"));
+        assertEquals(0, events.stream(EntitiesChangedEvent.class).count());
+    }
+
+    @Test
+    void testLargeStatementEvictsWholeEntity() {
+        // When: another instance reports a statement that changed too many hotels to list their keys
+        listener.apply(List.of("{\"table\": \"hotele\", \"all\": true, \"app\": \"bird-other\"}"), "bird-own");
+
+        // Then: all hotels are evicted, and the cities are kept
+        assertFalse(entityManagerFactory.getCache().contains(Hotele.class, "GDA001"));
+        assertTrue(entityManagerFactory.getCache().contains(Miasta.class, "Gdansk"));
+        assertEquals(Set.of(Hotele.class), events.stream(EntitiesChangedEvent.class).findFirst().orElseThrow().types());
+    }
+
+    @Test
+    void testIntegerKeysAreConverted() {
+        // When: a hotel and a price list are reported by another instance
+        listener.apply(List.of(
+                "{\"table\": \"hotele\", \"ids\": [\"GDA001\"], \"app\": \"bird-other\"}",
+                "{\"table\": \"ceny\", \"ids\": [\"42\", \"43\"], \"app\": \"bird-other\"}"), "");
+
+        // Then: the hotel is evicted by its text key and the integer key does not fail
+        assertFalse(entityManagerFactory.getCache().contains(Hotele.class, "GDA001"));
+        assertTrue(entityManagerFactory.getCache().contains(Miasta.class, "Gdansk"));
+        assertEquals(1, events.stream(EntitiesChangedEvent.class).count());
+    }
+}
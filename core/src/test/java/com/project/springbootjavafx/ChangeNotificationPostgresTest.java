@@ -0,0 +1,173 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.Miasta;
+import com.project.springbootjavafx.services.ChangeNotificationListener;
+import com.project.springbootjavafx.services.EntitiesChangedEvent;
+import com.project.springbootjavafx.services.MiastaService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the changes committed by another instance of the application reach the
+ * {@link ChangeNotificationListener} through the PostgreSQL triggers and evict the cached entities.
+ *
+ * <p>
+ * The schema and the triggers are created by the Flyway migrations from {@code db/migration}. The other instance is
+ * simulated by a plain JDBC connection with another {@code application_name}. The test needs Docker and is skipped
+ * without it.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.datasource.hikari.data-source-properties.ApplicationName=" + ChangeNotificationPostgresTest.OWN_APPLICATION,
+        "spring.flyway.enabled=true",
+        "spring.flyway.schemas=bird",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Import({ChangeNotificationListener.class, MiastaService.class})
+public class ChangeNotificationPostgresTest {
+
+    /**
+     * How long to wait for a notification, in seconds.
+     */
+    private static final long TIMEOUT_SECONDS = 10;
+
+    static final String OWN_APPLICATION = "bird-test";
+
+    private static final String OTHER_APPLICATION = "bird-other";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MiastaService miastaService;
+
+    @Autowired
+    private EventRecorder recorder;
+
+    @TestConfiguration
+    static class RecorderConfig {
+
+        @Bean
+        EventRecorder eventRecorder() {
+            return new EventRecorder();
+        }
+    }
+
+    /**
+     * Records the change events published from the listening thread.
+     */
+    static class EventRecorder {
+
+        final List<EntitiesChangedEvent> events = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void onEntitiesChanged(EntitiesChangedEvent event) {
+            events.add(event);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        // deleted as this instance, so that no notification reaches the next test
+        execute("DELETE FROM bird.miasta", OWN_APPLICATION);
+        recorder.events.clear();
+    }
+
+    @Test
+    void testChangeOfOtherInstanceEvictsCity() throws Exception {
+        // Given: a city added by this instance and read into the second-level cache
+        miastaService.add(new Miasta("Gdansk"));
+        miastaService.getById("Gdansk");
+        assertTrue(entityManagerFactory.getCache().contains(Miasta.class, "Gdansk"));
+
+        // When: another instance renames the city
+        execute("UPDATE bird.miasta SET miasto = 'Gdynia' WHERE miasto = 'Gdansk'", OTHER_APPLICATION);
+
+        // Then: the city is evicted and the change is announced as remote
+        assertTrue(waitFor(() -> !entityManagerFactory.getCache().contains(Miasta.class, "Gdansk")));
+        assertTrue(recorder.events.stream().anyMatch(event -> event.remote() && event.types().contains(Miasta.class)));
+    }
+
+    @Test
+    void testOwnChangesAreNotAnnouncedAsRemote() throws Exception {
+        // When: this instance adds a city, and another instance adds one afterwards
+        miastaService.add(new Miasta("Sopot"));
+        execute("INSERT INTO bird.miasta (miasto) VALUES ('Hel')", OTHER_APPLICATION);
+
+        // Then: only the change of the other instance is announced as remote
+        assertTrue(waitFor(() -> recorder.events.stream().anyMatch(EntitiesChangedEvent::remote)));
+        assertEquals(1, recorder.events.stream().filter(EntitiesChangedEvent::remote).count());
+    }
+
+    /**
+     * Runs a statement on a connection of its own.
+     *
+     * @param sql         the statement
+     * @param application the {@code application_name} of the connection
+     * @throws SQLException if the statement fails
+     */
+    private static void execute(String sql, String application) throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", postgres.getUsername());
+        properties.setProperty("password", postgres.getPassword());
+        properties.setProperty("ApplicationName", application);
+        try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(), properties);
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Waits until the condition holds or the timeout passes.
+     *
+     * @param condition the condition
+     * @return {@code true} if the condition holds
+     * @throws InterruptedException if the wait is interrupted
+     */
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+}
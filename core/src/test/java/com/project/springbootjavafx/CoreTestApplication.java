@@ -0,0 +1,10 @@
+package com.project.springbootjavafx;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Boot configuration for the slice tests of the {@code core} module, which has no application class of its own.
+ */
+@SpringBootApplication
+public class CoreTestApplication {
+}
@@ -0,0 +1,115 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.services.CounterReconciliationService;
+import com.project.springbootjavafx.services.CounterReconciliationService.CounterDrift;
+import com.project.springbootjavafx.services.CounterReconciliationService.ReconciliationReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the reconciliation of the trip and room counters finds and repairs drift, chunk by chunk.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CounterReconciliationService.class)
+public class CounterReconciliationTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private CounterReconciliationService counterReconciliationService;
+
+    private Pokoje pokoj;
+
+    @BeforeEach
+    void setUp() {
+        // Given: trip PM01 with two clients in one room but counters saying 5 participants, no revenue
+        // and an empty room, and trip PM02 without clients and with correct counters
+        TypyWycieczek typ = new TypyWycieczek();
+        typ.setTyp("PM");
+        typ.setLiczba_nocy(1);
+        em.persist(typ);
+
+        Wycieczki pm01 = wycieczka(typ, "PM01", 5, BigDecimal.ZERO);
+        wycieczka(typ, "PM02", 0, BigDecimal.ZERO);
+
+        pokoj = new Pokoje();
+        pokoj.setWycieczka(pm01);
+        pokoj.setTypPokoju("dbl");
+        pokoj.setIlMiejsc(2);
+        pokoj.setListaHoteli(false);
+        em.persist(pokoj);
+
+        for (int i = 0; i < 2; i++) {
+            Klienci klient = new Klienci();
+            klient.setImie("Jan" + i);
+            klient.setNazwisko("Kowalski");
+            klient.setWycieczka(pm01);
+            klient.setPokoj(pokoj);
+            klient.setTypPokoju("dbl");
+            klient.setDoZaplaty(new BigDecimal("800"));
+            em.persist(klient);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void testReportsDriftWithoutRepair() {
+        // When: the counters are checked one trip per chunk
+        ReconciliationReport report = counterReconciliationService.reconcile(1, false);
+
+        // Then: both trips and the room are checked and the three wrong counters are reported
+        assertEquals(2, report.checkedTrips());
+        assertEquals(1, report.checkedRooms());
+        assertFalse(report.repaired());
+        List<CounterDrift> drifts = report.drifts();
+        assertEquals(3, drifts.size());
+        assertTrue(drifts.contains(new CounterDrift("wycieczki", "PM01", "il_uczestnikow", 5, 2L)));
+        assertTrue(drifts.stream().anyMatch(d -> d.counter().equals("wplyw")
+                && new BigDecimal("1600").compareTo((BigDecimal) d.counted()) == 0));
+        assertTrue(drifts.contains(new CounterDrift("pokoje", String.valueOf(pokoj.getId()), "il_klientow", 0, 2L)));
+
+        // And: nothing was changed
+        assertEquals(5, em.find(Wycieczki.class, "PM01").getIlUczestinkow());
+    }
+
+    @Test
+    void testRepairFixesCounters() {
+        // When: the counters are checked and repaired
+        ReconciliationReport report = counterReconciliationService.reconcile(10, true);
+        em.clear();
+
+        // Then: the counters match the clients and a second run finds no drift
+        assertTrue(report.repaired());
+        Wycieczki pm01 = em.find(Wycieczki.class, "PM01");
+        assertEquals(2, pm01.getIlUczestinkow());
+        assertEquals(0, new BigDecimal("1600").compareTo(pm01.getWplyw()));
+        assertEquals(2, em.find(Pokoje.class, pokoj.getId()).getIlKlientow());
+        assertTrue(counterReconciliationService.reconcile(10, false).consistent());
+    }
+
+    private Wycieczki wycieczka(TypyWycieczek typ, String kod, int ilUczestnikow, BigDecimal wplyw) {
+        Wycieczki wycieczka = new Wycieczki();
+        wycieczka.setWycieczka(kod);
+        wycieczka.setTypWycieczki(typ);
+        wycieczka.setPoczatek(LocalDate.of(2025, 6, 1));
+        wycieczka.setKoniec(LocalDate.of(2025, 6, 2));
+        wycieczka.setIlUczestinkow(ilUczestnikow);
+        wycieczka.setWplyw(wplyw);
+        return em.persist(wycieczka);
+    }
+}
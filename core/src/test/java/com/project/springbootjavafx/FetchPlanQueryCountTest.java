@@ -0,0 +1,269 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.projections.HoteleRow;
+import com.project.springbootjavafx.projections.KlienciRow;
+import com.project.springbootjavafx.services.HoteleService;
+import com.project.springbootjavafx.services.KlienciService;
+import com.project.springbootjavafx.services.ListaNocyHoteliService;
+import com.project.springbootjavafx.services.ListyHoteliService;
+import com.project.springbootjavafx.services.PokojeService;
+import com.project.springbootjavafx.services.WycieczkiService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Slice;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that every screen's read issues a bounded, known number of queries, both with the {@link FetchPlan}s
+ * and with the read-only grid projections.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({KlienciService.class, PokojeService.class, WycieczkiService.class, HoteleService.class, ListyHoteliService.class,
+        ListaNocyHoteliService.class})
+public class FetchPlanQueryCountTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private KlienciService klienciService;
+
+    @Autowired
+    private PokojeService pokojeService;
+
+    @Autowired
+    private WycieczkiService wycieczkiService;
+
+    @Autowired
+    private HoteleService hoteleService;
+
+    private Statistics statistics;
+
+    private Pokoje pokoj;
+
+    private Integer klientId;
+
+    @BeforeEach
+    void setUp() {
+        // Given: two cities with a hotel each, a two-night trip type with prices, two trips,
+        // two rooms per trip with two clients each, and a hotel list for one room.
+        Miasta gdansk = em.persist(new Miasta("Gdansk"));
+        Miasta sopot = em.persist(new Miasta("Sopot"));
+        Hotele hotelGdansk = em.persist(new Hotele("GDA001", "Hotel Gdansk", gdansk, "ul. Dluga 1", "gda@hotel.pl", "111"));
+        Hotele hotelSopot = em.persist(new Hotele("SOP001", "Hotel Sopot", sopot, "ul. Morska 1", "sop@hotel.pl", "222"));
+
+        TypyWycieczek typ = new TypyWycieczek();
+        typ.setTyp("PM");
+        typ.setLiczba_nocy(2);
+        em.persist(typ);
+
+        Ceny ceny = new Ceny();
+        ceny.setTyp_wycieczki(typ);
+        ceny.setPok_1(new BigDecimal("1000"));
+        ceny.setPok_2(new BigDecimal("800"));
+        ceny.setPok_3(new BigDecimal("700"));
+        ceny.setPok_4(new BigDecimal("650"));
+        ceny.setUlga_dziecko(20);
+        ceny.setRower(new BigDecimal("100"));
+        ceny.setE_bike(new BigDecimal("200"));
+        ceny.setDodatkowa_noc(new BigDecimal("150"));
+        ceny.setHb(new BigDecimal("120"));
+        em.persist(ceny);
+
+        MiastaWycieczek noc1 = miastoWycieczki(typ, gdansk, 1);
+        MiastaWycieczek noc2 = miastoWycieczki(typ, sopot, 2);
+
+        for (String kod : List.of("PM01", "PM02")) {
+            Wycieczki wycieczka = new Wycieczki();
+            wycieczka.setWycieczka(kod);
+            wycieczka.setTypWycieczki(typ);
+            wycieczka.setPoczatek(LocalDate.of(2025, 6, 1));
+            wycieczka.setKoniec(LocalDate.of(2025, 6, 3));
+            wycieczka.setIlUczestinkow(0);
+            wycieczka.setWplyw(BigDecimal.ZERO);
+            em.persist(wycieczka);
+
+            for (int i = 0; i < 2; i++) {
+                Pokoje nowyPokoj = new Pokoje();
+                nowyPokoj.setWycieczka(wycieczka);
+                nowyPokoj.setTypPokoju("dbl");
+                nowyPokoj.setIlMiejsc(2);
+                nowyPokoj.setListaHoteli(false);
+                pokoj = em.persist(nowyPokoj);
+
+                for (int j = 0; j < 2; j++) {
+                    Klienci klient = new Klienci();
+                    klient.setImie("Jan" + j);
+                    klient.setNazwisko("Kowalski");
+                    klient.setWycieczka(wycieczka);
+                    klient.setPokoj(pokoj);
+                    klient.setTypPokoju("dbl");
+                    klient.setDoZaplaty(new BigDecimal("800"));
+                    klientId = em.persist(klient).getId();
+                }
+            }
+        }
+
+        listaHoteli(pokoj, noc1, hotelGdansk);
+        listaHoteli(pokoj, noc2, hotelSopot);
+
+        em.flush();
+        em.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testKlienciGridIsOneQuery() {
+        // When: the first page of the client grid is loaded
+        List<Klienci> klienci = klienciService.getPage(null, 100).getContent();
+
+        // Then: one query returns the clients with their trips and rooms
+        assertEquals(8, klienci.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        klienci.forEach(klient -> {
+            assertTrue(Hibernate.isInitialized(klient.getWycieczka()));
+            assertTrue(Hibernate.isInitialized(klient.getPokoj()));
+        });
+    }
+
+    @Test
+    void testWycieczkiGridIsOneQuery() {
+        // When: the first page of the trip grid is loaded
+        List<Wycieczki> wycieczki = wycieczkiService.getPage(null, 100).getContent();
+
+        // Then: one query returns the trips with their trip types, without a select per trip type for the prices
+        assertEquals(2, wycieczki.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        wycieczki.forEach(wycieczka -> assertTrue(Hibernate.isInitialized(wycieczka.getTypWycieczki())));
+    }
+
+    @Test
+    void testPokojeAndHoteleGridsAreOneQueryEach() {
+        // When: the room grid and the hotel grid are loaded
+        List<Pokoje> pokoje = pokojeService.getPage(null, 100).getContent();
+        List<Hotele> hotele = hoteleService.getPage(null, 100).getContent();
+
+        // Then: each of them costs exactly one query
+        assertEquals(4, pokoje.size());
+        assertEquals(2, hotele.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        pokoje.forEach(p -> assertTrue(Hibernate.isInitialized(p.getWycieczka())));
+        hotele.forEach(h -> assertTrue(Hibernate.isInitialized(h.getMiasto())));
+    }
+
+    @Test
+    void testPricingIsOneQuery() {
+        // When: the trip is loaded for pricing a new client
+        Wycieczki wycieczka = wycieczkiService.getById("PM01", FetchPlan.PRICING);
+
+        // Then: the prices are available without further queries
+        assertEquals(0, new BigDecimal("800").compareTo(wycieczka.getTypWycieczki().getCeny().getPok_2()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testRoomHotelListIsOneQuery() {
+        // When: the hotel list of a room is loaded
+        List<ListyHoteli> lista = pokojeService.getListyHoteli(pokoj);
+
+        // Then: one query returns the nights in order with their cities and hotels
+        assertEquals(2, lista.size());
+        assertEquals("Gdansk", lista.get(0).getMiastoWycieczki().getMiasta().getMiasto());
+        assertEquals("SOP001", lista.get(1).getHotel().getKod());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testItineraryHotelsAreOneQuery() {
+        // When: the hotels of a three-night itinerary through Sopot, Gdansk and Sopot again, and of a city without
+        // hotels, are loaded
+        Map<Miasta, List<Hotele>> hoteleMiast = hoteleService.getHoteleMiast(List.of(
+                new Miasta("Sopot"), new Miasta("Gdansk"), new Miasta("Sopot"), new Miasta("Hel")));
+
+        // Then: one query returns them grouped by city, in the order of the itinerary
+        assertEquals(List.of("Sopot", "Gdansk", "Hel"), hoteleMiast.keySet().stream().map(Miasta::getMiasto).toList());
+        assertEquals("SOP001", hoteleMiast.get(new Miasta("Sopot")).get(0).getKod());
+        assertEquals(1, hoteleMiast.get(new Miasta("Gdansk")).size());
+        assertTrue(hoteleMiast.get(new Miasta("Hel")).isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testKlienciRowsAreOneQueryWithoutEntities() {
+        // When: the client grid is read as projections in two pages
+        Slice<KlienciRow> first = klienciService.getRows(null, 5);
+        Slice<KlienciRow> second = klienciService.getRows(first.getContent().get(4).key(), 5);
+
+        // Then: each page is one query, no entity is hydrated and the pages continue by id
+        assertEquals(5, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        assertEquals(3, second.getNumberOfElements());
+        assertFalse(second.hasNext());
+        assertTrue(first.getContent().get(4).id() < second.getContent().get(0).id());
+        assertEquals("PM01", first.getContent().get(0).wycieczka());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testStringKeyedRowsArePagedByCode() {
+        // When: the hotel grid is read as projections one row per page
+        Slice<HoteleRow> first = hoteleService.getRows(null, 1);
+        Slice<HoteleRow> second = hoteleService.getRows(first.getContent().get(0).key(), 1);
+
+        // Then: the hotels come in code order with their city names
+        assertEquals("GDA001", first.getContent().get(0).kod());
+        assertEquals("Gdansk", first.getContent().get(0).miasto());
+        assertEquals("SOP001", second.getContent().get(0).kod());
+        assertFalse(second.hasNext());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testLazyAssociationsAreNotLoadedWithoutGraph() {
+        // When: a client is loaded with a plan for which Klienci declares no entity graph
+        Klienci klient = klienciService.getById(klientId, FetchPlan.PRICING);
+
+        // Then: neither the trip nor the room of a client is fetched
+        assertFalse(Hibernate.isInitialized(klient.getWycieczka()));
+        assertFalse(Hibernate.isInitialized(klient.getPokoj()));
+    }
+
+    private MiastaWycieczek miastoWycieczki(TypyWycieczek typ, Miasta miasto, int noc) {
+        MiastaWycieczek miastoWycieczki = new MiastaWycieczek();
+        miastoWycieczki.setTypyWycieczek(typ);
+        miastoWycieczki.setMiasta(miasto);
+        miastoWycieczki.setNumerNocy(noc);
+        return em.persist(miastoWycieczki);
+    }
+
+    private void listaHoteli(Pokoje pokoj, MiastaWycieczek miastoWycieczki, Hotele hotel) {
+        ListyHoteli listaHoteli = new ListyHoteli();
+        listaHoteli.setPokoj(pokoj);
+        listaHoteli.setMiastoWycieczki(miastoWycieczki);
+        listaHoteli.setHotel(hotel);
+        em.persist(listaHoteli);
+    }
+}
@@ -0,0 +1,198 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.services.EntitiesChangedEvent;
+import com.project.springbootjavafx.services.ListaNocyHoteliService;
+import com.project.springbootjavafx.services.ListyHoteliService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the hotels of a trip are assigned to all, or the selected, rooms with a fixed number of statements,
+ * and that the replace mode swaps the existing hotel lists.
+ *
+ * <p>
+ * The tests run without a surrounding transaction, because the assignment commits its own transaction.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ListyHoteliService.class, ListaNocyHoteliService.class})
+public class HotelAssignmentTest {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ListyHoteliService listyHoteliService;
+
+    private Wycieczki wycieczka;
+
+    private List<Integer> pokoje;
+
+    @BeforeEach
+    void setUp() {
+        // Given: a two-night trip with five rooms, Gdansk for the first night and Sopot for the second, and two hotels
+        // in each city
+        transactionTemplate.executeWithoutResult(status -> {
+            Miasta gdansk = new Miasta("Gdansk");
+            Miasta sopot = new Miasta("Sopot");
+            em.persist(gdansk);
+            em.persist(sopot);
+            em.persist(new Hotele("GDA001", "Hotel Gdansk", gdansk, "ul. Dluga 1", "gda@hotel.pl", "111"));
+            em.persist(new Hotele("GDA002", "Hostel Gdansk", gdansk, "ul. Mariacka 2", "gda2@hotel.pl", "112"));
+            em.persist(new Hotele("SOP001", "Hotel Sopot", sopot, "ul. Morska 1", "sop@hotel.pl", "222"));
+            em.persist(new Hotele("SOP002", "Hostel Sopot", sopot, "ul. Plazowa 2", "sop2@hotel.pl", "223"));
+
+            TypyWycieczek typ = new TypyWycieczek();
+            typ.setTyp("PM");
+            typ.setLiczba_nocy(2);
+            em.persist(typ);
+
+            int noc = 1;
+            for (Miasta miasto : List.of(gdansk, sopot)) {
+                MiastaWycieczek miastoWycieczki = new MiastaWycieczek();
+                miastoWycieczki.setTypyWycieczek(typ);
+                miastoWycieczki.setMiasta(miasto);
+                miastoWycieczki.setNumerNocy(noc++);
+                em.persist(miastoWycieczki);
+            }
+
+            wycieczka = new Wycieczki();
+            wycieczka.setWycieczka("PM01");
+            wycieczka.setTypWycieczki(typ);
+            wycieczka.setPoczatek(LocalDate.of(2025, 6, 1));
+            wycieczka.setKoniec(LocalDate.of(2025, 6, 3));
+            wycieczka.setIlUczestinkow(0);
+            wycieczka.setWplyw(BigDecimal.ZERO);
+            em.persist(wycieczka);
+
+            for (int i = 0; i < 5; i++) {
+                Pokoje pokoj = new Pokoje();
+                pokoj.setWycieczka(wycieczka);
+                pokoj.setTypPokoju("dbl");
+                pokoj.setIlMiejsc(2);
+                pokoj.setListaHoteli(false);
+                em.persist(pokoj);
+            }
+        });
+        pokoje = em.createQuery("SELECT p.id FROM Pokoje p ORDER BY p.id", Integer.class).getResultList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String entity : List.of("ListaNocyHoteli", "ListyHoteli", "Pokoje", "Wycieczki",
+                    "MiastaWycieczek", "TypyWycieczek", "Hotele", "Miasta")) {
+                em.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+        // the bulk deletes bypass the services, so the change is announced by hand
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Pokoje.class)));
+    }
+
+    @Test
+    void testAllRoomsGetHotelsWithFixedNumberOfStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When: the hotels are assigned to all rooms of the trip
+        int zapisane = listyHoteliService.przypiszHotele("PM01", Map.of(1, "GDA001", 2, "SOP001"), null, false);
+
+        // Then: every room has one record per night and is marked, with the same statements whatever the number of
+        // rooms
+        assertEquals(10, zapisane);
+        assertEquals(List.of("GDA001", "SOP001"), hotele(pokoje.get(0)));
+        assertEquals(List.of("GDA001", "SOP001"), hotele(pokoje.get(4)));
+        assertEquals(5L, oznaczone());
+        assertEquals(10L, (long) em.createQuery("SELECT COUNT(l) FROM ListaNocyHoteli l", Long.class)
+                .getSingleResult());
+        assertTrue(statistics.getPrepareStatementCount() <= 10, "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testReplaceSwapsHotelsOfSelectedRoomsOnly() {
+        // Given: all rooms with Gdansk and Sopot hotels
+        listyHoteliService.przypiszHotele("PM01", Map.of(1, "GDA001", 2, "SOP001"), null, false);
+
+        // When: the second-night hotel of the first two rooms is replaced
+        int zapisane = listyHoteliService.przypiszHotele("PM01", Map.of(1, "GDA001", 2, "SOP002"),
+                pokoje.subList(0, 2), true);
+
+        // Then: only the changed nights are written, and the other rooms keep their lists
+        assertEquals(2, zapisane);
+        assertEquals(List.of("GDA001", "SOP002"), hotele(pokoje.get(0)));
+        assertEquals(List.of("GDA001", "SOP002"), hotele(pokoje.get(1)));
+        assertEquals(List.of("GDA001", "SOP001"), hotele(pokoje.get(2)));
+        assertEquals(List.of(LocalDate.of(2025, 6, 2)),
+                em.createQuery("SELECT l.data FROM ListaNocyHoteli l WHERE l.pokojId = :pokoj " +
+                                "AND l.hotel = 'Hostel Sopot'", LocalDate.class)
+                        .setParameter("pokoj", pokoje.get(0))
+                        .getResultList());
+
+        // When: other hotels are assigned to a room with a list without replacing it
+        int dodane = listyHoteliService.przypiszHotele("PM01", Map.of(1, "GDA002", 2, "SOP002"),
+                List.of(pokoje.get(3)), false);
+
+        // Then: the nights already have a hotel, so the room keeps its list
+        assertEquals(0, dodane);
+        assertEquals(List.of("GDA001", "SOP001"), hotele(pokoje.get(3)));
+    }
+
+    @Test
+    void testInvalidAssignmentIsRejected() {
+        // Then: a missing night, an unknown night and a room of no trip are rejected without writing anything
+        assertThrows(IllegalArgumentException.class,
+                () -> listyHoteliService.przypiszHotele("PM01", Map.of(1, "GDA001"), null, false));
+        assertThrows(IllegalArgumentException.class, () -> listyHoteliService.przypiszHotele("PM01",
+                Map.of(1, "GDA001", 2, "SOP001", 3, "SOP002"), null, false));
+        assertThrows(IllegalArgumentException.class, () -> listyHoteliService.przypiszHotele("PM01",
+                Map.of(1, "GDA001", 2, "SOP001"), List.of(pokoje.get(0), -1), false));
+        assertEquals(0L, (long) em.createQuery("SELECT COUNT(l) FROM ListyHoteli l", Long.class).getSingleResult());
+        assertEquals(0L, oznaczone());
+    }
+
+    private List<String> hotele(Integer pokoj) {
+        return em.createQuery("SELECT l.hotel.kod FROM ListyHoteli l WHERE l.pokoj.id = :pokoj ORDER BY l.hotel.kod",
+                        String.class)
+                .setParameter("pokoj", pokoj)
+                .getResultList();
+    }
+
+    private long oznaczone() {
+        return em.createQuery("SELECT COUNT(p) FROM Pokoje p WHERE p.listaHoteli = true", Long.class)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,223 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.services.EntitiesChangedEvent;
+import com.project.springbootjavafx.services.HotelOccupancyCalendar;
+import com.project.springbootjavafx.services.HotelOccupancyCalendar.Oblozenie;
+import com.project.springbootjavafx.services.KlienciService;
+import com.project.springbootjavafx.services.ListaNocyHoteliService;
+import com.project.springbootjavafx.services.ListyHoteliService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the hotel occupancy calendar counts the rooms, places and guests of every hotel and day, and follows
+ * the committed writes of hotel lists and clients without loading the season again.
+ *
+ * <p>
+ * The tests run without a surrounding transaction, because the calendar is updated once the writes are committed.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({HotelOccupancyCalendar.class, ListyHoteliService.class, ListaNocyHoteliService.class, KlienciService.class})
+public class HotelOccupancyCalendarTest {
+
+    private static final LocalDate PIERWSZA_NOC = LocalDate.of(2025, 6, 1);
+
+    private static final LocalDate DRUGA_NOC = LocalDate.of(2025, 6, 2);
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private HotelOccupancyCalendar calendar;
+
+    @Autowired
+    private ListyHoteliService listyHoteliService;
+
+    @Autowired
+    private KlienciService klienciService;
+
+    private Wycieczki wycieczka;
+
+    private Pokoje dwojka;
+
+    private Pokoje trojka;
+
+    private List<MiastaWycieczek> noce;
+
+    private List<Hotele> hotele;
+
+    @BeforeEach
+    void setUp() {
+        // Given: a two-night trip starting on 2025-06-01 with a double room with one client and an empty triple
+        // room, a hotel in Gdansk for the first night and in Sopot for the second
+        transactionTemplate.executeWithoutResult(status -> {
+            Miasta gdansk = new Miasta("Gdansk");
+            Miasta sopot = new Miasta("Sopot");
+            em.persist(gdansk);
+            em.persist(sopot);
+            hotele = List.of(
+                    new Hotele("GDA001", "Hotel Gdansk", gdansk, "ul. Dluga 1", "gda@hotel.pl", "111"),
+                    new Hotele("SOP001", "Hotel Sopot", sopot, "ul. Morska 1", "sop@hotel.pl", "222"));
+            hotele.forEach(em::persist);
+
+            TypyWycieczek typ = new TypyWycieczek();
+            typ.setTyp("PM");
+            typ.setLiczba_nocy(2);
+            em.persist(typ);
+
+            noce = new ArrayList<>();
+            int noc = 1;
+            for (Miasta miasto : List.of(gdansk, sopot)) {
+                MiastaWycieczek miastoWycieczki = new MiastaWycieczek();
+                miastoWycieczki.setTypyWycieczek(typ);
+                miastoWycieczki.setMiasta(miasto);
+                miastoWycieczki.setNumerNocy(noc++);
+                em.persist(miastoWycieczki);
+                noce.add(miastoWycieczki);
+            }
+
+            wycieczka = new Wycieczki();
+            wycieczka.setWycieczka("PM01");
+            wycieczka.setTypWycieczki(typ);
+            wycieczka.setPoczatek(PIERWSZA_NOC);
+            wycieczka.setKoniec(LocalDate.of(2025, 6, 3));
+            wycieczka.setIlUczestinkow(0);
+            wycieczka.setWplyw(BigDecimal.ZERO);
+            em.persist(wycieczka);
+
+            dwojka = pokoj("dbl", 2);
+            trojka = pokoj("tpl", 3);
+            em.persist(klient(dwojka));
+        });
+        dodajListeHoteli(dwojka);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String entity : List.of("ListaNocyHoteli", "ListyHoteli", "Klienci", "Pokoje", "Wycieczki",
+                    "MiastaWycieczek", "TypyWycieczek", "Hotele", "Miasta")) {
+                em.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+        // the bulk deletes bypass the services, so the change is announced by hand
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Pokoje.class)));
+    }
+
+    @Test
+    void testSeasonCountsRoomsPlacesAndGuestsByHotelAndDay() {
+        // When: the season is loaded
+        calendar.zaladuj(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+
+        // Then: the double room sleeps in Gdansk the first night and in Sopot the second, and not the night after
+        assertEquals(new Oblozenie(PIERWSZA_NOC, 1, 2, 1), calendar.naDzien("GDA001", PIERWSZA_NOC));
+        assertEquals(new Oblozenie(DRUGA_NOC, 0, 0, 0), calendar.naDzien("GDA001", DRUGA_NOC));
+        assertEquals(List.of(new Oblozenie(PIERWSZA_NOC, 0, 0, 0), new Oblozenie(DRUGA_NOC, 1, 2, 1),
+                        new Oblozenie(LocalDate.of(2025, 6, 3), 0, 0, 0)),
+                calendar.wOkresie("SOP001", PIERWSZA_NOC, LocalDate.of(2025, 6, 3)));
+        assertEquals(0, calendar.maksPokoi("NIEZNANY", PIERWSZA_NOC, DRUGA_NOC));
+    }
+
+    @Test
+    void testCommittedWritesUpdateCountersInPlace() {
+        // Given: the loaded season
+        calendar.naDzien("GDA001", PIERWSZA_NOC);
+
+        // When: the triple room gets its hotel list and a client, and the double room loses its hotel list
+        dodajListeHoteli(trojka);
+        Klienci klient = klienciService.add(klient(trojka));
+        listyHoteliService.usunDlaPokoju(dwojka);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Then: only the triple room is counted, with its client, and the counters are read without a query
+        assertEquals(new Oblozenie(PIERWSZA_NOC, 1, 3, 1), calendar.naDzien("GDA001", PIERWSZA_NOC));
+        assertEquals(new Oblozenie(DRUGA_NOC, 1, 3, 1), calendar.naDzien("SOP001", DRUGA_NOC));
+        assertEquals(1, calendar.maksPokoi("GDA001", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // When: the client is deleted
+        klienciService.delete(klient.getId());
+
+        // Then: the room stays, without guests
+        assertEquals(new Oblozenie(PIERWSZA_NOC, 1, 3, 0), calendar.naDzien("GDA001", PIERWSZA_NOC));
+    }
+
+    @Test
+    void testPeriodAcrossSeasonsIsRejected() {
+        // Then: a period spanning two calendar years cannot be answered from one season
+        assertThrows(IllegalArgumentException.class,
+                () -> calendar.wOkresie("GDA001", LocalDate.of(2025, 12, 30), LocalDate.of(2026, 1, 2)));
+    }
+
+    private Pokoje pokoj(String typ, int ilMiejsc) {
+        Pokoje pokoj = new Pokoje();
+        pokoj.setWycieczka(wycieczka);
+        pokoj.setTypPokoju(typ);
+        pokoj.setIlMiejsc(ilMiejsc);
+        pokoj.setListaHoteli(false);
+        em.persist(pokoj);
+        return pokoj;
+    }
+
+    private Klienci klient(Pokoje pokoj) {
+        Klienci klient = new Klienci();
+        klient.setImie("Jan");
+        klient.setNazwisko("Kowalski");
+        klient.setWycieczka(wycieczka);
+        klient.setTypPokoju(pokoj.getTypPokoju());
+        klient.setPokoj(pokoj);
+        klient.setDoZaplaty(BigDecimal.ZERO);
+        return klient;
+    }
+
+    private void dodajListeHoteli(Pokoje pokoj) {
+        // the hotel list refers to managed rows, so it is written inside a transaction that loads them
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ListyHoteli> lista = new ArrayList<>();
+            for (int i = 0; i < noce.size(); i++) {
+                ListyHoteli listaHoteli = new ListyHoteli();
+                listaHoteli.setPokoj(em.find(Pokoje.class, pokoj.getId()));
+                listaHoteli.setMiastoWycieczki(em.find(MiastaWycieczek.class, noce.get(i).getId()));
+                listaHoteli.setHotel(em.find(Hotele.class, hotele.get(i).getKod()));
+                lista.add(listaHoteli);
+            }
+            listyHoteliService.addAll(lista);
+        });
+    }
+}
@@ -0,0 +1,171 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.exceptions.DuplicatedEntityExceptionn;
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.services.HoteleService;
+import com.project.springbootjavafx.services.ListaNocyHoteliService;
+import com.project.springbootjavafx.services.ListyHoteliService;
+import com.project.springbootjavafx.services.MiastaService;
+import com.project.springbootjavafx.services.TypyWycieczekService;
+import com.project.springbootjavafx.services.WycieczkiService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the coded reference entities are added with a single conflict-ignoring insert and that an existing
+ * code is reported as a duplicate.
+ *
+ * <p>
+ * The tests run without a surrounding transaction, so that a rejected batch can be checked to have added nothing.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({HoteleService.class, MiastaService.class, TypyWycieczekService.class, WycieczkiService.class,
+        ListyHoteliService.class, ListaNocyHoteliService.class})
+public class InsertIfAbsentTest {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private HoteleService hoteleService;
+
+    @Autowired
+    private MiastaService miastaService;
+
+    @Autowired
+    private TypyWycieczekService typyWycieczekService;
+
+    @Autowired
+    private WycieczkiService wycieczkiService;
+
+    private Miasta gdansk;
+
+    @BeforeEach
+    void setUp() {
+        // Given: a city with one hotel
+        gdansk = miastaService.add(new Miasta("Gdansk"));
+        hoteleService.add(hotel("GDA001"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String entity : List.of("Wycieczki", "TypyWycieczek", "Hotele", "Miasta")) {
+                em.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void testExistingCodesAreDuplicates() {
+        // When: the same hotel and city are added again
+        DuplicatedEntityExceptionn hotel = assertThrows(DuplicatedEntityExceptionn.class,
+                () -> hoteleService.add(hotel("GDA001")));
+        DuplicatedEntityExceptionn miasto = assertThrows(DuplicatedEntityExceptionn.class,
+                () -> miastaService.add(new Miasta("Gdansk")));
+
+        // Then: both are reported and nothing changed
+        assertEquals("Hotel o kodzie GDA001 już istnieje", hotel.getMessage());
+        assertEquals("Miasto Gdansk już istnieje", miasto.getMessage());
+        assertEquals(1, hoteleService.getAll().size());
+    }
+
+    @Test
+    void testBatchIsInsertedWhole() {
+        // When: a catalog of new hotels is imported
+        hoteleService.addAll(List.of(hotel("GDA002"), hotel("GDA003"), hotel("GDA004")));
+
+        // Then: all of them are stored with their city
+        assertEquals(4, hoteleService.getHoteleMiasta(gdansk).size());
+    }
+
+    @Test
+    void testBatchWithExistingCodeAddsNothing() {
+        // When: an import contains a code that already exists, or a code twice
+        DuplicatedEntityExceptionn existing = assertThrows(DuplicatedEntityExceptionn.class,
+                () -> hoteleService.addAll(List.of(hotel("GDA002"), hotel("GDA001"), hotel("GDA003"))));
+        assertThrows(DuplicatedEntityExceptionn.class,
+                () -> hoteleService.addAll(List.of(hotel("GDA005"), hotel("GDA005"))));
+
+        // Then: the existing code is named and none of the new hotels was added
+        assertEquals("Hotel o kodzie GDA001 już istnieje", existing.getMessage());
+        assertEquals(1, hoteleService.getAll().size());
+    }
+
+    @Test
+    void testCityAndTypeBatchesWithExistingCodeAddNothing() {
+        // Given: an existing trip type
+        typyWycieczekService.add(typ("PM"));
+
+        // When: batches of cities and types contain an existing name or code
+        DuplicatedEntityExceptionn miasto = assertThrows(DuplicatedEntityExceptionn.class,
+                () -> miastaService.addAll(List.of(new Miasta("Sopot"), new Miasta("Gdansk"))));
+        DuplicatedEntityExceptionn typ = assertThrows(DuplicatedEntityExceptionn.class,
+                () -> typyWycieczekService.addAll(List.of(typ("GD"), typ("PM"))));
+
+        // Then: the existing keys are named and none of the new rows was added
+        assertEquals("Miasto Gdansk już istnieje", miasto.getMessage());
+        assertEquals("Wycieczka o typie PM już istnieje", typ.getMessage());
+        assertEquals(1, miastaService.getAll().size());
+        assertEquals(1, typyWycieczekService.getAll().size());
+    }
+
+    @Test
+    void testTripIsInsertedWithAllColumns() {
+        // Given: a trip type
+        TypyWycieczek typ = new TypyWycieczek();
+        typ.setTyp("PM");
+        typ.setLiczba_nocy(2);
+        typyWycieczekService.add(typ);
+
+        // When: a trip of the type is added
+        Wycieczki wycieczka = new Wycieczki();
+        wycieczka.setWycieczka("PM01");
+        wycieczka.setTypWycieczki(typ);
+        wycieczka.setPoczatek(LocalDate.of(2025, 6, 1));
+        wycieczka.setKoniec(LocalDate.of(2025, 6, 3));
+        wycieczka.setIlUczestinkow(0);
+        wycieczka.setWplyw(BigDecimal.ZERO);
+        wycieczkiService.add(wycieczka);
+
+        // Then: it is read back as inserted and cannot be added twice
+        Wycieczki zapisana = wycieczkiService.getById("PM01");
+        assertEquals(LocalDate.of(2025, 6, 1), zapisana.getPoczatek());
+        assertEquals(0, BigDecimal.ZERO.compareTo(zapisana.getWplyw()));
+        assertThrows(DuplicatedEntityExceptionn.class, () -> wycieczkiService.add(wycieczka));
+        assertThrows(DuplicatedEntityExceptionn.class, () -> typyWycieczekService.add(typ));
+    }
+
+    private TypyWycieczek typ(String kod) {
+        TypyWycieczek typ = new TypyWycieczek();
+        typ.setTyp(kod);
+        typ.setLiczba_nocy(2);
+        return typ;
+    }
+
+    private Hotele hotel(String kod) {
+        return new Hotele(kod, "Hotel " + kod, gdansk, "ul. Dluga 1", "gda@hotel.pl", "111");
+    }
+}
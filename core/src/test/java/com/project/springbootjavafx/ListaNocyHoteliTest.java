@@ -0,0 +1,187 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.services.HoteleService;
+import com.project.springbootjavafx.services.ListaNocyHoteliService;
+import com.project.springbootjavafx.services.ListyHoteliService;
+import com.project.springbootjavafx.services.MiastaWycieczekService;
+import com.project.springbootjavafx.services.WycieczkiService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the hotel night lists are rebuilt for exactly the rooms whose hotel lists change, and for the rooms
+ * showing a trip, hotel or trip night that changes.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ListyHoteliService.class, ListaNocyHoteliService.class, WycieczkiService.class, HoteleService.class,
+        MiastaWycieczekService.class})
+public class ListaNocyHoteliTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private ListyHoteliService listyHoteliService;
+
+    @Autowired
+    private ListaNocyHoteliService listaNocyHoteliService;
+
+    @Autowired
+    private WycieczkiService wycieczkiService;
+
+    @Autowired
+    private HoteleService hoteleService;
+
+    @Autowired
+    private MiastaWycieczekService miastaWycieczekService;
+
+    private Pokoje pokoj1;
+
+    private Pokoje pokoj2;
+
+    private List<MiastaWycieczek> noce;
+
+    private List<Hotele> hotele;
+
+    @BeforeEach
+    void setUp() {
+        // Given: a two-night trip starting on 2025-06-01 with two rooms and a hotel in each night city
+        Miasta gdansk = em.persist(new Miasta("Gdansk"));
+        Miasta sopot = em.persist(new Miasta("Sopot"));
+        hotele = List.of(
+                em.persist(new Hotele("GDA001", "Hotel Gdansk", gdansk, "ul. Dluga 1", "gda@hotel.pl", "111")),
+                em.persist(new Hotele("SOP001", "Hotel Sopot", sopot, "ul. Morska 1", "sop@hotel.pl", "222")));
+
+        TypyWycieczek typ = new TypyWycieczek();
+        typ.setTyp("PM");
+        typ.setLiczba_nocy(2);
+        em.persist(typ);
+
+        noce = new ArrayList<>();
+        int noc = 1;
+        for (Miasta miasto : List.of(gdansk, sopot)) {
+            MiastaWycieczek miastoWycieczki = new MiastaWycieczek();
+            miastoWycieczki.setTypyWycieczek(typ);
+            miastoWycieczki.setMiasta(miasto);
+            miastoWycieczki.setNumerNocy(noc++);
+            noce.add(em.persist(miastoWycieczki));
+        }
+
+        Wycieczki wycieczka = new Wycieczki();
+        wycieczka.setWycieczka("PM01");
+        wycieczka.setTypWycieczki(typ);
+        wycieczka.setPoczatek(LocalDate.of(2025, 6, 1));
+        wycieczka.setKoniec(LocalDate.of(2025, 6, 3));
+        wycieczka.setIlUczestinkow(0);
+        wycieczka.setWplyw(BigDecimal.ZERO);
+        em.persist(wycieczka);
+
+        pokoj1 = pokoj(wycieczka);
+        pokoj2 = pokoj(wycieczka);
+        em.flush();
+    }
+
+    @Test
+    void testAddBuildsNightsWithDates() {
+        // When: hotel lists are added for both rooms
+        listyHoteliService.addAll(listaHoteli(pokoj1));
+        listyHoteliService.addAll(listaHoteli(pokoj2));
+
+        // Then: every room has one record per night with the date of the night
+        List<ListaNocyHoteli> noce1 = listaNocyHoteliService.getListyByPokoj(pokoj1);
+        assertEquals(2, noce1.size());
+        assertEquals(1, noce1.get(0).getNoc());
+        assertEquals(LocalDate.of(2025, 6, 1), noce1.get(0).getData());
+        assertEquals("Gdansk", noce1.get(0).getMiasto());
+        assertEquals(LocalDate.of(2025, 6, 2), noce1.get(1).getData());
+        assertEquals("Hotel Sopot", noce1.get(1).getHotel());
+        assertEquals(2, listaNocyHoteliService.getListyByPokoj(pokoj2).size());
+    }
+
+    @Test
+    void testDeleteRebuildsOnlyTouchedRoom() {
+        // Given: both rooms have hotel lists
+        listyHoteliService.addAll(listaHoteli(pokoj1));
+        listyHoteliService.addAll(listaHoteli(pokoj2));
+
+        // When: the hotel list of the first room is deleted
+        listyHoteliService.usunDlaPokoju(pokoj1);
+
+        // Then: only the first room loses its nights
+        assertTrue(listaNocyHoteliService.getListyByPokoj(pokoj1).isEmpty());
+        assertEquals(2, listaNocyHoteliService.getListyByPokoj(pokoj2).size());
+    }
+
+    @Test
+    void testNightsOfDateRange() {
+        // Given: both rooms have hotel lists
+        listyHoteliService.addAll(listaHoteli(pokoj1));
+        listyHoteliService.addAll(listaHoteli(pokoj2));
+
+        // When: the nights of the second day are requested
+        List<ListaNocyHoteli> noce = listaNocyHoteliService.getListyWOkresie(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 2));
+
+        // Then: both rooms sleep in Sopot that night
+        assertEquals(2, noce.size());
+        noce.forEach(noc -> assertEquals("Hotel Sopot", noc.getHotel()));
+    }
+
+    @Test
+    void testChangedTripHotelAndNightAreShown() {
+        // Given: the first room has a hotel list
+        listyHoteliService.addAll(listaHoteli(pokoj1));
+
+        // When: the trip starts a week later, the Sopot hotel is renamed and the second night moves to Gdansk
+        Wycieczki wycieczka = pokoj1.getWycieczka();
+        wycieczka.setPoczatek(LocalDate.of(2025, 6, 8));
+        wycieczkiService.updateAll(List.of(wycieczka));
+        hotele.get(1).setNazwa("Grand Sopot");
+        hoteleService.updateAll(List.of(hotele.get(1)));
+        noce.get(1).setMiasta(noce.get(0).getMiasta());
+        miastaWycieczekService.updateAll(List.of(noce.get(1)));
+
+        // Then: the nights show the new dates, hotel name and city, and the other room still has no nights
+        List<ListaNocyHoteli> noce1 = listaNocyHoteliService.getListyByPokoj(pokoj1);
+        assertEquals(2, noce1.size());
+        assertEquals(LocalDate.of(2025, 6, 8), noce1.get(0).getData());
+        assertEquals(LocalDate.of(2025, 6, 9), noce1.get(1).getData());
+        assertEquals("Grand Sopot", noce1.get(1).getHotel());
+        assertEquals("Gdansk", noce1.get(1).getMiasto());
+        assertTrue(listaNocyHoteliService.getListyByPokoj(pokoj2).isEmpty());
+    }
+
+    private Pokoje pokoj(Wycieczki wycieczka) {
+        Pokoje pokoj = new Pokoje();
+        pokoj.setWycieczka(wycieczka);
+        pokoj.setTypPokoju("dbl");
+        pokoj.setIlMiejsc(2);
+        pokoj.setListaHoteli(false);
+        return em.persist(pokoj);
+    }
+
+    private List<ListyHoteli> listaHoteli(Pokoje pokoj) {
+        List<ListyHoteli> lista = new ArrayList<>();
+        for (int i = 0; i < noce.size(); i++) {
+            ListyHoteli listaHoteli = new ListyHoteli();
+            listaHoteli.setPokoj(pokoj);
+            listaHoteli.setMiastoWycieczki(noce.get(i));
+            listaHoteli.setHotel(hotele.get(i));
+            lista.add(listaHoteli);
+        }
+        return lista;
+    }
+}
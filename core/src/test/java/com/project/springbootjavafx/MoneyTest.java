@@ -0,0 +1,43 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the conversions and the arithmetic of {@link Money}.
+ */
+public class MoneyTest {
+
+    @Test
+    void testConversionAtEntityBoundary() {
+        // When: amounts are read from and written to entities
+        Money kwota = Money.of(new BigDecimal("1900.485"));
+
+        // Then: they are rounded half up to a grosz and written back with two decimal places
+        assertEquals(190049, kwota.grosze());
+        assertEquals(new BigDecimal("1900.49"), kwota.toBigDecimal());
+        assertEquals("1900.49", kwota.toString());
+        assertEquals(Money.ZERO, Money.ofNullable(null));
+        assertThrows(NullPointerException.class, () -> Money.of(null));
+    }
+
+    @Test
+    void testArithmeticIsExact() {
+        // Given: an amount of 999.99 zł
+        Money kwota = new Money(99999);
+
+        // Then: the discount is rounded half up, and overflows are reported
+        assertEquals(new Money(69999), kwota.poRabacie(30));
+        assertEquals(new Money(69997), new Money(99995).poRabacie(30));
+        assertEquals(new Money(199998), kwota.plus(kwota));
+        assertEquals(Money.ZERO, kwota.minus(kwota));
+        assertEquals(new Money(299997), kwota.times(3));
+        assertEquals(new Money(199998), Money.sum(new long[]{99999, 99999}));
+        assertThrows(ArithmeticException.class, () -> Money.sum(new long[]{Long.MAX_VALUE, 1}));
+        assertTrue(kwota.compareTo(Money.ZERO) > 0);
+    }
+}
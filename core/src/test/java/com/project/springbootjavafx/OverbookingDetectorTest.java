@@ -0,0 +1,170 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.services.EntitiesChangedEvent;
+import com.project.springbootjavafx.services.OverbookingDetector;
+import com.project.springbootjavafx.services.OverbookingDetector.Konflikt;
+import com.project.springbootjavafx.services.ReferenceDataCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the overbooking detector adds up the rooms of all trips in a hotel on a night and reports the nights
+ * with more rooms than the hotel has, for one trip and for a whole season.
+ *
+ * <p>
+ * The tests run without a surrounding transaction, because the trips and hotels are taken from the reference data,
+ * which is read from committed data.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({OverbookingDetector.class, ReferenceDataCache.class})
+public class OverbookingDetectorTest {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OverbookingDetector overbookingDetector;
+
+    @BeforeEach
+    void setUp() {
+        // Given: a hotel in Gdansk with two rooms and a hotel in Sopot without a number of rooms; trip type PM sleeps
+        // in Gdansk and then in Sopot, trip type GR in Gdansk only
+        transactionTemplate.executeWithoutResult(status -> {
+            Miasta gdansk = new Miasta("Gdansk");
+            Miasta sopot = new Miasta("Sopot");
+            em.persist(gdansk);
+            em.persist(sopot);
+            Hotele gda = new Hotele("GDA001", "Hotel Gdansk", gdansk, "ul. Dluga 1", "gda@hotel.pl", "111");
+            gda.setLiczbaPokoi(2);
+            Hotele sop = new Hotele("SOP001", "Hotel Sopot", sopot, "ul. Morska 1", "sop@hotel.pl", "222");
+            em.persist(gda);
+            em.persist(sop);
+
+            List<MiastaWycieczek> pm = trasa("PM", gdansk, sopot);
+            List<MiastaWycieczek> gr = trasa("GR", gdansk);
+
+            // PM01 and GR01 share the first night in Gdansk, three rooms together
+            lista(wycieczka(pm.get(0).getTypyWycieczek(), "PM01", 1, 2), 2, pm, List.of(gda, sop));
+            lista(wycieczka(gr.get(0).getTypyWycieczek(), "GR01", 1, 1), 1, gr, List.of(gda));
+            // GR02 sleeps in Gdansk the night after, alone
+            lista(wycieczka(gr.get(0).getTypyWycieczek(), "GR02", 2, 1), 1, gr, List.of(gda));
+            // PM02 alone puts three rooms in Gdansk and three rooms in Sopot
+            lista(wycieczka(pm.get(0).getTypyWycieczek(), "PM02", 10, 2), 3, pm, List.of(gda, sop));
+        });
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Hotele.class, Wycieczki.class)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String entity : List.of("ListyHoteli", "Pokoje", "Wycieczki", "MiastaWycieczek", "TypyWycieczek",
+                    "Hotele", "Miasta")) {
+                em.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+        // the bulk deletes bypass the services, so the change is announced by hand
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Hotele.class, Wycieczki.class)));
+    }
+
+    @Test
+    void testTripSeesRoomsOfOverlappingTrips() {
+        // When: the trips are checked one by one
+        List<Konflikt> pm01 = overbookingDetector.sprawdzWycieczke("PM01");
+
+        // Then: PM01 overbooks Gdansk together with GR01, GR02 does not take part in any overbooked night, and Sopot
+        // is not checked
+        assertEquals(List.of(new Konflikt("GDA001", LocalDate.of(2025, 6, 1), 3, 2, List.of("GR01", "PM01"))), pm01);
+        assertEquals(pm01, overbookingDetector.sprawdzWycieczke("GR01"));
+        assertEquals(List.of(), overbookingDetector.sprawdzWycieczke("GR02"));
+        assertThrows(IllegalArgumentException.class, () -> overbookingDetector.sprawdzWycieczke("XX01"));
+    }
+
+    @Test
+    void testSeasonReportsAllOverbookedNights() {
+        // When: the whole season is checked
+        List<Konflikt> konflikty = overbookingDetector.sprawdzSezon(LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 12, 31));
+
+        // Then: both overbooked nights of Gdansk are found
+        assertEquals(List.of(
+                new Konflikt("GDA001", LocalDate.of(2025, 6, 1), 3, 2, List.of("GR01", "PM01")),
+                new Konflikt("GDA001", LocalDate.of(2025, 6, 10), 3, 2, List.of("PM02"))), konflikty);
+    }
+
+    private List<MiastaWycieczek> trasa(String kod, Miasta... miasta) {
+        TypyWycieczek typ = new TypyWycieczek();
+        typ.setTyp(kod);
+        typ.setLiczba_nocy(miasta.length);
+        em.persist(typ);
+
+        List<MiastaWycieczek> noce = new ArrayList<>();
+        for (int i = 0; i < miasta.length; i++) {
+            MiastaWycieczek noc = new MiastaWycieczek();
+            noc.setTypyWycieczek(typ);
+            noc.setMiasta(miasta[i]);
+            noc.setNumerNocy(i + 1);
+            em.persist(noc);
+            noce.add(noc);
+        }
+        return noce;
+    }
+
+    private Wycieczki wycieczka(TypyWycieczek typ, String kod, int dzienCzerwca, int noce) {
+        Wycieczki wycieczka = new Wycieczki();
+        wycieczka.setWycieczka(kod);
+        wycieczka.setTypWycieczki(typ);
+        wycieczka.setPoczatek(LocalDate.of(2025, 6, dzienCzerwca));
+        wycieczka.setKoniec(LocalDate.of(2025, 6, dzienCzerwca + noce));
+        wycieczka.setIlUczestinkow(0);
+        wycieczka.setWplyw(BigDecimal.ZERO);
+        em.persist(wycieczka);
+        return wycieczka;
+    }
+
+    private void lista(Wycieczki wycieczka, int pokoje, List<MiastaWycieczek> noce, List<Hotele> hotele) {
+        for (int p = 0; p < pokoje; p++) {
+            Pokoje pokoj = new Pokoje();
+            pokoj.setWycieczka(wycieczka);
+            pokoj.setTypPokoju("dbl");
+            pokoj.setIlMiejsc(2);
+            pokoj.setListaHoteli(true);
+            em.persist(pokoj);
+            for (int i = 0; i < noce.size(); i++) {
+                ListyHoteli listaHoteli = new ListyHoteli();
+                listaHoteli.setPokoj(pokoj);
+                listaHoteli.setMiastoWycieczki(noce.get(i));
+                listaHoteli.setHotel(hotele.get(i));
+                em.persist(listaHoteli);
+            }
+        }
+    }
+}
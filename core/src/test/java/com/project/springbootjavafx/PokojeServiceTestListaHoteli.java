@@ -46,9 +46,9 @@ public class PokojeServiceTestListaHoteli {
         // When: setListaHoteliTrue is called with a list of rooms.
         pokojeService.setListaHoteliTrue(pokojeList);
 
-        // Then: verify that updateListaHoteliTrue is called for each room ID exactly once.
-        verify(pokojeRepository, times(1)).updateListaHoteliTrue(1);
-        verify(pokojeRepository, times(1)).updateListaHoteliTrue(2);
+        // Then: verify that a single update is issued for all room IDs.
+        verify(pokojeRepository, times(1)).updateListaHoteli(List.of(1, 2), true);
+        verifyNoMoreInteractions(pokojeRepository);
     }
 
     @Test
@@ -56,8 +56,17 @@ public class PokojeServiceTestListaHoteli {
         // When: setListaHoteliFalse is called with a list of rooms.
         pokojeService.setListaHoteliFalse(pokojeList);
 
-        // Then: verify that updateListaHoteliFalse is called for each room ID exactly once.
-        verify(pokojeRepository, times(1)).updateListaHoteliFalse(1);
-        verify(pokojeRepository, times(1)).updateListaHoteliFalse(2);
+        // Then: verify that a single update is issued for all room IDs.
+        verify(pokojeRepository, times(1)).updateListaHoteli(List.of(1, 2), false);
+        verifyNoMoreInteractions(pokojeRepository);
+    }
+
+    @Test
+    void testSetListaHoteliEmptyList() {
+        // When: setListaHoteliTrue is called with no rooms.
+        pokojeService.setListaHoteliTrue(List.of());
+
+        // Then: verify that no query is issued.
+        verifyNoInteractions(pokojeRepository);
     }
 }
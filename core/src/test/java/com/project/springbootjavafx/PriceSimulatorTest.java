@@ -0,0 +1,203 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.models.PriceScenario.Zmiana;
+import com.project.springbootjavafx.models.PriceTable.Skladnik;
+import com.project.springbootjavafx.services.EntitiesChangedEvent;
+import com.project.springbootjavafx.services.PriceSimulator;
+import com.project.springbootjavafx.services.PriceSimulator.ClientSnapshot;
+import com.project.springbootjavafx.services.PriceSimulator.SimulationResult;
+import com.project.springbootjavafx.services.ReferenceDataCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the price simulator loads the clients of a season once and evaluates price scenarios against them
+ * without reading the database.
+ *
+ * <p>
+ * The tests run without a surrounding transaction, because the current prices are compiled from committed data.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({PriceSimulator.class, ReferenceDataCache.class})
+public class PriceSimulatorTest {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PriceSimulator priceSimulator;
+
+    private ClientSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        // Given: type PM with trips PM01 and PM02 of the season and PM03 of the next one, type GR with trip GR01, and
+        // their clients; PM has no price of a room for four
+        transactionTemplate.executeWithoutResult(status -> {
+            TypyWycieczek pm = cennik("PM", "1200", "1000", null, 30, "250.50");
+            TypyWycieczek gr = cennik("GR", "2000", "1800", "1500", 50, "200");
+
+            Wycieczki pm01 = wycieczka(pm, "PM01", 2025);
+            Wycieczki pm02 = wycieczka(pm, "PM02", 2025);
+            Wycieczki pm03 = wycieczka(pm, "PM03", 2026);
+            Wycieczki gr01 = wycieczka(gr, "GR01", 2025);
+            klient(pm01, pokoj(pm01, 2), false, true);
+            klient(pm01, pokoj(pm01, 2), true, false);
+            klient(pm02, pokoj(pm02, 1), false, false);
+            klient(pm02, pokoj(pm02, 4), false, false);
+            klient(pm03, pokoj(pm03, 2), false, false);
+            klient(gr01, pokoj(gr01, 2), false, true);
+        });
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Ceny.class)));
+        snapshot = priceSimulator.zaladuj(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String entity : List.of("Klienci", "Pokoje", "Wycieczki", "Ceny", "TypyWycieczek")) {
+                em.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+        // the bulk deletes bypass the services, so the change is announced by hand
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Ceny.class)));
+    }
+
+    @Test
+    void testScenarioChangesRevenueOfTripsAndTypes() {
+        // Given: the price of a double room rises 5% and the e-bike drops 10 zł, or the double room of GR drops 10%
+        PriceScenario podwyzka = PriceScenario.of("podwyżka",
+                Zmiana.procent(Skladnik.POK_2, "5"), Zmiana.kwota(Skladnik.E_BIKE, "-10"));
+        PriceScenario promocja = PriceScenario.of("promocja GR", Zmiana.procent(Skladnik.POK_2, "-10").dlaTypu("GR"));
+
+        // When: both scenarios are evaluated
+        List<SimulationResult> wyniki = priceSimulator.symuluj(snapshot, List.of(podwyzka, promocja));
+
+        // Then: only the clients of the season count, the discounted client gains the discounted rise, and the client
+        // of the room without a price is counted apart
+        assertEquals(5, snapshot.klienci());
+        SimulationResult wynik = wyniki.get(0);
+        assertEquals("podwyżka", wynik.scenariusz());
+        assertEquals(Map.of("PM01", money("75"), "PM02", Money.ZERO, "GR01", money("80")), wynik.wycieczki());
+        assertEquals(Map.of("PM", money("75"), "GR", money("80")), wynik.typy());
+        assertEquals(money("155"), wynik.razem());
+        assertEquals(1, wynik.niewycenieni());
+        assertEquals(money("-180"), wyniki.get(1).razem());
+        assertEquals(Money.ZERO, wyniki.get(1).typy().get("PM"));
+    }
+
+    @Test
+    void testManyScenariosDoNotQueryDatabase() {
+        // Given: two hundred scenarios raising the e-bike by 0 to 199 zł
+        List<PriceScenario> scenariusze = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            scenariusze.add(PriceScenario.of("+" + i, Zmiana.kwota(Skladnik.E_BIKE, String.valueOf(i))));
+        }
+        priceSimulator.symuluj(snapshot, List.of());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When: all scenarios are evaluated
+        List<SimulationResult> wyniki = priceSimulator.symuluj(snapshot, scenariusze);
+
+        // Then: no statement was executed, and every scenario changes the two e-bikes by its amount
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(200, wyniki.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals("+" + i, wyniki.get(i).scenariusz());
+            assertEquals(new Money(2L * i * 100), wyniki.get(i).razem());
+        }
+    }
+
+    private static Money money(String zlote) {
+        return Money.of(new BigDecimal(zlote));
+    }
+
+    private TypyWycieczek cennik(String kod, String pok1, String pok2, String pok4, int ulga, String eBike) {
+        TypyWycieczek typ = new TypyWycieczek();
+        typ.setTyp(kod);
+        typ.setLiczba_nocy(1);
+        em.persist(typ);
+
+        Ceny ceny = new Ceny();
+        ceny.setTyp_wycieczki(typ);
+        ceny.setPok_1(new BigDecimal(pok1));
+        ceny.setPok_2(new BigDecimal(pok2));
+        ceny.setPok_4(pok4 == null ? null : new BigDecimal(pok4));
+        ceny.setUlga_dziecko(ulga);
+        ceny.setE_bike(new BigDecimal(eBike));
+        em.persist(ceny);
+        return typ;
+    }
+
+    private Wycieczki wycieczka(TypyWycieczek typ, String kod, int rok) {
+        Wycieczki wycieczka = new Wycieczki();
+        wycieczka.setWycieczka(kod);
+        wycieczka.setTypWycieczki(typ);
+        wycieczka.setPoczatek(LocalDate.of(rok, 6, 1));
+        wycieczka.setKoniec(LocalDate.of(rok, 6, 2));
+        wycieczka.setIlUczestinkow(0);
+        wycieczka.setWplyw(BigDecimal.ZERO);
+        em.persist(wycieczka);
+        return wycieczka;
+    }
+
+    private Pokoje pokoj(Wycieczki wycieczka, int ilMiejsc) {
+        Pokoje pokoj = new Pokoje();
+        pokoj.setWycieczka(wycieczka);
+        pokoj.setTypPokoju("p" + ilMiejsc);
+        pokoj.setIlMiejsc(ilMiejsc);
+        pokoj.setListaHoteli(false);
+        em.persist(pokoj);
+        return pokoj;
+    }
+
+    private void klient(Wycieczki wycieczka, Pokoje pokoj, boolean ulga, boolean eBike) {
+        Klienci klient = new Klienci();
+        klient.setImie("Jan");
+        klient.setNazwisko("Kowalski");
+        klient.setWycieczka(wycieczka);
+        klient.setPokoj(pokoj);
+        klient.setTypPokoju(pokoj.getTypPokoju());
+        klient.setUlga(ulga);
+        klient.setEBike(eBike);
+        klient.setDoZaplaty(BigDecimal.ZERO);
+        em.persist(klient);
+    }
+}
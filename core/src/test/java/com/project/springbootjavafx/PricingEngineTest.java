@@ -0,0 +1,167 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.services.EntitiesChangedEvent;
+import com.project.springbootjavafx.services.PricingEngine;
+import com.project.springbootjavafx.services.ReferenceDataCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.project.springbootjavafx.models.PriceTable.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the quotes of the pricing engine and that batches of quotes are served from the compiled price tables
+ * without a query.
+ *
+ * <p>
+ * The tests run without a surrounding transaction, because the price tables are compiled from committed data.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReferenceDataCache.class, PricingEngine.class})
+public class PricingEngineTest {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @BeforeEach
+    void setUp() {
+        // Given: trip type PM with prices but no price of a room for four, and trip type GR with its own prices
+        transactionTemplate.executeWithoutResult(status -> {
+            cennik("PM", "1200", "1000.00", "900", null, 30, "150", "250.50", "200", "99.99");
+            cennik("GR", "2000", "1800", "1600", "1500", 50, "100", "200", "300", "50");
+        });
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Ceny.class)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String entity : List.of("Ceny", "TypyWycieczek")) {
+                em.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+        // the bulk deletes bypass the services, so the change is announced by hand
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Ceny.class)));
+    }
+
+    @Test
+    void testQuoteAddsOptionsToDiscountedRoom() {
+        // When: clients of a double room are quoted with different options
+        Money bezOpcji = pricingEngine.quote("PM", 2, 0);
+        Money zUlgaIRowerem = pricingEngine.quote("PM", 2, OPCJA_ULGA | OPCJA_ROWER);
+        Money wszystko = pricingEngine.quote("PM", 2, opcje(false, true, true, true, true, true));
+
+        // Then: the discount takes its percentage off the room, and every option adds its price
+        assertEquals(new BigDecimal("1000.00"), bezOpcji.toBigDecimal());
+        assertEquals(new BigDecimal("850.00"), zUlgaIRowerem.toBigDecimal());
+        assertEquals(new Money(190049), wszystko);
+    }
+
+    @Test
+    void testMissingPricesAreReported() {
+        // Then: a room without a price and a trip type without prices cannot be quoted
+        assertThrows(IllegalArgumentException.class, () -> pricingEngine.quote("PM", 4, 0));
+        assertThrows(IllegalArgumentException.class, () -> pricingEngine.quote("PM", 5, 0));
+        assertThrows(NoSuchElementException.class, () -> pricingEngine.quote("XX", 1, 0));
+    }
+
+    @Test
+    void testQuoteOverflowIsReported() {
+        // Given: a price table whose room price is the largest amount of grosze
+        Ceny ceny = new Ceny();
+        ceny.setPok_2(Money.zlote(Long.MAX_VALUE));
+        ceny.setRower(new BigDecimal("0.01"));
+        PriceTable cennik = PriceTable.compile("XX", ceny);
+
+        // Then: the room alone is quoted, and an option on top of it overflows instead of wrapping around
+        assertEquals(Long.MAX_VALUE, cennik.quote(2, 0));
+        assertThrows(ArithmeticException.class, () -> cennik.quote(2, OPCJA_ROWER));
+        assertThrows(ArithmeticException.class, () -> cennik.quoteOrElse(2, OPCJA_ROWER, -1));
+    }
+
+    @Test
+    void testBatchQuoteDoesNotQueryDatabase() {
+        // Given: thousands of clients of both trip types, and the compiled price tables
+        int n = 5000;
+        String[] typy = new String[n];
+        int[] ilMiejsc = new int[n];
+        int[] opcje = new int[n];
+        for (int i = 0; i < n; i++) {
+            typy[i] = i < n / 2 ? "GR" : "PM";
+            ilMiejsc[i] = 1 + i % 3;
+            opcje[i] = i % 2 == 0 ? OPCJA_ULGA : OPCJA_HB;
+        }
+        long[] grosze = new long[n];
+        pricingEngine.quote("PM", 1, 0);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When: all clients are quoted at once
+        pricingEngine.quote(typy, ilMiejsc, opcje, grosze);
+
+        // Then: no statement was executed and every price matches the single quote
+        assertEquals(0, statistics.getPrepareStatementCount());
+        for (int i = 0; i < n; i += 499) {
+            assertEquals(pricingEngine.quote(typy[i], ilMiejsc[i], opcje[i]), new Money(grosze[i]));
+        }
+        assertEquals(100000, grosze[0]);
+        assertThrows(IllegalArgumentException.class,
+                () -> pricingEngine.quote("PM", new int[2], new int[1], new long[2]));
+    }
+
+    private void cennik(String kod, String pok1, String pok2, String pok3, String pok4, int ulga,
+                        String rower, String eBike, String noc, String hb) {
+        TypyWycieczek typ = new TypyWycieczek();
+        typ.setTyp(kod);
+        typ.setLiczba_nocy(1);
+        em.persist(typ);
+
+        Ceny ceny = new Ceny();
+        ceny.setTyp_wycieczki(typ);
+        ceny.setPok_1(new BigDecimal(pok1));
+        ceny.setPok_2(new BigDecimal(pok2));
+        ceny.setPok_3(new BigDecimal(pok3));
+        ceny.setPok_4(pok4 == null ? null : new BigDecimal(pok4));
+        ceny.setUlga_dziecko(ulga);
+        ceny.setRower(new BigDecimal(rower));
+        ceny.setE_bike(new BigDecimal(eBike));
+        ceny.setDodatkowa_noc(new BigDecimal(noc));
+        ceny.setHb(new BigDecimal(hb));
+        em.persist(ceny);
+    }
+}
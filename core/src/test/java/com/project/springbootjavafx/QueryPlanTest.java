@@ -0,0 +1,285 @@
+package com.project.springbootjavafx;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that every {@code @Query} of the repositories is answered from an index on a seeded PostgreSQL database.
+ *
+ * <p>
+ * The schema is created by the Flyway migrations from {@code db/migration}. Every statement executed while a
+ * repository method runs is explained first with the same bound values, and the test fails if any of the plans reads
+ * a whole table ({@code Seq Scan}). The test needs Docker and is skipped without it.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.flyway.enabled=true",
+        "spring.flyway.schemas=bird",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@Sql(scripts = "/query-plan-data.sql", config = @SqlConfig(transactionMode = SqlConfig.TransactionMode.ISOLATED))
+public class QueryPlanTest {
+
+    private static final String REPOSITORIES = "com.project.springbootjavafx.repositories";
+
+    /**
+     * Sample values of the {@code String} parameters, by parameter name, each matching a single seeded row.
+     */
+    private static final Map<String, String> SAMPLE_STRINGS = Map.of(
+            "typ", "001",
+            "typ_wycieczki", "001",
+            "miasto", "Miasto 1",
+            "wycieczka", "W0001");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ApplicationContext context;
+
+    @TestConfiguration
+    static class ExplainConfig {
+
+        /**
+         * Wraps the data source so that the statements can be explained.
+         *
+         * @return the post processor wrapping the {@link DataSource}
+         */
+        @Bean
+        static BeanPostProcessor explainingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? ExplainRecorder.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @Test
+    void testQueriesUseIndexes() throws Exception {
+        List<String> seqScans = new ArrayList<>();
+        for (Class<?> repository : repositories()) {
+            Object bean = context.getBean(repository);
+            for (Method method : repository.getDeclaredMethods()) {
+                if (!method.isAnnotationPresent(Query.class)) {
+                    continue;
+                }
+                // When: the query is run with sample arguments
+                List<String[]> plans = ExplainRecorder.record(() -> invoke(bean, method));
+
+                // Then: none of its statements reads a whole table
+                assertFalse(plans.isEmpty(), "Brak zapytania dla " + method);
+                for (String[] plan : plans) {
+                    if (plan[1].contains("Seq Scan")) {
+                        seqScans.add(repository.getSimpleName() + "." + method.getName() + ": " + plan[0] + "\n" + plan[1]);
+                    }
+                }
+            }
+        }
+        assertTrue(seqScans.isEmpty(), String.join("\n\n", seqScans));
+    }
+
+    private static List<Class<?>> repositories() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition definition) {
+                return definition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+        List<Class<?>> repositories = new ArrayList<>();
+        for (BeanDefinition definition : scanner.findCandidateComponents(REPOSITORIES)) {
+            repositories.add(Class.forName(definition.getBeanClassName()));
+        }
+        assertFalse(repositories.isEmpty());
+        return repositories;
+    }
+
+    private static void invoke(Object bean, Method method) throws Exception {
+        Object[] args = new Object[method.getParameterCount()];
+        for (int i = 0; i < args.length; i++) {
+            MethodParameter parameter = new MethodParameter(method, i);
+            parameter.initParameterNameDiscovery(new DefaultParameterNameDiscoverer());
+            args[i] = sample(parameter);
+        }
+        try {
+            Object result = method.invoke(bean, args);
+            if (result instanceof Stream<?> stream) {
+                // a streamed result is only read while it is consumed
+                try (stream) {
+                    stream.findFirst();
+                }
+            }
+        } catch (InvocationTargetException e) {
+            throw new AssertionError("Nie udalo sie wykonac " + method, e.getCause());
+        }
+    }
+
+    private static Object sample(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        if (type == Integer.class || type == int.class) {
+            return 1;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return true;
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.of(2025, 1, 1);
+        }
+        if (Pageable.class.isAssignableFrom(type)) {
+            return PageRequest.of(0, 10);
+        }
+        String name = parameter.hasParameterAnnotation(Param.class)
+                ? parameter.getParameterAnnotation(Param.class).value()
+                : parameter.getParameterName();
+        if (type == String.class) {
+            return SAMPLE_STRINGS.getOrDefault(name, "W0001");
+        }
+        if (type == Integer[].class) {
+            return new Integer[]{1, 2};
+        }
+        if (type == String[].class) {
+            return new String[]{"W0001", "W0002"};
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            Class<?> element = ResolvableType.forMethodParameter(parameter).asCollection().resolveGeneric(0);
+            return element == String.class ? List.of("W0001", "W0002") : List.of(1, 2, 3);
+        }
+        throw new IllegalStateException("Brak przykladowej wartosci dla " + parameter);
+    }
+
+    /**
+     * Explains the prepared statements executed while recording, with the values bound to them.
+     */
+    static final class ExplainRecorder {
+
+        private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+
+        private static List<String[]> plans;
+
+        interface Action {
+            void run() throws Exception;
+        }
+
+        static synchronized List<String[]> record(Action action) throws Exception {
+            plans = new ArrayList<>();
+            try {
+                action.run();
+                return plans;
+            } finally {
+                plans = null;
+            }
+        }
+
+        static DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                return result instanceof Connection connection ? wrap(connection) : result;
+            });
+        }
+
+        private static Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                    return wrap(statement, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement wrap(PreparedStatement statement, String sql) {
+            List<Object[]> binds = new ArrayList<>();
+            return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    binds.add(new Object[]{method, args});
+                } else if (method.getName().equals("clearParameters")) {
+                    binds.clear();
+                } else if (EXECUTE.contains(method.getName()) && (args == null || args.length == 0) && plans != null) {
+                    plans.add(new String[]{sql, explain(target.getConnection(), sql, binds)});
+                }
+                return method.invoke(target, args);
+            });
+        }
+
+        private static String explain(Connection connection, String sql, List<Object[]> binds) throws Exception {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (Object[] bind : binds) {
+                    ((Method) bind[0]).invoke(explain, (Object[]) bind[1]);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = explain.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Handler<T> handler) {
+            InvocationHandler invocationHandler = (proxy, method, args) -> {
+                try {
+                    return handler.invoke(target, method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+        }
+
+        private interface Handler<T> {
+            Object invoke(T target, Method method, Object[] args) throws Exception;
+        }
+    }
+}
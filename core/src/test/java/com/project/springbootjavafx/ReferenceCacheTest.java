@@ -0,0 +1,181 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.services.CacheStatisticsService;
+import com.project.springbootjavafx.services.CenyService;
+import com.project.springbootjavafx.services.HoteleService;
+import com.project.springbootjavafx.services.ListaNocyHoteliService;
+import com.project.springbootjavafx.services.PokojeService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the reference entities and the queries reading them are served from the second-level and query
+ * caches, and that changes made through the application invalidate them.
+ *
+ * <p>
+ * The tests run without a surrounding transaction: cached query results are only used once the tables they read
+ * have been committed.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({HoteleService.class, CenyService.class, PokojeService.class, CacheStatisticsService.class,
+        ListaNocyHoteliService.class})
+public class ReferenceCacheTest {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private HoteleService hoteleService;
+
+    @Autowired
+    private CenyService cenyService;
+
+    @Autowired
+    private PokojeService pokojeService;
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    private Miasta gdansk;
+
+    private TypyWycieczek typ;
+
+    private Pokoje pokoj;
+
+    @BeforeEach
+    void setUp() {
+        // Given: a committed city with a hotel, a trip type with prices and a trip with one room
+        transactionTemplate.executeWithoutResult(status -> {
+            gdansk = new Miasta("Gdansk");
+            em.persist(gdansk);
+            em.persist(new Hotele("GDA001", "Hotel Gdansk", gdansk, "ul. Dluga 1", "gda@hotel.pl", "111"));
+
+            typ = new TypyWycieczek();
+            typ.setTyp("PM");
+            typ.setLiczba_nocy(1);
+            em.persist(typ);
+
+            Ceny ceny = new Ceny();
+            ceny.setTyp_wycieczki(typ);
+            ceny.setPok_2(new BigDecimal("800"));
+            ceny.setUlga_dziecko(20);
+            em.persist(ceny);
+
+            Wycieczki wycieczka = new Wycieczki();
+            wycieczka.setWycieczka("PM01");
+            wycieczka.setTypWycieczki(typ);
+            wycieczka.setPoczatek(LocalDate.of(2025, 6, 1));
+            wycieczka.setKoniec(LocalDate.of(2025, 6, 2));
+            wycieczka.setIlUczestinkow(0);
+            wycieczka.setWplyw(BigDecimal.ZERO);
+            em.persist(wycieczka);
+
+            pokoj = new Pokoje();
+            pokoj.setWycieczka(wycieczka);
+            pokoj.setTypPokoju("dbl");
+            pokoj.setIlMiejsc(2);
+            pokoj.setListaHoteli(false);
+            em.persist(pokoj);
+        });
+        cacheStatisticsService.evictAll();
+        cacheStatisticsService.clearStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String entity : List.of("Pokoje", "Wycieczki", "Ceny", "TypyWycieczek", "Hotele", "Miasta")) {
+                em.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+        cacheStatisticsService.evictAll();
+    }
+
+    @Test
+    void testHoteleOfCityAreReadOnce() {
+        // When: the hotels of a city are read twice
+        List<Hotele> first = hoteleService.getHoteleMiasta(gdansk);
+        List<Hotele> second = hoteleService.getHoteleMiasta(gdansk);
+
+        // Then: only the first read reaches the database, the second one is a query cache hit
+        assertEquals(1, first.size());
+        assertEquals("GDA001", second.get(0).getKod());
+        assertEquals(1, cacheStatisticsService.getQueryStatistics().misses());
+        assertEquals(1, cacheStatisticsService.getQueryStatistics().hits());
+    }
+
+    @Test
+    void testHotelIsReadFromSecondLevelCache() {
+        // When: a hotel is loaded by its code twice
+        hoteleService.getById("GDA001");
+        Hotele hotel = hoteleService.getById("GDA001");
+
+        // Then: the second load is a hit in the Hotele region
+        assertEquals("Hotel Gdansk", hotel.getNazwa());
+        CacheStatisticsService.RegionStatistics hotele = cacheStatisticsService.getRegionStatistics().stream()
+                .filter(region -> region.region().equals(Hotele.class.getName()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, hotele.hits());
+        assertEquals(0.5, hotele.hitRatio());
+    }
+
+    @Test
+    void testAddingHotelInvalidatesCachedQuery() {
+        // Given: the hotels of the city are cached
+        hoteleService.getHoteleMiasta(gdansk);
+
+        // When: another hotel is added in the same city
+        hoteleService.add(new Hotele("GDA002", "Hotel Oliwa", gdansk, "ul. Opacka 1", "oli@hotel.pl", "333"));
+
+        // Then: the next read sees it
+        assertEquals(2, hoteleService.getHoteleMiasta(gdansk).size());
+    }
+
+    @Test
+    void testPricesAreReadOnce() {
+        // When: the prices of a trip type are read twice
+        cenyService.findByTypWycieczki(typ);
+        Ceny ceny = cenyService.findByTypWycieczki(typ);
+
+        // Then: the second read is a query cache hit
+        assertEquals(0, new BigDecimal("800").compareTo(ceny.getPok_2()));
+        assertEquals(1, cacheStatisticsService.getQueryStatistics().misses());
+        assertEquals(1, cacheStatisticsService.getQueryStatistics().hits());
+    }
+
+    @Test
+    void testNativeRoomUpdateKeepsReferenceCache() {
+        // Given: a cached hotel
+        hoteleService.getById("GDA001");
+
+        // When: the hotel list flag of a room is changed with a native UPDATE
+        pokojeService.setListaHoteliTrue(List.of(pokoj));
+
+        // Then: the hotel is still in the second-level cache
+        assertTrue(em.getEntityManagerFactory().getCache().contains(Hotele.class, "GDA001"));
+    }
+}
@@ -0,0 +1,209 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.services.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the reference data snapshot can be navigated without a persistence context and that it is replaced
+ * after committed changes only.
+ *
+ * <p>
+ * The tests run without a surrounding transaction, because the snapshot is refreshed after the commit of a write.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReferenceDataCache.class, MiastaService.class, HoteleService.class, TypyWycieczekService.class,
+        WycieczkiService.class, CenyService.class, MiastaWycieczekService.class, ListyHoteliService.class,
+        ListaNocyHoteliService.class})
+public class ReferenceDataCacheTest {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private MiastaService miastaService;
+
+    @Autowired
+    private HoteleService hoteleService;
+
+    @Autowired
+    private TypyWycieczekService typyWycieczekService;
+
+    @Autowired
+    private WycieczkiService wycieczkiService;
+
+    @Autowired
+    private CenyService cenyService;
+
+    @Autowired
+    private MiastaWycieczekService miastaWycieczekService;
+
+    @BeforeEach
+    void setUp() {
+        // Given: a city with a hotel, a priced trip type staying there one night, and a trip of the type
+        Miasta gdansk = miastaService.add(new Miasta("Gdansk"));
+        hoteleService.add(new Hotele("GDA001", "Hotel Gdansk", gdansk, "ul. Dluga 1", "gda@hotel.pl", "111"));
+
+        TypyWycieczek typ = new TypyWycieczek();
+        typ.setTyp("PM");
+        typ.setLiczba_nocy(1);
+        typyWycieczekService.add(typ);
+
+        Ceny ceny = new Ceny();
+        ceny.setTyp_wycieczki(typ);
+        ceny.setPok_1(new BigDecimal("1200"));
+        cenyService.add(ceny);
+
+        MiastaWycieczek noc = new MiastaWycieczek();
+        noc.setTypyWycieczek(typ);
+        noc.setMiasta(gdansk);
+        noc.setNumerNocy(1);
+        miastaWycieczekService.add(noc);
+
+        Wycieczki wycieczka = new Wycieczki();
+        wycieczka.setWycieczka("PM01");
+        wycieczka.setTypWycieczki(typ);
+        wycieczka.setPoczatek(LocalDate.of(2025, 6, 1));
+        wycieczka.setKoniec(LocalDate.of(2025, 6, 2));
+        wycieczka.setIlUczestinkow(0);
+        wycieczka.setWplyw(BigDecimal.ZERO);
+        wycieczkiService.add(wycieczka);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String entity : List.of("Wycieczki", "Ceny", "MiastaWycieczek", "TypyWycieczek", "Hotele", "Miasta")) {
+                em.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+        // the bulk deletes bypass the services, so the change is announced by hand
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Miasta.class)));
+    }
+
+    @Test
+    void testSnapshotIsNavigableAndShared() {
+        // When: the reference data is read from the cache
+        ReferenceDataCache.Snapshot snapshot = referenceDataCache.getSnapshot();
+
+        // Then: the associations are loaded and shared between the lists
+        assertEquals(1, snapshot.wycieczki().size());
+        TypyWycieczek typ = snapshot.typyWycieczek().get(0);
+        assertSame(typ, snapshot.wycieczki().get(0).getTypWycieczki());
+        assertEquals(0, new BigDecimal("1200").compareTo(typ.getCeny().getPok_1()));
+        assertSame(snapshot.miasta().get(0), typ.getMiastaWycieczek().get(0).getMiasta());
+        assertSame(snapshot.miasta().get(0), snapshot.hotele().get(0).getMiasto());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.miasta().add(new Miasta("Sopot")));
+    }
+
+    @Test
+    void testItineraryHotelsFromIndex() {
+        // When: the hotels of the itinerary of the trip type are looked up in the cache
+        TypyWycieczek typ = referenceDataCache.getTypyWycieczek().get(0);
+        Map<Miasta, List<Hotele>> hoteleMiast = referenceDataCache.getHoteleMiast(List.of(
+                typ.getMiastaWycieczek().get(0).getMiasta(), new Miasta("Hel")));
+
+        // Then: the hotels of the snapshot are returned, and an empty list for a city without hotels
+        assertSame(referenceDataCache.getHotele().get(0), hoteleMiast.get(new Miasta("Gdansk")).get(0));
+        assertEquals(List.of(), hoteleMiast.get(new Miasta("Hel")));
+    }
+
+    @Test
+    void testItineraryIsCompiledAgainAfterChanges() {
+        // Given: the one-night itinerary of the trip type
+        Itinerary jednaNoc = referenceDataCache.getItinerary("PM");
+        assertEquals(1, jednaNoc.getLiczbaNocy());
+        assertEquals("Gdansk", jednaNoc.getMiasto(1));
+
+        // When: a second night in another city is added
+        Miasta sopot = miastaService.add(new Miasta("Sopot"));
+        MiastaWycieczek noc = new MiastaWycieczek();
+        noc.setTypyWycieczek(typyWycieczekService.getById("PM"));
+        noc.setMiasta(sopot);
+        noc.setNumerNocy(2);
+        Integer id = miastaWycieczekService.add(noc).getId();
+
+        // Then: the new itinerary answers for both nights, the old one is unchanged
+        Itinerary dwieNoce = referenceDataCache.getItinerary("PM");
+        assertEquals(List.of("Gdansk", "Sopot"), dwieNoce.getMiasta());
+        assertEquals(id, dwieNoce.getMiastoWycieczkiId(2));
+        assertEquals(id, miastaWycieczekService.getReference(dwieNoce.getMiastoWycieczkiId(2)).getId());
+        assertEquals(LocalDate.of(2025, 6, 2), dwieNoce.getData(LocalDate.of(2025, 6, 1), 2));
+        assertFalse(jednaNoc.maNoc(2));
+        assertThrows(IllegalArgumentException.class, () -> jednaNoc.getMiasto(2));
+
+        // When: the trip type is deleted
+        typyWycieczekService.delete("PM");
+
+        // Then: it has no itinerary any more
+        assertThrows(NoSuchElementException.class, () -> referenceDataCache.getItinerary("PM"));
+    }
+
+    @Test
+    void testCommittedChangeSwapsSnapshot() {
+        // Given: the current snapshot
+        ReferenceDataCache.Snapshot before = referenceDataCache.getSnapshot();
+
+        // When: a city is added and another one is deleted
+        miastaService.add(new Miasta("Sopot"));
+        ReferenceDataCache.Snapshot added = referenceDataCache.getSnapshot();
+        miastaService.delete("Sopot");
+
+        // Then: every change produced a newer snapshot, and the old one was left as it was
+        assertTrue(added.version() > before.version());
+        assertEquals(List.of("Gdansk", "Sopot"), added.miasta().stream().map(Miasta::getMiasto).toList());
+        assertTrue(referenceDataCache.getVersion() > added.version());
+        assertEquals(List.of("Gdansk"), referenceDataCache.getMiasta().stream().map(Miasta::getMiasto).toList());
+        assertEquals(1, before.miasta().size());
+    }
+
+    @Test
+    void testRolledBackAndUnrelatedChangesKeepSnapshot() {
+        // Given: the current snapshot
+        ReferenceDataCache.Snapshot before = referenceDataCache.getSnapshot();
+
+        // When: a city is added in a transaction that is rolled back, and clients are reported as changed
+        transactionTemplate.executeWithoutResult(status -> {
+            miastaService.add(new Miasta("Sopot"));
+            status.setRollbackOnly();
+        });
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Klienci.class)));
+
+        // Then: the snapshot is still the same
+        assertEquals(before.version(), referenceDataCache.getVersion());
+        assertSame(before, referenceDataCache.getSnapshot());
+    }
+}
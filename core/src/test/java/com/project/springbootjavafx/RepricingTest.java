@@ -0,0 +1,173 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.services.EntitiesChangedEvent;
+import com.project.springbootjavafx.services.PricingEngine;
+import com.project.springbootjavafx.services.ReferenceDataCache;
+import com.project.springbootjavafx.services.RepricingService;
+import com.project.springbootjavafx.services.RepricingService.RepricingReport;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static com.project.springbootjavafx.models.PriceTable.*;
+import static com.project.springbootjavafx.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the clients of a trip type are repriced by one statement from the current prices of the type, and that
+ * the revenue of its trips is rebuilt.
+ *
+ * <p>
+ * The tests run without a surrounding transaction, because every repricing runs in its own transaction.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RepricingService.class, ReferenceDataCache.class, PricingEngine.class})
+public class RepricingTest {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RepricingService repricingService;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @BeforeEach
+    void setUp() {
+        // Given: trip PM01 of type PM with a client whose price is out of date, a client with the current price and a
+        // client of a room without a price, and trip GR01 of type GR with a client whose price is out of date
+        transactionTemplate.executeWithoutResult(status -> {
+            TypyWycieczek pm = cennik("PM", "1200", "1000", "900", null, 30, "150");
+            TypyWycieczek gr = cennik("GR", "2000", "1800", "1600", "1500", 50, "100");
+
+            Wycieczki pm01 = wycieczka(em, pm, "PM01");
+            Wycieczki gr01 = wycieczka(em, gr, "GR01");
+            klient(pm01, pokoj(em, pm01, "p2", 2), true, true, "0");
+            klient(pm01, pokoj(em, pm01, "p1", 1), false, false, "1200");
+            klient(pm01, pokoj(em, pm01, "p4", 4), false, false, "500");
+            klient(gr01, pokoj(em, gr01, "p2", 2), false, false, "1");
+        });
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Ceny.class)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String entity : List.of("Klienci", "Pokoje", "Wycieczki", "Ceny", "TypyWycieczek")) {
+                em.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+        // the bulk deletes bypass the services, so the change is announced by hand
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Ceny.class, Klienci.class, Wycieczki.class)));
+    }
+
+    @Test
+    void testDryRunReportsChangeWithoutWriting() {
+        // When: the clients of PM are repriced in a dry run
+        RepricingReport report = repricingService.reprice("PM", true);
+
+        // Then: the one out-of-date client and its change are reported, and nothing was written
+        assertEquals(1, report.klienci());
+        assertEquals(new Money(85000), report.roznica());
+        assertFalse(report.zastosowano());
+        assertEquals(0, BigDecimal.ZERO.compareTo(doZaplaty("PM01", 2)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(wplyw("PM01")));
+    }
+
+    @Test
+    void testRepricingUpdatesClientsAndRevenueOfTripType() {
+        // When: the clients of PM are repriced
+        RepricingReport report = repricingService.reprice("PM", false);
+
+        // Then: the client is quoted like the pricing engine does, the client without a price keeps its price, the
+        // revenue of the trip is rebuilt and the clients of GR are untouched
+        assertTrue(report.zastosowano());
+        assertEquals(1, report.klienci());
+        assertEquals(pricingEngine.quote("PM", 2, OPCJA_ULGA | OPCJA_ROWER), Money.of(doZaplaty("PM01", 2)));
+        assertEquals(0, new BigDecimal("500").compareTo(doZaplaty("PM01", 4)));
+        assertEquals(0, new BigDecimal("2550").compareTo(wplyw("PM01")));
+        assertEquals(0, BigDecimal.ONE.compareTo(doZaplaty("GR01", 2)));
+
+        // When: the clients of PM are repriced again
+        RepricingReport ponownie = repricingService.reprice("PM", false);
+
+        // Then: there is nothing to change
+        assertEquals(0, ponownie.klienci());
+        assertFalse(ponownie.zastosowano());
+    }
+
+    private BigDecimal doZaplaty(String wycieczka, int ilMiejsc) {
+        return em.createQuery("SELECT k.doZaplaty FROM Klienci k " +
+                        "WHERE k.wycieczka.wycieczka = :wycieczka AND k.pokoj.ilMiejsc = :ilMiejsc", BigDecimal.class)
+                .setParameter("wycieczka", wycieczka)
+                .setParameter("ilMiejsc", ilMiejsc)
+                .getSingleResult();
+    }
+
+    private BigDecimal wplyw(String wycieczka) {
+        return em.createQuery("SELECT w.wplyw FROM Wycieczki w WHERE w.wycieczka = :wycieczka", BigDecimal.class)
+                .setParameter("wycieczka", wycieczka)
+                .getSingleResult();
+    }
+
+    private TypyWycieczek cennik(String kod, String pok1, String pok2, String pok3, String pok4, int ulga,
+                                 String rower) {
+        TypyWycieczek typ = new TypyWycieczek();
+        typ.setTyp(kod);
+        typ.setLiczba_nocy(1);
+        em.persist(typ);
+
+        Ceny ceny = new Ceny();
+        ceny.setTyp_wycieczki(typ);
+        ceny.setPok_1(new BigDecimal(pok1));
+        ceny.setPok_2(new BigDecimal(pok2));
+        ceny.setPok_3(new BigDecimal(pok3));
+        ceny.setPok_4(pok4 == null ? null : new BigDecimal(pok4));
+        ceny.setUlga_dziecko(ulga);
+        ceny.setRower(new BigDecimal(rower));
+        em.persist(ceny);
+        return typ;
+    }
+
+    private void klient(Wycieczki wycieczka, Pokoje pokoj, boolean ulga, boolean rower, String doZaplaty) {
+        Klienci klient = new Klienci();
+        klient.setImie("Jan");
+        klient.setNazwisko("Kowalski");
+        klient.setWycieczka(wycieczka);
+        klient.setPokoj(pokoj);
+        klient.setTypPokoju(pokoj.getTypPokoju());
+        klient.setUlga(ulga);
+        klient.setRower(rower);
+        klient.setEBike(false);
+        klient.setNoclegPrzed(false);
+        klient.setNoclegPo(false);
+        klient.setHb(false);
+        klient.setDoZaplaty(new BigDecimal(doZaplaty));
+        em.persist(klient);
+    }
+}
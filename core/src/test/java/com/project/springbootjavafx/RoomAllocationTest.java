@@ -0,0 +1,180 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.services.EntitiesChangedEvent;
+import com.project.springbootjavafx.services.RoomAllocationService;
+import com.project.springbootjavafx.services.RoomAllocationService.AllocationReport;
+import com.project.springbootjavafx.services.RoomAllocationService.Grupa;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.project.springbootjavafx.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the allocation engine places parties of clients in the rooms of a trip by capacity, creating rooms
+ * where needed, with a fixed number of statements.
+ *
+ * <p>
+ * The tests run without a surrounding transaction, because the allocation commits its own transaction.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(RoomAllocationService.class)
+public class RoomAllocationTest {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RoomAllocationService roomAllocationService;
+
+    private Pokoje dwojka;
+
+    private Pokoje trojka;
+
+    @BeforeEach
+    void setUp() {
+        // Given: trip PM01 with a double room with one client and an empty triple room
+        transactionTemplate.executeWithoutResult(status -> {
+            TypyWycieczek typ = new TypyWycieczek();
+            typ.setTyp("PM");
+            typ.setLiczba_nocy(1);
+            em.persist(typ);
+
+            Wycieczki wycieczka = new Wycieczki();
+            wycieczka.setWycieczka("PM01");
+            wycieczka.setTypWycieczki(typ);
+            wycieczka.setPoczatek(LocalDate.of(2025, 6, 1));
+            wycieczka.setKoniec(LocalDate.of(2025, 6, 2));
+            wycieczka.setIlUczestinkow(0);
+            wycieczka.setWplyw(BigDecimal.ZERO);
+            em.persist(wycieczka);
+
+            dwojka = pokoj(em, wycieczka, "dbl", 2);
+            trojka = pokoj(em, wycieczka, "tpl", 3);
+            Klienci klient = klient("Stary");
+            klient.setWycieczka(wycieczka);
+            klient.setTypPokoju("dbl");
+            klient.setPokoj(dwojka);
+            em.persist(klient);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String entity : List.of("Klienci", "Pokoje", "Wycieczki", "TypyWycieczek")) {
+                em.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+        // the bulk deletes bypass the services, so the change is announced by hand
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Pokoje.class)));
+    }
+
+    @Test
+    void testPartiesFillRoomsBestFitDecreasing() {
+        // Given: a couple, a single and a group of five asking for double rooms, and a family of three asking for a
+        // triple room
+        Grupa para = Grupa.of("dbl", klient("Para1"), klient("Para2"));
+        Grupa samotny = Grupa.of("dbl", klient("Samotny"));
+        Grupa piatka = Grupa.of("dbl", klient("G1"), klient("G2"), klient("G3"), klient("G4"), klient("G5"));
+        Grupa rodzina = Grupa.of("tpl", klient("R1"), klient("R2"), klient("R3"));
+
+        // When: the parties are placed
+        AllocationReport report = roomAllocationService.przydziel("PM01", List.of(para, samotny, piatka, rodzina));
+
+        // Then: the family takes the empty triple room, the single takes the free place of the double room, and the
+        // couple and the group, cut into parts of two, fill four new double rooms
+        assertEquals(11, report.przydzieleni());
+        assertEquals(4, report.nowePokoje().size());
+        assertEquals(List.of(trojka.getId()), pokojeKlientow("R1", "R2", "R3"));
+        assertEquals(List.of(dwojka.getId()), pokojeKlientow("Samotny"));
+        List<Integer> nowe = report.nowePokoje().stream().map(Pokoje::getId).toList();
+        assertEquals(List.of(nowe.get(0)), pokojeKlientow("Para1", "Para2"));
+        assertEquals(List.of(nowe.get(1)), pokojeKlientow("G1", "G2"));
+        assertEquals(List.of(nowe.get(2)), pokojeKlientow("G3", "G4"));
+        assertEquals(List.of(nowe.get(3)), pokojeKlientow("G5"));
+        assertTrue(report.nowePokoje().stream().allMatch(pokoj -> pokoj.getIlMiejsc() == 2));
+    }
+
+    @Test
+    void testUnassignedClientsArePlacedWithFixedNumberOfStatements() {
+        // Given: sixty clients of the trip without a room, asking for double rooms
+        transactionTemplate.executeWithoutResult(status -> {
+            Wycieczki wycieczka = em.getReference(Wycieczki.class, "PM01");
+            for (int i = 0; i < 60; i++) {
+                Klienci klient = klient("K" + i);
+                klient.setWycieczka(wycieczka);
+                klient.setTypPokoju("dbl");
+                em.persist(klient);
+            }
+        });
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When: the clients without a room are placed
+        AllocationReport report = roomAllocationService.przydzielNieprzypisanych("PM01");
+
+        // Then: one fills the free place of the double room and the others fill thirty new rooms, with a few batched
+        // statements instead of one round trip per client
+        assertEquals(60, report.przydzieleni());
+        assertEquals(30, report.nowePokoje().size());
+        assertTrue(statistics.getPrepareStatementCount() <= 6, "statements: " + statistics.getPrepareStatementCount());
+        assertEquals(0, (long) em.createQuery("SELECT COUNT(k) FROM Klienci k WHERE k.pokoj IS NULL", Long.class)
+                .getSingleResult());
+    }
+
+    @Test
+    void testUnknownRoomTypeIsRejected() {
+        // Then: a party asking for an unknown room type places nobody
+        List<Grupa> grupy = new ArrayList<>(List.of(Grupa.of("dbl", klient("A")), Grupa.of("xyz", klient("B"))));
+        assertThrows(IllegalArgumentException.class, () -> roomAllocationService.przydziel("PM01", grupy));
+        assertEquals(1L, em.createQuery("SELECT COUNT(k) FROM Klienci k", Long.class).getSingleResult());
+    }
+
+    private List<Integer> pokojeKlientow(String... imiona) {
+        return em.createQuery("SELECT DISTINCT k.pokoj.id FROM Klienci k WHERE k.imie IN :imiona", Integer.class)
+                .setParameter("imiona", List.of(imiona))
+                .getResultList();
+    }
+
+    private static Klienci klient(String imie) {
+        Klienci klient = new Klienci();
+        klient.setImie(imie);
+        klient.setNazwisko("Kowalski");
+        klient.setDoZaplaty(new BigDecimal("800"));
+        return klient;
+    }
+}
@@ -0,0 +1,177 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.projections.PokojeDostepnoscRow;
+import com.project.springbootjavafx.services.EntitiesChangedEvent;
+import com.project.springbootjavafx.services.KlienciService;
+import com.project.springbootjavafx.services.PokojeService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.project.springbootjavafx.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the rooms with free places are read from the availability index, which is loaded with one query per
+ * trip and updated in place by committed client changes.
+ *
+ * <p>
+ * The tests run without a surrounding transaction, because the index is updated after the commit of a write.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({PokojeService.class, KlienciService.class})
+public class RoomAvailabilityTest {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PokojeService pokojeService;
+
+    @Autowired
+    private KlienciService klienciService;
+
+    private Statistics statistics;
+
+    private Wycieczki pm01;
+
+    private Pokoje dwojka;
+
+    private Pokoje jedynka;
+
+    @BeforeEach
+    void setUp() {
+        // Given: trip PM01 with a double and a single room, trip PM02 with a double room, and one client in the double
+        // room of PM01
+        transactionTemplate.executeWithoutResult(status -> {
+            TypyWycieczek typ = new TypyWycieczek();
+            typ.setTyp("PM");
+            typ.setLiczba_nocy(1);
+            em.persist(typ);
+
+            pm01 = wycieczka(em, typ, "PM01");
+            Wycieczki pm02 = wycieczka(em, typ, "PM02");
+            dwojka = pokoj(em, pm01, "dbl", 2);
+            jedynka = pokoj(em, pm01, "sgl", 1);
+            pokoj(em, pm02, "dbl", 2);
+            em.persist(klient(pm01, dwojka));
+        });
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String entity : List.of("Klienci", "Pokoje", "Wycieczki", "TypyWycieczek")) {
+                em.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+        // the bulk deletes bypass the services, so the change is announced by hand
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Pokoje.class)));
+    }
+
+    @Test
+    void testFreeRoomsOfTripAreLoadedOnce() {
+        // When: the free rooms of the trip are read twice
+        List<PokojeDostepnoscRow> dostepne = pokojeService.getDostepnePokoje(pm01);
+        Map<String, List<PokojeDostepnoscRow>> wgTypu = pokojeService.getDostepnePokojeWgTypu(pm01);
+
+        // Then: one query read the rooms of the trip only, grouped by room type
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(List.of(dwojka.getId(), jedynka.getId()), dostepne.stream().map(PokojeDostepnoscRow::id).toList());
+        assertEquals(1, dostepne.get(0).wolneMiejsca());
+        assertEquals(List.of("dbl", "sgl"), List.copyOf(wgTypu.keySet()));
+    }
+
+    @Test
+    void testClientChangesUpdateIndexInPlace() {
+        // Given: the loaded index
+        pokojeService.getDostepnePokoje(pm01);
+
+        // When: the single room is taken
+        Klienci klient = klienciService.add(klient(pm01, pokojeService.getReference(jedynka.getId())));
+        statistics.clear();
+
+        // Then: the room is no longer offered, without loading the index again
+        assertEquals(List.of(dwojka.getId()), ids(pokojeService.getDostepnePokoje(pm01)));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        // When: the client is deleted
+        klienciService.delete(klient.getId());
+        statistics.clear();
+
+        // Then: the room is offered again, still without loading the index
+        assertEquals(List.of(dwojka.getId(), jedynka.getId()), ids(pokojeService.getDostepnePokoje(pm01)));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testRolledBackAndRemoteChanges() {
+        // Given: the loaded index
+        pokojeService.getDostepnePokoje(pm01);
+
+        // When: the single room is taken in a transaction that is rolled back
+        transactionTemplate.executeWithoutResult(status -> {
+            klienciService.add(klient(pm01, em.getReference(Pokoje.class, jedynka.getId())));
+            status.setRollbackOnly();
+        });
+
+        // Then: the room is still offered
+        assertEquals(List.of(dwojka.getId(), jedynka.getId()), ids(pokojeService.getDostepnePokoje(pm01)));
+
+        // When: another instance reports changed clients
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Klienci.class), true));
+        statistics.clear();
+        pokojeService.getDostepnePokoje(pm01);
+
+        // Then: the index of the trip is loaded again
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private static List<Integer> ids(List<PokojeDostepnoscRow> pokoje) {
+        return pokoje.stream().map(PokojeDostepnoscRow::id).toList();
+    }
+
+    private static Klienci klient(Wycieczki wycieczka, Pokoje pokoj) {
+        Klienci klient = new Klienci();
+        klient.setImie("Jan");
+        klient.setNazwisko("Kowalski");
+        klient.setWycieczka(wycieczka);
+        klient.setPokoj(pokoj);
+        klient.setTypPokoju("dbl");
+        klient.setDoZaplaty(new BigDecimal("800"));
+        return klient;
+    }
+}
@@ -0,0 +1,151 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.services.KlienciService;
+import com.project.springbootjavafx.services.ListaNocyHoteliService;
+import com.project.springbootjavafx.services.ListyHoteliService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the streaming reads hand the rows over in chunks and detach every chunk once it is processed.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({KlienciService.class, ListyHoteliService.class, ListaNocyHoteliService.class})
+public class StreamingReadTest {
+
+    private static final LocalDate OD = LocalDate.of(2025, 4, 1);
+
+    private static final LocalDate DO = LocalDate.of(2025, 10, 31);
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private KlienciService klienciService;
+
+    @Autowired
+    private ListyHoteliService listyHoteliService;
+
+    @BeforeEach
+    void setUp() {
+        // Given: a summer trip with five clients and a hotel list for their room, and a winter trip with one client
+        Miasta gdansk = em.persist(new Miasta("Gdansk"));
+        Hotele hotel = em.persist(new Hotele("GDA001", "Hotel Gdansk", gdansk, "ul. Dluga 1", "gda@hotel.pl", "111"));
+
+        TypyWycieczek typ = new TypyWycieczek();
+        typ.setTyp("PM");
+        typ.setLiczba_nocy(2);
+        em.persist(typ);
+
+        Wycieczki lato = wycieczka(typ, "PM01", LocalDate.of(2025, 6, 1));
+        Wycieczki zima = wycieczka(typ, "PM02", LocalDate.of(2026, 1, 10));
+        Pokoje pokojLato = pokoj(lato);
+        Pokoje pokojZima = pokoj(zima);
+        for (int i = 0; i < 5; i++) {
+            klient(lato, pokojLato, "Jan" + i);
+        }
+        klient(zima, pokojZima, "Anna");
+
+        for (int noc = 2; noc >= 1; noc--) {
+            MiastaWycieczek miastoWycieczki = new MiastaWycieczek();
+            miastoWycieczki.setTypyWycieczek(typ);
+            miastoWycieczki.setMiasta(gdansk);
+            miastoWycieczki.setNumerNocy(noc);
+            em.persist(miastoWycieczki);
+
+            ListyHoteli listaHoteli = new ListyHoteli();
+            listaHoteli.setPokoj(pokojLato);
+            listaHoteli.setMiastoWycieczki(miastoWycieczki);
+            listaHoteli.setHotel(hotel);
+            em.persist(listaHoteli);
+        }
+        em.flush();
+    }
+
+    @Test
+    void testSeasonClientsInDetachedChunks() {
+        // When: the clients of the summer season are processed two at a time
+        List<Integer> sizes = new ArrayList<>();
+        List<Klienci> processed = new ArrayList<>();
+        klienciService.forEachChunk(OD, DO, 2, chunk -> {
+            sizes.add(chunk.size());
+            chunk.forEach(klient -> {
+                // the chunk is still managed while it is processed
+                assertTrue(em.getEntityManager().contains(klient));
+                assertEquals("PM01", klient.getWycieczka().getWycieczka());
+            });
+            processed.addAll(chunk);
+        });
+
+        // Then: only the summer clients are read, in chunks, and none of them is managed any more
+        assertEquals(List.of(2, 2, 1), sizes);
+        processed.forEach(klient -> assertFalse(em.getEntityManager().contains(klient)));
+    }
+
+    @Test
+    void testSeasonHotelListsOrderedByNight() {
+        // When: the hotel lists of the summer season are processed
+        List<Integer> noce = new ArrayList<>();
+        listyHoteliService.forEachChunk(OD, DO, 10,
+                chunk -> chunk.forEach(lista -> noce.add(lista.getMiastoWycieczki().getNumerNocy())));
+
+        // Then: both nights of the room are read in order
+        assertEquals(List.of(1, 2), noce);
+    }
+
+    @Test
+    void testAllRecordsInChunks() {
+        // When: all clients are processed four at a time
+        List<Integer> sizes = new ArrayList<>();
+        klienciService.forEachChunk(4, chunk -> sizes.add(chunk.size()));
+
+        // Then: the clients of both seasons are read
+        assertEquals(List.of(4, 2), sizes);
+        assertThrows(IllegalArgumentException.class, () -> klienciService.forEachChunk(0, chunk -> { }));
+    }
+
+    private Wycieczki wycieczka(TypyWycieczek typ, String kod, LocalDate poczatek) {
+        Wycieczki wycieczka = new Wycieczki();
+        wycieczka.setWycieczka(kod);
+        wycieczka.setTypWycieczki(typ);
+        wycieczka.setPoczatek(poczatek);
+        wycieczka.setKoniec(poczatek.plusDays(2));
+        wycieczka.setIlUczestinkow(0);
+        wycieczka.setWplyw(BigDecimal.ZERO);
+        return em.persist(wycieczka);
+    }
+
+    private Pokoje pokoj(Wycieczki wycieczka) {
+        Pokoje pokoj = new Pokoje();
+        pokoj.setWycieczka(wycieczka);
+        pokoj.setTypPokoju("dbl");
+        pokoj.setIlMiejsc(6);
+        pokoj.setListaHoteli(false);
+        return em.persist(pokoj);
+    }
+
+    private void klient(Wycieczki wycieczka, Pokoje pokoj, String imie) {
+        Klienci klient = new Klienci();
+        klient.setImie(imie);
+        klient.setNazwisko("Kowalski");
+        klient.setWycieczka(wycieczka);
+        klient.setPokoj(pokoj);
+        klient.setTypPokoju("dbl");
+        klient.setDoZaplaty(new BigDecimal("800"));
+        em.persist(klient);
+    }
+}
@@ -0,0 +1,57 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.Pokoje;
+import com.project.springbootjavafx.models.TypyWycieczek;
+import com.project.springbootjavafx.models.Wycieczki;
+import jakarta.persistence.EntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Factories of the records the slice tests set up again and again, persisted with the entity manager of the test.
+ */
+final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    /**
+     * Persists a one-night trip of the given type starting on 2025-06-01, without participants or income.
+     *
+     * @param em  the entity manager of the test
+     * @param typ the trip type
+     * @param kod the code of the trip
+     * @return the persisted trip
+     */
+    static Wycieczki wycieczka(EntityManager em, TypyWycieczek typ, String kod) {
+        Wycieczki wycieczka = new Wycieczki();
+        wycieczka.setWycieczka(kod);
+        wycieczka.setTypWycieczki(typ);
+        wycieczka.setPoczatek(LocalDate.of(2025, 6, 1));
+        wycieczka.setKoniec(LocalDate.of(2025, 6, 2));
+        wycieczka.setIlUczestinkow(0);
+        wycieczka.setWplyw(BigDecimal.ZERO);
+        em.persist(wycieczka);
+        return wycieczka;
+    }
+
+    /**
+     * Persists a room of a trip without a hotel list.
+     *
+     * @param em        the entity manager of the test
+     * @param wycieczka the trip of the room
+     * @param typ       the room type, for example {@code "dbl"}
+     * @param ilMiejsc  the number of places
+     * @return the persisted room
+     */
+    static Pokoje pokoj(EntityManager em, Wycieczki wycieczka, String typ, int ilMiejsc) {
+        Pokoje pokoj = new Pokoje();
+        pokoj.setWycieczka(wycieczka);
+        pokoj.setTypPokoju(typ);
+        pokoj.setIlMiejsc(ilMiejsc);
+        pokoj.setListaHoteli(false);
+        em.persist(pokoj);
+        return pokoj;
+    }
+}
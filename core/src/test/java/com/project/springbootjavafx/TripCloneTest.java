@@ -0,0 +1,240 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.exceptions.DuplicatedEntityExceptionn;
+import com.project.springbootjavafx.models.*;
+import com.project.springbootjavafx.services.EntitiesChangedEvent;
+import com.project.springbootjavafx.services.ListaNocyHoteliService;
+import com.project.springbootjavafx.services.ListyHoteliService;
+import com.project.springbootjavafx.services.WycieczkiService;
+import com.project.springbootjavafx.services.WycieczkiService.CloneOptions;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static com.project.springbootjavafx.TestFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a trip is cloned with its rooms and hotel lists, alone or as a weekly series, with a fixed number of
+ * statements.
+ *
+ * <p>
+ * The tests run without a surrounding transaction, because the clone commits its own transaction.
+ * </p>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({WycieczkiService.class, ListyHoteliService.class, ListaNocyHoteliService.class})
+public class TripCloneTest {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private WycieczkiService wycieczkiService;
+
+    @Autowired
+    private ListyHoteliService listyHoteliService;
+
+    @BeforeEach
+    void setUp() {
+        // Given: a two-night trip starting on 2025-06-01 with a double room with a client and an empty triple room,
+        // Gdansk for the first night and Sopot for the second
+        transactionTemplate.executeWithoutResult(status -> {
+            Miasta gdansk = new Miasta("Gdansk");
+            Miasta sopot = new Miasta("Sopot");
+            em.persist(gdansk);
+            em.persist(sopot);
+            em.persist(new Hotele("GDA001", "Hotel Gdansk", gdansk, "ul. Dluga 1", "gda@hotel.pl", "111"));
+            em.persist(new Hotele("GDA002", "Hostel Gdansk", gdansk, "ul. Mariacka 2", "gda2@hotel.pl", "112"));
+            em.persist(new Hotele("SOP001", "Hotel Sopot", sopot, "ul. Morska 1", "sop@hotel.pl", "222"));
+
+            TypyWycieczek typ = new TypyWycieczek();
+            typ.setTyp("PM");
+            typ.setLiczba_nocy(2);
+            em.persist(typ);
+
+            int noc = 1;
+            for (Miasta miasto : List.of(gdansk, sopot)) {
+                MiastaWycieczek miastoWycieczki = new MiastaWycieczek();
+                miastoWycieczki.setTypyWycieczek(typ);
+                miastoWycieczki.setMiasta(miasto);
+                miastoWycieczki.setNumerNocy(noc++);
+                em.persist(miastoWycieczki);
+            }
+
+            Wycieczki wycieczka = new Wycieczki();
+            wycieczka.setWycieczka("PM01");
+            wycieczka.setTypWycieczki(typ);
+            wycieczka.setPoczatek(LocalDate.of(2025, 6, 1));
+            wycieczka.setKoniec(LocalDate.of(2025, 6, 3));
+            wycieczka.setIlUczestinkow(1);
+            wycieczka.setWplyw(new BigDecimal("800"));
+            em.persist(wycieczka);
+
+            Pokoje dwojka = pokoj(em, wycieczka, "dbl", 2);
+            pokoj(em, wycieczka, "tpl", 3);
+            Klienci klient = new Klienci();
+            klient.setImie("Jan");
+            klient.setNazwisko("Kowalski");
+            klient.setWycieczka(wycieczka);
+            klient.setTypPokoju("dbl");
+            klient.setPokoj(dwojka);
+            klient.setDoZaplaty(new BigDecimal("800"));
+            em.persist(klient);
+        });
+        // the double room sleeps in the hostel in Gdansk, the triple room in the hotel
+        List<Integer> pokoje = pokojeWycieczki("PM01");
+        listyHoteliService.przypiszHotele("PM01", Map.of(1, "GDA002", 2, "SOP001"), List.of(pokoje.get(0)), false);
+        listyHoteliService.przypiszHotele("PM01", Map.of(1, "GDA001", 2, "SOP001"), List.of(pokoje.get(1)), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String entity : List.of("ListaNocyHoteli", "ListyHoteli", "Klienci", "Pokoje", "Wycieczki",
+                    "MiastaWycieczek", "TypyWycieczek", "Hotele", "Miasta")) {
+                em.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+        // the bulk deletes bypass the services, so the change is announced by hand
+        eventPublisher.publishEvent(new EntitiesChangedEvent(Set.of(Wycieczki.class, Pokoje.class)));
+    }
+
+    @Test
+    void testCloneCopiesRoomsAndHotelListsWithoutClients() {
+        // When: the trip is cloned with its hotel lists to start a week later
+        Wycieczki kopia = wycieczkiService.cloneTrip("PM01", "PM02", LocalDate.of(2025, 6, 8),
+                CloneOptions.POKOJE_I_LISTY_HOTELI);
+
+        // Then: the copy lasts as long, has no participants, and its rooms keep the types and hotels of the originals
+        assertEquals(LocalDate.of(2025, 6, 10), kopia.getKoniec());
+        Wycieczki zapisana = em.find(Wycieczki.class, "PM02");
+        assertEquals("PM", zapisana.getTypWycieczki().getTyp());
+        assertEquals(0, zapisana.getIlUczestinkow());
+        List<Integer> pokoje = pokojeWycieczki("PM02");
+        assertEquals(2, pokoje.size());
+        assertEquals("dbl", em.find(Pokoje.class, pokoje.get(0)).getTypPokoju());
+        assertEquals("tpl", em.find(Pokoje.class, pokoje.get(1)).getTypPokoju());
+        assertEquals(List.of("GDA002", "SOP001"), hotele(pokoje.get(0)));
+        assertEquals(List.of("GDA001", "SOP001"), hotele(pokoje.get(1)));
+        assertTrue(em.find(Pokoje.class, pokoje.get(0)).getListaHoteli());
+        assertEquals(0L, (long) em.createQuery("SELECT COUNT(k) FROM Klienci k WHERE k.wycieczka.wycieczka = 'PM02'",
+                Long.class).getSingleResult());
+        assertEquals(List.of(LocalDate.of(2025, 6, 8), LocalDate.of(2025, 6, 9)),
+                em.createQuery("SELECT l.data FROM ListaNocyHoteli l WHERE l.pokojId = :pokoj ORDER BY l.noc",
+                                LocalDate.class)
+                        .setParameter("pokoj", pokoje.get(0))
+                        .getResultList());
+
+        // When: the trip is cloned again without its hotel lists
+        wycieczkiService.cloneTrip("PM01", "PM03", LocalDate.of(2025, 6, 15), CloneOptions.POKOJE);
+
+        // Then: the rooms of the copy have no hotel list
+        List<Integer> bezList = pokojeWycieczki("PM03");
+        assertEquals(2, bezList.size());
+        assertEquals(List.of(), hotele(bezList.get(0)));
+        assertFalse(em.find(Pokoje.class, bezList.get(0)).getListaHoteli());
+    }
+
+    @Test
+    void testSeriesOfDeparturesIsClonedWithFixedNumberOfStatements() {
+        // Given: thirty codes of weekly departures
+        List<String> kody = IntStream.rangeClosed(1, 30).mapToObj(i -> String.format("S%03d", i)).toList();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When: the series is cloned with the hotel lists
+        List<Wycieczki> seria = wycieczkiService.cloneSeries("PM01", kody, LocalDate.of(2025, 6, 8),
+                CloneOptions.POKOJE_I_LISTY_HOTELI);
+
+        // Then: every departure starts a week after the previous one and has both rooms with their hotels, with the
+        // same statements whatever the number of departures
+        assertTrue(statistics.getPrepareStatementCount() <= 12, "statements: " + statistics.getPrepareStatementCount());
+        assertEquals(30, seria.size());
+        assertEquals(LocalDate.of(2025, 6, 15), seria.get(1).getPoczatek());
+        assertEquals(LocalDate.of(2025, 12, 30), seria.get(29).getKoniec());
+        assertEquals(60, pokojeWycieczki(kody).size());
+        assertEquals(120L, (long) em.createQuery("SELECT COUNT(l) FROM ListyHoteli l " +
+                "WHERE l.pokoj.wycieczka.wycieczka IN :kody", Long.class).setParameter("kody", kody).getSingleResult());
+        assertEquals(List.of("GDA002", "SOP001"), hotele(pokojeWycieczki(List.of("S030")).get(0)));
+    }
+
+    @Test
+    void testExistingCodeRollsBackTheSeries() {
+        // Then: a series reusing the code of the copied trip creates no trip and no room
+        assertThrows(DuplicatedEntityExceptionn.class, () -> wycieczkiService.cloneSeries("PM01",
+                List.of("PM02", "PM01"), LocalDate.of(2025, 6, 8), CloneOptions.POKOJE));
+        assertThrows(IllegalArgumentException.class, () -> wycieczkiService.cloneTrip("XX99", "PM02",
+                LocalDate.of(2025, 6, 8), CloneOptions.POKOJE));
+        assertNull(em.find(Wycieczki.class, "PM02"));
+        assertEquals(2, (long) em.createQuery("SELECT COUNT(p) FROM Pokoje p", Long.class).getSingleResult());
+    }
+
+    @Test
+    void testTripWithoutDatesIsNotCloned() {
+        // Given: a trip of the type without dates
+        transactionTemplate.executeWithoutResult(status -> {
+            Wycieczki bezDat = new Wycieczki();
+            bezDat.setWycieczka("PM00");
+            bezDat.setTypWycieczki(em.find(TypyWycieczek.class, "PM"));
+            bezDat.setIlUczestinkow(0);
+            bezDat.setWplyw(BigDecimal.ZERO);
+            em.persist(bezDat);
+        });
+
+        // Then: it cannot be copied, and no trip is created
+        IllegalArgumentException blad = assertThrows(IllegalArgumentException.class,
+                () -> wycieczkiService.cloneTrip("PM00", "PM02", LocalDate.of(2025, 6, 8), CloneOptions.POKOJE));
+        assertEquals("Wycieczka bez dat: PM00", blad.getMessage());
+        assertNull(em.find(Wycieczki.class, "PM02"));
+    }
+
+    private List<Integer> pokojeWycieczki(String wycieczka) {
+        return pokojeWycieczki(List.of(wycieczka));
+    }
+
+    private List<Integer> pokojeWycieczki(List<String> wycieczki) {
+        return em.createQuery("SELECT p.id FROM Pokoje p WHERE p.wycieczka.wycieczka IN :wycieczki ORDER BY p.id",
+                        Integer.class)
+                .setParameter("wycieczki", wycieczki)
+                .getResultList();
+    }
+
+    private List<String> hotele(Integer pokoj) {
+        return em.createQuery("SELECT l.hotel.kod FROM ListyHoteli l WHERE l.pokoj.id = :pokoj " +
+                        "ORDER BY l.miastoWycieczki.numerNocy", String.class)
+                .setParameter("pokoj", pokoj)
+                .getResultList();
+    }
+}
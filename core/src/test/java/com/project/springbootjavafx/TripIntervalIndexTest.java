@@ -0,0 +1,67 @@
+package com.project.springbootjavafx;
+
+import com.project.springbootjavafx.models.TripIntervalIndex;
+import com.project.springbootjavafx.models.Wycieczki;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the overlap queries of {@link TripIntervalIndex}.
+ */
+public class TripIntervalIndexTest {
+
+    private static final LocalDate SEZON = LocalDate.of(2025, 1, 1);
+
+    @Test
+    void testOverlapsIncludeBothEnds() {
+        // Given: a long trip in June and two short trips at its edges
+        TripIntervalIndex indeks = TripIntervalIndex.compile(List.of(
+                wycieczka("LONG", 151, 180), wycieczka("PM01", 140, 151), wycieczka("PM02", 181, 185)));
+
+        // Then: a trip ending on the first day of the period overlaps it, and the trip starting after it does not
+        assertEquals(List.of("PM01", "LONG"), indeks.nachodzace(SEZON.plusDays(151), SEZON.plusDays(151)));
+        assertEquals(List.of("LONG"), indeks.nachodzace(SEZON.plusDays(170), SEZON.plusDays(180)));
+        assertEquals(List.of(), indeks.nachodzace(SEZON.plusDays(200), SEZON.plusDays(210)));
+        assertEquals(SEZON.plusDays(151), indeks.getPoczatek("LONG"));
+        assertThrows(IllegalArgumentException.class, () -> indeks.getKoniec("XX01"));
+    }
+
+    @Test
+    void testOverlapsMatchScanOfAllTrips() {
+        // Given: two thousand trips of random dates and lengths over a year
+        Random random = new Random(7);
+        List<Wycieczki> wycieczki = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int poczatek = random.nextInt(365);
+            wycieczki.add(wycieczka("W" + i, poczatek, poczatek + 1 + random.nextInt(i % 50 == 0 ? 60 : 10)));
+        }
+        TripIntervalIndex indeks = TripIntervalIndex.compile(wycieczki);
+
+        // Then: every period finds the same trips as a scan of all trips, ordered by their first day
+        for (int i = 0; i < 200; i++) {
+            LocalDate od = SEZON.plusDays(random.nextInt(380));
+            LocalDate do_ = od.plusDays(random.nextInt(14));
+            List<String> oczekiwane = wycieczki.stream()
+                    .filter(w -> !w.getKoniec().isBefore(od) && !w.getPoczatek().isAfter(do_))
+                    .sorted(Comparator.comparing(Wycieczki::getPoczatek).thenComparing(Wycieczki::getWycieczka))
+                    .map(Wycieczki::getWycieczka)
+                    .toList();
+            assertEquals(oczekiwane, indeks.nachodzace(od, do_));
+        }
+    }
+
+    private static Wycieczki wycieczka(String kod, int poczatek, int koniec) {
+        Wycieczki wycieczka = new Wycieczki();
+        wycieczka.setWycieczka(kod);
+        wycieczka.setPoczatek(SEZON.plusDays(poczatek));
+        wycieczka.setKoniec(SEZON.plusDays(koniec));
+        return wycieczka;
+    }
+}
@@ -0,0 +1,136 @@
+package com.project.springbootjavafx.benchmarks;
+
+import com.project.springbootjavafx.models.Ceny;
+import com.project.springbootjavafx.models.Money;
+import com.project.springbootjavafx.models.PriceTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.project.springbootjavafx.models.PriceTable.*;
+
+/**
+ * Compares quoting a batch of clients and summing their prices on {@code BigDecimal}, as the client dialog used to do
+ * from the {@link Ceny} entity, with the same work on {@code long} grosze through {@link PriceTable} and
+ * {@link Money}.
+ *
+ * <p>
+ * Run with {@code mvn -pl core -Pbenchmark test-compile exec:exec}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    @Param({"10000"})
+    private int klienci;
+
+    private Ceny ceny;
+
+    private PriceTable cennik;
+
+    private int[] ilMiejsc;
+
+    private int[] opcje;
+
+    private long[] grosze;
+
+    private BigDecimal[] kwoty;
+
+    @Setup
+    public void setUp() {
+        ceny = new Ceny();
+        ceny.setPok_1(new BigDecimal("1200.00"));
+        ceny.setPok_2(new BigDecimal("1000.00"));
+        ceny.setPok_3(new BigDecimal("900.00"));
+        ceny.setPok_4(new BigDecimal("850.00"));
+        ceny.setUlga_dziecko(30);
+        ceny.setRower(new BigDecimal("150.00"));
+        ceny.setE_bike(new BigDecimal("250.50"));
+        ceny.setDodatkowa_noc(new BigDecimal("200.00"));
+        ceny.setHb(new BigDecimal("99.99"));
+        cennik = PriceTable.compile("PM", ceny);
+
+        Random random = new Random(42);
+        ilMiejsc = new int[klienci];
+        opcje = new int[klienci];
+        grosze = new long[klienci];
+        kwoty = new BigDecimal[klienci];
+        for (int i = 0; i < klienci; i++) {
+            ilMiejsc[i] = 1 + random.nextInt(MAX_MIEJSC);
+            opcje[i] = random.nextInt(OPCJA_HB << 1);
+            grosze[i] = cennik.quote(ilMiejsc[i], opcje[i]);
+            kwoty[i] = Money.zlote(grosze[i]);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal quoteBigDecimal() {
+        BigDecimal suma = BigDecimal.ZERO;
+        for (int i = 0; i < klienci; i++) {
+            suma = suma.add(quoteBigDecimal(ilMiejsc[i], opcje[i]));
+        }
+        return suma;
+    }
+
+    @Benchmark
+    public Money quoteMoney() {
+        long[] wyceny = new long[klienci];
+        for (int i = 0; i < klienci; i++) {
+            wyceny[i] = cennik.quote(ilMiejsc[i], opcje[i]);
+        }
+        return Money.sum(wyceny);
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        BigDecimal suma = BigDecimal.ZERO;
+        for (BigDecimal kwota : kwoty) {
+            suma = suma.add(kwota);
+        }
+        return suma;
+    }
+
+    @Benchmark
+    public Money sumMoney() {
+        return Money.sum(grosze);
+    }
+
+    /**
+     * Quotes one client the way the client dialog did before {@code PricingEngine}, with the discount sign fixed.
+     */
+    private BigDecimal quoteBigDecimal(int ilMiejsc, int opcje) {
+        BigDecimal cena = switch (ilMiejsc) {
+            case 1 -> ceny.getPok_1();
+            case 2 -> ceny.getPok_2();
+            case 3 -> ceny.getPok_3();
+            default -> ceny.getPok_4();
+        };
+        if ((opcje & OPCJA_ULGA) != 0) {
+            Double val = cena.doubleValue() * (100 - ceny.getUlga_dziecko()) / 100.0;
+            cena = BigDecimal.valueOf(val);
+        }
+        if ((opcje & OPCJA_ROWER) != 0) {
+            cena = cena.add(ceny.getRower());
+        }
+        if ((opcje & OPCJA_E_BIKE) != 0) {
+            cena = cena.add(ceny.getE_bike());
+        }
+        if ((opcje & OPCJA_NOCLEG_PRZED) != 0) {
+            cena = cena.add(ceny.getDodatkowa_noc());
+        }
+        if ((opcje & OPCJA_NOCLEG_PO) != 0) {
+            cena = cena.add(ceny.getDodatkowa_noc());
+        }
+        if ((opcje & OPCJA_HB) != 0) {
+            cena = cena.add(ceny.getHb());
+        }
+        return cena;
+    }
+}
@@ -0,0 +1,46 @@
+-- Dane dla QueryPlanTest: tyle wierszy, aby planista wybieral indeksy zamiast przegladania calych tabel.
+
+INSERT INTO typy_wycieczek (typ, liczba_nocy)
+SELECT lpad(to_hex(i), 3, '0'), 5
+FROM generate_series(1, 500) AS i;
+
+INSERT INTO ceny (id, typ_wycieczki, pok_1, pok_2, pok_3, pok_4, ulga_dziecko)
+SELECT i, lpad(to_hex(i), 3, '0'), 1200, 900, 800, 750, 20
+FROM generate_series(1, 500) AS i;
+
+INSERT INTO miasta (miasto)
+SELECT 'Miasto ' || i
+FROM generate_series(1, 2000) AS i;
+
+INSERT INTO miasta_wycieczek (id, typ_wycieczki, miasto, nr_nocy)
+SELECT (t - 1) * 5 + n, lpad(to_hex(t), 3, '0'), 'Miasto ' || ((t * 7 + n) % 2000 + 1), n
+FROM generate_series(1, 500) AS t, generate_series(1, 5) AS n;
+
+INSERT INTO wycieczki (wycieczka, typ_wycieczki, poczatek, koniec, il_uczestnikow, wplyw)
+SELECT 'W' || lpad(i::text, 4, '0'), lpad(to_hex(i % 500 + 1), 3, '0'),
+       DATE '2025-01-01' + i % 300, DATE '2025-01-06' + i % 300, 0, 0
+FROM generate_series(1, 5000) AS i;
+
+INSERT INTO hotele (kod, nazwa, miasto, adres, mail, nr_tel)
+SELECT 'H' || lpad(i::text, 5, '0'), 'Hotel ' || i, 'Miasto ' || (i % 2000 + 1), 'ul. Dluga ' || i,
+       'hotel' || i || '@hotel.pl', '123456789'
+FROM generate_series(1, 10000) AS i;
+
+INSERT INTO pokoje (id, wycieczka, typ_pokoju, il_klientow, il_miejsc, czy_lista_hoteli)
+SELECT i, 'W' || lpad((i % 5000 + 1)::text, 4, '0'), 'dbl', 0, 2, i % 10 = 0
+FROM generate_series(1, 20000) AS i;
+
+INSERT INTO klienci (id, imie, nazwisko, wycieczka, typ_pokoju, pokoj, do_zaplaty)
+SELECT i, 'Jan', 'Kowalski ' || i, 'W' || lpad(((i % 20000 + 1) % 5000 + 1)::text, 4, '0'), 'dbl',
+       i % 20000 + 1, 900
+FROM generate_series(1, 40000) AS i;
+
+INSERT INTO listy_hoteli (pokoj, miasto_wycieczki, hotel)
+SELECT i, i % 2500 + 1, 'H' || lpad((i % 10000 + 1)::text, 5, '0')
+FROM generate_series(1, 20000) AS i;
+
+INSERT INTO lista_nocy_hoteli (pokoj_id, noc, data, miasto, hotel)
+SELECT i, 1, DATE '2025-01-01' + i % 300, 'Miasto ' || (i % 2000 + 1), 'Hotel ' || i
+FROM generate_series(1, 20000) AS i;
+
+ANALYZE;